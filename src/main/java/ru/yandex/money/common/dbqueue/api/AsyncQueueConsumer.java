@@ -0,0 +1,46 @@
+package ru.yandex.money.common.dbqueue.api;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Task processor for the queue which processes tasks asynchronously.
+ * <p>
+ * A queue thread does not wait for the task completion, so a handful of threads
+ * keeps many tasks in flight. The number of tasks in flight is limited by
+ * {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getMaxInFlightTasks()},
+ * which must be positive for asynchronous consumers.
+ * The result of the task is applied in a dedicated thread pool of the queue,
+ * so the thread, which completes the returned stage, is not blocked by database calls.
+ * <p>
+ * Applies to {@link ru.yandex.money.common.dbqueue.settings.ProcessingMode#SEPARATE_TRANSACTIONS}
+ * and {@link ru.yandex.money.common.dbqueue.settings.ProcessingMode#USE_EXTERNAL_EXECUTOR} modes,
+ * {@link #getExecutor()} is not used.
+ *
+ * @param <T> The type of the payload in the task
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public interface AsyncQueueConsumer<T> extends QueueConsumer<T> {
+
+    /**
+     * Start processing of the task from the queue
+     *
+     * @param task A typed task for processing
+     * @return A stage, which is completed with the result of task processing
+     */
+    @Nonnull
+    CompletionStage<TaskExecutionResult> executeAsync(@Nonnull Task<T> task);
+
+    /**
+     * Process the task from the queue and wait for the result
+     *
+     * @param task A typed task for processing
+     * @return A result of task processing
+     */
+    @Nonnull
+    @Override
+    default TaskExecutionResult execute(@Nonnull Task<T> task) {
+        return executeAsync(task).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.yandex.money.common.dbqueue.api;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Task processor for the queue which handles picked tasks in batches.
+ * <p>
+ * Batch size is defined by {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getBatchSize()}.
+ * All tasks picked in a single database round trip are passed to {@link #executeBatch(List)} at once.
+ *
+ * @param <T> The type of the payload in the task
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public interface BatchQueueConsumer<T> extends QueueConsumer<T> {
+
+    /**
+     * Process the batch of tasks from the queue
+     *
+     * @param tasks Typed tasks for processing
+     * @return Results of task processing, in the same order and of the same size as the given tasks
+     */
+    @Nonnull
+    List<TaskExecutionResult> executeBatch(@Nonnull List<Task<T>> tasks);
+
+    /**
+     * Process the task from the queue as a batch of a single task
+     *
+     * @param task A typed task for processing
+     * @return A result of task processing
+     */
+    @Nonnull
+    @Override
+    default TaskExecutionResult execute(@Nonnull Task<T> task) {
+        return executeBatch(Collections.singletonList(task)).get(0);
+    }
+}
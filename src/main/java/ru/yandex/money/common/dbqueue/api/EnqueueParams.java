@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 import static java.util.Objects.requireNonNull;
 
@@ -22,6 +23,11 @@ public final class EnqueueParams<T> {
     private T payload;
     @Nonnull
     private Duration executionDelay = Duration.ZERO;
+    private int priority;
+    @Nullable
+    private String orderingKey;
+    @Nullable
+    private String dedupKey;
     @Nonnull
     private final Map<String, String> extData = new LinkedHashMap<>();
 
@@ -62,6 +68,53 @@ public final class EnqueueParams<T> {
         return this;
     }
 
+    /**
+     * Set the priority of the task.
+     * Among the tasks ready for processing, the tasks with greater priority are picked first.
+     * Applies only when {@link ru.yandex.money.common.dbqueue.config.QueueTableSchema#getPriorityField()}
+     * is specified.
+     *
+     * @param priority Task priority, 0 if not set.
+     * @return A reference to the same object with priority set.
+     */
+    @Nonnull
+    public EnqueueParams<T> withPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Set the ordering key of the task.
+     * Tasks with the same key are processed one at a time in order of enqueueing,
+     * regardless of their priority.
+     * Applies only when {@link ru.yandex.money.common.dbqueue.config.QueueTableSchema#getOrderingKeyField()}
+     * is specified.
+     *
+     * @param orderingKey Ordering key, tasks without a key are processed in any order.
+     * @return A reference to the same object with ordering key set.
+     */
+    @Nonnull
+    public EnqueueParams<T> withOrderingKey(@Nullable String orderingKey) {
+        this.orderingKey = orderingKey;
+        return this;
+    }
+
+    /**
+     * Set the deduplication (idempotency) key of the task.
+     * Enqueueing a task with the key, which is already present in the queue, does not add a new task
+     * and returns the identifier of the existing one, so that enqueue can be safely retried.
+     * Applies only when {@link ru.yandex.money.common.dbqueue.config.QueueTableSchema#getDedupKeyField()}
+     * is specified.
+     *
+     * @param dedupKey Deduplication key, tasks without a key are never deduplicated.
+     * @return A reference to the same object with deduplication key set.
+     */
+    @Nonnull
+    public EnqueueParams<T> withDedupKey(@Nullable String dedupKey) {
+        this.dedupKey = dedupKey;
+        return this;
+    }
+
     /**
      * Add the external user parameter for the task.
      * If the column name is already present in the external user parameters,
@@ -116,6 +169,35 @@ public final class EnqueueParams<T> {
         return executionDelay;
     }
 
+    /**
+     * Get the task priority, 0 is the default one if not set.
+     *
+     * @return Task priority.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Get the ordering key of the task.
+     *
+     * @return Ordering key, null if not set.
+     */
+    @Nullable
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    /**
+     * Get the deduplication key of the task.
+     *
+     * @return Deduplication key, null if not set.
+     */
+    @Nullable
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
     /**
      * Get the <strong>unmodifiable</strong> map of extended user-defined parameters for the task:
      * a map where the key is the name of the user-defined column in tasks table,
@@ -128,6 +210,26 @@ public final class EnqueueParams<T> {
         return Collections.unmodifiableMap(extData);
     }
 
+    /**
+     * Create a copy of the task parameters with the payload converted by the given function.
+     * All other parameters are copied as is.
+     *
+     * @param payloadMapper Function converting the payload
+     * @param <R>           The type of the payload in the copy
+     * @return A new object with task parameters and the converted payload
+     */
+    @Nonnull
+    public <R> EnqueueParams<R> mapPayload(@Nonnull Function<? super T, ? extends R> payloadMapper) {
+        requireNonNull(payloadMapper);
+        return new EnqueueParams<R>()
+                .withPayload(payloadMapper.apply(payload))
+                .withExecutionDelay(executionDelay)
+                .withPriority(priority)
+                .withOrderingKey(orderingKey)
+                .withDedupKey(dedupKey)
+                .withExtData(extData);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -139,18 +241,24 @@ public final class EnqueueParams<T> {
         EnqueueParams<?> that = (EnqueueParams<?>) obj;
         return Objects.equals(payload, that.payload) &&
                 Objects.equals(executionDelay, that.executionDelay) &&
+                priority == that.priority &&
+                Objects.equals(orderingKey, that.orderingKey) &&
+                Objects.equals(dedupKey, that.dedupKey) &&
                 Objects.equals(extData, that.extData);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(payload, executionDelay, extData);
+        return Objects.hash(payload, executionDelay, priority, orderingKey, dedupKey, extData);
     }
 
     @Override
     public String toString() {
         return '{' +
                 "executionDelay=" + executionDelay +
+                (priority != 0 ? ",priority=" + priority : "") +
+                (orderingKey != null ? ",orderingKey=" + orderingKey : "") +
+                (dedupKey != null ? ",dedupKey=" + dedupKey : "") +
                 (payload != null ? ",payload=" + payload : "") +
                 '}';
     }
@@ -0,0 +1,434 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.QueueProducer;
+import ru.yandex.money.common.dbqueue.api.TaskPayloadTransformer;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue producer, which buffers enqueue requests and writes them in batches.
+ * <p>
+ * Enqueue requests are put in a bounded non-blocking buffer and a background thread
+ * writes them with {@link ru.yandex.money.common.dbqueue.dao.QueueDao#enqueueBatch}
+ * in a single transaction per batch (group commit).
+ * A batch is written when it reaches {@link Builder#withMaxBatchSize(Integer)} tasks
+ * or when {@link Builder#withMaxLingerTime(Duration)} elapses since the first task of the batch.
+ * <p>
+ * Producer trades enqueue latency for a lower number of commits.
+ * Tasks are enqueued in a separate transaction, so the producer must not be used
+ * when tasks should be enqueued in the transaction of the caller.
+ * Producer must be started with {@link #start()} and stopped with {@link #shutdown()}.
+ *
+ * @param <T> The type of the payload in the task
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class AsyncBufferedQueueProducer<T> implements QueueProducer<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncBufferedQueueProducer.class);
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    private static final Duration DEFAULT_MAX_LINGER_TIME = Duration.ofMillis(5L);
+    private static final int DEFAULT_BUFFER_CAPACITY = 10000;
+
+    @Nonnull
+    private final QueueConfig queueConfig;
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final TaskPayloadTransformer<T> payloadTransformer;
+    private final int maxBatchSize;
+    @Nonnull
+    private final Duration maxLingerTime;
+    @Nonnull
+    private final OverflowPolicy overflowPolicy;
+
+    private final Queue<PendingTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger(0);
+    @Nonnull
+    private final Semaphore bufferCapacity;
+    @Nonnull
+    private final Thread flusherThread;
+    private volatile boolean shutdown = false;
+
+    private AsyncBufferedQueueProducer(@Nonnull QueueConfig queueConfig,
+                                       @Nonnull QueueShard queueShard,
+                                       @Nonnull TaskPayloadTransformer<T> payloadTransformer,
+                                       @Nullable Integer maxBatchSize,
+                                       @Nullable Duration maxLingerTime,
+                                       @Nullable Integer bufferCapacity,
+                                       @Nullable OverflowPolicy overflowPolicy) {
+        this.queueConfig = requireNonNull(queueConfig, "queueConfig");
+        this.queueShard = requireNonNull(queueShard, "queueShard");
+        this.payloadTransformer = requireNonNull(payloadTransformer, "payloadTransformer");
+        this.maxBatchSize = maxBatchSize == null ? DEFAULT_MAX_BATCH_SIZE : maxBatchSize;
+        if (this.maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than zero: maxBatchSize=" +
+                    this.maxBatchSize);
+        }
+        this.maxLingerTime = maxLingerTime == null ? DEFAULT_MAX_LINGER_TIME : maxLingerTime;
+        if (this.maxLingerTime.isNegative() || this.maxLingerTime.isZero()) {
+            throw new IllegalArgumentException("maxLingerTime must be positive: maxLingerTime=" +
+                    this.maxLingerTime);
+        }
+        int capacity = bufferCapacity == null ? DEFAULT_BUFFER_CAPACITY : bufferCapacity;
+        if (capacity < this.maxBatchSize) {
+            throw new IllegalArgumentException("bufferCapacity must not be less than maxBatchSize: " +
+                    "bufferCapacity=" + capacity + ", maxBatchSize=" + this.maxBatchSize);
+        }
+        this.bufferCapacity = new Semaphore(capacity);
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.BLOCK : overflowPolicy;
+        this.flusherThread = new QueueThreadFactory(queueConfig.getLocation(), queueShard.getShardId())
+                .newThread(this::flushPendingTasks);
+    }
+
+    /**
+     * Start background writing of buffered tasks
+     */
+    public void start() {
+        log.info("starting buffered producer: location={}, shardId={}", queueConfig.getLocation(),
+                queueShard.getShardId());
+        flusherThread.start();
+    }
+
+    /**
+     * Stop accepting new tasks. Already buffered tasks will be written to the queue.
+     */
+    public void shutdown() {
+        log.info("shutting down buffered producer: location={}, shardId={}", queueConfig.getLocation(),
+                queueShard.getShardId());
+        shutdown = true;
+        LockSupport.unpark(flusherThread);
+    }
+
+    /**
+     * Wait for buffered tasks to be written after {@link #shutdown()} within given timeout.
+     *
+     * @param timeout waiting timeout
+     * @return true if all the buffered tasks were written within given timeout.
+     */
+    public boolean awaitTermination(@Nonnull Duration timeout) {
+        requireNonNull(timeout, "timeout");
+        try {
+            flusherThread.join(timeout.toMillis());
+            return !flusherThread.isAlive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Add a new task into the buffer of the queue
+     *
+     * @param enqueueParams Parameters with typed payload to enqueue the task
+     * @return Future with unique (sequence id) identifier of added task,
+     * which is completed when the batch containing the task is committed.
+     */
+    @Nonnull
+    public CompletableFuture<Long> enqueueAsync(@Nonnull EnqueueParams<T> enqueueParams) {
+        requireNonNull(enqueueParams);
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        EnqueueParams<String> rawEnqueueParams = enqueueParams.mapPayload(payloadTransformer::fromObject);
+
+        if (!acquireBufferCapacity(result)) {
+            if (!result.isDone()) {
+                enqueueInCallerThread(rawEnqueueParams, result);
+            }
+            return result;
+        }
+        int count = pendingCount.incrementAndGet();
+        if (shutdown) {
+            pendingCount.decrementAndGet();
+            bufferCapacity.release();
+            result.completeExceptionally(new RejectedExecutionException(
+                    "producer is shut down: location=" + queueConfig.getLocation()));
+            return result;
+        }
+        pendingTasks.add(new PendingTask(rawEnqueueParams, result));
+        if (count == 1 || count >= maxBatchSize) {
+            LockSupport.unpark(flusherThread);
+        }
+        return result;
+    }
+
+    @Override
+    public long enqueue(@Nonnull EnqueueParams<T> enqueueParams) {
+        try {
+            return enqueueAsync(enqueueParams).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public TaskPayloadTransformer<T> getPayloadTransformer() {
+        return payloadTransformer;
+    }
+
+    private boolean acquireBufferCapacity(@Nonnull CompletableFuture<Long> result) {
+        if (bufferCapacity.tryAcquire()) {
+            return true;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    bufferCapacity.acquire();
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                    return false;
+                }
+            case FAIL:
+                result.completeExceptionally(new RejectedExecutionException(
+                        "enqueue buffer is full: location=" + queueConfig.getLocation()));
+                return false;
+            case CALLER_RUNS:
+                return false;
+            default:
+                throw new IllegalStateException("unknown overflow policy: " + overflowPolicy);
+        }
+    }
+
+    private void enqueueInCallerThread(@Nonnull EnqueueParams<String> rawEnqueueParams,
+                                       @Nonnull CompletableFuture<Long> result) {
+        try {
+            result.complete(requireNonNull(queueShard.getTransactionTemplate().execute(status ->
+                    queueShard.getQueueDao().enqueue(queueConfig.getLocation(), rawEnqueueParams))));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void flushPendingTasks() {
+        long maxLingerNanos = maxLingerTime.toNanos();
+        List<PendingTask> batch = new ArrayList<>(maxBatchSize);
+        while (!shutdown || pendingCount.get() > 0) {
+            PendingTask firstTask = pendingTasks.poll();
+            if (firstTask == null) {
+                LockSupport.parkNanos(this, maxLingerNanos);
+                continue;
+            }
+            batch.add(firstTask);
+            long deadline = System.nanoTime() + maxLingerNanos;
+            while (batch.size() < maxBatchSize) {
+                PendingTask nextTask = pendingTasks.poll();
+                if (nextTask != null) {
+                    batch.add(nextTask);
+                    continue;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0L || shutdown) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            }
+            pendingCount.addAndGet(-batch.size());
+            bufferCapacity.release(batch.size());
+            writeBatch(batch);
+            batch.clear();
+        }
+        log.info("buffered producer is terminated: location={}, shardId={}", queueConfig.getLocation(),
+                queueShard.getShardId());
+    }
+
+    private void writeBatch(@Nonnull List<PendingTask> batch) {
+        try {
+            List<EnqueueParams<String>> enqueueParams = batch.stream()
+                    .map(task -> task.enqueueParams)
+                    .collect(Collectors.toList());
+            List<Long> taskIds = requireNonNull(queueShard.getTransactionTemplate().execute(status ->
+                    queueShard.getQueueDao().enqueueBatch(queueConfig.getLocation(), enqueueParams)));
+            if (taskIds.size() != batch.size()) {
+                throw new IllegalStateException("unexpected number of enqueued tasks: expected=" +
+                        batch.size() + ", actual=" + taskIds.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(taskIds.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("cannot enqueue tasks: location={}, shardId={}, count={}", queueConfig.getLocation(),
+                    queueShard.getShardId(), batch.size(), e);
+            batch.forEach(task -> task.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Create a new builder for buffered producer.
+     *
+     * @param <T> The type of the payload in the task
+     * @return A new builder for buffered producer.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Action, which is performed when the buffer of enqueue requests is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Block the calling thread until there is space in the buffer
+         */
+        BLOCK,
+        /**
+         * Complete the enqueue future with {@link RejectedExecutionException}
+         */
+        FAIL,
+        /**
+         * Enqueue the task in a separate transaction in the calling thread
+         */
+        CALLER_RUNS
+    }
+
+    private static class PendingTask {
+        @Nonnull
+        private final EnqueueParams<String> enqueueParams;
+        @Nonnull
+        private final CompletableFuture<Long> result;
+
+        private PendingTask(@Nonnull EnqueueParams<String> enqueueParams,
+                            @Nonnull CompletableFuture<Long> result) {
+            this.enqueueParams = enqueueParams;
+            this.result = result;
+        }
+    }
+
+    /**
+     * A builder for buffered producer.
+     *
+     * @param <T> The type of the payload in the task
+     */
+    public static class Builder<T> {
+        private QueueConfig queueConfig;
+        private QueueShard queueShard;
+        private TaskPayloadTransformer<T> payloadTransformer;
+        private Integer maxBatchSize;
+        private Duration maxLingerTime;
+        private Integer bufferCapacity;
+        private OverflowPolicy overflowPolicy;
+
+        private Builder() {
+        }
+
+        /**
+         * Set queue configuration.
+         *
+         * @param queueConfig Queue configuration.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withQueueConfig(@Nonnull QueueConfig queueConfig) {
+            this.queueConfig = Objects.requireNonNull(queueConfig);
+            return this;
+        }
+
+        /**
+         * Set shard, where the tasks are enqueued.
+         *
+         * @param queueShard Queue shard.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withQueueShard(@Nonnull QueueShard queueShard) {
+            this.queueShard = Objects.requireNonNull(queueShard);
+            return this;
+        }
+
+        /**
+         * Set task payload transformer.
+         *
+         * @param payloadTransformer Task payload transformer.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withPayloadTransformer(@Nonnull TaskPayloadTransformer<T> payloadTransformer) {
+            this.payloadTransformer = Objects.requireNonNull(payloadTransformer);
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks enqueued in a single transaction.
+         * <p>
+         * Default is 100.
+         *
+         * @param maxBatchSize Maximum number of tasks in a batch.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withMaxBatchSize(@Nullable Integer maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Set maximum time to wait for other tasks before the batch is written.
+         * <p>
+         * Default is 5 milliseconds.
+         *
+         * @param maxLingerTime Maximum linger time of a batch.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withMaxLingerTime(@Nullable Duration maxLingerTime) {
+            this.maxLingerTime = maxLingerTime;
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks in the buffer waiting to be written.
+         * <p>
+         * Default is 10000.
+         *
+         * @param bufferCapacity Capacity of the buffer.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withBufferCapacity(@Nullable Integer bufferCapacity) {
+            this.bufferCapacity = bufferCapacity;
+            return this;
+        }
+
+        /**
+         * Set action, which is performed when the buffer is full.
+         * <p>
+         * Default is {@link OverflowPolicy#BLOCK}.
+         *
+         * @param overflowPolicy Buffer overflow policy.
+         * @return Reference to the same builder.
+         */
+        public Builder<T> withOverflowPolicy(@Nullable OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Create new buffered producer object.
+         *
+         * @return A new buffered producer object.
+         */
+        public AsyncBufferedQueueProducer<T> build() {
+            return new AsyncBufferedQueueProducer<>(queueConfig, queueShard, payloadTransformer,
+                    maxBatchSize, maxLingerTime, bufferCapacity, overflowPolicy);
+        }
+    }
+}
@@ -22,5 +22,13 @@ public enum DatabaseDialect {
      * so you must specify sequence name in
      * {@link ru.yandex.money.common.dbqueue.settings.QueueLocation.Builder#withIdSequence(String)}
      */
-    ORACLE_11G
+    ORACLE_11G,
+    /**
+     * Oracle 12c and higher
+     *
+     * Tasks are claimed as in {@link #ORACLE_11G}, but tasks without priority are picked
+     * in the order of the queue index instead of an unspecified order.
+     * Primary keys are generated by a sequence, as in {@link #ORACLE_11G}.
+     */
+    ORACLE_12C
 }
@@ -0,0 +1,145 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.QueueProducer;
+import ru.yandex.money.common.dbqueue.api.TaskPayloadTransformer;
+import ru.yandex.money.common.dbqueue.internal.processing.MillisTimeProvider;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue producer, which remembers recently enqueued deduplication keys in memory.
+ * <p>
+ * Enqueue of a task with {@link EnqueueParams#getDedupKey()}, which was enqueued through this producer
+ * within {@code keyTimeToLive}, returns the identifier of the existing task without a database round trip.
+ * Other tasks are passed to the delegate producer, which deduplicates them in the database
+ * (see {@link QueueTableSchema#getDedupKeyField()}).
+ * <p>
+ * A key is remembered only after the transaction of the enqueue is committed,
+ * so rolled back tasks are not deduplicated. The cache holds at most {@code maxKeys} least recently used keys.
+ * A remembered key may outlive the task, therefore {@code keyTimeToLive} should not exceed
+ * the time the tasks stay in the queue.
+ *
+ * @param <T> The type of the payload in the task
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DeduplicatingQueueProducer<T> implements QueueProducer<T> {
+
+    @Nonnull
+    private final QueueProducer<T> delegate;
+    private final int maxKeys;
+    @Nonnull
+    private final Duration keyTimeToLive;
+    @Nonnull
+    private final MillisTimeProvider millisTimeProvider;
+    private final Map<String, EnqueuedKey> enqueuedKeys;
+
+    /**
+     * Constructor
+     *
+     * @param delegate      Producer to enqueue tasks with.
+     * @param maxKeys       Maximum number of remembered keys.
+     * @param keyTimeToLive Time to remember a key.
+     */
+    public DeduplicatingQueueProducer(@Nonnull QueueProducer<T> delegate,
+                                      int maxKeys,
+                                      @Nonnull Duration keyTimeToLive) {
+        this(delegate, maxKeys, keyTimeToLive, new MillisTimeProvider.SystemMillisTimeProvider());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate           Producer to enqueue tasks with.
+     * @param maxKeys            Maximum number of remembered keys.
+     * @param keyTimeToLive      Time to remember a key.
+     * @param millisTimeProvider Current time provider.
+     */
+    DeduplicatingQueueProducer(@Nonnull QueueProducer<T> delegate,
+                               int maxKeys,
+                               @Nonnull Duration keyTimeToLive,
+                               @Nonnull MillisTimeProvider millisTimeProvider) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.keyTimeToLive = requireNonNull(keyTimeToLive, "keyTimeToLive");
+        this.millisTimeProvider = requireNonNull(millisTimeProvider, "millisTimeProvider");
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be greater than zero: maxKeys=" + maxKeys);
+        }
+        if (keyTimeToLive.isNegative() || keyTimeToLive.isZero()) {
+            throw new IllegalArgumentException("keyTimeToLive must be positive: keyTimeToLive=" + keyTimeToLive);
+        }
+        this.maxKeys = maxKeys;
+        this.enqueuedKeys = new LinkedHashMap<String, EnqueuedKey>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EnqueuedKey> eldest) {
+                return size() > DeduplicatingQueueProducer.this.maxKeys;
+            }
+        };
+    }
+
+    @Override
+    public long enqueue(@Nonnull EnqueueParams<T> enqueueParams) {
+        requireNonNull(enqueueParams, "enqueueParams");
+        String dedupKey = enqueueParams.getDedupKey();
+        if (dedupKey == null) {
+            return delegate.enqueue(enqueueParams);
+        }
+        long now = millisTimeProvider.getMillis();
+        synchronized (enqueuedKeys) {
+            EnqueuedKey enqueuedKey = enqueuedKeys.get(dedupKey);
+            if (enqueuedKey != null) {
+                if (enqueuedKey.expiresAt > now) {
+                    return enqueuedKey.taskId;
+                }
+                enqueuedKeys.remove(dedupKey);
+            }
+        }
+        long taskId = delegate.enqueue(enqueueParams);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    remember(dedupKey, taskId);
+                }
+            });
+        } else {
+            remember(dedupKey, taskId);
+        }
+        return taskId;
+    }
+
+    private void remember(@Nonnull String dedupKey, long taskId) {
+        EnqueuedKey enqueuedKey = new EnqueuedKey(taskId,
+                millisTimeProvider.getMillis() + keyTimeToLive.toMillis());
+        synchronized (enqueuedKeys) {
+            enqueuedKeys.put(dedupKey, enqueuedKey);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public TaskPayloadTransformer<T> getPayloadTransformer() {
+        return delegate.getPayloadTransformer();
+    }
+
+    /**
+     * Remembered key of the enqueued task
+     */
+    private static class EnqueuedKey {
+        private final long taskId;
+        private final long expiresAt;
+
+        private EnqueuedKey(long taskId, long expiresAt) {
+            this.taskId = taskId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
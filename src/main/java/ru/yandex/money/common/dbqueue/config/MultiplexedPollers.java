@@ -0,0 +1,128 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import ru.yandex.money.common.dbqueue.internal.processing.MultiplexedQueuePoller;
+import ru.yandex.money.common.dbqueue.internal.processing.WeightedRoundRobinExecutor;
+import ru.yandex.money.common.dbqueue.settings.PollingMode;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Registry of shared pollers and worker pool for queues in {@link PollingMode#MULTIPLEXED} mode.
+ * <p>
+ * A single poller thread is created for every table on a shard,
+ * and all multiplexed queues share a single pool of worker threads.
+ * Queues take turns in the pool according to
+ * {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getMultiplexedWeight()}.
+ * Threads are created lazily, when the first multiplexed queue is registered.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+class MultiplexedPollers {
+
+    private static final AtomicInteger threadNumber = new AtomicInteger(0);
+
+    private final Map<QueueShardId, Map<String, MultiplexedQueuePoller>> pollers = new LinkedHashMap<>();
+    private final int threadCount;
+    private ScheduledExecutorService workers;
+    private WeightedRoundRobinExecutor scheduler;
+    private boolean started = false;
+
+    /**
+     * Constructor
+     *
+     * @param threadCount Number of worker threads shared by multiplexed queues.
+     */
+    MultiplexedPollers(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be greater than zero: threadCount=" + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Get shared pool of worker threads.
+     *
+     * @return Worker pool.
+     */
+    @Nonnull
+    synchronized ScheduledExecutorService getWorkers() {
+        if (workers == null) {
+            workers = new ScheduledThreadPoolExecutor(threadCount, runnable ->
+                    new Thread(runnable, "queue-multiplexed-" + threadNumber.getAndIncrement()));
+        }
+        return workers;
+    }
+
+    /**
+     * Get executor, which starts iterations of the queue in the shared worker pool
+     * in turn with other queues.
+     *
+     * @param queueId Queue identifier.
+     * @param weight  Number of iterations of the queue started in a row.
+     * @return Executor of the queue iterations.
+     */
+    @Nonnull
+    synchronized Executor getLane(@Nonnull QueueId queueId, int weight) {
+        requireNonNull(queueId);
+        if (scheduler == null) {
+            scheduler = new WeightedRoundRobinExecutor(getWorkers(), threadCount);
+        }
+        return scheduler.getLane(queueId.asString(), weight);
+    }
+
+    /**
+     * Get poller of the queues stored in the given table on the shard.
+     *
+     * @param queueShard Shard of the queues.
+     * @param tableName  Queue table.
+     * @return Poller of the table.
+     */
+    @Nonnull
+    synchronized MultiplexedQueuePoller getPoller(@Nonnull QueueShard queueShard, @Nonnull String tableName) {
+        requireNonNull(queueShard);
+        requireNonNull(tableName);
+        MultiplexedQueuePoller poller = pollers.computeIfAbsent(queueShard.getShardId(),
+                ignored -> new LinkedHashMap<>()).computeIfAbsent(tableName,
+                ignored -> new MultiplexedQueuePoller(queueShard, tableName,
+                        Executors.newSingleThreadExecutor(runnable -> {
+                            Thread thread = new Thread(runnable, "queue-poller-" +
+                                    queueShard.getShardId().asString() + "-" + tableName);
+                            thread.setDaemon(true);
+                            return thread;
+                        })));
+        if (started) {
+            poller.start();
+        }
+        return poller;
+    }
+
+    /**
+     * Start all pollers.
+     */
+    synchronized void start() {
+        started = true;
+        pollers.values().forEach(tablePollers -> tablePollers.values().forEach(MultiplexedQueuePoller::start));
+    }
+
+    /**
+     * Stop all pollers and the worker pool.
+     * Already scheduled iterations are executed to release the queues.
+     */
+    synchronized void shutdown() {
+        pollers.values().forEach(tablePollers -> tablePollers.values().forEach(MultiplexedQueuePoller::shutdown));
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Listener of PostgreSQL notifications about new tasks on a shard.
+ * <p>
+ * Holds a single connection of the shard, which listens notification channels of all registered queues,
+ * and wakes up the queue named in the notification payload.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+class PostgresNotificationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresNotificationListener.class);
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final Duration RECONNECT_TIMEOUT = Duration.ofSeconds(5L);
+
+    private final Map<String, Map<QueueId, Runnable>> channelListeners = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final ExecutorService executor;
+
+    /**
+     * Constructor
+     *
+     * @param queueShard Shard, which notifications are listened.
+     */
+    PostgresNotificationListener(@Nonnull QueueShard queueShard) {
+        this(queueShard, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "queue-notifications-" + queueShard.getShardId().asString());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    PostgresNotificationListener(@Nonnull QueueShard queueShard, @Nonnull ExecutorService executor) {
+        this.queueShard = requireNonNull(queueShard);
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * Register a queue, which should be woken up on notifications.
+     *
+     * @param location Queue location with notification channel.
+     * @param wakeup   Action, which wakes up the queue.
+     */
+    void register(@Nonnull QueueLocation location, @Nonnull Runnable wakeup) {
+        requireNonNull(location);
+        requireNonNull(wakeup);
+        String channel = location.getNotificationChannel().orElseThrow(() ->
+                new IllegalArgumentException("notification channel is not specified: location=" + location));
+        channelListeners.computeIfAbsent(channel, ignored -> new ConcurrentHashMap<>())
+                .put(location.getQueueId(), wakeup);
+    }
+
+    /**
+     * Start listening notifications. Subsequent invocations are ignored.
+     */
+    void start() {
+        if (started.compareAndSet(false, true)) {
+            executor.execute(this::runListenLoop);
+        }
+    }
+
+    /**
+     * Stop listening notifications.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handle received notification.
+     *
+     * @param channel Notification channel.
+     * @param payload Notification payload, name of the queue.
+     */
+    void onNotification(@Nonnull String channel, @Nonnull String payload) {
+        Map<QueueId, Runnable> queueListeners = channelListeners.get(channel);
+        if (queueListeners == null) {
+            return;
+        }
+        Runnable wakeup = queueListeners.get(new QueueId(payload));
+        if (wakeup != null) {
+            wakeup.run();
+        }
+    }
+
+    private void runListenLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                queueShard.getJdbcTemplate().execute((ConnectionCallback<Void>) this::listen);
+            } catch (RuntimeException e) {
+                log.warn("cannot listen notifications: shardId={}", queueShard.getShardId(), e);
+            }
+            try {
+                Thread.sleep(RECONNECT_TIMEOUT.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Void listen(@Nonnull Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        Set<String> listenedChannels = new HashSet<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                subscribe(connection, listenedChannels);
+                PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        onNotification(notification.getName(), notification.getParameter());
+                    }
+                }
+            }
+        } finally {
+            unsubscribe(connection);
+        }
+        return null;
+    }
+
+    private void subscribe(@Nonnull Connection connection, @Nonnull Set<String> listenedChannels)
+            throws SQLException {
+        for (Map.Entry<String, Map<QueueId, Runnable>> channel : channelListeners.entrySet()) {
+            if (listenedChannels.add(channel.getKey())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel.getKey() + "\"");
+                }
+                // tasks might be enqueued while the channel was not listened
+                channel.getValue().values().forEach(Runnable::run);
+            }
+        }
+    }
+
+    private void unsubscribe(@Nonnull Connection connection) {
+        // connection is returned to the pool, so it must not receive notifications anymore
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+        } catch (SQLException e) {
+            log.debug("cannot unlisten notifications: shardId={}", queueShard.getShardId(), e);
+        }
+    }
+}
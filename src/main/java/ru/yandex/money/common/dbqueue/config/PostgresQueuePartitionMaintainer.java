@@ -0,0 +1,239 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.internal.processing.MillisTimeProvider;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Maintenance of a PostgreSQL queue table partitioned by time of task creation.
+ * <p>
+ * The queue table must be declared with {@code PARTITION BY RANGE (<created_at>)}
+ * and the schema must have {@link QueueTableSchema#getDoneAtField()},
+ * so finished tasks are marked done and stay in their partition.
+ * Deduplication keys are not supported: a unique index of a partitioned table must include {@code created_at},
+ * which differs for every enqueue, so such an index does not reject duplicates.
+ * The maintainer creates partitions named {@code <table>_p<yyyyMMddHHmm>} (UTC start of the range)
+ * for the current and the next intervals, and drops whole partitions, which have no pending tasks
+ * and no tasks done within the retention period. Dropping a partition leaves no dead rows,
+ * unlike deletion of every finished task.
+ * <p>
+ * Partitions are dropped under a short lock timeout, a busy partition is dropped by one of the next runs.
+ * Requires PostgreSQL 11 or higher.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueuePartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresQueuePartitionMaintainer.class);
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[a-zA-Z0-9_]+(\\.[a-zA-Z0-9_]+)?");
+    private static final DateTimeFormatter PARTITION_SUFFIX_FORMATTER =
+            DateTimeFormatter.ofPattern("uuuuMMddHHmm").withZone(ZoneOffset.UTC);
+    private static final String PARTITION_SUFFIX = "_p";
+
+    /**
+     * Number of partitions created ahead of the current one,
+     * so tasks can be inserted when maintenance is delayed
+     */
+    private static final int PARTITIONS_AHEAD_COUNT = 2;
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(1L);
+
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final String tableName;
+    @Nonnull
+    private final Duration partitionInterval;
+    @Nonnull
+    private final Duration retention;
+    @Nonnull
+    private final MillisTimeProvider millisTimeProvider;
+    @Nonnull
+    private final String doneAtField;
+    @Nonnull
+    private final Pattern partitionNamePattern;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param queueShard        Shard with the queue table.
+     * @param tableName         Name of the partitioned queue table, optionally qualified by the schema name.
+     * @param partitionInterval Range of task creation time per partition, whole number of minutes.
+     * @param retention         Minimal time to keep done tasks.
+     */
+    public PostgresQueuePartitionMaintainer(@Nonnull QueueShard queueShard,
+                                            @Nonnull String tableName,
+                                            @Nonnull Duration partitionInterval,
+                                            @Nonnull Duration retention) {
+        this(queueShard, tableName, partitionInterval, retention, new MillisTimeProvider.SystemMillisTimeProvider());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param queueShard         Shard with the queue table.
+     * @param tableName          Name of the partitioned queue table, optionally qualified by the schema name.
+     * @param partitionInterval  Range of task creation time per partition, whole number of minutes.
+     * @param retention          Minimal time to keep done tasks.
+     * @param millisTimeProvider Current time provider.
+     */
+    PostgresQueuePartitionMaintainer(@Nonnull QueueShard queueShard,
+                                     @Nonnull String tableName,
+                                     @Nonnull Duration partitionInterval,
+                                     @Nonnull Duration retention,
+                                     @Nonnull MillisTimeProvider millisTimeProvider) {
+        this.queueShard = requireNonNull(queueShard);
+        this.tableName = requireNonNull(tableName);
+        this.partitionInterval = requireNonNull(partitionInterval);
+        this.retention = requireNonNull(retention);
+        this.millisTimeProvider = requireNonNull(millisTimeProvider);
+        if (queueShard.getDatabaseDialect() != DatabaseDialect.POSTGRESQL) {
+            throw new IllegalArgumentException("partition maintenance is supported for PostgreSQL only: dialect=" +
+                    queueShard.getDatabaseDialect());
+        }
+        this.doneAtField = queueShard.getQueueTableSchema().getDoneAtField()
+                .orElseThrow(() -> new IllegalArgumentException("done at field is required for partition maintenance"));
+        if (queueShard.getQueueTableSchema().getDedupKeyField().isPresent()) {
+            throw new IllegalArgumentException("dedup key field is not supported for partition maintenance: " +
+                    "tableName=" + tableName);
+        }
+        if (!TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+            throw new IllegalArgumentException("invalid table name: tableName=" + tableName);
+        }
+        if (partitionInterval.compareTo(Duration.ofMinutes(1L)) < 0 ||
+                !partitionInterval.equals(Duration.ofMinutes(partitionInterval.toMinutes()))) {
+            throw new IllegalArgumentException("partition interval must be a whole number of minutes: " +
+                    "partitionInterval=" + partitionInterval);
+        }
+        if (retention.isNegative()) {
+            throw new IllegalArgumentException("retention must not be negative: retention=" + retention);
+        }
+        this.partitionNamePattern = Pattern.compile(Pattern.quote(getUnqualifiedTableName() + PARTITION_SUFFIX) +
+                "(\\d{12})", Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Start periodic maintenance of the table.
+     *
+     * @param interval Interval between maintenance runs, must be shorter than the partition interval.
+     */
+    public synchronized void start(@Nonnull Duration interval) {
+        requireNonNull(interval);
+        if (scheduler != null) {
+            throw new IllegalStateException("partition maintainer is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "queue-partition-maintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                maintain();
+            } catch (RuntimeException e) {
+                log.warn("cannot maintain partitions: tableName={}", tableName, e);
+            }
+        }, 0L, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop periodic maintenance of the table.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Create partitions for the current and the next intervals and drop expired partitions.
+     */
+    public void maintain() {
+        long now = millisTimeProvider.getMillis();
+        long intervalMillis = partitionInterval.toMillis();
+        long currentStart = Math.floorDiv(now, intervalMillis) * intervalMillis;
+        for (int i = 0; i <= PARTITIONS_AHEAD_COUNT; i++) {
+            createPartition(Instant.ofEpochMilli(currentStart + i * intervalMillis));
+        }
+        for (String partition : findPartitions()) {
+            Matcher matcher = partitionNamePattern.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            Instant end = Instant.from(PARTITION_SUFFIX_FORMATTER.parse(matcher.group(1))).plus(partitionInterval);
+            if (!end.plus(retention).isAfter(Instant.ofEpochMilli(now)) && dropPartition(partition)) {
+                log.info("queue partition is dropped: tableName={}, partition={}", tableName, partition);
+            }
+        }
+    }
+
+    private void createPartition(@Nonnull Instant start) {
+        Instant end = start.plus(partitionInterval);
+        queueShard.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " +
+                getPartitionTableName(getUnqualifiedTableName() + PARTITION_SUFFIX +
+                        PARTITION_SUFFIX_FORMATTER.format(start)) +
+                " PARTITION OF " + tableName +
+                " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+    }
+
+    @Nonnull
+    private List<String> findPartitions() {
+        return queueShard.getJdbcTemplate().queryForList("SELECT c.relname FROM pg_inherits i" +
+                        " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass",
+                String.class, tableName).stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Partition is checked under the lock, so a task cannot be inserted or re-enqueued before the drop
+     */
+    private boolean dropPartition(@Nonnull String partition) {
+        String partitionTable = getPartitionTableName(partition);
+        try {
+            return Objects.equals(Boolean.TRUE, queueShard.getTransactionTemplate().execute(status -> {
+                queueShard.getJdbcTemplate().execute("SET LOCAL lock_timeout = " + LOCK_TIMEOUT.toMillis());
+                queueShard.getJdbcTemplate().execute("LOCK TABLE " + partitionTable + " IN ACCESS EXCLUSIVE MODE");
+                Boolean hasLiveTasks = queueShard.getJdbcTemplate().queryForObject("SELECT EXISTS (SELECT 1 FROM " +
+                        partitionTable + " WHERE " + doneAtField + " IS NULL OR " + doneAtField +
+                        " > now() - " + retention.getSeconds() + " * INTERVAL '1 SECOND')", Boolean.class);
+                if (!Boolean.FALSE.equals(hasLiveTasks)) {
+                    return false;
+                }
+                queueShard.getJdbcTemplate().execute("DROP TABLE " + partitionTable);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("cannot drop queue partition: tableName={}, partition={}", tableName, partition, e);
+            return false;
+        }
+    }
+
+    @Nonnull
+    private String getPartitionTableName(@Nonnull String partition) {
+        int schemaEnd = tableName.lastIndexOf('.');
+        return schemaEnd < 0 ? partition : tableName.substring(0, schemaEnd + 1) + partition;
+    }
+
+    @Nonnull
+    private String getUnqualifiedTableName() {
+        return tableName.substring(tableName.lastIndexOf('.') + 1);
+    }
+}
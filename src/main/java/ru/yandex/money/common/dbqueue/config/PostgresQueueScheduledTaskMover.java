@@ -0,0 +1,189 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Mover of PostgreSQL queue tasks, which are scheduled far ahead, into the queue table.
+ * <p>
+ * Tasks delayed beyond {@link QueueLocation#getSchedulingThreshold()} are stored
+ * in {@link QueueLocation#getScheduledTableName()}, so the queue table holds only the tasks,
+ * which are due soon, and the pick query scans a small index.
+ * The mover transfers tasks of the queue, which are due within the threshold, to the queue table
+ * keeping their identifiers, so the queue table receives every task before its processing time
+ * when the mover runs more often than the threshold.
+ * When {@link QueueLocation#getNotificationChannel()} is specified, the move statement notifies consumers
+ * of the queue like an enqueue statement does.
+ * <p>
+ * {@link #createInstallSql()} creates the table for scheduled tasks with the structure and the defaults
+ * of the queue table, so identifiers of the tasks are generated by the same sequence.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueScheduledTaskMover {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresQueueScheduledTaskMover.class);
+
+    /**
+     * Maximum number of tasks moved by a single statement
+     */
+    private static final int MOVE_BATCH_SIZE = 1000;
+
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final QueueLocation location;
+    @Nonnull
+    private final String scheduledTableName;
+    @Nonnull
+    private final Duration schedulingThreshold;
+    @Nonnull
+    private final String moveSql;
+    @Nonnull
+    private final Object[] moveArgs;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param queueShard Shard with the queue tables.
+     * @param location   Location of the queue with the table for scheduled tasks.
+     */
+    public PostgresQueueScheduledTaskMover(@Nonnull QueueShard queueShard, @Nonnull QueueLocation location) {
+        this.queueShard = requireNonNull(queueShard);
+        this.location = requireNonNull(location);
+        if (queueShard.getDatabaseDialect() != DatabaseDialect.POSTGRESQL) {
+            throw new IllegalArgumentException("scheduled tasks table is supported for PostgreSQL only: dialect=" +
+                    queueShard.getDatabaseDialect());
+        }
+        this.scheduledTableName = location.getScheduledTableName()
+                .orElseThrow(() -> new IllegalArgumentException("scheduled table is not specified: location=" +
+                        location));
+        this.schedulingThreshold = location.getSchedulingThreshold().orElseThrow(IllegalStateException::new);
+        this.moveSql = createMoveSql(queueShard.getQueueTableSchema());
+        this.moveArgs = location.getNotificationChannel().isPresent() ?
+                new Object[]{location.getQueueId().asString(), location.getQueueId().asString()} :
+                new Object[]{location.getQueueId().asString()};
+    }
+
+    /**
+     * Start periodic moving of due tasks.
+     *
+     * @param interval Interval between runs, must be shorter than the scheduling threshold.
+     */
+    public synchronized void start(@Nonnull Duration interval) {
+        requireNonNull(interval);
+        if (interval.isNegative() || interval.isZero() || interval.compareTo(schedulingThreshold) >= 0) {
+            throw new IllegalArgumentException("interval must be positive and shorter than scheduling threshold: " +
+                    "interval=" + interval + ", schedulingThreshold=" + schedulingThreshold);
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("scheduled task mover is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "queue-scheduled-task-mover");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                move();
+            } catch (RuntimeException e) {
+                log.warn("cannot move scheduled tasks: location={}", location, e);
+            }
+        }, 0L, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop periodic moving of due tasks.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Move tasks, which are due within the scheduling threshold, to the queue table.
+     *
+     * @return number of moved tasks.
+     */
+    public int move() {
+        int movedCount = 0;
+        int batchCount;
+        do {
+            // every statement moves the batch atomically, rows locked by other movers are skipped
+            Integer count = queueShard.getJdbcTemplate().queryForObject(moveSql, Integer.class, moveArgs);
+            batchCount = count == null ? 0 : count;
+            movedCount += batchCount;
+        } while (batchCount == MOVE_BATCH_SIZE);
+        if (movedCount != 0) {
+            log.debug("scheduled tasks are moved: location={}, count={}", location, movedCount);
+        }
+        return movedCount;
+    }
+
+    /**
+     * Get DDL of the table for scheduled tasks.
+     *
+     * @return statements creating the table and its indexes.
+     */
+    @Nonnull
+    public String createInstallSql() {
+        QueueTableSchema schema = queueShard.getQueueTableSchema();
+        String indexPrefix = scheduledTableName.substring(scheduledTableName.lastIndexOf('.') + 1);
+        return "CREATE TABLE IF NOT EXISTS " + scheduledTableName +
+                " (LIKE " + location.getTableName() + " INCLUDING DEFAULTS);\n" +
+                "CREATE UNIQUE INDEX IF NOT EXISTS " + indexPrefix + "_id_idx ON " + scheduledTableName +
+                " (" + schema.getIdField() + ");\n" +
+                "CREATE INDEX IF NOT EXISTS " + indexPrefix + "_name_time_idx ON " + scheduledTableName +
+                " (" + schema.getQueueNameField() + ", " + schema.getNextProcessAtField() + ");\n";
+    }
+
+    /**
+     * Create the table for scheduled tasks, if it does not exist.
+     */
+    public void install() {
+        queueShard.getJdbcTemplate().execute(createInstallSql());
+    }
+
+    private String createMoveSql(@Nonnull QueueTableSchema schema) {
+        String fields = Stream.of(
+                Stream.of(schema.getIdField(), schema.getQueueNameField(), schema.getPayloadField(),
+                        schema.getCreatedAtField(), schema.getNextProcessAtField(), schema.getAttemptField(),
+                        schema.getReenqueueAttemptField(), schema.getTotalAttemptField()),
+                schema.getPriorityField().map(Stream::of).orElseGet(Stream::empty),
+                schema.getOrderingKeyField().map(Stream::of).orElseGet(Stream::empty),
+                schema.getDedupKeyField().map(Stream::of).orElseGet(Stream::empty),
+                schema.getExtFields().stream())
+                .flatMap(field -> field)
+                .collect(Collectors.joining(", "));
+        return "WITH moved AS (DELETE FROM " + scheduledTableName +
+                " WHERE " + schema.getIdField() + " IN (SELECT " + schema.getIdField() +
+                " FROM " + scheduledTableName +
+                " WHERE " + schema.getQueueNameField() + " = ? AND " + schema.getNextProcessAtField() +
+                " <= now() + " + schedulingThreshold.getSeconds() + " * INTERVAL '1 SECOND'" +
+                " ORDER BY " + schema.getNextProcessAtField() + " LIMIT " + MOVE_BATCH_SIZE +
+                " FOR UPDATE SKIP LOCKED) RETURNING " + fields + ")," +
+                " inserted AS (INSERT INTO " + location.getTableName() + " (" + fields + ") SELECT " + fields +
+                " FROM moved RETURNING " + schema.getIdField() + ")" +
+                // moved tasks are due soon, so consumers are notified as on enqueue
+                location.getNotificationChannel()
+                        .map(channel -> " SELECT count(*) FROM inserted, (SELECT pg_notify('" + channel +
+                                "', ?)) notification")
+                        .orElse(" SELECT count(*) FROM inserted");
+    }
+}
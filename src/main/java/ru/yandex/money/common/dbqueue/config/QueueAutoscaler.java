@@ -0,0 +1,224 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.internal.processing.MillisTimeProvider;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Automatic sizing of the task processing threads of the queues.
+ * <p>
+ * Collects busy time of the queue threads from {@link ThreadLifecycleListener#executed}
+ * and periodically changes number of threads with {@link QueueService#resize(QueueId, int)}.
+ * Number of threads grows when the threads are mostly busy and almost every iteration finds a task,
+ * i.e. the queue has a backlog. Number of threads shrinks when the threads are mostly idle.
+ * <p>
+ * The autoscaler must be set as a {@link ThreadLifecycleListener} of the queues,
+ * events are passed to the delegate listener.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class QueueAutoscaler implements ThreadLifecycleListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueAutoscaler.class);
+
+    private static final double TARGET_BUSY_RATIO = 0.6;
+    private static final double GROW_BUSY_RATIO = 0.8;
+    private static final double GROW_PROCESSED_RATIO = 0.9;
+    private static final double SHRINK_BUSY_RATIO = 0.3;
+    private static final double SHRINK_PROCESSED_RATIO = 0.5;
+
+    private final Map<QueueId, QueueStats> queueStats = new ConcurrentHashMap<>();
+    @Nonnull
+    private final ThreadLifecycleListener delegate;
+    @Nonnull
+    private final MillisTimeProvider millisTimeProvider;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param delegate Listener to pass thread events to.
+     */
+    public QueueAutoscaler(@Nonnull ThreadLifecycleListener delegate) {
+        this(delegate, new MillisTimeProvider.SystemMillisTimeProvider());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate           Listener to pass thread events to.
+     * @param millisTimeProvider Current time provider.
+     */
+    QueueAutoscaler(@Nonnull ThreadLifecycleListener delegate,
+                    @Nonnull MillisTimeProvider millisTimeProvider) {
+        this.delegate = requireNonNull(delegate);
+        this.millisTimeProvider = requireNonNull(millisTimeProvider);
+    }
+
+    /**
+     * Enable automatic sizing of the queue.
+     *
+     * @param queueId        Queue identifier.
+     * @param minThreadCount Minimal number of threads per shard.
+     * @param maxThreadCount Maximal number of threads per shard.
+     */
+    public void register(@Nonnull QueueId queueId, int minThreadCount, int maxThreadCount) {
+        requireNonNull(queueId);
+        if (minThreadCount < 1 || maxThreadCount < minThreadCount) {
+            throw new IllegalArgumentException("invalid thread count bounds: minThreadCount=" +
+                    minThreadCount + ", maxThreadCount=" + maxThreadCount);
+        }
+        queueStats.put(queueId, new QueueStats(minThreadCount, maxThreadCount, millisTimeProvider.getMillis()));
+    }
+
+    /**
+     * Start periodic sizing of the registered queues.
+     *
+     * @param queueService Service of the queues.
+     * @param interval     Interval between sizing attempts.
+     */
+    public synchronized void start(@Nonnull QueueService queueService, @Nonnull Duration interval) {
+        requireNonNull(queueService);
+        requireNonNull(interval);
+        if (scheduler != null) {
+            throw new IllegalStateException("autoscaler is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "queue-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                evaluate(queueService);
+            } catch (RuntimeException e) {
+                log.warn("cannot resize queues", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop periodic sizing of the queues.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Change number of threads of the registered queues according to statistics since the previous call.
+     *
+     * @param queueService Service of the queues.
+     */
+    void evaluate(@Nonnull QueueService queueService) {
+        long now = millisTimeProvider.getMillis();
+        int shardCount = queueService.getShardCount();
+        queueStats.forEach((queueId, stats) -> {
+            long elapsedMillis = now - stats.sinceMillis;
+            long busyMillis = stats.busyMillis.getAndSet(0L);
+            long iterationCount = stats.iterationCount.getAndSet(0L);
+            long processedCount = stats.processedCount.getAndSet(0L);
+            stats.sinceMillis = now;
+            if (elapsedMillis <= 0L || iterationCount == 0L || shardCount == 0) {
+                return;
+            }
+            int threadCount = queueService.getThreadCount(queueId);
+            double busyRatio = (double) busyMillis / (elapsedMillis * threadCount * shardCount);
+            double processedRatio = (double) processedCount / iterationCount;
+            int newThreadCount = computeThreadCount(threadCount, stats.minThreadCount, stats.maxThreadCount,
+                    busyRatio, processedRatio);
+            if (newThreadCount != threadCount) {
+                log.info("autoscaling queue: queueId={}, busyRatio={}, processedRatio={}",
+                        queueId, busyRatio, processedRatio);
+                queueService.resize(queueId, newThreadCount);
+            }
+        });
+    }
+
+    /**
+     * Compute new number of threads.
+     *
+     * @param threadCount    Current number of threads.
+     * @param minThreadCount Minimal number of threads.
+     * @param maxThreadCount Maximal number of threads.
+     * @param busyRatio      Share of time the threads were busy.
+     * @param processedRatio Share of iterations, which found a task.
+     * @return New number of threads.
+     */
+    static int computeThreadCount(int threadCount, int minThreadCount, int maxThreadCount,
+                                  double busyRatio, double processedRatio) {
+        int targetThreadCount = (int) Math.ceil(threadCount * busyRatio / TARGET_BUSY_RATIO);
+        if (busyRatio >= GROW_BUSY_RATIO && processedRatio >= GROW_PROCESSED_RATIO) {
+            return Math.min(maxThreadCount, Math.max(threadCount + 1, targetThreadCount));
+        }
+        if (busyRatio < SHRINK_BUSY_RATIO || processedRatio < SHRINK_PROCESSED_RATIO) {
+            return Math.max(minThreadCount, Math.min(threadCount - 1, targetThreadCount));
+        }
+        return Math.max(minThreadCount, Math.min(maxThreadCount, threadCount));
+    }
+
+    @Override
+    public void started(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location) {
+        delegate.started(shardId, location);
+    }
+
+    @Override
+    public void executed(QueueShardId shardId, QueueLocation location, boolean taskProcessed, long threadBusyTime) {
+        QueueStats stats = queueStats.get(location.getQueueId());
+        if (stats != null) {
+            stats.busyMillis.addAndGet(threadBusyTime);
+            stats.iterationCount.incrementAndGet();
+            if (taskProcessed) {
+                stats.processedCount.incrementAndGet();
+            }
+        }
+        delegate.executed(shardId, location, taskProcessed, threadBusyTime);
+    }
+
+    @Override
+    public void idle(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location,
+                     @Nonnull Duration idleTimeout) {
+        delegate.idle(shardId, location, idleTimeout);
+    }
+
+    @Override
+    public void finished(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location) {
+        delegate.finished(shardId, location);
+    }
+
+    @Override
+    public void crashed(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location, @Nonnull Throwable exc) {
+        delegate.crashed(shardId, location, exc);
+    }
+
+    private static class QueueStats {
+        private final int minThreadCount;
+        private final int maxThreadCount;
+        private final AtomicLong busyMillis = new AtomicLong();
+        private final AtomicLong iterationCount = new AtomicLong();
+        private final AtomicLong processedCount = new AtomicLong();
+        private volatile long sinceMillis;
+
+        private QueueStats(int minThreadCount, int maxThreadCount, long sinceMillis) {
+            this.minThreadCount = minThreadCount;
+            this.maxThreadCount = maxThreadCount;
+            this.sinceMillis = sinceMillis;
+        }
+    }
+}
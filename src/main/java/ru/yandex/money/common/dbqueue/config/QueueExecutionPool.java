@@ -5,14 +5,25 @@ import org.slf4j.LoggerFactory;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.internal.processing.LoopPolicy;
 import ru.yandex.money.common.dbqueue.internal.processing.MillisTimeProvider;
+import ru.yandex.money.common.dbqueue.internal.processing.MultiplexedLoopPolicy;
+import ru.yandex.money.common.dbqueue.internal.processing.MultiplexedQueueExecutor;
+import ru.yandex.money.common.dbqueue.internal.processing.MultiplexedQueuePoller;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueLoop;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskAcknowledgementBuffer;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
 import ru.yandex.money.common.dbqueue.internal.runner.QueueRunner;
+import ru.yandex.money.common.dbqueue.settings.AcknowledgementMode;
+import ru.yandex.money.common.dbqueue.settings.PollingMode;
 import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -37,25 +48,39 @@ class QueueExecutionPool {
     private final ExecutorService executor;
     @Nonnull
     private final QueueRunner queueRunner;
+    @Nullable
+    private final TaskAcknowledgementBuffer acknowledgementBuffer;
+    @Nullable
+    private final TaskPrefetcher taskPrefetcher;
 
     private boolean started = false;
+    private int threadCount;
 
     QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
                        @Nonnull QueueShard queueShard,
                        @Nonnull TaskLifecycleListener taskLifecycleListener,
-                       @Nonnull ThreadLifecycleListener threadLifecycleListener) {
+                       @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                       @Nonnull MultiplexedPollers multiplexedPollers) {
+        this(queueConsumer, queueShard, taskLifecycleListener, threadLifecycleListener,
+                createAcknowledgementBuffer(queueConsumer, queueShard),
+                createTaskPrefetcher(queueConsumer, queueShard, taskLifecycleListener),
+                createLoopPolicy(queueConsumer, queueShard, multiplexedPollers));
+    }
+
+    private QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                               @Nonnull QueueShard queueShard,
+                               @Nonnull TaskLifecycleListener taskLifecycleListener,
+                               @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                               @Nullable TaskAcknowledgementBuffer acknowledgementBuffer,
+                               @Nullable TaskPrefetcher taskPrefetcher,
+                               @Nonnull LoopPolicy loopPolicy) {
         this(queueConsumer, queueShard,
-                new QueueLoop(new LoopPolicy.WakeupLoopPolicy(), threadLifecycleListener,
+                new QueueLoop(loopPolicy, threadLifecycleListener,
                         new MillisTimeProvider.SystemMillisTimeProvider()),
-                new ThreadPoolExecutor(
-                        queueConsumer.getQueueConfig().getSettings().getThreadCount(),
-                        queueConsumer.getQueueConfig().getSettings().getThreadCount(),
-                        0L, TimeUnit.MILLISECONDS,
-                        new ArrayBlockingQueue<>(
-                                queueConsumer.getQueueConfig().getSettings().getThreadCount()),
-                        new QueueThreadFactory(
-                                queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId())),
-                QueueRunner.Factory.create(queueConsumer, queueShard, taskLifecycleListener));
+                createExecutor(queueConsumer, queueShard, loopPolicy),
+                QueueRunner.Factory.create(queueConsumer, queueShard, taskLifecycleListener, acknowledgementBuffer,
+                        taskPrefetcher),
+                acknowledgementBuffer, taskPrefetcher);
     }
 
     QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
@@ -63,11 +88,82 @@ class QueueExecutionPool {
                        @Nonnull QueueLoop queueLoop,
                        @Nonnull ExecutorService executor,
                        @Nonnull QueueRunner queueRunner) {
+        this(queueConsumer, queueShard, queueLoop, executor, queueRunner, null, null);
+    }
+
+    QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                       @Nonnull QueueShard queueShard,
+                       @Nonnull QueueLoop queueLoop,
+                       @Nonnull ExecutorService executor,
+                       @Nonnull QueueRunner queueRunner,
+                       @Nullable TaskAcknowledgementBuffer acknowledgementBuffer,
+                       @Nullable TaskPrefetcher taskPrefetcher) {
         this.queueConsumer = requireNonNull(queueConsumer);
         this.queueShard = requireNonNull(queueShard);
         this.queueLoop = requireNonNull(queueLoop);
         this.executor = requireNonNull(executor);
         this.queueRunner = requireNonNull(queueRunner);
+        this.acknowledgementBuffer = acknowledgementBuffer;
+        this.taskPrefetcher = taskPrefetcher;
+        this.threadCount = queueConsumer.getQueueConfig().getSettings().getThreadCount();
+    }
+
+    @Nonnull
+    private static LoopPolicy createLoopPolicy(@Nonnull QueueConsumer<?> queueConsumer,
+                                               @Nonnull QueueShard queueShard,
+                                               @Nonnull MultiplexedPollers multiplexedPollers) {
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        if (settings.getPollingMode() != PollingMode.MULTIPLEXED) {
+            return new LoopPolicy.WakeupLoopPolicy();
+        }
+        QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+        MultiplexedQueuePoller poller = multiplexedPollers.getPoller(queueShard, location.getTableName());
+        MultiplexedLoopPolicy loopPolicy = new MultiplexedLoopPolicy(multiplexedPollers.getWorkers(),
+                multiplexedPollers.getLane(location.getQueueId(), settings.getMultiplexedWeight()),
+                poller::wakeup);
+        poller.register(location, settings.getNoTaskTimeout(), loopPolicy);
+        return loopPolicy;
+    }
+
+    @Nonnull
+    private static ExecutorService createExecutor(@Nonnull QueueConsumer<?> queueConsumer,
+                                                  @Nonnull QueueShard queueShard,
+                                                  @Nonnull LoopPolicy loopPolicy) {
+        if (loopPolicy instanceof MultiplexedLoopPolicy) {
+            return new MultiplexedQueueExecutor((MultiplexedLoopPolicy) loopPolicy);
+        }
+        int threadCount = queueConsumer.getQueueConfig().getSettings().getThreadCount();
+        return new ThreadPoolExecutor(threadCount, threadCount,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount),
+                new QueueThreadFactory(queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId()));
+    }
+
+    @Nullable
+    private static TaskAcknowledgementBuffer createAcknowledgementBuffer(@Nonnull QueueConsumer<?> queueConsumer,
+                                                                         @Nonnull QueueShard queueShard) {
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        if (settings.getAcknowledgementMode() != AcknowledgementMode.BATCHED) {
+            return null;
+        }
+        return new TaskAcknowledgementBuffer(queueConsumer.getQueueConfig().getLocation(), queueShard,
+                settings.getAcknowledgementBatchSize(), settings.getAcknowledgementFlushInterval(),
+                Executors.newSingleThreadScheduledExecutor(new QueueThreadFactory(
+                        queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId())));
+    }
+
+    @Nullable
+    private static TaskPrefetcher createTaskPrefetcher(@Nonnull QueueConsumer<?> queueConsumer,
+                                                       @Nonnull QueueShard queueShard,
+                                                       @Nonnull TaskLifecycleListener taskLifecycleListener) {
+        if (queueConsumer.getQueueConfig().getSettings().getPrefetchSize() == 0) {
+            return null;
+        }
+        return new TaskPrefetcher(queueConsumer,
+                QueueRunner.Factory.createTaskPicker(queueConsumer, queueShard, taskLifecycleListener),
+                new MillisTimeProvider.SystemMillisTimeProvider(),
+                Executors.newSingleThreadExecutor(new QueueThreadFactory(
+                        queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId())));
     }
 
     private QueueId getQueueId() {
@@ -89,21 +185,86 @@ class QueueExecutionPool {
     void start() {
         if (!started) {
             log.info("starting queue loop: queueId={}, shardId={}", getQueueId(), queueShard.getShardId());
-            for (int i = 0; i < queueConsumer.getQueueConfig().getSettings().getThreadCount(); i++) {
-                executor.execute(() -> queueLoop.start(queueShard.getShardId(), queueConsumer, queueRunner));
+            for (int i = 0; i < threadCount; i++) {
+                startLoop();
+            }
+            if (acknowledgementBuffer != null) {
+                acknowledgementBuffer.start();
+            }
+            if (taskPrefetcher != null) {
+                taskPrefetcher.start(queueLoop::wakeup);
             }
             started = true;
         }
         log.info("starting queue: queueId={}, shardId={}", getQueueId(), queueShard.getShardId());
         queueLoop.unpause();
+        if (taskPrefetcher != null) {
+            taskPrefetcher.unpause();
+        }
+    }
+
+    private void startLoop() {
+        executor.execute(() -> queueLoop.start(queueShard.getShardId(), queueConsumer, queueRunner));
+    }
+
+    /**
+     * Get current number of task processing threads.
+     *
+     * @return Number of threads.
+     */
+    int getThreadCount() {
+        return threadCount;
     }
 
     /**
-     * Stop tasks processing, semantic is the same as for {@link ExecutorService#shutdownNow()}
+     * Change number of task processing threads.
+     * Excess threads are stopped after they finish their current task.
+     *
+     * @param newThreadCount New number of threads.
+     */
+    void resize(int newThreadCount) {
+        if (newThreadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be greater than zero: threadCount=" +
+                    newThreadCount);
+        }
+        int oldThreadCount = threadCount;
+        threadCount = newThreadCount;
+        if (!started || newThreadCount == oldThreadCount) {
+            return;
+        }
+        log.info("resizing queue: queueId={}, shardId={}, oldThreadCount={}, newThreadCount={}",
+                getQueueId(), queueShard.getShardId(), oldThreadCount, newThreadCount);
+        if (newThreadCount > oldThreadCount) {
+            if (executor instanceof ThreadPoolExecutor) {
+                ((ThreadPoolExecutor) executor).setMaximumPoolSize(newThreadCount);
+                ((ThreadPoolExecutor) executor).setCorePoolSize(newThreadCount);
+            }
+            int restoredCount = queueLoop.cancelRetirement(newThreadCount - oldThreadCount);
+            for (int i = restoredCount; i < newThreadCount - oldThreadCount; i++) {
+                startLoop();
+            }
+        } else {
+            queueLoop.retire(oldThreadCount - newThreadCount);
+            if (executor instanceof ThreadPoolExecutor) {
+                ((ThreadPoolExecutor) executor).setCorePoolSize(newThreadCount);
+                ((ThreadPoolExecutor) executor).setMaximumPoolSize(newThreadCount);
+            }
+        }
+    }
+
+    /**
+     * Stop tasks processing, semantic is the same as for {@link ExecutorService#shutdownNow()}.
+     * Acknowledges all finished tasks in {@link AcknowledgementMode#BATCHED} mode.
      */
     void shutdown() {
         log.info("shutting down queue: queueId={}, shardId={}", getQueueId(), queueShard.getShardId());
         executor.shutdownNow();
+        if (taskPrefetcher != null) {
+            taskPrefetcher.shutdown();
+        }
+        if (acknowledgementBuffer != null) {
+            acknowledgementBuffer.shutdown();
+        }
     }
 
     /**
@@ -113,6 +274,9 @@ class QueueExecutionPool {
     void pause() {
         log.info("pausing queue: queueId={}, shardId={}", getQueueId(), queueShard.getShardId());
         queueLoop.pause();
+        if (taskPrefetcher != null) {
+            taskPrefetcher.pause();
+        }
     }
 
     /**
@@ -169,6 +333,9 @@ class QueueExecutionPool {
      */
     void wakeup() {
         queueLoop.wakeup();
+        if (taskPrefetcher != null) {
+            taskPrefetcher.wakeup();
+        }
     }
 
 }
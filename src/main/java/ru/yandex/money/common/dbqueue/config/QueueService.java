@@ -6,6 +6,7 @@ import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.internal.processing.MillisTimeProvider;
 import ru.yandex.money.common.dbqueue.internal.processing.TimeLimiter;
 import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
@@ -15,6 +16,7 @@ import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
@@ -31,22 +33,70 @@ public class QueueService {
     @Nonnull
     private final Map<QueueId, Map<QueueShardId, QueueExecutionPool>> registeredQueues = new LinkedHashMap<>();
     @Nonnull
+    private final Map<QueueShardId, PostgresNotificationListener> notificationListeners = new LinkedHashMap<>();
+    @Nonnull
     private final List<QueueShard> queueShards;
     @Nonnull
     private final BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory;
+    @Nonnull
+    private final Function<QueueShard, PostgresNotificationListener> notificationListenerFactory;
+    @Nonnull
+    private final MultiplexedPollers multiplexedPollers;
 
     public QueueService(@Nonnull List<QueueShard> queueShards,
                         @Nonnull ThreadLifecycleListener threadLifecycleListener,
                         @Nonnull TaskLifecycleListener taskLifecycleListener) {
+        this(queueShards, threadLifecycleListener, taskLifecycleListener,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param queueShards             Shards, on which the queues are processed.
+     * @param threadLifecycleListener Listener of task processing threads.
+     * @param taskLifecycleListener   Listener of task processing.
+     * @param multiplexedThreadCount  Number of worker threads shared by queues
+     *                                in {@link ru.yandex.money.common.dbqueue.settings.PollingMode#MULTIPLEXED} mode.
+     */
+    public QueueService(@Nonnull List<QueueShard> queueShards,
+                        @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                        @Nonnull TaskLifecycleListener taskLifecycleListener,
+                        int multiplexedThreadCount) {
+        this(queueShards, threadLifecycleListener, taskLifecycleListener,
+                new MultiplexedPollers(multiplexedThreadCount));
+    }
+
+    private QueueService(@Nonnull List<QueueShard> queueShards,
+                         @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                         @Nonnull TaskLifecycleListener taskLifecycleListener,
+                         @Nonnull MultiplexedPollers multiplexedPollers) {
         this(queueShards,
                 (shard, consumer) -> new QueueExecutionPool(consumer, shard,
-                        taskLifecycleListener, threadLifecycleListener));
+                        taskLifecycleListener, threadLifecycleListener, multiplexedPollers),
+                PostgresNotificationListener::new, multiplexedPollers);
     }
 
     QueueService(@Nonnull List<QueueShard> queueShards,
                  @Nonnull BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory) {
+        this(queueShards, queueExecutionPoolFactory, PostgresNotificationListener::new);
+    }
+
+    QueueService(@Nonnull List<QueueShard> queueShards,
+                 @Nonnull BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory,
+                 @Nonnull Function<QueueShard, PostgresNotificationListener> notificationListenerFactory) {
+        this(queueShards, queueExecutionPoolFactory, notificationListenerFactory, new MultiplexedPollers(1));
+    }
+
+    QueueService(@Nonnull List<QueueShard> queueShards,
+                 @Nonnull BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory,
+                 @Nonnull Function<QueueShard, PostgresNotificationListener> notificationListenerFactory,
+                 @Nonnull MultiplexedPollers multiplexedPollers) {
         this.queueShards = requireNonNull(queueShards, "queueShards");
         this.queueExecutionPoolFactory = requireNonNull(queueExecutionPoolFactory, "queueExecutionPoolFactory");
+        this.notificationListenerFactory = requireNonNull(notificationListenerFactory,
+                "notificationListenerFactory");
+        this.multiplexedPollers = requireNonNull(multiplexedPollers, "multiplexedPollers");
     }
 
     private Map<QueueShardId, QueueExecutionPool> getQueuePools(@Nonnull QueueId queueId,
@@ -62,6 +112,9 @@ public class QueueService {
 
     /**
      * Register new task processor of given payload type.
+     * <p>
+     * When {@link QueueLocation#getNotificationChannel()} is specified,
+     * the queue is woken up by notifications about new tasks on PostgreSQL shards.
      *
      * @param consumer Task processor.
      * @param <T>      Type of the processor (type of the payload in the task).
@@ -85,9 +138,22 @@ public class QueueService {
         queueShards.forEach(shard -> queueShardPools.put(shard.getShardId(),
                 queueExecutionPoolFactory.apply(shard, consumer)));
         registeredQueues.put(queueId, queueShardPools);
+        registerNotificationListeners(consumer.getQueueConfig().getLocation(), queueShardPools);
         return true;
     }
 
+    private void registerNotificationListeners(@Nonnull QueueLocation location,
+                                               @Nonnull Map<QueueShardId, QueueExecutionPool> queueShardPools) {
+        if (!location.getNotificationChannel().isPresent()) {
+            return;
+        }
+        queueShards.stream()
+                .filter(shard -> shard.getDatabaseDialect() == DatabaseDialect.POSTGRESQL)
+                .forEach(shard -> notificationListeners
+                        .computeIfAbsent(shard.getShardId(), ignored -> notificationListenerFactory.apply(shard))
+                        .register(location, queueShardPools.get(shard.getShardId())::wakeup));
+    }
+
     /**
      * Start tasks processing in all queues registered in the service.
      */
@@ -105,6 +171,8 @@ public class QueueService {
         requireNonNull(queueId, "queueId");
         log.info("starting queue: queueId={}", queueId);
         getQueuePools(queueId, "start").values().forEach(QueueExecutionPool::start);
+        notificationListeners.values().forEach(PostgresNotificationListener::start);
+        multiplexedPollers.start();
     }
 
     /**
@@ -114,6 +182,8 @@ public class QueueService {
     public void shutdown() {
         log.info("shutting down all queues");
         registeredQueues.keySet().forEach(this::shutdown);
+        notificationListeners.values().forEach(PostgresNotificationListener::shutdown);
+        multiplexedPollers.shutdown();
     }
 
     /**
@@ -196,6 +266,43 @@ public class QueueService {
         registeredQueues.keySet().forEach(this::pause);
     }
 
+    /**
+     * Change number of task processing threads of the queue on every shard without restart.
+     * <p>
+     * New threads start immediately, excess threads are stopped after they finish their current task.
+     * Overrides {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getThreadCount()}
+     * until the next invocation.
+     *
+     * @param queueId     Queue identifier.
+     * @param threadCount New number of threads per shard.
+     */
+    public void resize(@Nonnull QueueId queueId, int threadCount) {
+        requireNonNull(queueId, "queueId");
+        log.info("resizing queue: queueId={}, threadCount={}", queueId, threadCount);
+        getQueuePools(queueId, "resize").values().forEach(pool -> pool.resize(threadCount));
+    }
+
+    /**
+     * Get current number of task processing threads of the queue per shard.
+     *
+     * @param queueId Queue identifier.
+     * @return Number of threads per shard.
+     */
+    int getThreadCount(@Nonnull QueueId queueId) {
+        requireNonNull(queueId, "queueId");
+        return getQueuePools(queueId, "getThreadCount").values().stream()
+                .mapToInt(QueueExecutionPool::getThreadCount).max().orElse(0);
+    }
+
+    /**
+     * Get number of shards, on which the queues are processed.
+     *
+     * @return Number of shards.
+     */
+    int getShardCount() {
+        return queueShards.size();
+    }
+
     /**
      * Get attribute that all queues were paused with {@link QueueService#pause()} method.
      *
@@ -3,6 +3,7 @@ package ru.yandex.money.common.dbqueue.config;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.transaction.support.TransactionOperations;
 import ru.yandex.money.common.dbqueue.dao.QueueDao;
+import ru.yandex.money.common.dbqueue.dao.QueueRoutines;
 
 import javax.annotation.Nonnull;
 
@@ -110,4 +111,16 @@ public class QueueShard {
     public QueueTableSchema getQueueTableSchema() {
         return queueTableSchema;
     }
+
+    /**
+     * Create or replace server-side routines of the queue table in that shard.
+     *
+     * @param tableName Name of the queue table.
+     * @see QueueTableSchema#hasServerRoutines()
+     */
+    public void installRoutines(@Nonnull String tableName) {
+        requireNonNull(tableName);
+        QueueRoutines.Factory.create(databaseDialect, queueTableSchema).createInstallSql(tableName)
+                .forEach(jdbcTemplate::execute);
+    }
 }
@@ -3,8 +3,10 @@ package ru.yandex.money.common.dbqueue.config;
 import ru.yandex.money.common.dbqueue.api.TaskRecord;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -39,8 +41,17 @@ public class QueueTableSchema {
     private final String createdAtField;
     @Nonnull
     private final String nextProcessAtField;
+    @Nullable
+    private final String priorityField;
+    @Nullable
+    private final String orderingKeyField;
+    @Nullable
+    private final String dedupKeyField;
+    @Nullable
+    private final String doneAtField;
     @Nonnull
     private final List<String> extFields;
+    private final boolean serverRoutines;
 
     private QueueTableSchema(@Nonnull String idField,
                              @Nonnull String queueNameField,
@@ -50,7 +61,12 @@ public class QueueTableSchema {
                              @Nonnull String totalAttemptField,
                              @Nonnull String createdAtField,
                              @Nonnull String nextProcessAtField,
-                             @Nonnull List<String> extFields) {
+                             @Nullable String priorityField,
+                             @Nullable String orderingKeyField,
+                             @Nullable String dedupKeyField,
+                             @Nullable String doneAtField,
+                             @Nonnull List<String> extFields,
+                             boolean serverRoutines) {
         this.idField = removeSpecialChars(requireNonNull(idField));
         this.queueNameField = removeSpecialChars(requireNonNull(queueNameField));
         this.payloadField = removeSpecialChars(requireNonNull(payloadField));
@@ -59,8 +75,13 @@ public class QueueTableSchema {
         this.totalAttemptField = removeSpecialChars(requireNonNull(totalAttemptField));
         this.createdAtField = removeSpecialChars(requireNonNull(createdAtField));
         this.nextProcessAtField = removeSpecialChars(requireNonNull(nextProcessAtField));
+        this.priorityField = priorityField == null ? null : removeSpecialChars(priorityField);
+        this.orderingKeyField = orderingKeyField == null ? null : removeSpecialChars(orderingKeyField);
+        this.dedupKeyField = dedupKeyField == null ? null : removeSpecialChars(dedupKeyField);
+        this.doneAtField = doneAtField == null ? null : removeSpecialChars(doneAtField);
         this.extFields = requireNonNull(extFields).stream().map(QueueTableSchema::removeSpecialChars)
                 .collect(Collectors.toList());
+        this.serverRoutines = serverRoutines;
     }
 
     /**
@@ -158,6 +179,61 @@ public class QueueTableSchema {
         return idField;
     }
 
+    /**
+     * Field with a column name for the task priority ({@code INTEGER} type).
+     * Tasks with greater priority are picked first.
+     * Column maps onto {@link ru.yandex.money.common.dbqueue.api.EnqueueParams#getPriority()}.
+     *
+     * @return Column name, empty if tasks are picked in order of processing time only.
+     */
+    @Nonnull
+    public Optional<String> getPriorityField() {
+        return Optional.ofNullable(priorityField);
+    }
+
+    /**
+     * Field with a column name for the ordering key of the task ({@code TEXT} type).
+     * Tasks with the same key are processed one at a time in order of enqueueing,
+     * tasks with different keys are processed in parallel.
+     * A task is not picked while an older task of the key is in the queue, even a reenqueued or delayed one.
+     * Column maps onto {@link ru.yandex.money.common.dbqueue.api.EnqueueParams#getOrderingKey()}.
+     *
+     * @return Column name, empty if tasks are processed in any order.
+     */
+    @Nonnull
+    public Optional<String> getOrderingKeyField() {
+        return Optional.ofNullable(orderingKeyField);
+    }
+
+    /**
+     * Field with a column name for the deduplication key of the task ({@code TEXT} type).
+     * The table must have a unique index on the queue name and this column.
+     * Column maps onto {@link ru.yandex.money.common.dbqueue.api.EnqueueParams#getDedupKey()}.
+     *
+     * @return Column name, empty if tasks are not deduplicated.
+     */
+    @Nonnull
+    public Optional<String> getDedupKeyField() {
+        return Optional.ofNullable(dedupKeyField);
+    }
+
+    /**
+     * Field with a column name for the completion time of the task ({@code TIMESTAMP WITH TIME ZONE} type).
+     * When specified, finished tasks are marked done by setting this column instead of being deleted,
+     * done tasks are never picked again and are removed by dropping whole partitions of the table,
+     * see {@link PostgresQueuePartitionMaintainer}.
+     * Indexes used to pick tasks and the unique index of the deduplication key
+     * should be partial with {@code WHERE <column> IS NULL} condition.
+     * <p>
+     * Supported for PostgreSQL only, DAO factories reject the schema with this field for other databases.
+     *
+     * @return Column name, empty if finished tasks are deleted.
+     */
+    @Nonnull
+    public Optional<String> getDoneAtField() {
+        return Optional.ofNullable(doneAtField);
+    }
+
     /**
      * Additional list of column names ({@code TEXT} type),
      * which are mapping onto {@link TaskRecord#getExtData()}.
@@ -169,6 +245,18 @@ public class QueueTableSchema {
         return extFields;
     }
 
+    /**
+     * Whether tasks are picked, deleted and re-enqueued by routines stored in the database.
+     * Routines are created for every queue table by
+     * {@link ru.yandex.money.common.dbqueue.dao.QueueRoutines#install(org.springframework.jdbc.core.JdbcOperations, String)}
+     * and must be re-created after changes of the schema.
+     *
+     * @return true, if server-side routines are used instead of dynamic SQL statements.
+     */
+    public boolean hasServerRoutines() {
+        return serverRoutines;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -185,7 +273,12 @@ public class QueueTableSchema {
         private String totalAttemptField = "total_attempt";
         private String createdAtField = "created_at";
         private String nextProcessAtField = "next_process_at";
+        private String priorityField;
+        private String orderingKeyField;
+        private String dedupKeyField;
+        private String doneAtField;
         private List<String> extFields = new ArrayList<>();
+        private boolean serverRoutines;
 
         private Builder() {
         }
@@ -230,14 +323,40 @@ public class QueueTableSchema {
             return this;
         }
 
+        public Builder withPriorityField(String priorityField) {
+            this.priorityField = priorityField;
+            return this;
+        }
+
+        public Builder withOrderingKeyField(String orderingKeyField) {
+            this.orderingKeyField = orderingKeyField;
+            return this;
+        }
+
+        public Builder withDedupKeyField(String dedupKeyField) {
+            this.dedupKeyField = dedupKeyField;
+            return this;
+        }
+
+        public Builder withDoneAtField(String doneAtField) {
+            this.doneAtField = doneAtField;
+            return this;
+        }
+
         public Builder withExtFields(List<String> extFields) {
             this.extFields = extFields;
             return this;
         }
 
+        public Builder withServerRoutines(boolean serverRoutines) {
+            this.serverRoutines = serverRoutines;
+            return this;
+        }
+
         public QueueTableSchema build() {
             return new QueueTableSchema(idField, queueNameField, payloadField, attemptField, reenqueueAttemptField,
-                    totalAttemptField, createdAtField, nextProcessAtField, extFields);
+                    totalAttemptField, createdAtField, nextProcessAtField, priorityField, orderingKeyField,
+                    dedupKeyField, doneAtField, extFields, serverRoutines);
         }
     }
 }
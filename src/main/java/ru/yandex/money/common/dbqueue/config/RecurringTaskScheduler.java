@@ -0,0 +1,209 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.QueueConsumer;
+import ru.yandex.money.common.dbqueue.api.Task;
+import ru.yandex.money.common.dbqueue.api.TaskExecutionResult;
+import ru.yandex.money.common.dbqueue.api.TaskPayloadTransformer;
+import ru.yandex.money.common.dbqueue.api.impl.NoopPayloadTransformer;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+import ru.yandex.money.common.dbqueue.settings.RecurringSchedule;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Scheduler of recurring tasks, which are stored in a dedicated queue.
+ * <p>
+ * Every recurring task is identified by a key, the key is both the payload
+ * and the deduplication key ({@link QueueTableSchema#getDedupKeyField()}) of the task,
+ * so the queue holds exactly one instance of the task regardless of the number of nodes.
+ * After each execution the instance is re-enqueued to the next fire time of its schedule,
+ * computed from the schedule rather than from the previous execution, so fire times do not drift.
+ * Failed executions are retried according to the queue settings.
+ * <p>
+ * Instances missed while all the nodes were down are coalesced into a single execution right after the start.
+ * Lost instances are restored by {@link #restoreTasks()}, which runs on registration
+ * and periodically after {@link #start(Duration)}.
+ * <p>
+ * The scheduler is a consumer of the queue and must be registered in {@link QueueService}.
+ * Clocks of the nodes should be synchronized, fire times are computed on the executing node.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RecurringTaskScheduler implements QueueConsumer<String> {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringTaskScheduler.class);
+
+    private final Map<String, RecurringTask> tasks = new ConcurrentHashMap<>();
+    @Nonnull
+    private final QueueConfig queueConfig;
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param queueConfig Configuration of the queue with recurring tasks.
+     * @param queueShard  Shard to store recurring tasks in,
+     *                    queue table schema must have {@link QueueTableSchema#getDedupKeyField()}.
+     */
+    public RecurringTaskScheduler(@Nonnull QueueConfig queueConfig, @Nonnull QueueShard queueShard) {
+        this(queueConfig, queueShard, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param queueConfig Configuration of the queue with recurring tasks.
+     * @param queueShard  Shard to store recurring tasks in.
+     * @param clock       Current time provider.
+     */
+    RecurringTaskScheduler(@Nonnull QueueConfig queueConfig, @Nonnull QueueShard queueShard, @Nonnull Clock clock) {
+        this.queueConfig = requireNonNull(queueConfig, "queueConfig");
+        this.queueShard = requireNonNull(queueShard, "queueShard");
+        this.clock = requireNonNull(clock, "clock");
+        if (!queueShard.getQueueTableSchema().getDedupKeyField().isPresent()) {
+            throw new IllegalArgumentException("dedup key field must be specified for recurring tasks: shardId=" +
+                    queueShard.getShardId());
+        }
+    }
+
+    /**
+     * Register a recurring task and enqueue its instance, unless the instance is already present.
+     * Changed schedule of an already enqueued task applies after its next execution.
+     *
+     * @param key      Unique key of the task.
+     * @param schedule Schedule of the task.
+     * @param handler  Handler of the task. {@link TaskExecutionResult#fail()} retries the execution,
+     *                 other results re-enqueue the task to the next fire time.
+     */
+    public void register(@Nonnull String key,
+                         @Nonnull RecurringSchedule schedule,
+                         @Nonnull Function<Task<String>, TaskExecutionResult> handler) {
+        requireNonNull(key, "key");
+        RecurringTask task = new RecurringTask(requireNonNull(schedule, "schedule"),
+                requireNonNull(handler, "handler"));
+        tasks.put(key, task);
+        restoreTask(key, task);
+    }
+
+    /**
+     * Enqueue instances of the registered tasks, which are missing in the queue.
+     */
+    public void restoreTasks() {
+        tasks.forEach(this::restoreTask);
+    }
+
+    private void restoreTask(@Nonnull String key, @Nonnull RecurringTask task) {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        EnqueueParams<String> enqueueParams = EnqueueParams.create(key).withDedupKey(key)
+                .withExecutionDelay(getDelay(now, task.schedule.getNextFireTime(now)));
+        queueShard.getTransactionTemplate().execute(status ->
+                queueShard.getQueueDao().enqueue(queueConfig.getLocation(), enqueueParams));
+    }
+
+    /**
+     * Start periodic restoring of lost task instances.
+     *
+     * @param interval Interval between restoring attempts.
+     */
+    public synchronized void start(@Nonnull Duration interval) {
+        requireNonNull(interval, "interval");
+        if (scheduler != null) {
+            throw new IllegalStateException("recurring task scheduler is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recurring-task-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                restoreTasks();
+            } catch (RuntimeException e) {
+                log.warn("cannot restore recurring tasks: location={}", queueConfig.getLocation(), e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop periodic restoring of lost task instances.
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public TaskExecutionResult execute(@Nonnull Task<String> task) {
+        String key = task.getPayloadOrThrow();
+        RecurringTask recurringTask = tasks.get(key);
+        if (recurringTask == null) {
+            // the task may be registered on other nodes only
+            log.warn("recurring task is not registered: location={}, key={}", queueConfig.getLocation(), key);
+            return TaskExecutionResult.fail();
+        }
+        TaskExecutionResult result = recurringTask.handler.apply(task);
+        if (result.getActionType() == TaskExecutionResult.Type.FAIL) {
+            return result;
+        }
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        return TaskExecutionResult.reenqueue(getDelay(now, recurringTask.schedule.getNextFireTime(now)));
+    }
+
+    /**
+     * Delay is rounded up to whole seconds, so that the task does not fire before its fire time
+     */
+    private static Duration getDelay(@Nonnull ZonedDateTime now, @Nonnull ZonedDateTime fireTime) {
+        Duration delay = Duration.between(now, fireTime);
+        return delay.getNano() == 0 ? delay : Duration.ofSeconds(delay.getSeconds() + 1L);
+    }
+
+    @Nonnull
+    @Override
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    @Nonnull
+    @Override
+    public TaskPayloadTransformer<String> getPayloadTransformer() {
+        return NoopPayloadTransformer.getInstance();
+    }
+
+    /**
+     * Registered recurring task
+     */
+    private static class RecurringTask {
+        @Nonnull
+        private final RecurringSchedule schedule;
+        @Nonnull
+        private final Function<Task<String>, TaskExecutionResult> handler;
+
+        private RecurringTask(@Nonnull RecurringSchedule schedule,
+                              @Nonnull Function<Task<String>, TaskExecutionResult> handler) {
+            this.schedule = schedule;
+            this.handler = handler;
+        }
+    }
+}
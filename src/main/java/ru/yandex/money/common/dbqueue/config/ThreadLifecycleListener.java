@@ -3,6 +3,7 @@ package ru.yandex.money.common.dbqueue.config;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.time.Duration;
 
 /**
  * Listener for task processing thread in the queue.
@@ -38,6 +39,22 @@ public interface ThreadLifecycleListener {
      */
     void executed(QueueShardId shardId, QueueLocation location, boolean taskProcessed, long threadBusyTime);
 
+    /**
+     * Thread found no tasks for processing and goes idle.
+     * <p>
+     * Called after {@link #executed} when no tasks were processed.
+     * <p>
+     * Might be useful for monitoring of the idle delay, which adapts to the queue load
+     * when {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getMaxNoTaskTimeout()} is specified.
+     *
+     * @param shardId     Shard identifier, which processes the queue.
+     * @param location    Queue location.
+     * @param idleTimeout Delay before the next attempt to pick tasks.
+     */
+    default void idle(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location,
+                      @Nonnull Duration idleTimeout) {
+    }
+
     /**
      * End of the task processing lifecycle and start of the new one.
      * <p>
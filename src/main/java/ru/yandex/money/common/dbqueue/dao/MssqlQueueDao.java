@@ -9,15 +9,29 @@ import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.sql.ResultSet;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Database access object to manage tasks in the queue for Microsoft SQL server database type.
+ * <p>
+ * When {@link QueueTableSchema#getDedupKeyField()} is specified, tasks with a deduplication key
+ * are inserted with {@code MERGE} and the identifier of the existing task is returned when the key is present.
+ * <p>
+ * Identifiers of a batch are allocated from {@link QueueLocation#getIdSequence()} before the insert,
+ * identifiers of an identity column are returned by {@code MERGE} along with the position of the row in the batch.
  *
  * @author Oleg Kandaurov
  * @author Behrooz Shabani
@@ -25,9 +39,35 @@ import static java.util.Objects.requireNonNull;
  */
 public class MssqlQueueDao implements QueueDao {
 
+    /**
+     * SQL Server allows at most 2100 parameters in a single statement
+     */
+    private static final int MAX_DELETE_BATCH_SIZE = 2000;
+
+    /**
+     * SQL Server allows at most 2100 parameters in a single statement
+     */
+    private static final int MAX_PARAMETERS_COUNT = 2100;
+
+    /**
+     * SQL Server allows at most 1000 rows in a table value constructor
+     */
+    private static final int MAX_ENQUEUE_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of attempts to insert a task with a deduplication key,
+     * the task with the same key can be deleted between merge and select
+     */
+    private static final int MAX_DEDUP_ATTEMPTS = 3;
+
     private final Map<QueueLocation, String> enqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueDedupSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> findByDedupKeySqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> nextSequenceSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> deleteSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> reenqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> readyQueuesSqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
     private final NamedParameterJdbcTemplate jdbcTemplate;
@@ -55,14 +95,101 @@ public class MssqlQueueDao implements QueueDao {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("queueName", location.getQueueId().asString())
                 .addValue("payload", enqueueParams.getPayload())
-                .addValue("executionDelay", enqueueParams.getExecutionDelay().getSeconds());
+                .addValue("executionDelay", enqueueParams.getExecutionDelay().getSeconds())
+                .addValue("priority", enqueueParams.getPriority())
+                .addValue("orderingKey", enqueueParams.getOrderingKey())
+                .addValue("dedupKey", enqueueParams.getDedupKey());
 
         queueTableSchema.getExtFields().forEach(paramName -> params.addValue(paramName, null));
         enqueueParams.getExtData().forEach(params::addValue);
+        if (queueTableSchema.getDedupKeyField().isPresent() && enqueueParams.getDedupKey() != null) {
+            return enqueueDeduplicated(location, params);
+        }
         return requireNonNull(jdbcTemplate.queryForObject(
                 enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params, Long.class));
     }
 
+    @SuppressFBWarnings({"NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE", "SQL_INJECTION_SPRING_JDBC"})
+    private long enqueueDeduplicated(@Nonnull QueueLocation location, @Nonnull MapSqlParameterSource params) {
+        for (int attempt = 0; attempt < MAX_DEDUP_ATTEMPTS; attempt++) {
+            // NEXT VALUE FOR is not allowed in MERGE statement
+            location.getIdSequence().ifPresent(idSequence -> params.addValue("id",
+                    requireNonNull(jdbcTemplate.getJdbcTemplate().queryForObject(
+                            nextSequenceSqlCache.computeIfAbsent(idSequence, this::createNextSequenceSql),
+                            Long.class))));
+            List<Long> insertedIds = jdbcTemplate.queryForList(
+                    enqueueDedupSqlCache.computeIfAbsent(location, this::createEnqueueDedupSql), params, Long.class);
+            if (!insertedIds.isEmpty()) {
+                return insertedIds.get(0);
+            }
+            List<Long> existingIds = jdbcTemplate.queryForList(
+                    findByDedupKeySqlCache.computeIfAbsent(location, this::createFindByDedupKeySql), params,
+                    Long.class);
+            if (!existingIds.isEmpty()) {
+                return existingIds.get(0);
+            }
+        }
+        throw new IllegalStateException("cannot enqueue task with dedup key: location=" + location +
+                ", dedupKey=" + params.getValue("dedupKey"));
+    }
+
+    @Override
+    @Nonnull
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+
+        if (queueTableSchema.getDedupKeyField().isPresent() &&
+                enqueueParams.stream().anyMatch(taskParams -> taskParams.getDedupKey() != null)) {
+            // ids of existing tasks are not returned by multi-row insert
+            return enqueueParams.stream().map(taskParams -> enqueue(location, taskParams))
+                    .collect(Collectors.toList());
+        }
+        int batchSize = Math.min(MAX_ENQUEUE_BATCH_SIZE,
+                (MAX_PARAMETERS_COUNT - 1) / (3 + (queueTableSchema.getPriorityField().isPresent() ? 1 : 0) +
+                        (queueTableSchema.getOrderingKeyField().isPresent() ? 1 : 0) +
+                        (queueTableSchema.getDedupKeyField().isPresent() ? 1 : 0) +
+                        queueTableSchema.getExtFields().size()));
+        List<Long> generatedIds = new ArrayList<>(enqueueParams.size());
+        for (int from = 0; from < enqueueParams.size(); from += batchSize) {
+            List<EnqueueParams<String>> batch = enqueueParams.subList(from,
+                    Math.min(from + batchSize, enqueueParams.size()));
+            generatedIds.addAll(location.getIdSequence().isPresent() ?
+                    enqueueBatchWithSequence(location, batch) : enqueueBatchWithIdentity(location, batch));
+        }
+        return generatedIds;
+    }
+
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private List<Long> enqueueBatchWithSequence(@Nonnull QueueLocation location,
+                                                @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        // ids are allocated beforehand, since NEXT VALUE FOR does not guarantee the order of OUTPUT rows
+        List<Long> ids = jdbcTemplate.getJdbcTemplate().queryForList(createNextSequenceBatchSql(
+                location.getIdSequence().orElseThrow(IllegalStateException::new), enqueueParams.size()), Long.class);
+        MapSqlParameterSource params = createEnqueueBatchParams(location, enqueueParams);
+        for (int i = 0; i < ids.size(); i++) {
+            params.addValue("id_" + i, ids.get(i));
+        }
+        jdbcTemplate.update(createEnqueueBatchSql(location, enqueueParams.size()), params);
+        return ids;
+    }
+
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private List<Long> enqueueBatchWithIdentity(@Nonnull QueueLocation location,
+                                                @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        MapSqlParameterSource params = createEnqueueBatchParams(location, enqueueParams);
+        for (int i = 0; i < enqueueParams.size(); i++) {
+            params.addValue("order_" + i, i);
+        }
+        // OUTPUT clause does not guarantee order, so every row is returned with its position in the batch
+        Long[] ids = new Long[enqueueParams.size()];
+        jdbcTemplate.query(createEnqueueBatchMergeSql(location, enqueueParams.size()), params, (ResultSet rs) -> {
+            ids[rs.getInt(2)] = rs.getLong(1);
+        });
+        return Arrays.asList(ids);
+    }
 
     @Override
     public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
@@ -75,6 +202,21 @@ public class MssqlQueueDao implements QueueDao {
         return updatedRows != 0;
     }
 
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        List<Long> ids = new ArrayList<>(taskIds);
+        int deletedRows = 0;
+        for (int from = 0; from < ids.size(); from += MAX_DELETE_BATCH_SIZE) {
+            deletedRows += jdbcTemplate.update(deleteBatchSqlCache.computeIfAbsent(location, this::createDeleteBatchSql),
+                    new MapSqlParameterSource()
+                            .addValue("ids", ids.subList(from, Math.min(from + MAX_DELETE_BATCH_SIZE, ids.size())))
+                            .addValue("queueName", location.getQueueId().asString()));
+        }
+        return deletedRows;
+    }
+
     @Override
     public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
         requireNonNull(location);
@@ -87,30 +229,185 @@ public class MssqlQueueDao implements QueueDao {
         return updatedRows != 0;
     }
 
+    @Override
+    @Nonnull
+    public List<QueueLocation> findReadyQueues(@Nonnull Collection<QueueLocation> locations) {
+        requireNonNull(locations);
+        if (locations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String tableName = locations.iterator().next().getTableName();
+        if (locations.stream().anyMatch(location -> !tableName.equals(location.getTableName()))) {
+            throw new IllegalArgumentException("queues must be stored in the same table: locations=" + locations);
+        }
+        Map<String, QueueLocation> queueLocations = locations.stream().collect(Collectors.toMap(
+                location -> location.getQueueId().asString(), Function.identity(),
+                (first, second) -> first, LinkedHashMap::new));
+        List<String> queueNames = new ArrayList<>(queueLocations.keySet());
+        List<QueueLocation> readyLocations = new ArrayList<>();
+        for (int from = 0; from < queueNames.size(); from += MAX_DELETE_BATCH_SIZE) {
+            jdbcTemplate.queryForList(readyQueuesSqlCache.computeIfAbsent(tableName, this::createReadyQueuesSql),
+                    new MapSqlParameterSource().addValue("queueNames",
+                            queueNames.subList(from, Math.min(from + MAX_DELETE_BATCH_SIZE, queueNames.size()))),
+                    String.class)
+                    .forEach(queueName -> readyLocations.add(queueLocations.get(queueName)));
+        }
+        return readyLocations;
+    }
+
     private String createEnqueueSql(@Nonnull QueueLocation location) {
-        return "INSERT INTO " + location.getTableName() + "(" +
+        return "INSERT INTO " + location.getTableName() + createEnqueueColumnsSql(location) +
+                " OUTPUT inserted." + queueTableSchema.getIdField() + " VALUES " +
+                createEnqueueValuesSql(location.getIdSequence().map(seq -> "NEXT VALUE FOR " + seq + ", ").orElse(""));
+    }
+
+    private String createEnqueueDedupSql(@Nonnull QueueLocation location) {
+        // range lock on the absent key serializes concurrent inserts of the key
+        return "MERGE INTO " + location.getTableName() + " WITH (HOLDLOCK) AS t USING (SELECT 1 AS one) AS s" +
+                " ON t." + queueTableSchema.getQueueNameField() + " = :queueName AND t." +
+                queueTableSchema.getDedupKeyField().orElseThrow(IllegalStateException::new) + " = :dedupKey" +
+                " WHEN NOT MATCHED THEN INSERT " + createEnqueueColumnsSql(location) +
+                " VALUES " + createEnqueueValuesSql(location.getIdSequence().map(ignored -> ":id, ").orElse("")) +
+                " OUTPUT inserted." + queueTableSchema.getIdField() + ";";
+    }
+
+    private String createEnqueueColumnsSql(@Nonnull QueueLocation location) {
+        return "(" +
                 (location.getIdSequence().map(ignored -> queueTableSchema.getIdField() + ",").orElse("")) +
                 queueTableSchema.getQueueNameField() + "," +
                 queueTableSchema.getPayloadField() + "," +
                 queueTableSchema.getNextProcessAtField() + "," +
                 queueTableSchema.getReenqueueAttemptField() + "," +
                 queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDedupKeyField().map(field -> "," + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" :
                         queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
-                ") OUTPUT inserted." + queueTableSchema.getIdField() + " VALUES " +
-                "(" + location.getIdSequence().map(seq -> "NEXT VALUE FOR " + seq + ", ").orElse("") +
+                ")";
+    }
+
+    private String createEnqueueValuesSql(@Nonnull String idValue) {
+        return "(" + idValue +
                 ":queueName, :payload, dateadd(ss, :executionDelay, SYSDATETIMEOFFSET()), 0, 0" +
+                queueTableSchema.getPriorityField().map(ignored -> ", :priority").orElse("") +
+                queueTableSchema.getOrderingKeyField().map(ignored -> ", :orderingKey").orElse("") +
+                queueTableSchema.getDedupKeyField().map(ignored -> ", :dedupKey").orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
                         .map(field -> ":" + field).collect(Collectors.joining(", ", ", ", ""))) +
                 ")";
     }
 
+    private String createFindByDedupKeySql(@Nonnull QueueLocation location) {
+        return "SELECT " + queueTableSchema.getIdField() + " FROM " + location.getTableName() +
+                " WHERE " + queueTableSchema.getQueueNameField() + " = :queueName AND " +
+                queueTableSchema.getDedupKeyField().orElseThrow(IllegalStateException::new) + " = :dedupKey";
+    }
+
+    private String createNextSequenceSql(@Nonnull String idSequence) {
+        return "SELECT NEXT VALUE FOR " + idSequence;
+    }
+
+    private String createNextSequenceBatchSql(@Nonnull String idSequence, int count) {
+        return "SELECT NEXT VALUE FOR " + idSequence + " FROM (VALUES " +
+                String.join(", ", Collections.nCopies(count, "(0)")) + ") AS v(n)";
+    }
+
+    private MapSqlParameterSource createEnqueueBatchParams(@Nonnull QueueLocation location,
+                                                           @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("queueName", location.getQueueId().asString());
+        for (int i = 0; i < enqueueParams.size(); i++) {
+            EnqueueParams<String> taskParams = enqueueParams.get(i);
+            String suffix = "_" + i;
+            params.addValue("payload" + suffix, taskParams.getPayload())
+                    .addValue("executionDelay" + suffix, taskParams.getExecutionDelay().getSeconds())
+                    .addValue("priority" + suffix, taskParams.getPriority())
+                    .addValue("orderingKey" + suffix, taskParams.getOrderingKey())
+                    .addValue("dedupKey" + suffix, taskParams.getDedupKey());
+            queueTableSchema.getExtFields().forEach(paramName -> params.addValue(paramName + suffix, null));
+            taskParams.getExtData().forEach((paramName, value) -> params.addValue(paramName + suffix, value));
+        }
+        return params;
+    }
+
+    private String createEnqueueBatchSql(@Nonnull QueueLocation location, int rowsCount) {
+        StringBuilder sql = new StringBuilder("INSERT INTO " + location.getTableName() + "(" +
+                queueTableSchema.getIdField() + "," +
+                queueTableSchema.getQueueNameField() + "," +
+                queueTableSchema.getPayloadField() + "," +
+                queueTableSchema.getNextProcessAtField() + "," +
+                queueTableSchema.getReenqueueAttemptField() + "," +
+                queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDedupKeyField().map(field -> "," + field).orElse("") +
+                (queueTableSchema.getExtFields().isEmpty() ? "" :
+                        queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
+                ") VALUES ");
+        for (int i = 0; i < rowsCount; i++) {
+            String suffix = "_" + i;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:id").append(suffix).append(", :queueName, :payload").append(suffix)
+                    .append(", dateadd(ss, :executionDelay").append(suffix).append(", SYSDATETIMEOFFSET()), 0, 0")
+                    .append(queueTableSchema.getPriorityField().map(ignored -> ", :priority" + suffix).orElse(""))
+                    .append(queueTableSchema.getOrderingKeyField().map(ignored -> ", :orderingKey" + suffix).orElse(""))
+                    .append(queueTableSchema.getDedupKeyField().map(ignored -> ", :dedupKey" + suffix).orElse(""))
+                    .append(queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
+                            .map(field -> ":" + field + suffix).collect(Collectors.joining(", ", ", ", "")))
+                    .append(")");
+        }
+        return sql.toString();
+    }
+
+    private String createEnqueueBatchMergeSql(@Nonnull QueueLocation location, int rowsCount) {
+        StringBuilder sql = new StringBuilder("MERGE INTO " + location.getTableName() + " USING (VALUES ");
+        for (int i = 0; i < rowsCount; i++) {
+            String suffix = "_" + i;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:order").append(suffix).append(", :payload").append(suffix)
+                    .append(", dateadd(ss, :executionDelay").append(suffix).append(", SYSDATETIMEOFFSET())")
+                    .append(queueTableSchema.getPriorityField().map(ignored -> ", :priority" + suffix).orElse(""))
+                    .append(queueTableSchema.getOrderingKeyField().map(ignored -> ", :orderingKey" + suffix).orElse(""))
+                    .append(queueTableSchema.getDedupKeyField().map(ignored -> ", :dedupKey" + suffix).orElse(""))
+                    .append(queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
+                            .map(field -> ":" + field + suffix).collect(Collectors.joining(", ", ", ", "")))
+                    .append(")");
+        }
+        List<String> sourceFields = new ArrayList<>(Arrays.asList(
+                queueTableSchema.getPayloadField(), queueTableSchema.getNextProcessAtField()));
+        queueTableSchema.getPriorityField().ifPresent(sourceFields::add);
+        queueTableSchema.getOrderingKeyField().ifPresent(sourceFields::add);
+        queueTableSchema.getDedupKeyField().ifPresent(sourceFields::add);
+        sourceFields.addAll(queueTableSchema.getExtFields());
+        // the condition never matches, so every source row is inserted
+        return sql.append(") AS s (task_order, ").append(String.join(", ", sourceFields)).append(")")
+                .append(" ON 1 = 0 WHEN NOT MATCHED THEN INSERT ").append(createEnqueueColumnsSql(location))
+                .append(" VALUES (:queueName, s.").append(queueTableSchema.getPayloadField())
+                .append(", s.").append(queueTableSchema.getNextProcessAtField()).append(", 0, 0")
+                .append(sourceFields.subList(2, sourceFields.size()).stream()
+                        .map(field -> ", s." + field).collect(Collectors.joining()))
+                .append(") OUTPUT inserted.").append(queueTableSchema.getIdField()).append(", s.task_order;")
+                .toString();
+    }
+
     private String createDeleteSql(@Nonnull QueueLocation location) {
+        if (queueTableSchema.hasServerRoutines()) {
+            return "EXEC " + location.getTableName() + "_ack :queueName, :id";
+        }
         return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
                 " = :queueName AND " + queueTableSchema.getIdField() + " = :id";
     }
 
+    private String createDeleteBatchSql(@Nonnull QueueLocation location) {
+        return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = :queueName AND " + queueTableSchema.getIdField() + " IN (:ids)";
+    }
+
     private String createReenqueueSql(@Nonnull QueueLocation location) {
+        if (queueTableSchema.hasServerRoutines()) {
+            return "EXEC " + location.getTableName() + "_reenqueue :queueName, :id, :executionDelay";
+        }
         return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
                 " = dateadd(ss, :executionDelay, SYSDATETIMEOFFSET()), " +
                 queueTableSchema.getAttemptField() + " = 0, " +
@@ -120,4 +417,10 @@ public class MssqlQueueDao implements QueueDao {
                 queueTableSchema.getQueueNameField() + " = :queueName";
     }
 
+    private String createReadyQueuesSql(@Nonnull String tableName) {
+        return "SELECT DISTINCT " + queueTableSchema.getQueueNameField() +
+                " FROM " + tableName + " with (readpast)" +
+                " WHERE " + queueTableSchema.getQueueNameField() + " IN (:queueNames) AND " +
+                queueTableSchema.getNextProcessAtField() + " <= SYSDATETIMEOFFSET()";
+    }
 }
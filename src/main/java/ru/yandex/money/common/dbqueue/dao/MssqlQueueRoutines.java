@@ -0,0 +1,71 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generator of Microsoft SQL Server procedures to pick, delete and re-enqueue tasks.
+ * Procedures are created by {@code CREATE OR ALTER}, which requires SQL Server 2016 SP1 or higher.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class MssqlQueueRoutines implements QueueRoutines {
+
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final MssqlQueueSqlBuilder sqlBuilder;
+
+    /**
+     * Constructor
+     *
+     * @param queueTableSchema Queue table scheme.
+     */
+    public MssqlQueueRoutines(@Nonnull QueueTableSchema queueTableSchema) {
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+        this.sqlBuilder = new MssqlQueueSqlBuilder(queueTableSchema);
+    }
+
+    @Nonnull
+    @Override
+    public List<String> createInstallSql(@Nonnull String tableName) {
+        requireNonNull(tableName);
+        return Arrays.asList(createPickSql(tableName), createAckSql(tableName), createReenqueueSql(tableName));
+    }
+
+    private String createPickSql(@Nonnull String tableName) {
+        return "CREATE OR ALTER PROCEDURE " + tableName + "_pick @queue_name VARCHAR(512), @limit INT, " +
+                "@retry_type VARCHAR(32), @retry_interval INT, @aging_interval INT AS\n" +
+                "BEGIN\n" +
+                // row count messages precede the result set of the procedure otherwise
+                "SET NOCOUNT ON;\n" +
+                sqlBuilder.createPickSql(tableName, "@queue_name", "@limit", "@aging_interval",
+                        sqlBuilder.createNextProcessAtSql(sqlBuilder.createRetryFactorSql("@retry_type"),
+                                "@retry_interval")) + ";\n" +
+                "END";
+    }
+
+    private String createAckSql(@Nonnull String tableName) {
+        return "CREATE OR ALTER PROCEDURE " + tableName + "_ack @queue_name VARCHAR(512), @id BIGINT AS\n" +
+                "DELETE FROM " + tableName + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = @queue_name AND " + queueTableSchema.getIdField() + " = @id";
+    }
+
+    private String createReenqueueSql(@Nonnull String tableName) {
+        return "CREATE OR ALTER PROCEDURE " + tableName + "_reenqueue @queue_name VARCHAR(512), @id BIGINT, " +
+                "@execution_delay INT AS\n" +
+                "UPDATE " + tableName + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = dateadd(ss, @execution_delay, SYSDATETIMEOFFSET()), " +
+                queueTableSchema.getAttemptField() + " = 0, " +
+                queueTableSchema.getReenqueueAttemptField() +
+                " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
+                "WHERE " + queueTableSchema.getIdField() + " = @id AND " +
+                queueTableSchema.getQueueNameField() + " = @queue_name";
+    }
+}
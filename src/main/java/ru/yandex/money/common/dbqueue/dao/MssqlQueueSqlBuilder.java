@@ -0,0 +1,155 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builder of Microsoft SQL Server statements shared by the pick query and the server-side routines,
+ * so both variants select and update tasks in the same way.
+ * <p>
+ * Parameters of the statements are passed as SQL expressions, so the caller chooses
+ * between named placeholders, literals and arguments of a procedure.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class MssqlQueueSqlBuilder {
+
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+
+    /**
+     * Constructor
+     *
+     * @param queueTableSchema Queue table scheme.
+     */
+    public MssqlQueueSqlBuilder(@Nonnull QueueTableSchema queueTableSchema) {
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+    }
+
+    /**
+     * Create a statement, which picks ready tasks of the queue and schedules their next attempt.
+     * Columns of the picked tasks are returned by the {@code OUTPUT} clause.
+     *
+     * @param tableName        Name of the queue table.
+     * @param queueNameSql     Expression with the queue name.
+     * @param limitSql         Expression with the maximum number of picked tasks.
+     * @param agingIntervalSql Expression with the priority aging interval in seconds,
+     *                         null when aging is disabled.
+     * @param nextProcessAtSql Expression with the time of the next attempt.
+     * @return statement picking the tasks.
+     */
+    @Nonnull
+    public String createPickSql(@Nonnull String tableName, @Nonnull String queueNameSql, @Nonnull String limitSql,
+                                @Nullable String agingIntervalSql, @Nonnull String nextProcessAtSql) {
+        return "WITH cte AS (" +
+                "SELECT " + queueTableSchema.getIdField() + " " +
+                "FROM " + tableName + " with (readpast, updlock) " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = " + queueNameSql + " " +
+                "  AND " + queueTableSchema.getNextProcessAtField() + " <= SYSDATETIMEOFFSET() " +
+                createOrderingKeySql(tableName) +
+                " ORDER BY " + createOrderSql(agingIntervalSql) + " " +
+                "offset 0 rows fetch next " + limitSql + " rows only " +
+                ") " +
+                "UPDATE " + tableName + " " +
+                "SET " +
+                "  " + queueTableSchema.getNextProcessAtField() + " = " + nextProcessAtSql + ", " +
+                "  " + queueTableSchema.getAttemptField() + " = " + queueTableSchema.getAttemptField() + " + 1, " +
+                "  " + queueTableSchema.getTotalAttemptField() + " = " + queueTableSchema.getTotalAttemptField() +
+                " + 1 " +
+                "OUTPUT inserted." + queueTableSchema.getIdField() + ", " +
+                "inserted." + queueTableSchema.getPayloadField() + ", " +
+                "inserted." + queueTableSchema.getAttemptField() + ", " +
+                "inserted." + queueTableSchema.getReenqueueAttemptField() + ", " +
+                "inserted." + queueTableSchema.getTotalAttemptField() + ", " +
+                "inserted." + queueTableSchema.getCreatedAtField() + ", " +
+                "inserted." + queueTableSchema.getNextProcessAtField() +
+                (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
+                        .map(field -> "inserted." + field).collect(Collectors.joining(", ", ", ", ""))) + " " +
+                "FROM cte " +
+                "WHERE " + tableName + "." + queueTableSchema.getIdField() + " = cte." +
+                queueTableSchema.getIdField();
+    }
+
+    /**
+     * Create an expression with the time of the next attempt of a picked task.
+     *
+     * @param retryFactorSql   Expression with the number of retry intervals before the next attempt.
+     * @param retryIntervalSql Expression with the retry interval in seconds.
+     * @return time of the next attempt.
+     */
+    @Nonnull
+    public String createNextProcessAtSql(@Nonnull String retryFactorSql, @Nonnull String retryIntervalSql) {
+        return "dateadd(ss, " + retryFactorSql + " * " + retryIntervalSql + ", SYSDATETIMEOFFSET())";
+    }
+
+    /**
+     * Create an expression with the number of retry intervals before the next attempt.
+     *
+     * @param retryType Strategy of the task retries.
+     * @return number of retry intervals.
+     */
+    @Nonnull
+    public String createRetryFactorSql(@Nonnull TaskRetryType retryType) {
+        requireNonNull(retryType);
+        switch (retryType) {
+            case GEOMETRIC_BACKOFF:
+                return "power(2, " + queueTableSchema.getAttemptField() + ")";
+            case ARITHMETIC_BACKOFF:
+                return "(1 + (" + queueTableSchema.getAttemptField() + " * 2))";
+            case LINEAR_BACKOFF:
+                return "1";
+            default:
+                throw new IllegalStateException("unknown retry type: " + retryType);
+        }
+    }
+
+    /**
+     * Create an expression with the number of retry intervals before the next attempt,
+     * when the retry strategy is known at execution time only.
+     *
+     * @param retryTypeSql Expression with the name of {@link TaskRetryType}.
+     * @return number of retry intervals.
+     */
+    @Nonnull
+    public String createRetryFactorSql(@Nonnull String retryTypeSql) {
+        return Arrays.stream(TaskRetryType.values())
+                .map(retryType -> " WHEN '" + retryType.name() + "' THEN " + createRetryFactorSql(retryType))
+                .collect(Collectors.joining("", "(CASE " + retryTypeSql, " END)"));
+    }
+
+    private String createOrderingKeySql(@Nonnull String tableName) {
+        return queueTableSchema.getOrderingKeyField().map(field -> " AND (" + tableName + "." + field + " IS NULL" +
+                " OR NOT EXISTS (SELECT 1 FROM " + tableName + " o" +
+                " WHERE o." + queueTableSchema.getQueueNameField() + " = " + tableName + "." +
+                queueTableSchema.getQueueNameField() +
+                " AND o." + field + " = " + tableName + "." + field +
+                // any older task of the key blocks it: in flight, waiting for a retry or delayed
+                " AND o." + queueTableSchema.getIdField() + " < " + tableName + "." + queueTableSchema.getIdField() +
+                "))").orElse("");
+    }
+
+    private String createOrderSql(@Nullable String agingIntervalSql) {
+        String nextProcessAtOrder = queueTableSchema.getNextProcessAtField() + " ASC";
+        return queueTableSchema.getPriorityField()
+                .map(field -> createPrioritySql(field, agingIntervalSql) + " DESC, " + nextProcessAtOrder)
+                .orElse(nextProcessAtOrder);
+    }
+
+    private String createPrioritySql(@Nonnull String priorityField, @Nullable String agingIntervalSql) {
+        if (agingIntervalSql == null) {
+            return priorityField;
+        }
+        // ready tasks gain one priority step per aging interval of waiting, zero interval disables aging
+        return "(" + priorityField + " + CASE WHEN " + agingIntervalSql + " > 0" +
+                " THEN datediff(ss, " + queueTableSchema.getNextProcessAtField() + ", SYSDATETIMEOFFSET()) / " +
+                agingIntervalSql + " ELSE 0 END)";
+    }
+}
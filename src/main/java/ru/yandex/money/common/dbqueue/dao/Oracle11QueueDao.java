@@ -1,34 +1,68 @@
 package ru.yandex.money.common.dbqueue.dao;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import ru.yandex.money.common.dbqueue.api.EnqueueParams;
 import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.sql.CallableStatement;
+import java.sql.Types;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Database access object to manage tasks in the queue for Oracle database type.
+ * <p>
+ * When {@link QueueTableSchema#getDedupKeyField()} is specified, tasks with a deduplication key
+ * are inserted with {@code MERGE} and the identifier of the existing task is returned when the key is present.
  *
  * @author Oleg Kandaurov
  * @since 15.05.2020
  */
 public class Oracle11QueueDao implements QueueDao {
 
+    /**
+     * Oracle allows at most 1000 expressions in IN list
+     */
+    private static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of rows inserted by a single JDBC batch
+     */
+    private static final int MAX_ENQUEUE_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of attempts to insert a task with a deduplication key,
+     * the task with the same key can be deleted between merge and select
+     */
+    private static final int MAX_DEDUP_ATTEMPTS = 3;
+
     private final Map<QueueLocation, String> enqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueDedupSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> findByDedupKeySqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> deleteSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> reenqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> readyQueuesSqlCache = new ConcurrentHashMap<>();
     private final Map<String, String> nextSequenceSqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> nextSequenceBatchSqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
     private final NamedParameterJdbcTemplate jdbcTemplate;
@@ -59,17 +93,90 @@ public class Oracle11QueueDao implements QueueDao {
         Long generatedId = Objects.requireNonNull(jdbcTemplate.getJdbcTemplate().queryForObject(
                 nextSequenceSqlCache.computeIfAbsent(idSequence, this::createNextSequenceSql), Long.class));
 
+        MapSqlParameterSource params = createEnqueueParams(location, enqueueParams, generatedId);
+        if (queueTableSchema.getDedupKeyField().isPresent() && enqueueParams.getDedupKey() != null) {
+            return enqueueDeduplicated(location, params, generatedId);
+        }
+        jdbcTemplate.update(enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params);
+        return generatedId;
+    }
+
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private long enqueueDeduplicated(@Nonnull QueueLocation location, @Nonnull MapSqlParameterSource params,
+                                     long generatedId) {
+        for (int attempt = 0; attempt < MAX_DEDUP_ATTEMPTS; attempt++) {
+            try {
+                if (jdbcTemplate.update(enqueueDedupSqlCache.computeIfAbsent(location, this::createEnqueueDedupSql),
+                        params) != 0) {
+                    return generatedId;
+                }
+            } catch (DuplicateKeyException ignored) {
+                // MERGE does not lock absent key, task with the same key was inserted concurrently
+            }
+            List<Long> existingIds = jdbcTemplate.queryForList(
+                    findByDedupKeySqlCache.computeIfAbsent(location, this::createFindByDedupKeySql), params,
+                    Long.class);
+            if (!existingIds.isEmpty()) {
+                return existingIds.get(0);
+            }
+        }
+        throw new IllegalStateException("cannot enqueue task with dedup key: location=" + location +
+                ", dedupKey=" + params.getValue("dedupKey"));
+    }
+
+    @Override
+    @Nonnull
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+
+        if (queueTableSchema.getDedupKeyField().isPresent() &&
+                enqueueParams.stream().anyMatch(taskParams -> taskParams.getDedupKey() != null)) {
+            // batched MERGE does not return ids of existing tasks
+            return enqueueParams.stream().map(taskParams -> enqueue(location, taskParams))
+                    .collect(Collectors.toList());
+        }
+        String idSequence = location.getIdSequence()
+                .orElseThrow(() -> new IllegalStateException("id sequence must be specified for oracle 11g database"));
+
+        List<Long> generatedIds = new ArrayList<>(enqueueParams.size());
+        for (int from = 0; from < enqueueParams.size(); from += MAX_ENQUEUE_BATCH_SIZE) {
+            List<EnqueueParams<String>> batch = enqueueParams.subList(from,
+                    Math.min(from + MAX_ENQUEUE_BATCH_SIZE, enqueueParams.size()));
+            List<Long> batchIds = jdbcTemplate.queryForList(
+                    nextSequenceBatchSqlCache.computeIfAbsent(idSequence, this::createNextSequenceBatchSql),
+                    new MapSqlParameterSource().addValue("count", batch.size()), Long.class);
+            if (batchIds.size() != batch.size()) {
+                throw new IllegalStateException("cannot generate ids: expected=" + batch.size() +
+                        ", actual=" + batchIds.size());
+            }
+            SqlParameterSource[] batchParams = new SqlParameterSource[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                batchParams[i] = createEnqueueParams(location, batch.get(i), batchIds.get(i));
+            }
+            jdbcTemplate.batchUpdate(enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), batchParams);
+            generatedIds.addAll(batchIds);
+        }
+        return generatedIds;
+    }
+
+    private MapSqlParameterSource createEnqueueParams(@Nonnull QueueLocation location,
+                                                      @Nonnull EnqueueParams<String> enqueueParams,
+                                                      long id) {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("queueName", location.getQueueId().asString())
                 .addValue("payload", enqueueParams.getPayload())
                 .addValue("executionDelay", enqueueParams.getExecutionDelay().getSeconds())
-                .addValue("id", generatedId);
+                .addValue("priority", enqueueParams.getPriority())
+                .addValue("orderingKey", enqueueParams.getOrderingKey())
+                .addValue("dedupKey", enqueueParams.getDedupKey())
+                .addValue("id", id);
 
         queueTableSchema.getExtFields().forEach(paramName -> params.addValue(paramName, null));
         enqueueParams.getExtData().forEach(params::addValue);
-
-        jdbcTemplate.update(enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params);
-        return generatedId;
+        return params;
     }
 
 
@@ -77,6 +184,9 @@ public class Oracle11QueueDao implements QueueDao {
     public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
         requireNonNull(location);
 
+        if (queueTableSchema.hasServerRoutines()) {
+            return callRoutine(location.getTableName() + "_pkg.ack", location, taskId) != 0;
+        }
         int updatedRows = jdbcTemplate.update(deleteSqlCache.computeIfAbsent(location, this::createDeleteSql),
                 new MapSqlParameterSource()
                         .addValue("id", taskId)
@@ -84,10 +194,29 @@ public class Oracle11QueueDao implements QueueDao {
         return updatedRows != 0;
     }
 
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        List<Long> ids = new ArrayList<>(taskIds);
+        int deletedRows = 0;
+        for (int from = 0; from < ids.size(); from += MAX_DELETE_BATCH_SIZE) {
+            deletedRows += jdbcTemplate.update(deleteBatchSqlCache.computeIfAbsent(location, this::createDeleteBatchSql),
+                    new MapSqlParameterSource()
+                            .addValue("ids", ids.subList(from, Math.min(from + MAX_DELETE_BATCH_SIZE, ids.size())))
+                            .addValue("queueName", location.getQueueId().asString()));
+        }
+        return deletedRows;
+    }
+
     @Override
     public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
         requireNonNull(location);
         requireNonNull(executionDelay);
+        if (queueTableSchema.hasServerRoutines()) {
+            return callRoutine(location.getTableName() + "_pkg.reenqueue", location, taskId,
+                    executionDelay.getSeconds()) != 0;
+        }
         int updatedRows = jdbcTemplate.update(reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql),
                 new MapSqlParameterSource()
                         .addValue("id", taskId)
@@ -96,28 +225,101 @@ public class Oracle11QueueDao implements QueueDao {
         return updatedRows != 0;
     }
 
+    @Override
+    @Nonnull
+    public List<QueueLocation> findReadyQueues(@Nonnull Collection<QueueLocation> locations) {
+        requireNonNull(locations);
+        if (locations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String tableName = locations.iterator().next().getTableName();
+        if (locations.stream().anyMatch(location -> !tableName.equals(location.getTableName()))) {
+            throw new IllegalArgumentException("queues must be stored in the same table: locations=" + locations);
+        }
+        Map<String, QueueLocation> queueLocations = locations.stream().collect(Collectors.toMap(
+                location -> location.getQueueId().asString(), Function.identity(),
+                (first, second) -> first, LinkedHashMap::new));
+        List<String> queueNames = new ArrayList<>(queueLocations.keySet());
+        List<QueueLocation> readyLocations = new ArrayList<>();
+        for (int from = 0; from < queueNames.size(); from += MAX_DELETE_BATCH_SIZE) {
+            jdbcTemplate.queryForList(readyQueuesSqlCache.computeIfAbsent(tableName, this::createReadyQueuesSql),
+                    new MapSqlParameterSource().addValue("queueNames",
+                            queueNames.subList(from, Math.min(from + MAX_DELETE_BATCH_SIZE, queueNames.size()))),
+                    String.class)
+                    .forEach(queueName -> readyLocations.add(queueLocations.get(queueName)));
+        }
+        return readyLocations;
+    }
+
+    /**
+     * Call a procedure of the queue package, the last out parameter of the procedure is the number of changed rows
+     */
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private int callRoutine(@Nonnull String routineName, @Nonnull QueueLocation location, long... args) {
+        String callSql = "{call " + routineName + "(?" + String.join("", Collections.nCopies(args.length, ", ?")) +
+                ", ?)}";
+        return requireNonNull(jdbcTemplate.getJdbcTemplate().execute(callSql, (CallableStatement cs) -> {
+            int index = 1;
+            cs.setString(index++, location.getQueueId().asString());
+            for (long arg : args) {
+                cs.setLong(index++, arg);
+            }
+            cs.registerOutParameter(index, Types.INTEGER);
+            cs.execute();
+            return cs.getInt(index);
+        }));
+    }
+
     private String createDeleteSql(@Nonnull QueueLocation location) {
         return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
                 " = :queueName AND " + queueTableSchema.getIdField() + " = :id";
     }
 
     private String createEnqueueSql(@Nonnull QueueLocation location) {
-        return "INSERT INTO " + location.getTableName() + "(" +
+        return "INSERT INTO " + location.getTableName() + createEnqueueColumnsAndValuesSql();
+    }
+
+    private String createEnqueueDedupSql(@Nonnull QueueLocation location) {
+        return "MERGE INTO " + location.getTableName() + " t USING dual ON (t." +
+                queueTableSchema.getQueueNameField() + " = :queueName AND t." +
+                queueTableSchema.getDedupKeyField().orElseThrow(IllegalStateException::new) + " = :dedupKey)" +
+                " WHEN NOT MATCHED THEN INSERT " + createEnqueueColumnsAndValuesSql();
+    }
+
+    private String createEnqueueColumnsAndValuesSql() {
+        return "(" +
                 queueTableSchema.getIdField() + "," +
                 queueTableSchema.getQueueNameField() + "," +
                 queueTableSchema.getPayloadField() + "," +
                 queueTableSchema.getNextProcessAtField() + "," +
                 queueTableSchema.getReenqueueAttemptField() + "," +
                 queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDedupKeyField().map(field -> "," + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" :
                         queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
                 ") VALUES " +
                 "(:id, :queueName, :payload, CURRENT_TIMESTAMP + :executionDelay * INTERVAL '1' SECOND, 0, 0" +
+                queueTableSchema.getPriorityField().map(ignored -> ", :priority").orElse("") +
+                queueTableSchema.getOrderingKeyField().map(ignored -> ", :orderingKey").orElse("") +
+                queueTableSchema.getDedupKeyField().map(ignored -> ", :dedupKey").orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
                         .map(field -> ":" + field).collect(Collectors.joining(", ", ", ", ""))) +
                 ")";
     }
 
+    private String createFindByDedupKeySql(@Nonnull QueueLocation location) {
+        return "SELECT " + queueTableSchema.getIdField() + " FROM " + location.getTableName() +
+                " WHERE " + queueTableSchema.getQueueNameField() + " = :queueName AND " +
+                queueTableSchema.getDedupKeyField().orElseThrow(IllegalStateException::new) + " = :dedupKey";
+    }
+
+    private String createDeleteBatchSql(@Nonnull QueueLocation location) {
+        return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = :queueName AND " + queueTableSchema.getIdField() + " IN (:ids)";
+    }
+
     private String createReenqueueSql(@Nonnull QueueLocation location) {
         return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
                 " = CURRENT_TIMESTAMP + :executionDelay * INTERVAL '1' SECOND, " +
@@ -132,4 +334,13 @@ public class Oracle11QueueDao implements QueueDao {
         return "SELECT " + idSequence + ".nextval FROM dual";
     }
 
+    private String createNextSequenceBatchSql(String idSequence) {
+        return "SELECT " + idSequence + ".nextval FROM dual CONNECT BY level <= :count";
+    }
+
+    private String createReadyQueuesSql(@Nonnull String tableName) {
+        return "SELECT DISTINCT " + queueTableSchema.getQueueNameField() + " FROM " + tableName +
+                " WHERE " + queueTableSchema.getQueueNameField() + " IN (:queueNames) AND " +
+                queueTableSchema.getNextProcessAtField() + " <= CURRENT_TIMESTAMP";
+    }
 }
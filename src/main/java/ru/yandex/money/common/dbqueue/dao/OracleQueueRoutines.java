@@ -0,0 +1,91 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generator of Oracle package to pick, delete and re-enqueue tasks.
+ * Package name is the table name with {@code _pkg} suffix, it must fit the identifier length limit of the database.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class OracleQueueRoutines implements QueueRoutines {
+
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final OracleQueueSqlBuilder sqlBuilder;
+
+    /**
+     * Constructor
+     *
+     * @param queueTableSchema Queue table scheme.
+     */
+    public OracleQueueRoutines(@Nonnull QueueTableSchema queueTableSchema) {
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+        this.sqlBuilder = new OracleQueueSqlBuilder(queueTableSchema);
+    }
+
+    @Nonnull
+    @Override
+    public List<String> createInstallSql(@Nonnull String tableName) {
+        requireNonNull(tableName);
+        return Arrays.asList(createPackageSql(tableName), createPackageBodySql(tableName));
+    }
+
+    private String createPackageSql(@Nonnull String tableName) {
+        return "CREATE OR REPLACE PACKAGE " + tableName + "_pkg AS\n" +
+                " PROCEDURE pick(p_limit IN PLS_INTEGER, p_queue_name IN VARCHAR2, p_retry_type IN VARCHAR2,\n" +
+                "  p_retry_interval IN NUMBER, p_aging_interval IN NUMBER, p_tasks OUT SYS_REFCURSOR);\n" +
+                " PROCEDURE ack(p_queue_name IN VARCHAR2, p_id IN NUMBER, p_count OUT NUMBER);\n" +
+                " PROCEDURE reenqueue(p_queue_name IN VARCHAR2, p_id IN NUMBER, p_execution_delay IN NUMBER,\n" +
+                "  p_count OUT NUMBER);\n" +
+                "END;";
+    }
+
+    private String createPackageBodySql(@Nonnull String tableName) {
+        return "CREATE OR REPLACE PACKAGE BODY " + tableName + "_pkg AS\n" +
+                createPickSql(tableName) +
+                createAckSql(tableName) +
+                createReenqueueSql(tableName) +
+                "END;";
+    }
+
+    private String createPickSql(@Nonnull String tableName) {
+        return " PROCEDURE pick(p_limit IN PLS_INTEGER, p_queue_name IN VARCHAR2, p_retry_type IN VARCHAR2,\n" +
+                "  p_retry_interval IN NUMBER, p_aging_interval IN NUMBER, p_tasks OUT SYS_REFCURSOR) IS\n" +
+                sqlBuilder.createPickSql(tableName, "p_queue_name", "p_limit", "p_aging_interval",
+                        sqlBuilder.createNextProcessAtSql(sqlBuilder.createRetryFactorSql("p_retry_type"),
+                                "p_retry_interval"), "p_tasks", true) + " pick;\n";
+    }
+
+    private String createAckSql(@Nonnull String tableName) {
+        return " PROCEDURE ack(p_queue_name IN VARCHAR2, p_id IN NUMBER, p_count OUT NUMBER) IS\n" +
+                " BEGIN\n" +
+                "  DELETE FROM " + tableName + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = p_queue_name AND " + queueTableSchema.getIdField() + " = p_id;\n" +
+                "  p_count := SQL%ROWCOUNT;\n" +
+                " END ack;\n";
+    }
+
+    private String createReenqueueSql(@Nonnull String tableName) {
+        return " PROCEDURE reenqueue(p_queue_name IN VARCHAR2, p_id IN NUMBER, p_execution_delay IN NUMBER,\n" +
+                "  p_count OUT NUMBER) IS\n" +
+                " BEGIN\n" +
+                "  UPDATE " + tableName + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = CURRENT_TIMESTAMP + p_execution_delay * (INTERVAL '1' SECOND), " +
+                queueTableSchema.getAttemptField() + " = 0, " +
+                queueTableSchema.getReenqueueAttemptField() +
+                " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
+                "WHERE " + queueTableSchema.getIdField() + " = p_id AND " +
+                queueTableSchema.getQueueNameField() + " = p_queue_name;\n" +
+                "  p_count := SQL%ROWCOUNT;\n" +
+                " END reenqueue;\n";
+    }
+}
@@ -0,0 +1,173 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builder of Oracle statements shared by the pick block and the package procedure,
+ * so both variants select and update tasks in the same way.
+ * <p>
+ * Parameters of the statements are passed as SQL expressions, so the caller chooses
+ * between bind variables, literals and arguments of a procedure.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class OracleQueueSqlBuilder {
+
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+
+    /**
+     * Constructor
+     *
+     * @param queueTableSchema Queue table scheme.
+     */
+    public OracleQueueSqlBuilder(@Nonnull QueueTableSchema queueTableSchema) {
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+    }
+
+    /**
+     * Create declarations and body of a PL/SQL block, which picks ready tasks of the queue
+     * and schedules their next attempt.
+     * <p>
+     * Oracle does not allow FOR UPDATE together with FETCH FIRST, so the row limit is applied
+     * by BULK COLLECT ... LIMIT: rows of SKIP LOCKED cursor are locked on fetch,
+     * hence no more than the limit of rows is locked. Claimed rows are updated by one bulk statement.
+     *
+     * @param tableName        Name of the queue table.
+     * @param queueNameSql     Expression with the queue name.
+     * @param limitSql         Expression with the maximum number of picked tasks.
+     * @param agingIntervalSql Expression with the priority aging interval in seconds,
+     *                         null when aging is disabled.
+     * @param nextProcessAtSql Expression with the time of the next attempt.
+     * @param tasksCursorSql   Cursor variable, which is opened for the picked tasks.
+     * @param ordered          Whether tasks without priority are picked in the order of the next attempt time,
+     *                         the order is unspecified otherwise.
+     * @return block starting with the declarations and ending with {@code END} without a semicolon.
+     */
+    @Nonnull
+    public String createPickSql(@Nonnull String tableName, @Nonnull String queueNameSql, @Nonnull String limitSql,
+                                @Nullable String agingIntervalSql, @Nonnull String nextProcessAtSql,
+                                @Nonnull String tasksCursorSql, boolean ordered) {
+        return " TYPE rowid_list IS TABLE OF ROWID;\n" +
+                " rrowids rowid_list;\n" +
+                " rids sys.odcinumberlist := sys.odcinumberlist();\n" +
+                " CURSOR c IS SELECT /*+ FIRST_ROWS(1) */ ROWID FROM " + tableName +
+                " WHERE " + queueTableSchema.getQueueNameField() + " = " + queueNameSql + " AND " +
+                queueTableSchema.getNextProcessAtField() + " <= CURRENT_TIMESTAMP" +
+                createOrderingKeySql(tableName) +
+                createOrderSql(agingIntervalSql, ordered) +
+                " FOR UPDATE SKIP LOCKED;\n" +
+                " BEGIN\n" +
+                "  OPEN c;\n" +
+                "  FETCH c BULK COLLECT INTO rrowids LIMIT " + limitSql + ";\n" +
+                "  CLOSE c;\n" +
+                "  FORALL i IN 1 .. rrowids.COUNT\n" +
+                "   UPDATE " + tableName + " SET " +
+                queueTableSchema.getNextProcessAtField() + " = " + nextProcessAtSql + ", " +
+                queueTableSchema.getAttemptField() + " = " + queueTableSchema.getAttemptField() + " + 1, " +
+                queueTableSchema.getTotalAttemptField() + " = " + queueTableSchema.getTotalAttemptField() + " + 1" +
+                " WHERE ROWID = rrowids(i)" +
+                " RETURNING " + queueTableSchema.getIdField() + " BULK COLLECT INTO rids;\n" +
+                "  OPEN " + tasksCursorSql + " FOR SELECT " +
+                queueTableSchema.getIdField() + ", " +
+                queueTableSchema.getPayloadField() + ", " +
+                queueTableSchema.getAttemptField() + ", " +
+                queueTableSchema.getReenqueueAttemptField() + ", " +
+                queueTableSchema.getTotalAttemptField() + ", " +
+                queueTableSchema.getCreatedAtField() + ", " +
+                queueTableSchema.getNextProcessAtField() +
+                queueTableSchema.getExtFields().stream().map(field -> ", " + field).collect(Collectors.joining()) +
+                " FROM " + tableName +
+                " WHERE " + queueTableSchema.getIdField() + " IN (SELECT column_value FROM TABLE(rids));\n" +
+                " END";
+    }
+
+    /**
+     * Create an expression with the time of the next attempt of a picked task.
+     *
+     * @param retryFactorSql   Expression with the number of retry intervals before the next attempt.
+     * @param retryIntervalSql Expression with the retry interval in seconds.
+     * @return time of the next attempt.
+     */
+    @Nonnull
+    public String createNextProcessAtSql(@Nonnull String retryFactorSql, @Nonnull String retryIntervalSql) {
+        return "CURRENT_TIMESTAMP + " + retryFactorSql + " * " + retryIntervalSql + " * (INTERVAL '1' SECOND)";
+    }
+
+    /**
+     * Create an expression with the number of retry intervals before the next attempt.
+     *
+     * @param retryType Strategy of the task retries.
+     * @return number of retry intervals.
+     */
+    @Nonnull
+    public String createRetryFactorSql(@Nonnull TaskRetryType retryType) {
+        requireNonNull(retryType);
+        switch (retryType) {
+            case GEOMETRIC_BACKOFF:
+                return "power(2, " + queueTableSchema.getAttemptField() + ")";
+            case ARITHMETIC_BACKOFF:
+                return "(1 + (" + queueTableSchema.getAttemptField() + " * 2))";
+            case LINEAR_BACKOFF:
+                return "1";
+            default:
+                throw new IllegalStateException("unknown retry type: " + retryType);
+        }
+    }
+
+    /**
+     * Create an expression with the number of retry intervals before the next attempt,
+     * when the retry strategy is known at execution time only.
+     *
+     * @param retryTypeSql Expression with the name of {@link TaskRetryType}.
+     * @return number of retry intervals.
+     */
+    @Nonnull
+    public String createRetryFactorSql(@Nonnull String retryTypeSql) {
+        return Arrays.stream(TaskRetryType.values())
+                .map(retryType -> " WHEN '" + retryType.name() + "' THEN " + createRetryFactorSql(retryType))
+                .collect(Collectors.joining("", "(CASE " + retryTypeSql, " END)"));
+    }
+
+    private String createOrderingKeySql(@Nonnull String tableName) {
+        return queueTableSchema.getOrderingKeyField().map(field -> " AND (" + tableName + "." + field + " IS NULL" +
+                " OR NOT EXISTS (SELECT 1 FROM " + tableName + " o" +
+                " WHERE o." + queueTableSchema.getQueueNameField() + " = " + tableName + "." +
+                queueTableSchema.getQueueNameField() +
+                " AND o." + field + " = " + tableName + "." + field +
+                // any older task of the key blocks it: in flight, waiting for a retry or delayed
+                " AND o." + queueTableSchema.getIdField() + " < " + tableName + "." + queueTableSchema.getIdField() +
+                "))").orElse("");
+    }
+
+    /**
+     * Without priorities the order matches the index on (queue_name, next_process_at),
+     * so the cursor walks the index and stops after the limit without sorting the backlog
+     */
+    private String createOrderSql(@Nullable String agingIntervalSql, boolean ordered) {
+        String nextProcessAtOrder = queueTableSchema.getNextProcessAtField() + " ASC";
+        return queueTableSchema.getPriorityField()
+                .map(field -> " ORDER BY " + createPrioritySql(field, agingIntervalSql) + " DESC, " +
+                        nextProcessAtOrder)
+                .orElse(ordered ? " ORDER BY " + nextProcessAtOrder : "");
+    }
+
+    private String createPrioritySql(@Nonnull String priorityField, @Nullable String agingIntervalSql) {
+        if (agingIntervalSql == null) {
+            return priorityField;
+        }
+        // ready tasks gain one priority step per aging interval of waiting, date difference is in days
+        return "(" + priorityField + " + CASE WHEN " + agingIntervalSql + " > 0" +
+                " THEN FLOOR((CAST(CURRENT_TIMESTAMP AS DATE) - CAST(" + queueTableSchema.getNextProcessAtField() +
+                " AS DATE)) * 86400 / " + agingIntervalSql + ") ELSE 0 END)";
+    }
+}
@@ -0,0 +1,157 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Database access object, which spreads tasks of partitioned queues over the partition tables.
+ * <p>
+ * Queues with {@link QueueLocation#getPartitionCount()} greater than one are stored in several tables.
+ * A task with an ordering key or a deduplication key is stored in the partition chosen by the hash of the key,
+ * so the guarantees of the keys hold within the partition. Other tasks are distributed in turn.
+ * A task cannot have both keys in a partitioned queue, since the keys may point to different partitions
+ * and break either the ordering or the deduplication.
+ * Operations with an existing task are routed by the task identifier,
+ * see {@link QueueLocation#getTaskPartition(long)}.
+ * Queues without partitions are passed to the underlying DAO as is.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PartitionedQueueDao implements QueueDao {
+
+    private final AtomicInteger nextPartition = new AtomicInteger();
+
+    @Nonnull
+    private final QueueDao queueDao;
+
+    /**
+     * Constructor
+     *
+     * @param queueDao DAO of a single queue table.
+     */
+    public PartitionedQueueDao(@Nonnull QueueDao queueDao) {
+        this.queueDao = requireNonNull(queueDao);
+    }
+
+    @Override
+    public long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+        if (location.getPartitionCount() == 1) {
+            return queueDao.enqueue(location, enqueueParams);
+        }
+        return queueDao.enqueue(location.getPartition(choosePartition(location, enqueueParams)), enqueueParams);
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+        if (location.getPartitionCount() == 1) {
+            return queueDao.enqueueBatch(location, enqueueParams);
+        }
+        Map<Integer, List<Integer>> positionsByPartition = new LinkedHashMap<>();
+        for (int i = 0; i < enqueueParams.size(); i++) {
+            positionsByPartition.computeIfAbsent(choosePartition(location, enqueueParams.get(i)),
+                    ignored -> new ArrayList<>()).add(i);
+        }
+        Long[] ids = new Long[enqueueParams.size()];
+        positionsByPartition.forEach((partition, positions) -> {
+            List<Long> partitionIds = queueDao.enqueueBatch(location.getPartition(partition),
+                    positions.stream().map(enqueueParams::get).collect(Collectors.toList()));
+            for (int i = 0; i < positions.size(); i++) {
+                ids[positions.get(i)] = partitionIds.get(i);
+            }
+        });
+        return Arrays.asList(ids);
+    }
+
+    @Override
+    public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
+        requireNonNull(location);
+        return queueDao.deleteTask(location.getPartition(location.getTaskPartition(taskId)), taskId);
+    }
+
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        if (location.getPartitionCount() == 1) {
+            return queueDao.deleteTasks(location, taskIds);
+        }
+        return taskIds.stream()
+                .collect(Collectors.groupingBy(location::getTaskPartition))
+                .entrySet().stream()
+                .mapToInt(entry -> queueDao.deleteTasks(location.getPartition(entry.getKey()), entry.getValue()))
+                .sum();
+    }
+
+    @Override
+    public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(executionDelay);
+        return queueDao.reenqueue(location.getPartition(location.getTaskPartition(taskId)), taskId,
+                executionDelay);
+    }
+
+    @Nonnull
+    @Override
+    public List<QueueLocation> findReadyQueues(@Nonnull Collection<QueueLocation> locations) {
+        requireNonNull(locations);
+        if (locations.stream().allMatch(location -> location.getPartitionCount() == 1)) {
+            return queueDao.findReadyQueues(locations);
+        }
+        // underlying DAO checks queues of a single table
+        Map<QueueLocation, QueueLocation> queuesByPartition = new LinkedHashMap<>();
+        Map<String, List<QueueLocation>> partitionsByTable = new LinkedHashMap<>();
+        for (QueueLocation location : locations) {
+            for (int partition = 0; partition < location.getPartitionCount(); partition++) {
+                QueueLocation partitionLocation = location.getPartition(partition);
+                queuesByPartition.put(partitionLocation, location);
+                partitionsByTable.computeIfAbsent(partitionLocation.getTableName(), ignored -> new ArrayList<>())
+                        .add(partitionLocation);
+            }
+        }
+        Set<QueueLocation> readyQueues = new HashSet<>();
+        partitionsByTable.values().forEach(partitions -> queueDao.findReadyQueues(partitions)
+                .forEach(partition -> readyQueues.add(queuesByPartition.get(partition))));
+        if (readyQueues.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return locations.stream().filter(readyQueues::contains).distinct().collect(Collectors.toList());
+    }
+
+    private int choosePartition(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams) {
+        if (enqueueParams.getOrderingKey() != null && enqueueParams.getDedupKey() != null) {
+            throw new IllegalArgumentException("ordering key and dedup key cannot be used together " +
+                    "in partitioned queue: location=" + location + ", orderingKey=" +
+                    enqueueParams.getOrderingKey() + ", dedupKey=" + enqueueParams.getDedupKey());
+        }
+        // String.hashCode is specified, so all producers choose the same partition for a key
+        String key = enqueueParams.getOrderingKey() != null ? enqueueParams.getOrderingKey() :
+                enqueueParams.getDedupKey();
+        if (key != null) {
+            return Math.floorMod(key.hashCode(), location.getPartitionCount());
+        }
+        return Math.floorMod(nextPartition.getAndIncrement(), location.getPartitionCount());
+    }
+}
@@ -0,0 +1,211 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcOperations;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bulk loader of tasks into the queue for PostgreSQL database type.
+ * <p>
+ * Tasks are streamed into the queue table with {@code COPY ... FROM STDIN},
+ * which is much faster than {@link QueueDao#enqueueBatch(QueueLocation, List)} for millions of tasks.
+ * Rows are serialized on demand, so the tasks are never held in memory at once.
+ * <p>
+ * Id field of the queue table must have a default value,
+ * queue locations with {@link QueueLocation#getIdSequence()} are not supported.
+ * Partitioned queues are loaded partition by partition, see {@link QueueLocation#getPartition(int)}.
+ * {@code COPY} cannot skip conflicting rows, so deduplication does not apply:
+ * tasks with a deduplication key are rejected and must be added
+ * with {@link QueueDao#enqueue(QueueLocation, EnqueueParams)}.
+ * Loader requires PostgreSQL JDBC driver in classpath.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueCopyLoader {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSxxx").withZone(ZoneOffset.UTC);
+
+    private final Map<QueueLocation, String> copySqlCache = new ConcurrentHashMap<>();
+
+    @Nonnull
+    private final JdbcOperations jdbcTemplate;
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+
+    /**
+     * Constructor
+     *
+     * @param jdbcTemplate     Reference to Spring JDBC template.
+     * @param queueTableSchema Queue table scheme.
+     */
+    public PostgresQueueCopyLoader(@Nonnull JdbcOperations jdbcTemplate,
+                                   @Nonnull QueueTableSchema queueTableSchema) {
+        this.jdbcTemplate = requireNonNull(jdbcTemplate);
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+    }
+
+    /**
+     * Add new tasks in the queue for processing with a single {@code COPY} statement.
+     * <p>
+     * Execution delay of the tasks is counted from the current transaction time, as in
+     * {@link QueueDao#enqueue(QueueLocation, EnqueueParams)}.
+     *
+     * @param location      Queue location.
+     * @param enqueueParams Parameters of the tasks, consumed lazily while streaming.
+     * @return Number of inserted tasks.
+     * @throws IllegalArgumentException when a task has a deduplication key, the copy is cancelled.
+     */
+    public long load(@Nonnull QueueLocation location, @Nonnull Iterator<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+        if (location.getIdSequence().isPresent()) {
+            throw new IllegalStateException("id sequence is not supported by copy loader: location=" + location);
+        }
+        if (location.getPartitionCount() != 1) {
+            throw new IllegalStateException("partitioned queue is not supported by copy loader: location=" + location);
+        }
+        String copySql = copySqlCache.computeIfAbsent(location, this::createCopySql);
+        return requireNonNull(jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            Instant transactionTime = selectTransactionTime(connection);
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql,
+                        new EnqueueParamsReader(location.getQueueId().asString(),
+                                queueTableSchema.getPriorityField().isPresent(),
+                                queueTableSchema.getOrderingKeyField().isPresent(), queueTableSchema.getExtFields(),
+                                transactionTime, enqueueParams));
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot copy tasks: location=" + location, e);
+            }
+        }));
+    }
+
+    private static Instant selectTransactionTime(@Nonnull Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT now()")) {
+            resultSet.next();
+            return resultSet.getTimestamp(1).toInstant();
+        }
+    }
+
+    private String createCopySql(@Nonnull QueueLocation location) {
+        return "COPY " + location.getTableName() + "(" +
+                queueTableSchema.getQueueNameField() + "," +
+                queueTableSchema.getPayloadField() + "," +
+                queueTableSchema.getNextProcessAtField() + "," +
+                queueTableSchema.getReenqueueAttemptField() + "," +
+                queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                (queueTableSchema.getExtFields().isEmpty() ? "" :
+                        queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
+                ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    /**
+     * Reader, which serializes tasks into CSV rows one by one
+     */
+    static class EnqueueParamsReader extends Reader {
+
+        @Nonnull
+        private final String queueName;
+        private final boolean withPriority;
+        private final boolean withOrderingKey;
+        @Nonnull
+        private final List<String> extFields;
+        @Nonnull
+        private final Instant transactionTime;
+        @Nonnull
+        private final Iterator<EnqueueParams<String>> enqueueParams;
+
+        private String row = "";
+        private int position = 0;
+
+        EnqueueParamsReader(@Nonnull String queueName,
+                            boolean withPriority,
+                            boolean withOrderingKey,
+                            @Nonnull List<String> extFields,
+                            @Nonnull Instant transactionTime,
+                            @Nonnull Iterator<EnqueueParams<String>> enqueueParams) {
+            this.queueName = requireNonNull(queueName);
+            this.withPriority = withPriority;
+            this.withOrderingKey = withOrderingKey;
+            this.extFields = requireNonNull(extFields);
+            this.transactionTime = requireNonNull(transactionTime);
+            this.enqueueParams = requireNonNull(enqueueParams);
+        }
+
+        @Override
+        public int read(@Nonnull char[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            while (position >= row.length()) {
+                if (!enqueueParams.hasNext()) {
+                    return -1;
+                }
+                row = createRow(enqueueParams.next());
+                position = 0;
+            }
+            int count = Math.min(length, row.length() - position);
+            row.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private String createRow(@Nonnull EnqueueParams<String> taskParams) {
+            if (taskParams.getDedupKey() != null) {
+                throw new IllegalArgumentException("dedup key is not supported by copy loader: queueName=" +
+                        queueName + ", dedupKey=" + taskParams.getDedupKey());
+            }
+            StringBuilder row = new StringBuilder()
+                    .append(quote(queueName)).append(',')
+                    .append(quote(taskParams.getPayload())).append(',')
+                    .append(TIMESTAMP_FORMATTER.format(transactionTime.plus(taskParams.getExecutionDelay())))
+                    .append(",0,0");
+            if (withPriority) {
+                row.append(',').append(taskParams.getPriority());
+            }
+            if (withOrderingKey) {
+                row.append(',').append(quote(taskParams.getOrderingKey()));
+            }
+            extFields.forEach(field -> row.append(',').append(quote(taskParams.getExtData().get(field))));
+            return row.append('\n').toString();
+        }
+
+        private static String quote(@Nullable String value) {
+            if (value == null) {
+                return "";
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.yandex.money.common.dbqueue.dao;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import ru.yandex.money.common.dbqueue.api.EnqueueParams;
@@ -9,29 +10,81 @@ import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Database access object to manage tasks in the queue for PostgreSQL database type.
+ * <p>
+ * When {@link QueueLocation#getNotificationChannel()} is specified,
+ * enqueue statements also send a notification with the queue name to that channel.
+ * <p>
+ * When {@link QueueTableSchema#getDedupKeyField()} is specified, tasks with a deduplication key
+ * are inserted with {@code ON CONFLICT DO NOTHING} and the identifier of the existing task is returned on conflict.
+ * <p>
+ * When {@link QueueTableSchema#getDoneAtField()} is specified, finished tasks are marked done instead of deleted
+ * and done tasks are excluded from all other statements.
+ * <p>
+ * When {@link QueueLocation#getScheduledTableName()} is specified, tasks delayed beyond
+ * {@link QueueLocation#getSchedulingThreshold()} are inserted into the table for scheduled tasks
+ * and can be deleted from there until they are moved to the queue table.
+ * <p>
+ * Identifiers of a batch are allocated from {@link QueueLocation#getIdSequence()} or the sequence
+ * of the serial identifier column before the insert, so they are returned in the order of the batch.
  *
  * @author Oleg Kandaurov
  * @since 09.07.2017
  */
 public class PostgresQueueDao implements QueueDao {
 
+    /**
+     * PostgreSQL allows at most 32767 bind parameters in a single statement
+     */
+    private static final int MAX_PARAMETERS_COUNT = 32767;
+
+    /**
+     * Maximum number of rows inserted by a single statement
+     */
+    private static final int MAX_ENQUEUE_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of attempts to insert a task with a deduplication key,
+     * the task with the same key can be deleted between insert and select
+     */
+    private static final int MAX_DEDUP_ATTEMPTS = 3;
+
     private final Map<QueueLocation, String> enqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueScheduledSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueDedupSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> findByDedupKeySqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> deleteSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteScheduledSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> reenqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> readyQueuesSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, Optional<String>> nextIdsSqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
     private final NamedParameterJdbcTemplate jdbcTemplate;
     @Nonnull
     private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final PostgresQueueSqlBuilder sqlBuilder;
 
     /**
      * Constructor
@@ -43,6 +96,7 @@ public class PostgresQueueDao implements QueueDao {
                             @Nonnull QueueTableSchema queueTableSchema) {
         this.queueTableSchema = requireNonNull(queueTableSchema);
         this.jdbcTemplate = new NamedParameterJdbcTemplate(requireNonNull(jdbcTemplate));
+        this.sqlBuilder = new PostgresQueueSqlBuilder(queueTableSchema);
     }
 
     @Override
@@ -54,69 +108,368 @@ public class PostgresQueueDao implements QueueDao {
         MapSqlParameterSource params = new MapSqlParameterSource()
                 .addValue("queueName", location.getQueueId().asString())
                 .addValue("payload", enqueueParams.getPayload())
-                .addValue("executionDelay", enqueueParams.getExecutionDelay().getSeconds());
+                .addValue("executionDelay", enqueueParams.getExecutionDelay().getSeconds())
+                .addValue("priority", enqueueParams.getPriority())
+                .addValue("orderingKey", enqueueParams.getOrderingKey())
+                .addValue("dedupKey", enqueueParams.getDedupKey());
 
         queueTableSchema.getExtFields().forEach(paramName -> params.addValue(paramName, null));
         enqueueParams.getExtData().forEach(params::addValue);
+        if (queueTableSchema.getDedupKeyField().isPresent() && enqueueParams.getDedupKey() != null) {
+            return enqueueDeduplicated(location, params);
+        }
+        if (isScheduled(location, enqueueParams)) {
+            return requireNonNull(jdbcTemplate.queryForObject(
+                    enqueueScheduledSqlCache.computeIfAbsent(location, this::createEnqueueScheduledSql), params,
+                    Long.class));
+        }
         return requireNonNull(jdbcTemplate.queryForObject(
                 enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params, Long.class));
     }
 
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private long enqueueDeduplicated(@Nonnull QueueLocation location, @Nonnull MapSqlParameterSource params) {
+        for (int attempt = 0; attempt < MAX_DEDUP_ATTEMPTS; attempt++) {
+            List<Long> insertedIds = jdbcTemplate.queryForList(
+                    enqueueDedupSqlCache.computeIfAbsent(location, this::createEnqueueDedupSql), params, Long.class);
+            if (!insertedIds.isEmpty()) {
+                return insertedIds.get(0);
+            }
+            // conflicting task is committed and visible to a new statement
+            List<Long> existingIds = jdbcTemplate.queryForList(
+                    findByDedupKeySqlCache.computeIfAbsent(location, this::createFindByDedupKeySql), params,
+                    Long.class);
+            if (!existingIds.isEmpty()) {
+                return existingIds.get(0);
+            }
+        }
+        throw new IllegalStateException("cannot enqueue task with dedup key: location=" + location +
+                ", dedupKey=" + params.getValue("dedupKey"));
+    }
+
+    @Override
+    @Nonnull
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+
+        Optional<String> nextIdsSql = nextIdsSqlCache.computeIfAbsent(location, this::createNextIdsSql);
+        if (!nextIdsSql.isPresent() || (queueTableSchema.getDedupKeyField().isPresent() &&
+                enqueueParams.stream().anyMatch(taskParams -> taskParams.getDedupKey() != null))) {
+            // ids of conflicting rows are not returned by multi-row insert,
+            // ids cannot be allocated in advance without a sequence
+            return enqueueParams.stream().map(taskParams -> enqueue(location, taskParams))
+                    .collect(Collectors.toList());
+        }
+        if (!location.getScheduledTableName().isPresent() ||
+                enqueueParams.stream().noneMatch(taskParams -> isScheduled(location, taskParams))) {
+            return enqueueBatch(location, location.getTableName(), nextIdsSql.get(), enqueueParams);
+        }
+        List<Integer> queuePositions = new ArrayList<>();
+        List<Integer> scheduledPositions = new ArrayList<>();
+        for (int i = 0; i < enqueueParams.size(); i++) {
+            (isScheduled(location, enqueueParams.get(i)) ? scheduledPositions : queuePositions).add(i);
+        }
+        Long[] ids = new Long[enqueueParams.size()];
+        fillBatchIds(ids, queuePositions, enqueueBatch(location, location.getTableName(), nextIdsSql.get(),
+                queuePositions.stream().map(enqueueParams::get).collect(Collectors.toList())));
+        fillBatchIds(ids, scheduledPositions, enqueueBatch(location, location.getScheduledTableName().get(),
+                nextIdsSql.get(), scheduledPositions.stream().map(enqueueParams::get).collect(Collectors.toList())));
+        return Arrays.asList(ids);
+    }
+
+    private static void fillBatchIds(@Nonnull Long[] ids, @Nonnull List<Integer> positions,
+                                     @Nonnull List<Long> batchIds) {
+        for (int i = 0; i < positions.size(); i++) {
+            ids[positions.get(i)] = batchIds.get(i);
+        }
+    }
+
+    @Nonnull
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private List<Long> enqueueBatch(@Nonnull QueueLocation location, @Nonnull String tableName,
+                                    @Nonnull String nextIdsSql, @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        int batchSize = Math.min(MAX_ENQUEUE_BATCH_SIZE,
+                MAX_PARAMETERS_COUNT / (3 + (queueTableSchema.getPriorityField().isPresent() ? 1 : 0) +
+                        (queueTableSchema.getOrderingKeyField().isPresent() ? 1 : 0) +
+                        (queueTableSchema.getDedupKeyField().isPresent() ? 1 : 0) +
+                        queueTableSchema.getExtFields().size()));
+        List<Long> generatedIds = new ArrayList<>(enqueueParams.size());
+        for (int from = 0; from < enqueueParams.size(); from += batchSize) {
+            List<EnqueueParams<String>> batch = enqueueParams.subList(from,
+                    Math.min(from + batchSize, enqueueParams.size()));
+            // order of ids returned by multi-row insert is not guaranteed, so ids are allocated beforehand
+            List<Long> batchIds = jdbcTemplate.queryForList(nextIdsSql,
+                    new MapSqlParameterSource().addValue("count", batch.size()), Long.class);
+            // the statement returns ids of inserted rows, which are already known
+            jdbcTemplate.queryForList(createEnqueueBatchSql(location, tableName, batch.size()),
+                    createEnqueueBatchParams(location, batch, batchIds), Long.class);
+            generatedIds.addAll(batchIds);
+        }
+        return generatedIds;
+    }
 
     @Override
     public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
         requireNonNull(location);
 
-        int updatedRows = jdbcTemplate.update(deleteSqlCache.computeIfAbsent(location, this::createDeleteSql),
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", taskId)
+                .addValue("queueName", location.getQueueId().asString());
+        if (deleteFromQueueTable(location, params)) {
+            return true;
+        }
+        if (!location.getScheduledTableName().isPresent()) {
+            return false;
+        }
+        if (jdbcTemplate.update(deleteScheduledSqlCache.computeIfAbsent(location, this::createDeleteScheduledSql),
+                params) != 0) {
+            return true;
+        }
+        // the task could be moved to the queue table between the statements
+        return deleteFromQueueTable(location, params);
+    }
+
+    private boolean deleteFromQueueTable(@Nonnull QueueLocation location, @Nonnull MapSqlParameterSource params) {
+        String deleteSql = deleteSqlCache.computeIfAbsent(location, this::createDeleteSql);
+        int updatedRows = queueTableSchema.hasServerRoutines() ?
+                requireNonNull(jdbcTemplate.queryForObject(deleteSql, params, Integer.class)) :
+                jdbcTemplate.update(deleteSql, params);
+        return updatedRows != 0;
+    }
+
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = taskIds.toArray(new Long[0]);
+        return jdbcTemplate.update(deleteBatchSqlCache.computeIfAbsent(location, this::createDeleteBatchSql),
                 new MapSqlParameterSource()
-                        .addValue("id", taskId)
+                        .addValue("ids", new AbstractSqlTypeValue() {
+                            @Override
+                            protected Object createTypeValue(@Nonnull Connection connection, int sqlType,
+                                                             String typeName) throws SQLException {
+                                return connection.createArrayOf("bigint", ids);
+                            }
+                        }, Types.ARRAY)
                         .addValue("queueName", location.getQueueId().asString()));
-        return updatedRows != 0;
     }
 
     @Override
     public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
         requireNonNull(location);
         requireNonNull(executionDelay);
-        int updatedRows = jdbcTemplate.update(reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql),
-                new MapSqlParameterSource()
-                        .addValue("id", taskId)
-                        .addValue("queueName", location.getQueueId().asString())
-                        .addValue("executionDelay", executionDelay.getSeconds()));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", taskId)
+                .addValue("queueName", location.getQueueId().asString())
+                .addValue("executionDelay", executionDelay.getSeconds());
+        String reenqueueSql = reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql);
+        int updatedRows = queueTableSchema.hasServerRoutines() ?
+                requireNonNull(jdbcTemplate.queryForObject(reenqueueSql, params, Integer.class)) :
+                jdbcTemplate.update(reenqueueSql, params);
         return updatedRows != 0;
     }
 
+    @Override
+    @Nonnull
+    public List<QueueLocation> findReadyQueues(@Nonnull Collection<QueueLocation> locations) {
+        requireNonNull(locations);
+        if (locations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String tableName = locations.iterator().next().getTableName();
+        if (locations.stream().anyMatch(location -> !tableName.equals(location.getTableName()))) {
+            throw new IllegalArgumentException("queues must be stored in the same table: locations=" + locations);
+        }
+        Map<String, QueueLocation> queueLocations = locations.stream().collect(Collectors.toMap(
+                location -> location.getQueueId().asString(), Function.identity(),
+                (first, second) -> first, LinkedHashMap::new));
+        String[] queueNames = queueLocations.keySet().toArray(new String[0]);
+        return jdbcTemplate.queryForList(readyQueuesSqlCache.computeIfAbsent(tableName, this::createReadyQueuesSql),
+                new MapSqlParameterSource()
+                        .addValue("queueNames", new AbstractSqlTypeValue() {
+                            @Override
+                            protected Object createTypeValue(@Nonnull Connection connection, int sqlType,
+                                                             String typeName) throws SQLException {
+                                return connection.createArrayOf("text", queueNames);
+                            }
+                        }, Types.ARRAY), String.class)
+                .stream().map(queueLocations::get).collect(Collectors.toList());
+    }
+
+    private static boolean isScheduled(@Nonnull QueueLocation location,
+                                       @Nonnull EnqueueParams<String> enqueueParams) {
+        // tasks with keys stay in the queue table, where the guarantees of the keys are checked
+        return enqueueParams.getOrderingKey() == null && enqueueParams.getDedupKey() == null &&
+                location.getSchedulingThreshold()
+                        .map(threshold -> enqueueParams.getExecutionDelay().compareTo(threshold) > 0)
+                        .orElse(false);
+    }
+
     private String createEnqueueSql(@Nonnull QueueLocation location) {
-        return "INSERT INTO " + location.getTableName() + "(" +
+        return withNotification(location, createInsertSql(location, location.getTableName(), ""));
+    }
+
+    private String createEnqueueDedupSql(@Nonnull QueueLocation location) {
+        return withNotification(location,
+                createInsertSql(location, location.getTableName(), " ON CONFLICT DO NOTHING"));
+    }
+
+    private String createEnqueueScheduledSql(@Nonnull QueueLocation location) {
+        // scheduled tasks are not ready, so consumers are not notified
+        return createInsertSql(location, location.getScheduledTableName().orElseThrow(IllegalStateException::new),
+                "");
+    }
+
+    private String createInsertSql(@Nonnull QueueLocation location, @Nonnull String tableName,
+                                   @Nonnull String conflictClause) {
+        return "INSERT INTO " + tableName + "(" +
                 (location.getIdSequence().map(ignored -> queueTableSchema.getIdField() + ",").orElse("")) +
                 queueTableSchema.getQueueNameField() + "," +
                 queueTableSchema.getPayloadField() + "," +
                 queueTableSchema.getNextProcessAtField() + "," +
                 queueTableSchema.getReenqueueAttemptField() + "," +
                 queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDedupKeyField().map(field -> "," + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" :
                         queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
                 ") VALUES " +
                 "(" + location.getIdSequence().map(seq -> "nextval('" + seq + "'), ").orElse("") +
                 ":queueName, :payload, now() + :executionDelay * INTERVAL '1 SECOND', 0, 0" +
+                queueTableSchema.getPriorityField().map(ignored -> ", :priority").orElse("") +
+                queueTableSchema.getOrderingKeyField().map(ignored -> ", :orderingKey").orElse("") +
+                queueTableSchema.getDedupKeyField().map(ignored -> ", :dedupKey").orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
                         .map(field -> ":" + field).collect(Collectors.joining(", ", ", ", ""))) +
-                ") RETURNING " + queueTableSchema.getIdField();
+                ")" + conflictClause + " RETURNING " + queueTableSchema.getIdField();
+    }
+
+    private String createFindByDedupKeySql(@Nonnull QueueLocation location) {
+        return "SELECT " + queueTableSchema.getIdField() + " FROM " + location.getTableName() +
+                " WHERE " + queueTableSchema.getQueueNameField() + " = :queueName AND " +
+                queueTableSchema.getDedupKeyField().orElseThrow(IllegalStateException::new) + " = :dedupKey" +
+                sqlBuilder.createNotDoneSql("");
+    }
+
+    private MapSqlParameterSource createEnqueueBatchParams(@Nonnull QueueLocation location,
+                                                           @Nonnull List<EnqueueParams<String>> enqueueParams,
+                                                           @Nonnull List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("queueName", location.getQueueId().asString());
+        for (int i = 0; i < enqueueParams.size(); i++) {
+            EnqueueParams<String> taskParams = enqueueParams.get(i);
+            String suffix = "_" + i;
+            params.addValue("id" + suffix, ids.get(i))
+                    .addValue("payload" + suffix, taskParams.getPayload())
+                    .addValue("executionDelay" + suffix, taskParams.getExecutionDelay().getSeconds())
+                    .addValue("priority" + suffix, taskParams.getPriority())
+                    .addValue("orderingKey" + suffix, taskParams.getOrderingKey())
+                    .addValue("dedupKey" + suffix, taskParams.getDedupKey());
+            queueTableSchema.getExtFields().forEach(paramName -> params.addValue(paramName + suffix, null));
+            taskParams.getExtData().forEach((paramName, value) -> params.addValue(paramName + suffix, value));
+        }
+        return params;
+    }
+
+    private String createEnqueueBatchSql(@Nonnull QueueLocation location, @Nonnull String tableName,
+                                         int rowsCount) {
+        StringBuilder sql = new StringBuilder("INSERT INTO " + tableName + "(" +
+                queueTableSchema.getIdField() + "," +
+                queueTableSchema.getQueueNameField() + "," +
+                queueTableSchema.getPayloadField() + "," +
+                queueTableSchema.getNextProcessAtField() + "," +
+                queueTableSchema.getReenqueueAttemptField() + "," +
+                queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDedupKeyField().map(field -> "," + field).orElse("") +
+                (queueTableSchema.getExtFields().isEmpty() ? "" :
+                        queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
+                ") VALUES ");
+        for (int i = 0; i < rowsCount; i++) {
+            String suffix = "_" + i;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:id").append(suffix).append(", :queueName, :payload").append(suffix)
+                    .append(", now() + :executionDelay").append(suffix).append(" * INTERVAL '1 SECOND', 0, 0")
+                    .append(queueTableSchema.getPriorityField().map(ignored -> ", :priority" + suffix).orElse(""))
+                    .append(queueTableSchema.getOrderingKeyField().map(ignored -> ", :orderingKey" + suffix).orElse(""))
+                    .append(queueTableSchema.getDedupKeyField().map(ignored -> ", :dedupKey" + suffix).orElse(""))
+                    .append(queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
+                            .map(field -> ":" + field + suffix).collect(Collectors.joining(", ", ", ", "")))
+                    .append(")");
+        }
+        sql.append(" RETURNING ").append(queueTableSchema.getIdField());
+        return tableName.equals(location.getTableName()) ? withNotification(location, sql.toString()) :
+                sql.toString();
+    }
+
+    /**
+     * Tasks of the table for scheduled tasks get ids from the sequence of the queue table
+     */
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    private Optional<String> createNextIdsSql(@Nonnull QueueLocation location) {
+        Optional<String> idSequence = location.getIdSequence();
+        if (!idSequence.isPresent()) {
+            idSequence = Optional.ofNullable(jdbcTemplate.queryForObject(
+                    "SELECT pg_get_serial_sequence(:tableName, :idField)", new MapSqlParameterSource()
+                            .addValue("tableName", location.getTableName())
+                            .addValue("idField", queueTableSchema.getIdField()), String.class));
+        }
+        return idSequence.map(seq -> "SELECT nextval('" + seq + "') FROM generate_series(1, :count)");
+    }
+
+    private String withNotification(@Nonnull QueueLocation location, @Nonnull String insertSql) {
+        // notifications with the same channel and payload are delivered once per transaction
+        return location.getNotificationChannel()
+                .map(channel -> "WITH inserted AS (" + insertSql + ") SELECT " + queueTableSchema.getIdField() +
+                        " FROM inserted, (SELECT pg_notify('" + channel + "', :queueName)) notification")
+                .orElse(insertSql);
     }
 
     private String createDeleteSql(@Nonnull QueueLocation location) {
-        return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
-                " = :queueName AND " + queueTableSchema.getIdField() + " = :id";
+        if (queueTableSchema.hasServerRoutines()) {
+            return "SELECT " + location.getTableName() + "_ack(:queueName, :id)";
+        }
+        return sqlBuilder.createDeleteSql(location.getTableName()) + " WHERE " +
+                queueTableSchema.getQueueNameField() + " = :queueName AND " + queueTableSchema.getIdField() + " = :id" +
+                sqlBuilder.createNotDoneSql("");
+    }
+
+    private String createDeleteScheduledSql(@Nonnull QueueLocation location) {
+        return "DELETE FROM " + location.getScheduledTableName().orElseThrow(IllegalStateException::new) +
+                " WHERE " + queueTableSchema.getQueueNameField() + " = :queueName AND " +
+                queueTableSchema.getIdField() + " = :id";
+    }
+
+    private String createDeleteBatchSql(@Nonnull QueueLocation location) {
+        return sqlBuilder.createDeleteSql(location.getTableName()) + " WHERE " +
+                queueTableSchema.getQueueNameField() + " = :queueName AND " + queueTableSchema.getIdField() +
+                " = ANY(:ids)" + sqlBuilder.createNotDoneSql("");
     }
 
     private String createReenqueueSql(@Nonnull QueueLocation location) {
+        if (queueTableSchema.hasServerRoutines()) {
+            return "SELECT " + location.getTableName() + "_reenqueue(:queueName, :id, :executionDelay)";
+        }
         return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
                 " = now() + :executionDelay * INTERVAL '1 SECOND', " +
                 queueTableSchema.getAttemptField() + " = 0, " +
                 queueTableSchema.getReenqueueAttemptField() +
                 " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
                 "WHERE " + queueTableSchema.getIdField() + " = :id AND " +
-                queueTableSchema.getQueueNameField() + " = :queueName";
+                queueTableSchema.getQueueNameField() + " = :queueName" + sqlBuilder.createNotDoneSql("");
     }
 
+    private String createReadyQueuesSql(@Nonnull String tableName) {
+        // index scan per queue instead of reading all ready tasks
+        return "SELECT q.name FROM unnest(:queueNames) AS q(name) WHERE EXISTS (SELECT 1 FROM " + tableName +
+                " t WHERE t." + queueTableSchema.getQueueNameField() + " = q.name AND t." +
+                queueTableSchema.getNextProcessAtField() + " <= now()" + sqlBuilder.createNotDoneSql("t.") + ")";
+    }
 }
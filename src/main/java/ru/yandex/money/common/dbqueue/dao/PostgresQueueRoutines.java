@@ -0,0 +1,92 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generator of PostgreSQL functions to pick, delete and re-enqueue tasks.
+ * <p>
+ * Functions are written in PL/pgSQL, so plans of their statements are cached in the session.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueRoutines implements QueueRoutines {
+
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final PostgresQueueSqlBuilder sqlBuilder;
+
+    /**
+     * Constructor
+     *
+     * @param queueTableSchema Queue table scheme.
+     */
+    public PostgresQueueRoutines(@Nonnull QueueTableSchema queueTableSchema) {
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+        this.sqlBuilder = new PostgresQueueSqlBuilder(queueTableSchema);
+    }
+
+    @Nonnull
+    @Override
+    public List<String> createInstallSql(@Nonnull String tableName) {
+        requireNonNull(tableName);
+        return Arrays.asList(createPickSql(tableName), createAckSql(tableName), createReenqueueSql(tableName));
+    }
+
+    private String createPickSql(@Nonnull String tableName) {
+        return "CREATE OR REPLACE FUNCTION " + tableName + "_pick(p_queue_name TEXT, p_limit INTEGER, " +
+                "p_retry_type TEXT, p_retry_interval BIGINT, p_aging_interval BIGINT) " +
+                "RETURNS SETOF " + tableName + " LANGUAGE plpgsql AS $$\n" +
+                "BEGIN\n" +
+                "RETURN QUERY " + sqlBuilder.createPickSql(tableName, "p_queue_name", "p_limit", "p_aging_interval",
+                "now() + " + createRetryFactorSql() + " * p_retry_interval * INTERVAL '1 SECOND'", "q.*") + ";\n" +
+                "END\n$$";
+    }
+
+    private String createAckSql(@Nonnull String tableName) {
+        return "CREATE OR REPLACE FUNCTION " + tableName + "_ack(p_queue_name TEXT, p_id BIGINT) " +
+                "RETURNS INTEGER LANGUAGE plpgsql AS $$\n" +
+                "DECLARE v_count INTEGER;\n" +
+                "BEGIN\n" +
+                sqlBuilder.createDeleteSql(tableName) + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = p_queue_name AND " + queueTableSchema.getIdField() + " = p_id" +
+                sqlBuilder.createNotDoneSql("") + ";\n" +
+                "GET DIAGNOSTICS v_count = ROW_COUNT;\n" +
+                "RETURN v_count;\n" +
+                "END\n$$";
+    }
+
+    private String createReenqueueSql(@Nonnull String tableName) {
+        return "CREATE OR REPLACE FUNCTION " + tableName + "_reenqueue(p_queue_name TEXT, p_id BIGINT, " +
+                "p_execution_delay BIGINT) RETURNS INTEGER LANGUAGE plpgsql AS $$\n" +
+                "DECLARE v_count INTEGER;\n" +
+                "BEGIN\n" +
+                "UPDATE " + tableName + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = now() + p_execution_delay * INTERVAL '1 SECOND', " +
+                queueTableSchema.getAttemptField() + " = 0, " +
+                queueTableSchema.getReenqueueAttemptField() +
+                " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
+                "WHERE " + queueTableSchema.getIdField() + " = p_id AND " +
+                queueTableSchema.getQueueNameField() + " = p_queue_name" + sqlBuilder.createNotDoneSql("") + ";\n" +
+                "GET DIAGNOSTICS v_count = ROW_COUNT;\n" +
+                "RETURN v_count;\n" +
+                "END\n$$";
+    }
+
+    private String createRetryFactorSql() {
+        return "(CASE p_retry_type" +
+                " WHEN '" + TaskRetryType.GEOMETRIC_BACKOFF.name() + "' THEN power(2, q." +
+                queueTableSchema.getAttemptField() + ")" +
+                " WHEN '" + TaskRetryType.ARITHMETIC_BACKOFF.name() + "' THEN 1 + (q." +
+                queueTableSchema.getAttemptField() + " * 2)" +
+                " ELSE 1 END)";
+    }
+}
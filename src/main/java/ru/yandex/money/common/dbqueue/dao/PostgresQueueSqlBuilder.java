@@ -0,0 +1,126 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builder of PostgreSQL statements shared by the pick query and the server-side routines,
+ * so both variants select and update tasks in the same way.
+ * <p>
+ * Parameters of the statements are passed as SQL expressions, so the caller chooses
+ * between named placeholders, literals and arguments of a function.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueSqlBuilder {
+
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+
+    /**
+     * Constructor
+     *
+     * @param queueTableSchema Queue table scheme.
+     */
+    public PostgresQueueSqlBuilder(@Nonnull QueueTableSchema queueTableSchema) {
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+    }
+
+    /**
+     * Create a statement, which picks ready tasks of the queue and schedules their next attempt.
+     *
+     * @param tableName        Name of the queue table.
+     * @param queueNameSql     Expression with the queue name.
+     * @param limitSql         Expression with the maximum number of picked tasks.
+     * @param agingIntervalSql Expression with the priority aging interval in seconds,
+     *                         null when aging is disabled.
+     * @param nextProcessAtSql Expression with the time of the next attempt, task row is available as {@code q}.
+     * @param returningSql     Returned columns of the picked tasks.
+     * @return statement picking the tasks.
+     */
+    @Nonnull
+    public String createPickSql(@Nonnull String tableName, @Nonnull String queueNameSql, @Nonnull String limitSql,
+                                @Nullable String agingIntervalSql, @Nonnull String nextProcessAtSql,
+                                @Nonnull String returningSql) {
+        return "WITH cte AS (" +
+                "SELECT " + queueTableSchema.getIdField() + " " +
+                "FROM " + tableName + " " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = " + queueNameSql + " " +
+                "  AND " + queueTableSchema.getNextProcessAtField() + " <= now()" +
+                createNotDoneSql("") +
+                createOrderingKeySql(tableName) +
+                " ORDER BY " + createOrderSql(agingIntervalSql) + " " +
+                "LIMIT " + limitSql + " " +
+                "FOR UPDATE SKIP LOCKED) " +
+                "UPDATE " + tableName + " q " +
+                "SET " +
+                "  " + queueTableSchema.getNextProcessAtField() + " = " + nextProcessAtSql + ", " +
+                "  " + queueTableSchema.getAttemptField() + " = q." + queueTableSchema.getAttemptField() + " + 1, " +
+                "  " + queueTableSchema.getTotalAttemptField() + " = q." +
+                queueTableSchema.getTotalAttemptField() + " + 1 " +
+                "FROM cte " +
+                "WHERE q." + queueTableSchema.getIdField() + " = cte." + queueTableSchema.getIdField() + " " +
+                "RETURNING " + returningSql;
+    }
+
+    /**
+     * Create a statement, which finishes a task: deletes it or marks it done
+     * when {@link QueueTableSchema#getDoneAtField()} is given.
+     *
+     * @param tableName Name of the queue table.
+     * @return beginning of the statement without the condition.
+     */
+    @Nonnull
+    public String createDeleteSql(@Nonnull String tableName) {
+        return queueTableSchema.getDoneAtField()
+                .map(field -> "UPDATE " + tableName + " SET " + field + " = now()")
+                .orElse("DELETE FROM " + tableName);
+    }
+
+    /**
+     * Create a condition, which excludes tasks marked done.
+     * <p>
+     * The condition matches the condition of the partial index, so done tasks are not read.
+     *
+     * @param alias Prefix of the columns, empty or the table alias with a dot.
+     * @return condition starting with {@code AND}, empty when done tasks are deleted.
+     */
+    @Nonnull
+    public String createNotDoneSql(@Nonnull String alias) {
+        return queueTableSchema.getDoneAtField().map(field -> " AND " + alias + field + " IS NULL").orElse("");
+    }
+
+    private String createOrderingKeySql(@Nonnull String tableName) {
+        return queueTableSchema.getOrderingKeyField().map(field -> " AND (" + tableName + "." + field + " IS NULL" +
+                " OR NOT EXISTS (SELECT 1 FROM " + tableName + " o" +
+                " WHERE o." + queueTableSchema.getQueueNameField() + " = " + tableName + "." +
+                queueTableSchema.getQueueNameField() +
+                " AND o." + field + " = " + tableName + "." + field +
+                // any older task of the key blocks it: in flight, waiting for a retry or delayed
+                " AND o." + queueTableSchema.getIdField() + " < " + tableName + "." + queueTableSchema.getIdField() +
+                createNotDoneSql("o.") +
+                "))").orElse("");
+    }
+
+    private String createOrderSql(@Nullable String agingIntervalSql) {
+        String nextProcessAtOrder = queueTableSchema.getNextProcessAtField() + " ASC";
+        return queueTableSchema.getPriorityField()
+                .map(field -> createPrioritySql(field, agingIntervalSql) + " DESC, " + nextProcessAtOrder)
+                .orElse(nextProcessAtOrder);
+    }
+
+    private String createPrioritySql(@Nonnull String priorityField, @Nullable String agingIntervalSql) {
+        if (agingIntervalSql == null) {
+            return priorityField;
+        }
+        // ready tasks gain one priority step per aging interval of waiting, zero interval disables aging
+        return "(" + priorityField + " + CASE WHEN " + agingIntervalSql + " > 0" +
+                " THEN floor(extract(epoch FROM now() - " + queueTableSchema.getNextProcessAtField() + ") / " +
+                agingIntervalSql + ") ELSE 0 END)";
+    }
+}
@@ -8,6 +8,10 @@ import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -27,6 +31,25 @@ public interface QueueDao {
      */
     long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams);
 
+    /**
+     * Add several new tasks in the queue for processing with as few database round trips as possible.
+     * <p>
+     * Default implementation adds tasks one by one,
+     * implementations should override it to insert tasks in a single database round trip.
+     *
+     * @param location      Queue location.
+     * @param enqueueParams Parameters of the tasks.
+     * @return Identifiers (sequence ids) of new inserted tasks in the order of given parameters.
+     */
+    @Nonnull
+    default List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                    @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        return enqueueParams.stream()
+                .map(params -> enqueue(location, params))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Remove (delete) task from the queue.
      *
@@ -36,6 +59,23 @@ public interface QueueDao {
      */
     boolean deleteTask(@Nonnull QueueLocation location, long taskId);
 
+    /**
+     * Remove (delete) several tasks from the queue in a single statement.
+     * <p>
+     * Default implementation deletes tasks one by one,
+     * implementations should override it to delete tasks in a single database round trip.
+     *
+     * @param location Queue location.
+     * @param taskIds  Identifiers (sequence ids) of the tasks.
+     * @return Number of tasks deleted from database.
+     */
+    default int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        return (int) taskIds.stream()
+                .filter(taskId -> deleteTask(location, taskId))
+                .count();
+    }
+
     /**
      * Postpone task processing for given time period (current date and time plus execution delay).
      *
@@ -46,6 +86,20 @@ public interface QueueDao {
      */
     boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay);
 
+    /**
+     * Find queues, which have tasks ready for processing, with a single query.
+     * <p>
+     * Default implementation does not query the database and considers all queues ready,
+     * so every queue is polled in turn. Implementations should override it to skip idle queues.
+     *
+     * @param locations Locations of the queues, stored in the same table.
+     * @return Locations of the queues, which have at least one task ready for processing.
+     */
+    @Nonnull
+    default List<QueueLocation> findReadyQueues(@Nonnull Collection<QueueLocation> locations) {
+        return new ArrayList<>(requireNonNull(locations));
+    }
+
     /**
      * Factory for establishment of database-specific DAO to work with queue table.
      */
@@ -53,6 +107,7 @@ public interface QueueDao {
 
         /**
          * Create a new instance of database-specific DAO based on database type (dialect).
+         * The DAO supports partitioned queues, see {@link PartitionedQueueDao}.
          *
          * @param databaseDialect  Database type (dialect).
          * @param jdbcTemplate     Reference to Spring JDBC template.
@@ -65,13 +120,18 @@ public interface QueueDao {
             requireNonNull(databaseDialect);
             requireNonNull(jdbcTemplate);
             requireNonNull(queueTableSchema);
+            if (queueTableSchema.getDoneAtField().isPresent() && databaseDialect != DatabaseDialect.POSTGRESQL) {
+                throw new IllegalArgumentException("done at field is supported for PostgreSQL only: dialect=" +
+                        databaseDialect);
+            }
             switch (databaseDialect) {
                 case POSTGRESQL:
-                    return new PostgresQueueDao(jdbcTemplate, queueTableSchema);
+                    return new PartitionedQueueDao(new PostgresQueueDao(jdbcTemplate, queueTableSchema));
                 case MSSQL:
-                    return new MssqlQueueDao(jdbcTemplate, queueTableSchema);
+                    return new PartitionedQueueDao(new MssqlQueueDao(jdbcTemplate, queueTableSchema));
                 case ORACLE_11G:
-                    return new Oracle11QueueDao(jdbcTemplate, queueTableSchema);
+                case ORACLE_12C:
+                    return new PartitionedQueueDao(new Oracle11QueueDao(jdbcTemplate, queueTableSchema));
                 default:
                     throw new IllegalArgumentException("unsupported database kind: " + databaseDialect);
             }
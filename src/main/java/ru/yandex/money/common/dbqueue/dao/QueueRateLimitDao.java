@@ -0,0 +1,204 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.CallableStatement;
+import java.sql.Types;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Database access object to share the rate limit of the queues between nodes.
+ * <p>
+ * Every queue has a single row with the number of tokens used in the current time window.
+ * Tokens are consumed with a single update statement, which takes the time window from the database clock,
+ * so the nodes agree on the window regardless of their own clocks.
+ * Unused tokens are given back to the window they were consumed in.
+ * The row of the queue is created on the first use.
+ * <p>
+ * Table definition for PostgreSQL:
+ * <pre>
+ * CREATE TABLE queue_rate_limits (
+ *   queue_name   TEXT PRIMARY KEY,
+ *   window_start BIGINT NOT NULL,
+ *   used_count   BIGINT NOT NULL
+ * );
+ * </pre>
+ *
+ * @author Oleg Kandaurov
+ * @see ru.yandex.money.common.dbqueue.settings.RateLimitMode#DISTRIBUTED
+ * @since 16.10.2026
+ */
+public class QueueRateLimitDao {
+
+    /**
+     * Default name of the counter table
+     */
+    public static final String DEFAULT_TABLE_NAME = "queue_rate_limits";
+
+    private final Set<QueueId> createdQueues = ConcurrentHashMap.newKeySet();
+
+    @Nonnull
+    private final DatabaseDialect databaseDialect;
+    @Nonnull
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    @Nonnull
+    private final String acquireSql;
+    @Nonnull
+    private final String releaseSql;
+    @Nonnull
+    private final String insertSql;
+
+    /**
+     * Constructor
+     *
+     * @param databaseDialect Database type.
+     * @param jdbcTemplate    Reference to Spring JDBC template.
+     * @param tableName       Name of the counter table.
+     */
+    public QueueRateLimitDao(@Nonnull DatabaseDialect databaseDialect,
+                             @Nonnull JdbcOperations jdbcTemplate,
+                             @Nonnull String tableName) {
+        this.databaseDialect = requireNonNull(databaseDialect);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(requireNonNull(jdbcTemplate));
+        requireNonNull(tableName);
+        this.acquireSql = createAcquireSql(tableName);
+        this.releaseSql = "UPDATE " + tableName + " SET used_count = used_count - :count " +
+                "WHERE queue_name = :queueName AND window_start = :windowStart AND used_count >= :count";
+        this.insertSql = "INSERT INTO " + tableName + " (queue_name, window_start, used_count) " +
+                "VALUES (:queueName, 0, 0)";
+    }
+
+    /**
+     * Consume tokens of the queue in the current time window.
+     * <p>
+     * Tokens are consumed only when all of them fit into the limit of the window.
+     * The window is computed from the database clock and starts at a multiple of its duration.
+     *
+     * @param queueId      Queue identifier.
+     * @param windowMillis Duration of the time window, in millis.
+     * @param windowLimit  Maximum number of tokens in the window.
+     * @param count        Number of tokens to consume.
+     * @return start of the window, in millis since epoch, in which the tokens were consumed,
+     * null, when the limit of the window is exhausted.
+     */
+    @Nullable
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public Long tryAcquire(@Nonnull QueueId queueId, long windowMillis, long windowLimit, int count) {
+        requireNonNull(queueId);
+        if (count > windowLimit) {
+            return null;
+        }
+        Long windowStart = executeAcquire(queueId, windowMillis, windowLimit, count);
+        if (windowStart != null || !createdQueues.add(queueId)) {
+            return windowStart;
+        }
+        try {
+            jdbcTemplate.update(insertSql, new MapSqlParameterSource().addValue("queueName", queueId.asString()));
+        } catch (DuplicateKeyException ignored) {
+            // row is created by another node
+        }
+        return executeAcquire(queueId, windowMillis, windowLimit, count);
+    }
+
+    /**
+     * Give back unused tokens of the queue.
+     * <p>
+     * Tokens are given back only while the window, in which they were consumed, is current,
+     * tokens of a passed window expire anyway.
+     *
+     * @param queueId     Queue identifier.
+     * @param windowStart Start of the window returned by {@link #tryAcquire(QueueId, long, long, int)}.
+     * @param count       Number of unused tokens.
+     */
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public void release(@Nonnull QueueId queueId, long windowStart, int count) {
+        requireNonNull(queueId);
+        jdbcTemplate.update(releaseSql, new MapSqlParameterSource()
+                .addValue("queueName", queueId.asString())
+                .addValue("windowStart", windowStart)
+                .addValue("count", count));
+    }
+
+    @Nullable
+    private Long executeAcquire(@Nonnull QueueId queueId, long windowMillis, long windowLimit, int count) {
+        switch (databaseDialect) {
+            case POSTGRESQL:
+            case MSSQL:
+                return jdbcTemplate.queryForList(acquireSql, new MapSqlParameterSource()
+                        .addValue("queueName", queueId.asString())
+                        .addValue("windowMillis", windowMillis)
+                        .addValue("windowLimit", windowLimit)
+                        .addValue("count", count), Long.class).stream().findFirst().orElse(null);
+            case ORACLE_11G:
+            case ORACLE_12C:
+                return jdbcTemplate.getJdbcTemplate().execute(acquireSql, (CallableStatement cs) -> {
+                    int index = 1;
+                    cs.setLong(index++, windowMillis);
+                    cs.setLong(index++, windowMillis);
+                    cs.setInt(index++, count);
+                    cs.setInt(index++, count);
+                    cs.setString(index++, queueId.asString());
+                    cs.setInt(index++, count);
+                    cs.setLong(index++, windowLimit);
+                    cs.registerOutParameter(index, Types.BIGINT);
+                    cs.execute();
+                    long windowStart = cs.getLong(index);
+                    return cs.wasNull() ? null : windowStart;
+                });
+            default:
+                throw new IllegalArgumentException("unsupported database kind: " + databaseDialect);
+        }
+    }
+
+    private String createAcquireSql(@Nonnull String tableName) {
+        switch (databaseDialect) {
+            case POSTGRESQL:
+                return createAcquireSql(tableName, "(floor(extract(epoch FROM CURRENT_TIMESTAMP) * 1000 / " +
+                        ":windowMillis) * :windowMillis)::BIGINT", "", " RETURNING window_start");
+            case MSSQL:
+                return createAcquireSql(tableName,
+                        "(DATEDIFF_BIG(MILLISECOND, '19700101', SYSUTCDATETIME()) / :windowMillis * :windowMillis)",
+                        " OUTPUT inserted.window_start", "");
+            case ORACLE_11G:
+            case ORACLE_12C:
+                // the window is computed once, parameters of the block are bound by position
+                return "DECLARE\n" +
+                        "  v_since_epoch INTERVAL DAY(9) TO SECOND := " +
+                        "SYS_EXTRACT_UTC(SYSTIMESTAMP) - TIMESTAMP '1970-01-01 00:00:00';\n" +
+                        "  v_window_start NUMBER(19) := FLOOR((EXTRACT(DAY FROM v_since_epoch) * 86400000 + " +
+                        "EXTRACT(HOUR FROM v_since_epoch) * 3600000 + EXTRACT(MINUTE FROM v_since_epoch) * 60000 + " +
+                        "EXTRACT(SECOND FROM v_since_epoch) * 1000) / ?) * ?;\n" +
+                        "  v_acquired NUMBER(19);\n" +
+                        "BEGIN\n" +
+                        createAcquireSql(tableName, "v_window_start", "", " RETURNING window_start INTO v_acquired")
+                                .replace(":count", "?").replace(":queueName", "?")
+                                .replace(":windowLimit", "?") + ";\n" +
+                        "  ? := v_acquired;\n" +
+                        "END;";
+            default:
+                throw new IllegalArgumentException("unsupported database kind: " + databaseDialect);
+        }
+    }
+
+    private static String createAcquireSql(@Nonnull String tableName, @Nonnull String windowStartSql,
+                                           @Nonnull String outputSql, @Nonnull String returningSql) {
+        return "UPDATE " + tableName + " SET " +
+                "used_count = CASE WHEN window_start = " + windowStartSql + " THEN used_count + :count " +
+                "ELSE :count END, " +
+                "window_start = " + windowStartSql + outputSql + " " +
+                "WHERE queue_name = :queueName AND " +
+                "(window_start < " + windowStartSql + " OR (window_start = " + windowStartSql +
+                " AND used_count + :count <= :windowLimit))" + returningSql;
+    }
+}
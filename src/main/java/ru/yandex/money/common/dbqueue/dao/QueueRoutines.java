@@ -0,0 +1,67 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generator of routines stored in the database, which pick, delete and re-enqueue tasks of a queue table.
+ * <p>
+ * Routines are used when {@link QueueTableSchema#hasServerRoutines()} is enabled,
+ * so the most frequent statements are sent as short calls and their plans are cached by the database.
+ * Routines are created per queue table and named after the table:
+ * {@code <table>_pick}, {@code <table>_ack} and {@code <table>_reenqueue} functions in PostgreSQL,
+ * procedures with the same names in MSSQL and a {@code <table>_pkg} package
+ * with {@code pick}, {@code ack} and {@code reenqueue} procedures in Oracle.
+ * Priority and ordering key columns of the schema are compiled into the routines,
+ * retry and aging settings of a queue are passed on every call.
+ * Routines of the shard are installed by {@code QueueShard#installRoutines(String)}.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public interface QueueRoutines {
+
+    /**
+     * Create DDL statements, which create or replace routines of the queue table.
+     *
+     * @param tableName Name of the queue table.
+     * @return DDL statements in the order of execution.
+     */
+    @Nonnull
+    List<String> createInstallSql(@Nonnull String tableName);
+
+    /**
+     * Factory for establishment of database-specific routine generators.
+     */
+    class Factory {
+
+        /**
+         * Create a new instance of database-specific routine generator based on database type (dialect).
+         *
+         * @param databaseDialect  Database type (dialect).
+         * @param queueTableSchema Queue table scheme.
+         * @return New database-specific routine generator.
+         */
+        public static QueueRoutines create(@Nonnull DatabaseDialect databaseDialect,
+                                           @Nonnull QueueTableSchema queueTableSchema) {
+            requireNonNull(databaseDialect);
+            requireNonNull(queueTableSchema);
+            switch (databaseDialect) {
+                case POSTGRESQL:
+                    return new PostgresQueueRoutines(queueTableSchema);
+                case MSSQL:
+                    return new MssqlQueueRoutines(queueTableSchema);
+                case ORACLE_11G:
+                case ORACLE_12C:
+                    return new OracleQueueRoutines(queueTableSchema);
+                default:
+                    throw new IllegalArgumentException("unsupported database kind: " + databaseDialect);
+            }
+        }
+    }
+}
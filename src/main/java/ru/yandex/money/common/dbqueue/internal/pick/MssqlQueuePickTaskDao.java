@@ -5,8 +5,8 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import ru.yandex.money.common.dbqueue.api.TaskRecord;
 import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.dao.MssqlQueueSqlBuilder;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
-import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -15,11 +15,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -37,6 +37,7 @@ public class MssqlQueuePickTaskDao implements QueuePickTaskDao {
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final QueueTableSchema queueTableSchema;
     private final PickTaskSettings pickTaskSettings;
+    private final MssqlQueueSqlBuilder sqlBuilder;
 
     public MssqlQueuePickTaskDao(@Nonnull JdbcOperations jdbcTemplate,
                                  @Nonnull QueueTableSchema queueTableSchema,
@@ -44,91 +45,73 @@ public class MssqlQueuePickTaskDao implements QueuePickTaskDao {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(requireNonNull(jdbcTemplate));
         this.queueTableSchema = requireNonNull(queueTableSchema);
         this.pickTaskSettings = requireNonNull(pickTaskSettings);
+        this.sqlBuilder = new MssqlQueueSqlBuilder(queueTableSchema);
     }
 
     @Override
     @Nullable
     public TaskRecord pickTask(@Nonnull QueueLocation location) {
+        List<TaskRecord> taskRecords = pickTasks(location, 1);
+        return taskRecords.isEmpty() ? null : taskRecords.get(0);
+    }
+
+    @Override
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int limit) {
         requireNonNull(location);
         MapSqlParameterSource placeholders = new MapSqlParameterSource()
                 .addValue("queueName", location.getQueueId().asString())
-                .addValue("retryInterval", pickTaskSettings.getRetryInterval().getSeconds());
+                .addValue("retryInterval", pickTaskSettings.getRetryInterval().getSeconds())
+                .addValue("retryType", pickTaskSettings.getRetryType().name())
+                .addValue("agingInterval", pickTaskSettings.getPriorityAgingInterval().getSeconds())
+                .addValue("limit", limit);
 
-        return jdbcTemplate.execute(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
+        return requireNonNull(jdbcTemplate.execute(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
                 placeholders,
                 (PreparedStatement ps) -> {
                     try (ResultSet rs = ps.executeQuery()) {
-                        if (!rs.next()) {
-                            //noinspection ReturnOfNull
-                            return null;
+                        List<TaskRecord> taskRecords = new ArrayList<>(limit);
+                        while (rs.next()) {
+                            taskRecords.add(mapTaskRecord(rs));
                         }
-
-                        Map<String, String> additionalData = new LinkedHashMap<>();
-                        queueTableSchema.getExtFields().forEach(key -> {
-                            try {
-                                additionalData.put(key, rs.getString(key));
-                            } catch (SQLException e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-                        return TaskRecord.builder()
-                                .withId(rs.getLong(queueTableSchema.getIdField()))
-                                .withCreatedAt(getZonedDateTime(rs, queueTableSchema.getCreatedAtField()))
-                                .withNextProcessAt(getZonedDateTime(rs, queueTableSchema.getNextProcessAtField()))
-                                .withPayload(rs.getString(queueTableSchema.getPayloadField()))
-                                .withAttemptsCount(rs.getLong(queueTableSchema.getAttemptField()))
-                                .withReenqueueAttemptsCount(rs.getLong(queueTableSchema.getReenqueueAttemptField()))
-                                .withTotalAttemptsCount(rs.getLong(queueTableSchema.getTotalAttemptField()))
-                                .withExtData(additionalData).build();
+                        return taskRecords;
                     }
-                });
+                }));
+    }
+
+    private TaskRecord mapTaskRecord(ResultSet rs) throws SQLException {
+        Map<String, String> additionalData = new LinkedHashMap<>();
+        queueTableSchema.getExtFields().forEach(key -> {
+            try {
+                additionalData.put(key, rs.getString(key));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        return TaskRecord.builder()
+                .withId(rs.getLong(queueTableSchema.getIdField()))
+                .withCreatedAt(getZonedDateTime(rs, queueTableSchema.getCreatedAtField()))
+                .withNextProcessAt(getZonedDateTime(rs, queueTableSchema.getNextProcessAtField()))
+                .withPayload(rs.getString(queueTableSchema.getPayloadField()))
+                .withAttemptsCount(rs.getLong(queueTableSchema.getAttemptField()))
+                .withReenqueueAttemptsCount(rs.getLong(queueTableSchema.getReenqueueAttemptField()))
+                .withTotalAttemptsCount(rs.getLong(queueTableSchema.getTotalAttemptField()))
+                .withExtData(additionalData).build();
     }
 
     private String createPickTaskSql(@Nonnull QueueLocation location) {
-        return "WITH cte AS (" +
-                "SELECT " + queueTableSchema.getIdField() + " " +
-                "FROM " + location.getTableName() + " with (readpast, updlock) " +
-                "WHERE " + queueTableSchema.getQueueNameField() + " = :queueName " +
-                "  AND " + queueTableSchema.getNextProcessAtField() + " <= SYSDATETIMEOFFSET() " +
-                " ORDER BY " + queueTableSchema.getNextProcessAtField() + " ASC " +
-                "offset 0 rows fetch next 1 rows only " +
-                ") " +
-                "UPDATE " + location.getTableName() + " " +
-                "SET " +
-                "  " + queueTableSchema.getNextProcessAtField() + " = " +
-                getNextProcessTimeSql(pickTaskSettings.getRetryType(), queueTableSchema) + ", " +
-                "  " + queueTableSchema.getAttemptField() + " = " + queueTableSchema.getAttemptField() + " + 1, " +
-                "  " + queueTableSchema.getTotalAttemptField() + " = " + queueTableSchema.getTotalAttemptField() + " + 1 " +
-                "OUTPUT inserted." + queueTableSchema.getIdField() + ", " +
-                "inserted." + queueTableSchema.getPayloadField() + ", " +
-                "inserted." + queueTableSchema.getAttemptField() + ", " +
-                "inserted." + queueTableSchema.getReenqueueAttemptField() + ", " +
-                "inserted." + queueTableSchema.getTotalAttemptField() + ", " +
-                "inserted." + queueTableSchema.getCreatedAtField() + ", " +
-                "inserted." + queueTableSchema.getNextProcessAtField() +
-                (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> "inserted." + field).collect(Collectors.joining(", ", ", ", ""))) + " " +
-                "FROM cte " +
-                "WHERE " + location.getTableName() + "." + queueTableSchema.getIdField() + " = cte." + queueTableSchema.getIdField();
+        if (queueTableSchema.hasServerRoutines()) {
+            return "EXEC " + location.getTableName() +
+                    "_pick :queueName, :limit, :retryType, :retryInterval, :agingInterval";
+        }
+        long agingSeconds = pickTaskSettings.getPriorityAgingInterval().getSeconds();
+        return sqlBuilder.createPickSql(location.getTableName(), ":queueName", ":limit",
+                agingSeconds == 0L ? null : String.valueOf(agingSeconds),
+                sqlBuilder.createNextProcessAtSql(sqlBuilder.createRetryFactorSql(pickTaskSettings.getRetryType()),
+                        ":retryInterval"));
     }
 
     private ZonedDateTime getZonedDateTime(ResultSet rs, String time) throws SQLException {
         return ZonedDateTime.ofInstant(rs.getTimestamp(time).toInstant(), ZoneId.systemDefault());
     }
-
-
-    @Nonnull
-    private String getNextProcessTimeSql(@Nonnull TaskRetryType taskRetryType, QueueTableSchema queueTableSchema) {
-        Objects.requireNonNull(taskRetryType);
-        switch (taskRetryType) {
-            case GEOMETRIC_BACKOFF:
-                return "dateadd(ss, power(2, " + queueTableSchema.getAttemptField() + ") * :retryInterval, SYSDATETIMEOFFSET())";
-            case ARITHMETIC_BACKOFF:
-                return "dateadd(ss, (1 + (" + queueTableSchema.getAttemptField() + " * 2)) * :retryInterval, SYSDATETIMEOFFSET())";
-            case LINEAR_BACKOFF:
-                return "dateadd(ss, :retryInterval, SYSDATETIMEOFFSET())";
-            default:
-                throw new IllegalStateException("unknown retry type: " + taskRetryType);
-        }
-    }
 }
@@ -0,0 +1,28 @@
+package ru.yandex.money.common.dbqueue.internal.pick;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Database access object to pick tasks in the queue for Oracle 12c and higher.
+ * <p>
+ * Tasks are claimed in the same way as in {@link Oracle11QueuePickTaskDao},
+ * the bulk claim relies on Oracle 11g features only.
+ * The dialect differs in the order of tasks without priority: they are picked in the order
+ * of the next attempt time, so the cursor walks the index on (queue_name, next_process_at)
+ * and stops after the limit. Oracle 11g keeps the unspecified order of the earlier versions,
+ * so existing installations do not change their pick plan.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class Oracle12QueuePickTaskDao extends Oracle11QueuePickTaskDao {
+
+    public Oracle12QueuePickTaskDao(@Nonnull JdbcOperations jdbcTemplate,
+                                    @Nonnull QueueTableSchema queueTableSchema,
+                                    @Nonnull PickTaskSettings pickTaskSettings) {
+        super(jdbcTemplate, queueTableSchema, pickTaskSettings, true);
+    }
+}
@@ -19,11 +19,20 @@ public class PickTaskSettings {
     private final TaskRetryType retryType;
     @Nonnull
     private final Duration retryInterval;
+    @Nonnull
+    private final Duration priorityAgingInterval;
 
     public PickTaskSettings(@Nonnull TaskRetryType retryType,
                             @Nonnull Duration retryInterval) {
+        this(retryType, retryInterval, Duration.ZERO);
+    }
+
+    public PickTaskSettings(@Nonnull TaskRetryType retryType,
+                            @Nonnull Duration retryInterval,
+                            @Nonnull Duration priorityAgingInterval) {
         this.retryType = requireNonNull(retryType);
         this.retryInterval = requireNonNull(retryInterval);
+        this.priorityAgingInterval = requireNonNull(priorityAgingInterval);
     }
 
     /**
@@ -45,4 +54,14 @@ public class PickTaskSettings {
     Duration getRetryInterval() {
         return retryInterval;
     }
+
+    /**
+     * Настройка {@link QueueSettings#getPriorityAgingInterval()}
+     *
+     * @return значение настройки
+     */
+    @Nonnull
+    Duration getPriorityAgingInterval() {
+        return priorityAgingInterval;
+    }
 }
@@ -5,6 +5,7 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import ru.yandex.money.common.dbqueue.api.TaskRecord;
 import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.dao.PostgresQueueSqlBuilder;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
 
@@ -15,7 +16,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,6 +39,7 @@ public class PostgresQueuePickTaskDao implements QueuePickTaskDao {
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final QueueTableSchema queueTableSchema;
     private final PickTaskSettings pickTaskSettings;
+    private final PostgresQueueSqlBuilder sqlBuilder;
 
     /**
      * Конструктор
@@ -50,72 +54,78 @@ public class PostgresQueuePickTaskDao implements QueuePickTaskDao {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(requireNonNull(jdbcTemplate));
         this.queueTableSchema = requireNonNull(queueTableSchema);
         this.pickTaskSettings = requireNonNull(pickTaskSettings);
+        this.sqlBuilder = new PostgresQueueSqlBuilder(queueTableSchema);
     }
 
     @Override
     @Nullable
     public TaskRecord pickTask(@Nonnull QueueLocation location) {
+        List<TaskRecord> taskRecords = pickTasks(location, 1);
+        return taskRecords.isEmpty() ? null : taskRecords.get(0);
+    }
+
+    @Override
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int limit) {
         requireNonNull(location);
         MapSqlParameterSource placeholders = new MapSqlParameterSource()
                 .addValue("queueName", location.getQueueId().asString())
-                .addValue("retryInterval", pickTaskSettings.getRetryInterval().getSeconds());
+                .addValue("retryInterval", pickTaskSettings.getRetryInterval().getSeconds())
+                .addValue("retryType", pickTaskSettings.getRetryType().name())
+                .addValue("agingInterval", pickTaskSettings.getPriorityAgingInterval().getSeconds())
+                .addValue("limit", limit);
 
-        return jdbcTemplate.execute(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
+        return requireNonNull(jdbcTemplate.execute(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
                 placeholders,
                 (PreparedStatement ps) -> {
                     try (ResultSet rs = ps.executeQuery()) {
-                        if (!rs.next()) {
-                            //noinspection ReturnOfNull
-                            return null;
+                        List<TaskRecord> taskRecords = new ArrayList<>(limit);
+                        while (rs.next()) {
+                            taskRecords.add(mapTaskRecord(rs));
                         }
-
-                        Map<String, String> additionalData = new LinkedHashMap<>();
-                        queueTableSchema.getExtFields().forEach(key -> {
-                            try {
-                                additionalData.put(key, rs.getString(key));
-                            } catch (SQLException e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-                        return TaskRecord.builder()
-                                .withId(rs.getLong(queueTableSchema.getIdField()))
-                                .withCreatedAt(getZonedDateTime(rs, queueTableSchema.getCreatedAtField()))
-                                .withNextProcessAt(getZonedDateTime(rs, queueTableSchema.getNextProcessAtField()))
-                                .withPayload(rs.getString(queueTableSchema.getPayloadField()))
-                                .withAttemptsCount(rs.getLong(queueTableSchema.getAttemptField()))
-                                .withReenqueueAttemptsCount(rs.getLong(queueTableSchema.getReenqueueAttemptField()))
-                                .withTotalAttemptsCount(rs.getLong(queueTableSchema.getTotalAttemptField()))
-                                .withExtData(additionalData).build();
+                        return taskRecords;
                     }
-                });
+                }));
+    }
+
+    private TaskRecord mapTaskRecord(ResultSet rs) throws SQLException {
+        Map<String, String> additionalData = new LinkedHashMap<>();
+        queueTableSchema.getExtFields().forEach(key -> {
+            try {
+                additionalData.put(key, rs.getString(key));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        return TaskRecord.builder()
+                .withId(rs.getLong(queueTableSchema.getIdField()))
+                .withCreatedAt(getZonedDateTime(rs, queueTableSchema.getCreatedAtField()))
+                .withNextProcessAt(getZonedDateTime(rs, queueTableSchema.getNextProcessAtField()))
+                .withPayload(rs.getString(queueTableSchema.getPayloadField()))
+                .withAttemptsCount(rs.getLong(queueTableSchema.getAttemptField()))
+                .withReenqueueAttemptsCount(rs.getLong(queueTableSchema.getReenqueueAttemptField()))
+                .withTotalAttemptsCount(rs.getLong(queueTableSchema.getTotalAttemptField()))
+                .withExtData(additionalData).build();
     }
 
     private String createPickTaskSql(@Nonnull QueueLocation location) {
-        return "WITH cte AS (" +
-                "SELECT " + queueTableSchema.getIdField() + " " +
-                "FROM " + location.getTableName() + " " +
-                "WHERE " + queueTableSchema.getQueueNameField() + " = :queueName " +
-                "  AND " + queueTableSchema.getNextProcessAtField() + " <= now() " +
-                " ORDER BY " + queueTableSchema.getNextProcessAtField() + " ASC " +
-                "LIMIT 1 " +
-                "FOR UPDATE SKIP LOCKED) " +
-                "UPDATE " + location.getTableName() + " q " +
-                "SET " +
-                "  " + queueTableSchema.getNextProcessAtField() + " = " +
-                getNextProcessTimeSql(pickTaskSettings.getRetryType(), queueTableSchema) + ", " +
-                "  " + queueTableSchema.getAttemptField() + " = " + queueTableSchema.getAttemptField() + " + 1, " +
-                "  " + queueTableSchema.getTotalAttemptField() + " = " + queueTableSchema.getTotalAttemptField() + " + 1 " +
-                "FROM cte " +
-                "WHERE q." + queueTableSchema.getIdField() + " = cte." + queueTableSchema.getIdField() + " " +
-                "RETURNING q." + queueTableSchema.getIdField() + ", " +
-                "q." + queueTableSchema.getPayloadField() + ", " +
-                "q." + queueTableSchema.getAttemptField() + ", " +
-                "q." + queueTableSchema.getReenqueueAttemptField() + ", " +
-                "q." + queueTableSchema.getTotalAttemptField() + ", " +
-                "q." + queueTableSchema.getCreatedAtField() + ", " +
-                "q." + queueTableSchema.getNextProcessAtField() +
-                (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> "q." + field).collect(Collectors.joining(", ", ", ", "")));
+        if (queueTableSchema.hasServerRoutines()) {
+            return "SELECT * FROM " + location.getTableName() +
+                    "_pick(:queueName, :limit, :retryType, :retryInterval, :agingInterval)";
+        }
+        long agingSeconds = pickTaskSettings.getPriorityAgingInterval().getSeconds();
+        return sqlBuilder.createPickSql(location.getTableName(), ":queueName", ":limit",
+                agingSeconds == 0L ? null : String.valueOf(agingSeconds),
+                getNextProcessTimeSql(pickTaskSettings.getRetryType(), queueTableSchema),
+                "q." + queueTableSchema.getIdField() + ", " +
+                        "q." + queueTableSchema.getPayloadField() + ", " +
+                        "q." + queueTableSchema.getAttemptField() + ", " +
+                        "q." + queueTableSchema.getReenqueueAttemptField() + ", " +
+                        "q." + queueTableSchema.getTotalAttemptField() + ", " +
+                        "q." + queueTableSchema.getCreatedAtField() + ", " +
+                        "q." + queueTableSchema.getNextProcessAtField() +
+                        (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
+                                .map(field -> "q." + field).collect(Collectors.joining(", ", ", ", ""))));
     }
 
     private ZonedDateTime getZonedDateTime(ResultSet rs, String time) throws SQLException {
@@ -8,6 +8,7 @@ import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -28,6 +29,16 @@ public interface QueuePickTaskDao {
     @Nullable
     TaskRecord pickTask(@Nonnull QueueLocation location);
 
+    /**
+     * Выбрать пачку задач из очереди за одно обращение к БД
+     *
+     * @param location местоположение очереди
+     * @param limit    максимальное количество выбираемых задач
+     * @return задачи для обработки или пустой список если таковых не нашлось
+     */
+    @Nonnull
+    List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int limit);
+
     /**
      * Фабрика для создания БД-специфичных DAO для выборки очередей
      */
@@ -50,6 +61,10 @@ public interface QueuePickTaskDao {
             requireNonNull(queueTableSchema);
             requireNonNull(jdbcTemplate);
             requireNonNull(pickTaskSettings);
+            if (queueTableSchema.getDoneAtField().isPresent() && databaseDialect != DatabaseDialect.POSTGRESQL) {
+                throw new IllegalArgumentException("done at field is supported for PostgreSQL only: dialect=" +
+                        databaseDialect);
+            }
             switch (databaseDialect) {
                 case POSTGRESQL:
                     return new PostgresQueuePickTaskDao(jdbcTemplate, queueTableSchema, pickTaskSettings);
@@ -57,6 +72,8 @@ public interface QueuePickTaskDao {
                     return new MssqlQueuePickTaskDao(jdbcTemplate, queueTableSchema, pickTaskSettings);
                 case ORACLE_11G:
                     return new Oracle11QueuePickTaskDao(jdbcTemplate, queueTableSchema, pickTaskSettings);
+                case ORACLE_12C:
+                    return new Oracle12QueuePickTaskDao(jdbcTemplate, queueTableSchema, pickTaskSettings);
                 default:
                     throw new IllegalArgumentException("unsupported database kind: " + databaseDialect);
             }
@@ -0,0 +1,84 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import ru.yandex.money.common.dbqueue.dao.QueueRateLimitDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Ограничитель скорости выборки задач, общий для всех узлов.
+ * <p>
+ * Разрешения выдаются из счётчика в базе данных шарда в пределах временного окна,
+ * окно вычисляется по часам базы данных.
+ * Длительность окна - одна секунда, но не меньше интервала между двумя задачами,
+ * лимит окна округляется вниз до целого количества задач.
+ * Неиспользованные разрешения возвращаются в окно, в котором они были выданы.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+class DistributedTaskRateLimiter implements TaskRateLimiter {
+
+    /**
+     * Окно последних выданных разрешений потока, выдача и возврат выполняются в одном потоке
+     */
+    private final ThreadLocal<Long> acquiredWindowStart = new ThreadLocal<>();
+
+    @Nonnull
+    private final QueueId queueId;
+    @Nonnull
+    private final QueueRateLimitDao rateLimitDao;
+    private final long windowMillis;
+    private final long windowLimit;
+
+    /**
+     * Конструктор
+     *
+     * @param queueId        идентификатор очереди
+     * @param tasksPerSecond количество задач в секунду на всех узлах
+     * @param rateLimitDao   dao для счётчика разрешений
+     */
+    DistributedTaskRateLimiter(@Nonnull QueueId queueId,
+                               double tasksPerSecond,
+                               @Nonnull QueueRateLimitDao rateLimitDao) {
+        if (!(tasksPerSecond > 0.0)) {
+            throw new IllegalArgumentException("tasksPerSecond must be greater than zero: tasksPerSecond=" +
+                    tasksPerSecond);
+        }
+        this.queueId = requireNonNull(queueId);
+        this.rateLimitDao = requireNonNull(rateLimitDao);
+        this.windowMillis = Math.max(1000L, (long) Math.ceil(1000.0 / tasksPerSecond));
+        this.windowLimit = Math.max(1L, (long) Math.floor(tasksPerSecond * windowMillis / 1000.0));
+    }
+
+    @Override
+    public int tryAcquire(int maxCount) {
+        acquiredWindowStart.remove();
+        int count = (int) Math.min(maxCount, windowLimit);
+        if (count <= 0) {
+            return 0;
+        }
+        Long windowStart = rateLimitDao.tryAcquire(queueId, windowMillis, windowLimit, count);
+        if (windowStart == null && count > 1) {
+            count = 1;
+            windowStart = rateLimitDao.tryAcquire(queueId, windowMillis, windowLimit, count);
+        }
+        if (windowStart == null) {
+            return 0;
+        }
+        acquiredWindowStart.set(windowStart);
+        return count;
+    }
+
+    @Override
+    public void release(int count) {
+        Long windowStart = acquiredWindowStart.get();
+        if (count <= 0 || windowStart == null) {
+            return;
+        }
+        acquiredWindowStart.remove();
+        rateLimitDao.release(queueId, windowStart, count);
+    }
+}
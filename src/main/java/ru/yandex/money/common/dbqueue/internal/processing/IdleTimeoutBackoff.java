@@ -0,0 +1,82 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Random;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Адаптивная задержка потока обработки при отсутствии задач в очереди.
+ * <p>
+ * Пока очередь пуста, задержка растёт вдвое от минимальной до максимальной,
+ * а фактическое ожидание выбирается случайно из второй половины текущей задержки,
+ * чтобы потоки разных узлов не обращались к базе одновременно.
+ * После обработки задачи задержка сбрасывается до минимальной.
+ * <p>
+ * Состояние задержки не потокобезопасно и принадлежит одному потоку обработки.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class IdleTimeoutBackoff {
+
+    @Nonnull
+    private final Duration minTimeout;
+    @Nonnull
+    private final Duration maxTimeout;
+    @Nonnull
+    private final Random random;
+
+    @Nonnull
+    private Duration currentTimeout;
+
+    /**
+     * Конструктор
+     *
+     * @param minTimeout минимальная задержка
+     * @param maxTimeout максимальная задержка
+     * @param random     генератор случайных чисел
+     */
+    public IdleTimeoutBackoff(@Nonnull Duration minTimeout,
+                              @Nonnull Duration maxTimeout,
+                              @Nonnull Random random) {
+        this.minTimeout = requireNonNull(minTimeout);
+        this.maxTimeout = requireNonNull(maxTimeout);
+        this.random = requireNonNull(random);
+        if (maxTimeout.compareTo(minTimeout) < 0) {
+            throw new IllegalArgumentException("maxTimeout must not be less than minTimeout: " +
+                    "minTimeout=" + minTimeout + ", maxTimeout=" + maxTimeout);
+        }
+        this.currentTimeout = minTimeout;
+    }
+
+    /**
+     * Получить задержку перед следующей выборкой из пустой очереди и увеличить её
+     *
+     * @return задержка ожидания
+     */
+    @Nonnull
+    public Duration nextTimeout() {
+        Duration timeout = currentTimeout;
+        if (currentTimeout.compareTo(maxTimeout) < 0) {
+            Duration doubledTimeout = currentTimeout.isZero() ?
+                    Duration.ofMillis(1L) : currentTimeout.multipliedBy(2L);
+            currentTimeout = doubledTimeout.compareTo(maxTimeout) < 0 ? doubledTimeout : maxTimeout;
+        }
+        if (timeout.equals(minTimeout)) {
+            return timeout;
+        }
+        long halfMillis = timeout.toMillis() / 2;
+        Duration jitteredTimeout = Duration.ofMillis(timeout.toMillis() - halfMillis +
+                (long) (random.nextDouble() * halfMillis));
+        return jitteredTimeout.compareTo(minTimeout) < 0 ? minTimeout : jitteredTimeout;
+    }
+
+    /**
+     * Сбросить задержку до минимальной после обработки задачи
+     */
+    public void reset() {
+        currentTimeout = minTimeout;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Ограничитель скорости выборки задач на основе token bucket в памяти узла.
+ * <p>
+ * Ёмкость корзины равна количеству задач за одну секунду, но не меньше одной задачи,
+ * поэтому после простоя узел выбирает не больше секундного лимита сразу.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+class LocalTaskRateLimiter implements TaskRateLimiter {
+
+    @Nonnull
+    private final MillisTimeProvider millisTimeProvider;
+    private final double tasksPerMillis;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillTime;
+
+    /**
+     * Конструктор
+     *
+     * @param tasksPerSecond     количество задач в секунду
+     * @param millisTimeProvider поставщик текущего времени
+     */
+    LocalTaskRateLimiter(double tasksPerSecond, @Nonnull MillisTimeProvider millisTimeProvider) {
+        if (!(tasksPerSecond > 0.0)) {
+            throw new IllegalArgumentException("tasksPerSecond must be greater than zero: tasksPerSecond=" +
+                    tasksPerSecond);
+        }
+        this.millisTimeProvider = requireNonNull(millisTimeProvider);
+        this.tasksPerMillis = tasksPerSecond / 1000.0;
+        this.capacity = Math.max(1.0, tasksPerSecond);
+        this.tokens = capacity;
+        this.lastRefillTime = millisTimeProvider.getMillis();
+    }
+
+    @Override
+    public synchronized int tryAcquire(int maxCount) {
+        long now = millisTimeProvider.getMillis();
+        if (now > lastRefillTime) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillTime) * tasksPerMillis);
+            lastRefillTime = now;
+        }
+        int count = (int) Math.min(maxCount, Math.floor(tokens));
+        tokens -= count;
+        return count;
+    }
+
+    @Override
+    public synchronized void release(int count) {
+        if (count > 0) {
+            tokens = Math.min(capacity, tokens + count);
+        }
+    }
+}
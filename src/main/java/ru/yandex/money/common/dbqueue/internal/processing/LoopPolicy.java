@@ -35,6 +35,16 @@ public interface LoopPolicy {
      */
     void doWait(Duration timeout, WaitInterrupt waitInterrupt);
 
+    /**
+     * Завершить исполнение кода, запущенного в текущем потоке через {@link #doRun(Runnable)},
+     * после завершения текущей итерации.
+     * <p>
+     * По умолчанию прерывает текущий поток.
+     */
+    default void doStop() {
+        Thread.currentThread().interrupt();
+    }
+
     /**
      * Получить признак, что исполнение кода приостановлено
      * @return true, если исполнение приостановлено
@@ -59,12 +69,14 @@ public interface LoopPolicy {
         private static final Logger log = LoggerFactory.getLogger(LoopPolicy.class);
 
         private final Object monitor = new Object();
+        private final ThreadLocal<Boolean> isStopped = ThreadLocal.withInitial(() -> false);
         private volatile boolean isWakedUp = false;
         private volatile boolean isPaused = true;
 
         @Override
         public void doRun(Runnable runnable) {
-            while (!Thread.currentThread().isInterrupted()) {
+            isStopped.remove();
+            while (!Thread.currentThread().isInterrupted() && !isStopped.get()) {
                 try {
                     synchronized (monitor) {
                         while (isPaused) {
@@ -77,7 +89,12 @@ public interface LoopPolicy {
                     Thread.currentThread().interrupt();
                 }
             }
+            isStopped.remove();
+        }
 
+        @Override
+        public void doStop() {
+            isStopped.set(true);
         }
 
         @Override
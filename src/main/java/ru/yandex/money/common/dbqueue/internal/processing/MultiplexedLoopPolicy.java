@@ -0,0 +1,259 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Стратегия выполнения цикла обработки очереди в общем пуле потоков.
+ * <p>
+ * В отличие от {@link LoopPolicy.WakeupLoopPolicy} не занимает поток на время ожидания:
+ * {@link #doRun(Runnable)} лишь регистрирует итерацию цикла, а итерации запускаются в общем пуле,
+ * когда {@link MultiplexedQueuePoller} обнаруживает в очереди задачи.
+ * Пока задачи обрабатываются, итерация перезапускается в пуле через заданную задержку,
+ * после пустой выборки итерация ожидает следующего опроса очереди.
+ * Итерации запускаются через полосу очереди, которая определяет очерёдность запуска
+ * среди очередей общего пула, см. {@link WeightedRoundRobinExecutor}.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class MultiplexedLoopPolicy implements LoopPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiplexedLoopPolicy.class);
+
+    private final ThreadLocal<PendingWait> pendingWait = new ThreadLocal<>();
+    private final Object monitor = new Object();
+    private final Deque<Runnable> idleIterations = new ArrayDeque<>();
+    private int iterationCount = 0;
+    private volatile boolean isPaused = true;
+    private volatile boolean isShutdown = false;
+
+    @Nonnull
+    private final ScheduledExecutorService workers;
+    @Nonnull
+    private final Executor lane;
+    @Nonnull
+    private final Runnable pollerWakeup;
+
+    /**
+     * Конструктор
+     *
+     * @param workers      общий пул потоков обработки
+     * @param pollerWakeup действие, запускающее внеочередной опрос очередей
+     */
+    public MultiplexedLoopPolicy(@Nonnull ScheduledExecutorService workers,
+                                 @Nonnull Runnable pollerWakeup) {
+        this(workers, workers, pollerWakeup);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param workers      общий пул потоков обработки, используется для отложенного запуска итераций
+     * @param lane         исполнитель, через который итерации очереди запускаются в общем пуле
+     * @param pollerWakeup действие, запускающее внеочередной опрос очередей
+     */
+    public MultiplexedLoopPolicy(@Nonnull ScheduledExecutorService workers,
+                                 @Nonnull Executor lane,
+                                 @Nonnull Runnable pollerWakeup) {
+        this.workers = requireNonNull(workers);
+        this.lane = requireNonNull(lane);
+        this.pollerWakeup = requireNonNull(pollerWakeup);
+    }
+
+    @Override
+    public void doRun(Runnable runnable) {
+        requireNonNull(runnable);
+        synchronized (monitor) {
+            idleIterations.add(runnable);
+            iterationCount++;
+        }
+    }
+
+    @Override
+    public void doContinue() {
+        pollerWakeup.run();
+    }
+
+    @Override
+    public void doWait(Duration timeout, WaitInterrupt waitInterrupt) {
+        pendingWait.set(new PendingWait(timeout, waitInterrupt));
+    }
+
+    @Override
+    public void doStop() {
+        pendingWait.set(PendingWait.STOP);
+    }
+
+    @Override
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    @Override
+    public void pause() {
+        isPaused = true;
+    }
+
+    @Override
+    public void unpause() {
+        isPaused = false;
+        pollerWakeup.run();
+    }
+
+    /**
+     * Получить признак, что у очереди есть свободные итерации, ожидающие задач
+     *
+     * @return true, если очередь следует опросить
+     */
+    boolean isWaitingForTasks() {
+        if (isPaused || isShutdown) {
+            return false;
+        }
+        synchronized (monitor) {
+            return !idleIterations.isEmpty();
+        }
+    }
+
+    /**
+     * Запустить все свободные итерации в общем пуле
+     */
+    void startIterations() {
+        synchronized (monitor) {
+            while (!isPaused && !isShutdown && !idleIterations.isEmpty()) {
+                Runnable iteration = idleIterations.poll();
+                try {
+                    lane.execute(() -> runIteration(iteration));
+                } catch (RejectedExecutionException e) {
+                    log.warn("cannot start iteration, worker pool is shut down");
+                    idleIterations.add(iteration);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Прекратить запуск итераций.
+     * Выполняемые итерации будут завершены.
+     */
+    void shutdown() {
+        isShutdown = true;
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Получить признак, что запуск итераций прекращён
+     *
+     * @return true, если запуск итераций прекращён
+     */
+    boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * Получить признак, что запуск итераций прекращён и выполняемых итераций нет
+     *
+     * @return true, если все итерации завершены
+     */
+    boolean isTerminated() {
+        synchronized (monitor) {
+            return isShutdown && idleIterations.size() == iterationCount;
+        }
+    }
+
+    /**
+     * Ожидать завершения всех итераций
+     *
+     * @param timeout время ожидания
+     * @return true, если все итерации завершены
+     * @throws InterruptedException если ожидание было прервано
+     */
+    boolean awaitTermination(@Nonnull Duration timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        synchronized (monitor) {
+            while (!isTerminated()) {
+                long timeToWait = deadline - System.currentTimeMillis();
+                if (timeToWait <= 0) {
+                    return false;
+                }
+                monitor.wait(timeToWait);
+            }
+            return true;
+        }
+    }
+
+    private void runIteration(@Nonnull Runnable iteration) {
+        if (isPaused || isShutdown) {
+            release(iteration);
+            return;
+        }
+        PendingWait wait;
+        try {
+            pendingWait.remove();
+            iteration.run();
+        } finally {
+            wait = pendingWait.get();
+            pendingWait.remove();
+        }
+        if (wait == PendingWait.STOP) {
+            synchronized (monitor) {
+                iterationCount--;
+                monitor.notifyAll();
+            }
+            return;
+        }
+        if (wait == null || wait.waitInterrupt == WaitInterrupt.ALLOW || isPaused || isShutdown) {
+            release(iteration);
+            return;
+        }
+        try {
+            workers.schedule(() -> resumeIteration(iteration), wait.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            release(iteration);
+        }
+    }
+
+    private void resumeIteration(@Nonnull Runnable iteration) {
+        try {
+            lane.execute(() -> runIteration(iteration));
+        } catch (RejectedExecutionException e) {
+            release(iteration);
+        }
+    }
+
+    private void release(@Nonnull Runnable iteration) {
+        synchronized (monitor) {
+            idleIterations.add(iteration);
+            monitor.notifyAll();
+        }
+    }
+
+    private static class PendingWait {
+        private static final PendingWait STOP = new PendingWait(Duration.ZERO, null);
+
+        @Nonnull
+        private final Duration timeout;
+        @Nullable
+        private final WaitInterrupt waitInterrupt;
+
+        private PendingWait(@Nonnull Duration timeout, @Nullable WaitInterrupt waitInterrupt) {
+            this.timeout = timeout;
+            this.waitInterrupt = waitInterrupt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Исполнитель циклов обработки очереди в режиме {@link MultiplexedLoopPolicy}.
+ * <p>
+ * Выполняет запуск цикла в вызывающем потоке, поскольку {@link MultiplexedLoopPolicy#doRun(Runnable)}
+ * лишь регистрирует итерацию цикла и не блокирует поток.
+ * Остановка исполнителя прекращает запуск итераций в общем пуле,
+ * выполняемые итерации не прерываются.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class MultiplexedQueueExecutor extends AbstractExecutorService {
+
+    @Nonnull
+    private final MultiplexedLoopPolicy loopPolicy;
+
+    /**
+     * Конструктор
+     *
+     * @param loopPolicy стратегия выполнения цикла в общем пуле
+     */
+    public MultiplexedQueueExecutor(@Nonnull MultiplexedLoopPolicy loopPolicy) {
+        this.loopPolicy = requireNonNull(loopPolicy);
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        requireNonNull(command);
+        if (loopPolicy.isShutdown()) {
+            throw new RejectedExecutionException("executor is shut down");
+        }
+        command.run();
+    }
+
+    @Override
+    public void shutdown() {
+        loopPolicy.shutdown();
+    }
+
+    @Nonnull
+    @Override
+    public List<Runnable> shutdownNow() {
+        loopPolicy.shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return loopPolicy.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return loopPolicy.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        return loopPolicy.awaitTermination(Duration.ofMillis(unit.toMillis(timeout)));
+    }
+}
@@ -0,0 +1,160 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Общий поток опроса очередей одной таблицы на шарде в режиме
+ * {@link ru.yandex.money.common.dbqueue.settings.PollingMode#MULTIPLEXED}.
+ * <p>
+ * Одним запросом проверяет наличие готовых задач во всех ожидающих очередях
+ * и запускает итерации обработки только тех очередей, в которых задачи есть.
+ * Интервал опроса равен наименьшей задержке при отсутствии задач среди зарегистрированных очередей.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class MultiplexedQueuePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiplexedQueuePoller.class);
+
+    private final Map<QueueLocation, Registration> registrations = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final Object monitor = new Object();
+    private boolean isWakedUp = false;
+
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final String tableName;
+    @Nonnull
+    private final ExecutorService executor;
+
+    /**
+     * Конструктор
+     *
+     * @param queueShard шард, на котором опрашиваются очереди
+     * @param tableName  таблица очередей
+     * @param executor   исполнитель потока опроса
+     */
+    public MultiplexedQueuePoller(@Nonnull QueueShard queueShard,
+                                  @Nonnull String tableName,
+                                  @Nonnull ExecutorService executor) {
+        this.queueShard = requireNonNull(queueShard);
+        this.tableName = requireNonNull(tableName);
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * Зарегистрировать очередь для опроса
+     *
+     * @param location      местоположение очереди
+     * @param noTaskTimeout задержка при отсутствии задач в очереди
+     * @param loopPolicy    стратегия выполнения цикла обработки очереди
+     */
+    public void register(@Nonnull QueueLocation location,
+                         @Nonnull Duration noTaskTimeout,
+                         @Nonnull MultiplexedLoopPolicy loopPolicy) {
+        requireNonNull(location);
+        requireNonNull(noTaskTimeout);
+        requireNonNull(loopPolicy);
+        if (!location.getTableName().equals(tableName)) {
+            throw new IllegalArgumentException("queue table does not match poller table: tableName=" +
+                    tableName + ", location=" + location);
+        }
+        registrations.put(location, new Registration(noTaskTimeout, loopPolicy));
+        wakeup();
+    }
+
+    /**
+     * Запустить поток опроса. Повторные вызовы игнорируются.
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            executor.execute(this::runPollLoop);
+        }
+    }
+
+    /**
+     * Остановить поток опроса
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Выполнить внеочередной опрос очередей
+     */
+    public void wakeup() {
+        synchronized (monitor) {
+            isWakedUp = true;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Опросить очереди и запустить обработку очередей с готовыми задачами
+     */
+    void poll() {
+        List<QueueLocation> candidates = registrations.entrySet().stream()
+                .filter(registration -> registration.getValue().loopPolicy.isWaitingForTasks())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return;
+        }
+        queueShard.getQueueDao().findReadyQueues(candidates)
+                .forEach(location -> registrations.get(location).loopPolicy.startIterations());
+    }
+
+    private void runPollLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                log.warn("cannot poll queues: shardId={}, tableName={}", queueShard.getShardId(), tableName, e);
+            }
+            try {
+                synchronized (monitor) {
+                    if (!isWakedUp) {
+                        monitor.wait(getPollInterval());
+                    }
+                    isWakedUp = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long getPollInterval() {
+        return Math.max(1L, registrations.values().stream()
+                .mapToLong(registration -> registration.noTaskTimeout.toMillis())
+                .min().orElse(Long.MAX_VALUE));
+    }
+
+    private static class Registration {
+        @Nonnull
+        private final Duration noTaskTimeout;
+        @Nonnull
+        private final MultiplexedLoopPolicy loopPolicy;
+
+        private Registration(@Nonnull Duration noTaskTimeout, @Nonnull MultiplexedLoopPolicy loopPolicy) {
+            this.noTaskTimeout = noTaskTimeout;
+            this.loopPolicy = loopPolicy;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import ru.yandex.money.common.dbqueue.config.ThreadLifecycleListener;
 import ru.yandex.money.common.dbqueue.internal.runner.QueueRunner;
 
 import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.requireNonNull;
 
@@ -24,6 +27,7 @@ public class QueueLoop {
     private final ThreadLifecycleListener threadLifecycleListener;
     @Nonnull
     private final MillisTimeProvider millisTimeProvider;
+    private final AtomicInteger retiringLoopCount = new AtomicInteger(0);
 
     /**
      * Конструктор
@@ -48,7 +52,10 @@ public class QueueLoop {
     }
 
     /**
-     * Запустить цикл обработки задач в очереди
+     * Запустить цикл обработки задач в очереди.
+     * <p>
+     * Задержка при отсутствии задач адаптируется отдельно для каждого потока,
+     * см. {@link IdleTimeoutBackoff}.
      *
      * @param shardId       идентификатор шарда, на котором происходит обработка
      * @param queueConsumer выполняемая очередь
@@ -60,7 +67,14 @@ public class QueueLoop {
         requireNonNull(shardId);
         requireNonNull(queueConsumer);
         requireNonNull(queueRunner);
+        IdleTimeoutBackoff idleTimeoutBackoff = new IdleTimeoutBackoff(
+                queueConsumer.getQueueConfig().getSettings().getNoTaskTimeout(),
+                queueConsumer.getQueueConfig().getSettings().getMaxNoTaskTimeout(), new Random());
         loopPolicy.doRun(() -> {
+            if (tryRetire()) {
+                loopPolicy.doStop();
+                return;
+            }
             try {
                 long startTime = millisTimeProvider.getMillis();
                 threadLifecycleListener.started(shardId, queueConsumer.getQueueConfig().getLocation());
@@ -71,10 +85,13 @@ public class QueueLoop {
 
                 switch (queueProcessingStatus) {
                     case SKIPPED:
-                        loopPolicy.doWait(queueConsumer.getQueueConfig().getSettings().getNoTaskTimeout(),
-                                LoopPolicy.WaitInterrupt.ALLOW);
+                        Duration idleTimeout = idleTimeoutBackoff.nextTimeout();
+                        threadLifecycleListener.idle(shardId, queueConsumer.getQueueConfig().getLocation(),
+                                idleTimeout);
+                        loopPolicy.doWait(idleTimeout, LoopPolicy.WaitInterrupt.ALLOW);
                         return;
                     case PROCESSED:
+                        idleTimeoutBackoff.reset();
                         loopPolicy.doWait(queueConsumer.getQueueConfig().getSettings().getBetweenTaskTimeout(),
                                 LoopPolicy.WaitInterrupt.DENY);
                         return;
@@ -91,6 +108,47 @@ public class QueueLoop {
         });
     }
 
+    /**
+     * Завершить заданное количество запущенных циклов обработки.
+     * Циклы завершаются после текущей итерации.
+     *
+     * @param count количество завершаемых циклов
+     */
+    public void retire(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: count=" + count);
+        }
+        retiringLoopCount.addAndGet(count);
+    }
+
+    /**
+     * Отменить завершение циклов обработки, ещё не завершённых после {@link #retire(int)}
+     *
+     * @param maxCount максимальное количество циклов
+     * @return количество циклов, завершение которых отменено
+     */
+    public int cancelRetirement(int maxCount) {
+        while (true) {
+            int retiringCount = retiringLoopCount.get();
+            int cancelledCount = Math.min(retiringCount, maxCount);
+            if (retiringLoopCount.compareAndSet(retiringCount, retiringCount - cancelledCount)) {
+                return cancelledCount;
+            }
+        }
+    }
+
+    private boolean tryRetire() {
+        while (true) {
+            int retiringCount = retiringLoopCount.get();
+            if (retiringCount <= 0) {
+                return false;
+            }
+            if (retiringLoopCount.compareAndSet(retiringCount, retiringCount - 1)) {
+                return true;
+            }
+        }
+    }
+
     /**
      * Прекратить работу цикла обработки задач в очереди
      */
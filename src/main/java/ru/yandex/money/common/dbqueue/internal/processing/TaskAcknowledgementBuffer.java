@@ -0,0 +1,141 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.settings.AcknowledgementMode;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Буфер подтверждения успешно обработанных задач
+ * в режиме {@link AcknowledgementMode#BATCHED}.
+ * <p>
+ * Накапливает идентификаторы завершённых задач очереди на шарде и удаляет их одним запросом
+ * при достижении размера пачки, по истечении интервала сброса или при остановке очереди.
+ * Если удалить задачи не удалось, они будут выбраны повторно по истечении интервала
+ * {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getRetryInterval()}.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class TaskAcknowledgementBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskAcknowledgementBuffer.class);
+
+    @Nonnull
+    private final QueueLocation location;
+    @Nonnull
+    private final QueueShard queueShard;
+    private final int batchSize;
+    @Nonnull
+    private final Duration flushInterval;
+    @Nonnull
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private List<Long> taskIds = new ArrayList<>();
+    private boolean shutdown = false;
+
+    /**
+     * Конструктор
+     *
+     * @param location      местоположение очереди
+     * @param queueShard    шард, на котором происходит обработка задач
+     * @param batchSize     максимальное количество задач в буфере
+     * @param flushInterval интервал сброса буфера
+     * @param scheduler     планировщик периодического сброса буфера
+     */
+    public TaskAcknowledgementBuffer(@Nonnull QueueLocation location,
+                                     @Nonnull QueueShard queueShard,
+                                     int batchSize,
+                                     @Nonnull Duration flushInterval,
+                                     @Nonnull ScheduledExecutorService scheduler) {
+        this.location = requireNonNull(location);
+        this.queueShard = requireNonNull(queueShard);
+        this.batchSize = batchSize;
+        this.flushInterval = requireNonNull(flushInterval);
+        this.scheduler = requireNonNull(scheduler);
+    }
+
+    /**
+     * Запустить периодический сброс буфера
+     */
+    public void start() {
+        long flushIntervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Подтвердить успешную обработку задачи.
+     * <p>
+     * Если буфер заполнен или остановлен, задачи удаляются в текущем потоке.
+     *
+     * @param taskId идентификатор задачи
+     */
+    public void acknowledge(long taskId) {
+        List<Long> acknowledgedIds = Collections.emptyList();
+        synchronized (lock) {
+            taskIds.add(taskId);
+            if (shutdown || taskIds.size() >= batchSize) {
+                acknowledgedIds = drain();
+            }
+        }
+        deleteTasks(acknowledgedIds);
+    }
+
+    /**
+     * Удалить из очереди все накопленные задачи
+     */
+    public void flush() {
+        List<Long> acknowledgedIds;
+        synchronized (lock) {
+            acknowledgedIds = drain();
+        }
+        deleteTasks(acknowledgedIds);
+    }
+
+    /**
+     * Остановить периодический сброс и удалить накопленные задачи.
+     * Задачи, подтверждённые после остановки, удаляются сразу.
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+        }
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private List<Long> drain() {
+        if (taskIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> drainedIds = taskIds;
+        taskIds = new ArrayList<>();
+        return drainedIds;
+    }
+
+    private void deleteTasks(@Nonnull List<Long> acknowledgedIds) {
+        if (acknowledgedIds.isEmpty()) {
+            return;
+        }
+        try {
+            queueShard.getTransactionTemplate().execute(status ->
+                    queueShard.getQueueDao().deleteTasks(location, acknowledgedIds));
+        } catch (RuntimeException exc) {
+            log.warn("cannot acknowledge tasks, they will be processed again: location={}, shardId={}, count={}",
+                    location, queueShard.getShardId(), acknowledgedIds.size(), exc);
+        }
+    }
+}
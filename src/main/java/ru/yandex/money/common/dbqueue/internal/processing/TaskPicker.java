@@ -6,14 +6,21 @@ import ru.yandex.money.common.dbqueue.config.QueueShard;
 import ru.yandex.money.common.dbqueue.config.TaskLifecycleListener;
 import ru.yandex.money.common.dbqueue.internal.pick.PickTaskSettings;
 import ru.yandex.money.common.dbqueue.internal.pick.QueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.requireNonNull;
 
 /**
- * Класс, обеспечивающий выборку задачи из очереди
+ * Класс, обеспечивающий выборку задачи из очереди.
+ * <p>
+ * Задачи секционированной очереди каждый поток выбирает из своей секции,
+ * из остальных секций по порядку - только если в своей секции нет готовых задач.
  *
  * @author Oleg Kandaurov
  * @since 19.07.2017
@@ -29,6 +36,12 @@ public class TaskPicker {
     private final MillisTimeProvider millisTimeProvider;
 
     private final QueuePickTaskDao pickTaskDao;
+    @Nullable
+    private final TaskRateLimiter taskRateLimiter;
+
+    private final AtomicInteger nextThreadPartition = new AtomicInteger();
+    private final ThreadLocal<Integer> threadPartition = ThreadLocal.withInitial(
+            nextThreadPartition::getAndIncrement);
 
     /**
      * Конструктор
@@ -42,9 +55,27 @@ public class TaskPicker {
                       TaskLifecycleListener taskLifecycleListener,
                       MillisTimeProvider millisTimeProvider,
                       PickTaskSettings pickTaskSettings) {
+        this(queueShard, taskLifecycleListener, millisTimeProvider, pickTaskSettings, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param queueShard            шард с которого требуется выбрать задачу
+     * @param taskLifecycleListener слушатель жизненного цикла задачи в очереди
+     * @param millisTimeProvider    поставщик текущего времени
+     * @param pickTaskSettings      настройки выборки задачи
+     * @param taskRateLimiter       ограничитель скорости выборки, null если скорость не ограничена
+     */
+    public TaskPicker(QueueShard queueShard,
+                      TaskLifecycleListener taskLifecycleListener,
+                      MillisTimeProvider millisTimeProvider,
+                      PickTaskSettings pickTaskSettings,
+                      @Nullable TaskRateLimiter taskRateLimiter) {
         this(queueShard, taskLifecycleListener, millisTimeProvider,
                 QueuePickTaskDao.Factory.create(queueShard.getDatabaseDialect(),
-                        queueShard.getQueueTableSchema(), queueShard.getJdbcTemplate(), pickTaskSettings));
+                        queueShard.getQueueTableSchema(), queueShard.getJdbcTemplate(), pickTaskSettings),
+                taskRateLimiter);
     }
 
     /**
@@ -59,14 +90,34 @@ public class TaskPicker {
                @Nonnull TaskLifecycleListener taskLifecycleListener,
                @Nonnull MillisTimeProvider millisTimeProvider,
                @Nonnull QueuePickTaskDao pickTaskDao) {
+        this(queueShard, taskLifecycleListener, millisTimeProvider, pickTaskDao, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param queueShard            шард с которого требуется выбрать задачу
+     * @param taskLifecycleListener слушатель жизненного цикла задачи в очереди
+     * @param millisTimeProvider    поставщик текущего времени
+     * @param pickTaskDao           dao для выборки задач
+     * @param taskRateLimiter       ограничитель скорости выборки, null если скорость не ограничена
+     */
+    TaskPicker(@Nonnull QueueShard queueShard,
+               @Nonnull TaskLifecycleListener taskLifecycleListener,
+               @Nonnull MillisTimeProvider millisTimeProvider,
+               @Nonnull QueuePickTaskDao pickTaskDao,
+               @Nullable TaskRateLimiter taskRateLimiter) {
         this.queueShard = requireNonNull(queueShard);
         this.taskLifecycleListener = requireNonNull(taskLifecycleListener);
         this.millisTimeProvider = requireNonNull(millisTimeProvider);
         this.pickTaskDao = requireNonNull(pickTaskDao);
+        this.taskRateLimiter = taskRateLimiter;
     }
 
     /**
-     * Выбрать задачу из очереди
+     * Выбрать задачу из очереди.
+     * <p>
+     * Если лимит скорости выборки исчерпан, выборка из базы не выполняется.
      *
      * @param queueConsumer очередь для выборки
      * @return задача или null если отсуствует
@@ -74,16 +125,102 @@ public class TaskPicker {
     @Nullable
     public TaskRecord pickTask(@Nonnull QueueConsumer queueConsumer) {
         requireNonNull(queueConsumer);
+        if (taskRateLimiter != null && taskRateLimiter.tryAcquire(1) == 0) {
+            return null;
+        }
+        QueueLocation location = queueConsumer.getQueueConfig().getLocation();
         long startPickTaskTime = millisTimeProvider.getMillis();
-        TaskRecord taskRecord = queueShard.getTransactionTemplate()
-                .execute(status -> pickTaskDao.pickTask(queueConsumer.getQueueConfig().getLocation()));
+        TaskRecord taskRecord = null;
+        try {
+            int firstPartition = getThreadPartition(location);
+            for (int i = 0; i < location.getPartitionCount() && taskRecord == null; i++) {
+                QueueLocation partition = location.getPartition((firstPartition + i) % location.getPartitionCount());
+                taskRecord = queueShard.getTransactionTemplate()
+                        .execute(status -> pickTaskDao.pickTask(partition));
+            }
+        } catch (RuntimeException | Error e) {
+            releaseTokens(1);
+            throw e;
+        }
         if (taskRecord == null) {
+            releaseTokens(1);
             return null;
         }
-        taskLifecycleListener.picked(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
+        taskLifecycleListener.picked(queueShard.getShardId(), location,
                 taskRecord, millisTimeProvider.getMillis() - startPickTaskTime);
         return taskRecord;
     }
 
+    /**
+     * Выбрать пачку задач из очереди.
+     * <p>
+     * Размер пачки определяется настройкой {@link ru.yandex.money.common.dbqueue.settings.QueueSettings#getBatchSize()}
+     *
+     * @param queueConsumer очередь для выборки
+     * @return задачи или пустой список если задачи отсутствуют
+     */
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueConsumer queueConsumer) {
+        requireNonNull(queueConsumer);
+        return pickTasks(queueConsumer, queueConsumer.getQueueConfig().getSettings().getBatchSize());
+    }
+
+    /**
+     * Выбрать из очереди заданное количество задач.
+     * <p>
+     * Количество задач уменьшается до остатка лимита скорости выборки,
+     * если лимит исчерпан, выборка из базы не выполняется.
+     *
+     * @param queueConsumer очередь для выборки
+     * @param batchSize     максимальное количество задач
+     * @return задачи или пустой список если задачи отсутствуют
+     */
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueConsumer queueConsumer, int batchSize) {
+        requireNonNull(queueConsumer);
+        int pickCount = taskRateLimiter == null ? batchSize : taskRateLimiter.tryAcquire(batchSize);
+        if (pickCount == 0) {
+            return Collections.emptyList();
+        }
+        QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+        long startPickTaskTime = millisTimeProvider.getMillis();
+        List<TaskRecord> taskRecords = null;
+        try {
+            int firstPartition = getThreadPartition(location);
+            for (int i = 0; i < location.getPartitionCount() && (taskRecords == null || taskRecords.isEmpty());
+                 i++) {
+                QueueLocation partition = location.getPartition((firstPartition + i) % location.getPartitionCount());
+                taskRecords = queueShard.getTransactionTemplate()
+                        .execute(status -> pickTaskDao.pickTasks(partition, pickCount));
+            }
+        } catch (RuntimeException | Error e) {
+            releaseTokens(pickCount);
+            throw e;
+        }
+        if (taskRecords == null || taskRecords.isEmpty()) {
+            releaseTokens(pickCount);
+            return Collections.emptyList();
+        }
+        releaseTokens(pickCount - taskRecords.size());
+        long pickTime = millisTimeProvider.getMillis() - startPickTaskTime;
+        taskRecords.forEach(taskRecord ->
+                taskLifecycleListener.picked(queueShard.getShardId(), location, taskRecord, pickTime));
+        return taskRecords;
+    }
+
+    /**
+     * Секции очереди закрепляются за потоками по очереди в порядке первой выборки
+     */
+    private int getThreadPartition(@Nonnull QueueLocation location) {
+        if (location.getPartitionCount() == 1) {
+            return 0;
+        }
+        return Math.floorMod(threadPartition.get(), location.getPartitionCount());
+    }
 
+    private void releaseTokens(int count) {
+        if (taskRateLimiter != null) {
+            taskRateLimiter.release(count);
+        }
+    }
 }
@@ -0,0 +1,261 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.api.QueueConsumer;
+import ru.yandex.money.common.dbqueue.api.TaskRecord;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Буфер предварительной выборки задач очереди на шарде.
+ * <p>
+ * Единственный поток выборки забирает задачи из базы пачками и поддерживает заполненность буфера,
+ * а потоки обработки берут задачи из буфера, не обращаясь к базе.
+ * Размер буфера подстраивается под скорость обработки: увеличивается вдвое, если обработчики
+ * опустошили буфер, и уменьшается вдвое, если задачи не успели обработать.
+ * <p>
+ * Задача хранится в буфере не дольше половины {@link QueueSettings#getRetryInterval()},
+ * после чего удаляется из буфера и будет повторно выбрана из базы по истечении интервала.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+@SuppressWarnings("rawtypes")
+public class TaskPrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPrefetcher.class);
+
+    @Nonnull
+    private final QueueConsumer queueConsumer;
+    @Nonnull
+    private final TaskPicker taskPicker;
+    @Nonnull
+    private final MillisTimeProvider millisTimeProvider;
+    @Nonnull
+    private final ExecutorService executor;
+    private final int maxPrefetchSize;
+    private final long maxHoldTimeMillis;
+
+    private final Object lock = new Object();
+    private final Deque<PrefetchedTask> prefetchedTasks = new ArrayDeque<>();
+    private int prefetchSize = 1;
+    private boolean drained = false;
+    private int expiredCount = 0;
+    private boolean paused = false;
+    @Nonnull
+    private Runnable tasksAvailableListener = () -> {
+    };
+
+    /**
+     * Конструктор
+     *
+     * @param queueConsumer      очередь, задачи которой выбираются
+     * @param taskPicker         выборщик задач
+     * @param millisTimeProvider поставщик текущего времени
+     * @param executor           исполнитель потока выборки
+     */
+    public TaskPrefetcher(@Nonnull QueueConsumer queueConsumer,
+                          @Nonnull TaskPicker taskPicker,
+                          @Nonnull MillisTimeProvider millisTimeProvider,
+                          @Nonnull ExecutorService executor) {
+        this.queueConsumer = requireNonNull(queueConsumer);
+        this.taskPicker = requireNonNull(taskPicker);
+        this.millisTimeProvider = requireNonNull(millisTimeProvider);
+        this.executor = requireNonNull(executor);
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        this.maxPrefetchSize = settings.getPrefetchSize();
+        if (maxPrefetchSize < 1) {
+            throw new IllegalArgumentException("prefetch size must be greater than zero: prefetchSize=" +
+                    maxPrefetchSize);
+        }
+        this.maxHoldTimeMillis = settings.getRetryInterval().toMillis() / 2;
+    }
+
+    /**
+     * Запустить поток выборки задач
+     *
+     * @param tasksAvailableListener действие, вызываемое при появлении задач в буфере
+     */
+    public void start(@Nonnull Runnable tasksAvailableListener) {
+        synchronized (lock) {
+            this.tasksAvailableListener = requireNonNull(tasksAvailableListener);
+        }
+        executor.execute(this::runFetchLoop);
+    }
+
+    /**
+     * Остановить поток выборки задач.
+     * Задачи, оставшиеся в буфере, будут повторно выбраны из базы по истечении интервала повтора.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        synchronized (lock) {
+            prefetchedTasks.clear();
+        }
+    }
+
+    /**
+     * Приостановить выборку задач
+     */
+    public void pause() {
+        synchronized (lock) {
+            paused = true;
+        }
+    }
+
+    /**
+     * Продолжить выборку задач после приостановки
+     */
+    public void unpause() {
+        synchronized (lock) {
+            paused = false;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Возобновить выборку задач, если поток выборки ожидает
+     */
+    public void wakeup() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Взять задачи из буфера
+     *
+     * @param maxCount максимальное количество задач
+     * @return задачи или пустой список, если буфер пуст
+     */
+    @Nonnull
+    public List<TaskRecord> takeTasks(int maxCount) {
+        synchronized (lock) {
+            removeExpiredTasks();
+            if (prefetchedTasks.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<TaskRecord> taskRecords = new ArrayList<>(Math.min(maxCount, prefetchedTasks.size()));
+            while (taskRecords.size() < maxCount && !prefetchedTasks.isEmpty()) {
+                taskRecords.add(prefetchedTasks.poll().taskRecord);
+            }
+            if (prefetchedTasks.isEmpty()) {
+                drained = true;
+            }
+            if (prefetchedTasks.size() <= prefetchSize / 2) {
+                lock.notifyAll();
+            }
+            return taskRecords;
+        }
+    }
+
+    /**
+     * Выбрать задачи из базы, чтобы дополнить буфер
+     *
+     * @return true, если в очереди могут остаться задачи для выборки
+     */
+    boolean fetchTasks() {
+        int fetchCount;
+        synchronized (lock) {
+            removeExpiredTasks();
+            if (paused) {
+                return false;
+            }
+            if (expiredCount > 0) {
+                log.info("prefetched tasks expired: location={}, expiredCount={}, prefetchSize={}",
+                        queueConsumer.getQueueConfig().getLocation(), expiredCount, prefetchSize);
+                prefetchSize = Math.max(1, prefetchSize / 2);
+            } else if (drained) {
+                prefetchSize = Math.min(maxPrefetchSize, prefetchSize * 2);
+            }
+            expiredCount = 0;
+            drained = false;
+            fetchCount = prefetchSize - prefetchedTasks.size();
+        }
+        if (fetchCount <= 0) {
+            return true;
+        }
+        long pickTime = millisTimeProvider.getMillis();
+        List<TaskRecord> taskRecords = taskPicker.pickTasks(queueConsumer, fetchCount);
+        if (taskRecords.isEmpty()) {
+            return false;
+        }
+        Runnable listener;
+        synchronized (lock) {
+            taskRecords.forEach(taskRecord -> prefetchedTasks.add(new PrefetchedTask(taskRecord, pickTime)));
+            listener = tasksAvailableListener;
+        }
+        listener.run();
+        return taskRecords.size() == fetchCount;
+    }
+
+    /**
+     * Получить текущий размер буфера
+     *
+     * @return размер, до которого дополняется буфер
+     */
+    int getPrefetchSize() {
+        synchronized (lock) {
+            return prefetchSize;
+        }
+    }
+
+    private void runFetchLoop() {
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                boolean hasMoreTasks = fetchTasks();
+                synchronized (lock) {
+                    if (!hasMoreTasks) {
+                        lock.wait(Math.max(1L, settings.getNoTaskTimeout().toMillis()));
+                    } else if (prefetchedTasks.size() > prefetchSize / 2) {
+                        lock.wait(Math.max(1L, maxHoldTimeMillis / 2));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("cannot prefetch tasks: location={}", queueConsumer.getQueueConfig().getLocation(), e);
+                sleep(settings.getFatalCrashTimeout());
+            }
+        }
+    }
+
+    private void removeExpiredTasks() {
+        long expirationTime = millisTimeProvider.getMillis() - maxHoldTimeMillis;
+        while (!prefetchedTasks.isEmpty() && prefetchedTasks.peek().pickTime < expirationTime) {
+            prefetchedTasks.poll();
+            expiredCount++;
+        }
+    }
+
+    private static void sleep(@Nonnull Duration timeout) {
+        try {
+            Thread.sleep(timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class PrefetchedTask {
+        @Nonnull
+        private final TaskRecord taskRecord;
+        private final long pickTime;
+
+        private PrefetchedTask(@Nonnull TaskRecord taskRecord, long pickTime) {
+            this.taskRecord = taskRecord;
+            this.pickTime = pickTime;
+        }
+    }
+}
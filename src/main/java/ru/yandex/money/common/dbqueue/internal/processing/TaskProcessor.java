@@ -1,13 +1,22 @@
 package ru.yandex.money.common.dbqueue.internal.processing;
 
+import ru.yandex.money.common.dbqueue.api.AsyncQueueConsumer;
+import ru.yandex.money.common.dbqueue.api.BatchQueueConsumer;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.api.Task;
 import ru.yandex.money.common.dbqueue.api.TaskExecutionResult;
 import ru.yandex.money.common.dbqueue.api.TaskRecord;
 import ru.yandex.money.common.dbqueue.config.QueueShard;
 import ru.yandex.money.common.dbqueue.config.TaskLifecycleListener;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -60,15 +69,7 @@ public class TaskProcessor {
             taskLifecycleListener.started(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
                     taskRecord);
             long processTaskStarted = millisTimeProvider.getMillis();
-            Object payload = queueConsumer.getPayloadTransformer().toObject(taskRecord.getPayload());
-            Task<?> task = Task.builder(queueShard.getShardId())
-                    .withCreatedAt(taskRecord.getCreatedAt())
-                    .withPayload(payload)
-                    .withAttemptsCount(taskRecord.getAttemptsCount())
-                    .withReenqueueAttemptsCount(taskRecord.getReenqueueAttemptsCount())
-                    .withTotalAttemptsCount(taskRecord.getTotalAttemptsCount())
-                    .withExtData(taskRecord.getExtData())
-                    .build();
+            Task<?> task = createTask(queueConsumer, taskRecord);
             TaskExecutionResult executionResult = queueConsumer.execute(task);
             taskLifecycleListener.executed(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
                     taskRecord,
@@ -83,4 +84,107 @@ public class TaskProcessor {
         }
     }
 
+    /**
+     * Передать пачку выбранных задач в клиентский код на выполнение и обработать результаты.
+     * <p>
+     * Результаты выполнения всех задач пачки применяются совместно.
+     *
+     * @param queueConsumer очередь
+     * @param taskRecords   записи на обработку
+     */
+    public void processTasks(@Nonnull BatchQueueConsumer queueConsumer, @Nonnull List<TaskRecord> taskRecords) {
+        requireNonNull(queueConsumer);
+        requireNonNull(taskRecords);
+        QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+        try {
+            taskRecords.forEach(taskRecord -> taskLifecycleListener.started(queueShard.getShardId(), location,
+                    taskRecord));
+            long processTasksStarted = millisTimeProvider.getMillis();
+            List<Task> tasks = taskRecords.stream()
+                    .map(taskRecord -> createTask(queueConsumer, taskRecord))
+                    .collect(Collectors.toList());
+            List<TaskExecutionResult> executionResults = queueConsumer.executeBatch(tasks);
+            if (executionResults.size() != taskRecords.size()) {
+                throw new IllegalStateException("results count doesn't match tasks count: tasks=" +
+                        taskRecords.size() + ", results=" + executionResults.size());
+            }
+            long processTime = millisTimeProvider.getMillis() - processTasksStarted;
+            for (int i = 0; i < taskRecords.size(); i++) {
+                taskLifecycleListener.executed(queueShard.getShardId(), location, taskRecords.get(i),
+                        executionResults.get(i), processTime);
+            }
+            taskResultHandler.handleResults(taskRecords, executionResults);
+        } catch (Exception exc) {
+            taskRecords.forEach(taskRecord -> taskLifecycleListener.crashed(queueShard.getShardId(), location,
+                    taskRecord, exc));
+        } finally {
+            taskRecords.forEach(taskRecord -> taskLifecycleListener.finished(queueShard.getShardId(), location,
+                    taskRecord));
+        }
+    }
+
+    /**
+     * Передать выбранную задачу в клиентский код на асинхронное выполнение.
+     * <p>
+     * Результат выполнения обрабатывается в отдельном исполнителе, поскольку обработка обращается к базе,
+     * а поток, завершивший выполнение задачи, может принадлежать клиенту и не допускать блокировок.
+     *
+     * @param queueConsumer  очередь
+     * @param taskRecord     запись на обработку
+     * @param resultExecutor исполнитель обработки результата задачи
+     * @return стадия, завершаемая после обработки результата задачи
+     */
+    @Nonnull
+    public CompletionStage<Void> processTaskAsync(@Nonnull AsyncQueueConsumer queueConsumer,
+                                                  @Nonnull TaskRecord taskRecord,
+                                                  @Nonnull Executor resultExecutor) {
+        requireNonNull(queueConsumer);
+        requireNonNull(taskRecord);
+        requireNonNull(resultExecutor);
+        QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+        long processTaskStarted;
+        CompletionStage<TaskExecutionResult> executionStage;
+        try {
+            taskLifecycleListener.started(queueShard.getShardId(), location, taskRecord);
+            processTaskStarted = millisTimeProvider.getMillis();
+            executionStage = requireNonNull(queueConsumer.executeAsync(createTask(queueConsumer, taskRecord)));
+        } catch (Exception exc) {
+            taskLifecycleListener.crashed(queueShard.getShardId(), location, taskRecord, exc);
+            taskLifecycleListener.finished(queueShard.getShardId(), location, taskRecord);
+            return CompletableFuture.completedFuture(null);
+        }
+        return executionStage.handleAsync((executionResult, error) -> {
+            try {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                            error.getCause() : error;
+                    taskLifecycleListener.crashed(queueShard.getShardId(), location, taskRecord,
+                            cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+                    return null;
+                }
+                taskLifecycleListener.executed(queueShard.getShardId(), location, taskRecord,
+                        executionResult, millisTimeProvider.getMillis() - processTaskStarted);
+                taskResultHandler.handleResult(taskRecord, executionResult);
+            } catch (Exception exc) {
+                taskLifecycleListener.crashed(queueShard.getShardId(), location, taskRecord, exc);
+            } finally {
+                taskLifecycleListener.finished(queueShard.getShardId(), location, taskRecord);
+            }
+            return null;
+        }, resultExecutor);
+    }
+
+    @Nonnull
+    private Task<?> createTask(@Nonnull QueueConsumer queueConsumer, @Nonnull TaskRecord taskRecord) {
+        Object payload = queueConsumer.getPayloadTransformer().toObject(taskRecord.getPayload());
+        return Task.builder(queueShard.getShardId())
+                .withCreatedAt(taskRecord.getCreatedAt())
+                .withPayload(payload)
+                .withAttemptsCount(taskRecord.getAttemptsCount())
+                .withReenqueueAttemptsCount(taskRecord.getReenqueueAttemptsCount())
+                .withTotalAttemptsCount(taskRecord.getTotalAttemptsCount())
+                .withExtData(taskRecord.getExtData())
+                .build();
+    }
+
 }
@@ -0,0 +1,80 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.dao.QueueRateLimitDao;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Ограничитель скорости выборки задач из очереди.
+ *
+ * @author Oleg Kandaurov
+ * @see QueueSettings#getRateLimit()
+ * @since 16.10.2026
+ */
+public interface TaskRateLimiter {
+
+    /**
+     * Получить разрешения на выборку задач без ожидания
+     *
+     * @param maxCount максимальное количество задач
+     * @return количество задач, которые можно выбрать, 0 если лимит исчерпан
+     */
+    int tryAcquire(int maxCount);
+
+    /**
+     * Вернуть неиспользованные разрешения.
+     * <p>
+     * Вызывается в том же потоке после {@link #tryAcquire(int)}.
+     *
+     * @param count количество разрешений
+     */
+    void release(int count);
+
+    /**
+     * Фабрика ограничителей скорости выборки
+     */
+    final class Factory {
+
+        private Factory() {
+        }
+
+        /**
+         * Создать ограничитель скорости выборки задач очереди
+         *
+         * @param queueConfig        конфигурация очереди
+         * @param queueShard         шард, с которого выбираются задачи
+         * @param millisTimeProvider поставщик текущего времени
+         * @return ограничитель или null, если скорость не ограничена
+         */
+        @Nullable
+        public static TaskRateLimiter create(@Nonnull QueueConfig queueConfig,
+                                             @Nonnull QueueShard queueShard,
+                                             @Nonnull MillisTimeProvider millisTimeProvider) {
+            requireNonNull(queueConfig);
+            requireNonNull(queueShard);
+            requireNonNull(millisTimeProvider);
+            QueueSettings settings = queueConfig.getSettings();
+            if (settings.getRateLimit() <= 0.0) {
+                return null;
+            }
+            switch (settings.getRateLimitMode()) {
+                case LOCAL:
+                    return new LocalTaskRateLimiter(settings.getRateLimit() / settings.getRateLimitNodeCount(),
+                            millisTimeProvider);
+                case DISTRIBUTED:
+                    return new DistributedTaskRateLimiter(queueConfig.getLocation().getQueueId(),
+                            settings.getRateLimit(),
+                            new QueueRateLimitDao(queueShard.getDatabaseDialect(), queueShard.getJdbcTemplate(),
+                                    QueueRateLimitDao.DEFAULT_TABLE_NAME));
+                default:
+                    throw new IllegalStateException("unknown rate limit mode: " + settings.getRateLimitMode());
+            }
+        }
+    }
+}
@@ -6,6 +6,9 @@ import ru.yandex.money.common.dbqueue.config.QueueShard;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -23,6 +26,8 @@ public class TaskResultHandler {
     private final QueueShard queueShard;
     @Nonnull
     private final ReenqueueRetryStrategy reenqueueRetryStrategy;
+    @Nullable
+    private final TaskAcknowledgementBuffer acknowledgementBuffer;
 
     /**
      * Конструктор
@@ -34,9 +39,26 @@ public class TaskResultHandler {
     public TaskResultHandler(@Nonnull QueueLocation location,
                              @Nonnull QueueShard queueShard,
                              @Nonnull ReenqueueRetryStrategy reenqueueRetryStrategy) {
+        this(location, queueShard, reenqueueRetryStrategy, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param location               местоположение очереди
+     * @param queueShard             шард на котором происходит обработка задачи
+     * @param reenqueueRetryStrategy стратегия для переоткладывания задач
+     * @param acknowledgementBuffer  буфер подтверждения завершённых задач,
+     *                               null если задачи удаляются сразу после обработки
+     */
+    public TaskResultHandler(@Nonnull QueueLocation location,
+                             @Nonnull QueueShard queueShard,
+                             @Nonnull ReenqueueRetryStrategy reenqueueRetryStrategy,
+                             @Nullable TaskAcknowledgementBuffer acknowledgementBuffer) {
         this.location = requireNonNull(location);
         this.queueShard = requireNonNull(queueShard);
         this.reenqueueRetryStrategy = requireNonNull(reenqueueRetryStrategy);
+        this.acknowledgementBuffer = acknowledgementBuffer;
     }
 
     /**
@@ -48,20 +70,82 @@ public class TaskResultHandler {
     public void handleResult(@Nonnull TaskRecord taskRecord, @Nonnull TaskExecutionResult executionResult) {
         requireNonNull(taskRecord);
         requireNonNull(executionResult);
+        if (executionResult.getActionType() == TaskExecutionResult.Type.FAIL) {
+            return;
+        }
+        if (executionResult.getActionType() == TaskExecutionResult.Type.FINISH && acknowledgementBuffer != null) {
+            acknowledgementBuffer.acknowledge(taskRecord.getId());
+            return;
+        }
+        queueShard.getTransactionTemplate().execute(status -> {
+            applyResult(taskRecord, executionResult);
+            return null;
+        });
+    }
+
+    /**
+     * Обработать результаты выполнения пачки задач в одной транзакции
+     *
+     * @param taskRecords      обработанные задачи
+     * @param executionResults результаты обработки в порядке следования задач
+     */
+    public void handleResults(@Nonnull List<TaskRecord> taskRecords,
+                              @Nonnull List<TaskExecutionResult> executionResults) {
+        requireNonNull(taskRecords);
+        requireNonNull(executionResults);
+        if (taskRecords.size() != executionResults.size()) {
+            throw new IllegalArgumentException("results count doesn't match tasks count: tasks=" +
+                    taskRecords.size() + ", results=" + executionResults.size());
+        }
+        List<Long> finishedIds = new ArrayList<>(taskRecords.size());
+        List<TaskRecord> reenqueuedRecords = new ArrayList<>();
+        List<TaskExecutionResult> reenqueuedResults = new ArrayList<>();
+        for (int i = 0; i < taskRecords.size(); i++) {
+            TaskExecutionResult executionResult = requireNonNull(executionResults.get(i));
+            switch (executionResult.getActionType()) {
+                case FINISH:
+                    if (acknowledgementBuffer != null) {
+                        acknowledgementBuffer.acknowledge(taskRecords.get(i).getId());
+                    } else {
+                        finishedIds.add(taskRecords.get(i).getId());
+                    }
+                    break;
+                case REENQUEUE:
+                    reenqueuedRecords.add(taskRecords.get(i));
+                    reenqueuedResults.add(executionResult);
+                    break;
+                case FAIL:
+                    break;
+                default:
+                    throw new IllegalStateException("unknown action type: " + executionResult.getActionType());
+            }
+        }
+        if (finishedIds.isEmpty() && reenqueuedRecords.isEmpty()) {
+            return;
+        }
+        queueShard.getTransactionTemplate().execute(status -> {
+            // завершённые задачи удаляются одним запросом
+            if (!finishedIds.isEmpty()) {
+                queueShard.getQueueDao().deleteTasks(location, finishedIds);
+            }
+            for (int i = 0; i < reenqueuedRecords.size(); i++) {
+                applyResult(reenqueuedRecords.get(i), reenqueuedResults.get(i));
+            }
+            return null;
+        });
+    }
+
+    private void applyResult(@Nonnull TaskRecord taskRecord, @Nonnull TaskExecutionResult executionResult) {
         switch (executionResult.getActionType()) {
             case FINISH:
-                queueShard.getTransactionTemplate().execute(status ->
-                        queueShard.getQueueDao().deleteTask(location, taskRecord.getId()));
+                queueShard.getQueueDao().deleteTask(location, taskRecord.getId());
                 return;
-
             case REENQUEUE:
-                queueShard.getTransactionTemplate().execute(status ->
-                        queueShard.getQueueDao().reenqueue(
-                                location,
-                                taskRecord.getId(),
-                                executionResult.getExecutionDelay()
-                                        .orElseGet(() -> reenqueueRetryStrategy.calculateDelay(taskRecord))
-                        )
+                queueShard.getQueueDao().reenqueue(
+                        location,
+                        taskRecord.getId(),
+                        executionResult.getExecutionDelay()
+                                .orElseGet(() -> reenqueueRetryStrategy.calculateDelay(taskRecord))
                 );
                 return;
             case FAIL:
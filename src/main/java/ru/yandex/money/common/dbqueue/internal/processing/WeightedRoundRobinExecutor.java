@@ -0,0 +1,162 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Распределитель общего пула потоков между очередями по алгоритму взвешенного циклического обслуживания.
+ * <p>
+ * Каждая очередь получает собственную полосу ({@link #getLane(String, int)}), в которой копятся ожидающие запуска
+ * итерации. В пул одновременно передаётся не больше итераций, чем в нём потоков, поэтому порядок запуска
+ * определяется здесь, а не очередью пула: полоса с весом N запускает подряд до N итераций,
+ * после чего уступает следующей полосе. Переполненная очередь не может занять весь пул,
+ * пока в других очередях есть ожидающие итерации.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class WeightedRoundRobinExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(WeightedRoundRobinExecutor.class);
+
+    private final Object monitor = new Object();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final Deque<Lane> activeLanes = new ArrayDeque<>();
+    private int runningCount = 0;
+
+    @Nonnull
+    private final ExecutorService workers;
+    private final int concurrency;
+
+    /**
+     * Конструктор
+     *
+     * @param workers     общий пул потоков
+     * @param concurrency количество потоков в общем пуле
+     */
+    public WeightedRoundRobinExecutor(@Nonnull ExecutorService workers, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than zero: concurrency=" + concurrency);
+        }
+        this.workers = requireNonNull(workers);
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Получить полосу очереди. Повторный вызов с тем же именем возвращает ту же полосу и обновляет её вес.
+     *
+     * @param name   имя очереди
+     * @param weight количество итераций, запускаемых подряд за один проход
+     * @return исполнитель итераций очереди
+     */
+    @Nonnull
+    public Executor getLane(@Nonnull String name, int weight) {
+        requireNonNull(name);
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be greater than zero: weight=" + weight);
+        }
+        synchronized (monitor) {
+            Lane lane = lanes.computeIfAbsent(name, Lane::new);
+            lane.weight = weight;
+            return lane;
+        }
+    }
+
+    private void submit(@Nonnull Lane lane, @Nonnull Runnable command) {
+        requireNonNull(command);
+        if (workers.isShutdown()) {
+            throw new RejectedExecutionException("worker pool is shut down");
+        }
+        synchronized (monitor) {
+            lane.pending.add(command);
+            if (!lane.isActive) {
+                lane.isActive = true;
+                lane.credit = lane.weight;
+                activeLanes.add(lane);
+            }
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        List<Runnable> commands = new ArrayList<>();
+        synchronized (monitor) {
+            while (runningCount < concurrency && !activeLanes.isEmpty()) {
+                Lane lane = activeLanes.peek();
+                commands.add(lane.pending.poll());
+                runningCount++;
+                lane.credit--;
+                if (lane.pending.isEmpty()) {
+                    activeLanes.poll();
+                    lane.isActive = false;
+                } else if (lane.credit <= 0) {
+                    activeLanes.poll();
+                    lane.credit = lane.weight;
+                    activeLanes.add(lane);
+                }
+            }
+        }
+        for (Runnable command : commands) {
+            try {
+                workers.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        complete();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("cannot start iteration, worker pool is shut down");
+                synchronized (monitor) {
+                    runningCount--;
+                }
+            }
+        }
+    }
+
+    private void complete() {
+        synchronized (monitor) {
+            runningCount--;
+        }
+        dispatch();
+    }
+
+    /**
+     * Полоса очереди
+     */
+    private class Lane implements Executor {
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        @Nonnull
+        private final String name;
+        private int weight = 1;
+        private int credit = 0;
+        private boolean isActive = false;
+
+        private Lane(@Nonnull String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void execute(@Nonnull Runnable command) {
+            submit(this, command);
+        }
+
+        @Override
+        public String toString() {
+            return "Lane{name=" + name + ", weight=" + weight + '}';
+        }
+    }
+}
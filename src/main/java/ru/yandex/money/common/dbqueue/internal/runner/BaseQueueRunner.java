@@ -1,14 +1,20 @@
 package ru.yandex.money.common.dbqueue.internal.runner;
 
+import ru.yandex.money.common.dbqueue.api.BatchQueueConsumer;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.api.TaskRecord;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Базовая реализация обработчика задач очереди
@@ -16,6 +22,7 @@ import java.util.concurrent.Executor;
  * @author Oleg Kandaurov
  * @since 27.08.2017
  */
+@SuppressWarnings({"rawtypes", "unchecked"})
 public class BaseQueueRunner implements QueueRunner {
 
     @Nonnull
@@ -24,6 +31,10 @@ public class BaseQueueRunner implements QueueRunner {
     private final TaskProcessor taskProcessor;
     @Nonnull
     private final Executor executor;
+    @Nullable
+    private final TaskPrefetcher taskPrefetcher;
+    @Nullable
+    private final InFlightTaskLimiter inFlightTaskLimiter;
 
     /**
      * Конструктор
@@ -35,14 +46,81 @@ public class BaseQueueRunner implements QueueRunner {
     BaseQueueRunner(@Nonnull TaskPicker taskPicker,
                     @Nonnull TaskProcessor taskProcessor,
                     @Nonnull Executor executor) {
+        this(taskPicker, taskProcessor, executor, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker     выборщик задачи
+     * @param taskProcessor  обработчик задачи
+     * @param executor       исполнитель задачи
+     * @param taskPrefetcher буфер предварительной выборки задач,
+     *                       null если задачи выбираются из базы при каждом запуске
+     */
+    BaseQueueRunner(@Nonnull TaskPicker taskPicker,
+                    @Nonnull TaskProcessor taskProcessor,
+                    @Nonnull Executor executor,
+                    @Nullable TaskPrefetcher taskPrefetcher) {
+        this(taskPicker, taskProcessor, executor, taskPrefetcher, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker          выборщик задачи
+     * @param taskProcessor       обработчик задачи
+     * @param executor            исполнитель задачи
+     * @param taskPrefetcher      буфер предварительной выборки задач,
+     *                            null если задачи выбираются из базы при каждом запуске
+     * @param inFlightTaskLimiter ограничитель количества задач в обработке,
+     *                            null если количество не ограничено
+     */
+    BaseQueueRunner(@Nonnull TaskPicker taskPicker,
+                    @Nonnull TaskProcessor taskProcessor,
+                    @Nonnull Executor executor,
+                    @Nullable TaskPrefetcher taskPrefetcher,
+                    @Nullable InFlightTaskLimiter inFlightTaskLimiter) {
         this.taskPicker = Objects.requireNonNull(taskPicker);
         this.taskProcessor = Objects.requireNonNull(taskProcessor);
         this.executor = Objects.requireNonNull(executor);
+        this.taskPrefetcher = taskPrefetcher;
+        this.inFlightTaskLimiter = inFlightTaskLimiter;
     }
 
     @Override
     @Nonnull
     public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
+        int batchSize = queueConsumer.getQueueConfig().getSettings().getBatchSize();
+        if (inFlightTaskLimiter == null) {
+            return runQueue(queueConsumer, batchSize);
+        }
+        int permitCount;
+        try {
+            permitCount = inFlightTaskLimiter.acquire(batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return QueueProcessingStatus.SKIPPED;
+        }
+        List<TaskRecord> taskRecords;
+        try {
+            taskRecords = pickTasks(queueConsumer, permitCount);
+        } catch (RuntimeException | Error e) {
+            inFlightTaskLimiter.release(permitCount);
+            throw e;
+        }
+        inFlightTaskLimiter.release(permitCount - taskRecords.size());
+        return processTasks(queueConsumer, taskRecords);
+    }
+
+    @Nonnull
+    private QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer, int batchSize) {
+        if (taskPrefetcher != null) {
+            return processTasks(queueConsumer, taskPrefetcher.takeTasks(batchSize));
+        }
+        if (batchSize > 1) {
+            return runBatch(queueConsumer);
+        }
         TaskRecord taskRecord = taskPicker.pickTask(queueConsumer);
         if (taskRecord == null) {
             return QueueProcessingStatus.SKIPPED;
@@ -50,4 +128,69 @@ public class BaseQueueRunner implements QueueRunner {
         executor.execute(() -> taskProcessor.processTask(queueConsumer, taskRecord));
         return QueueProcessingStatus.PROCESSED;
     }
+
+    @Nonnull
+    private QueueProcessingStatus runBatch(@Nonnull QueueConsumer queueConsumer) {
+        return processTasks(queueConsumer, taskPicker.pickTasks(queueConsumer));
+    }
+
+    @Nonnull
+    private List<TaskRecord> pickTasks(@Nonnull QueueConsumer queueConsumer, int count) {
+        if (taskPrefetcher != null) {
+            return taskPrefetcher.takeTasks(count);
+        }
+        if (count > 1) {
+            return taskPicker.pickTasks(queueConsumer, count);
+        }
+        TaskRecord taskRecord = taskPicker.pickTask(queueConsumer);
+        return taskRecord == null ? Collections.emptyList() : Collections.singletonList(taskRecord);
+    }
+
+    @Nonnull
+    private QueueProcessingStatus processTasks(@Nonnull QueueConsumer queueConsumer,
+                                               @Nonnull List<TaskRecord> taskRecords) {
+        if (taskRecords.isEmpty()) {
+            return QueueProcessingStatus.SKIPPED;
+        }
+        if (queueConsumer instanceof BatchQueueConsumer) {
+            execute(() -> taskProcessor.processTasks((BatchQueueConsumer) queueConsumer, taskRecords),
+                    taskRecords.size());
+        } else {
+            for (int i = 0; i < taskRecords.size(); i++) {
+                TaskRecord taskRecord = taskRecords.get(i);
+                try {
+                    execute(() -> taskProcessor.processTask(queueConsumer, taskRecord), 1);
+                } catch (RejectedExecutionException e) {
+                    releasePermits(taskRecords.size() - i - 1);
+                    throw e;
+                }
+            }
+        }
+        return QueueProcessingStatus.PROCESSED;
+    }
+
+    private void execute(@Nonnull Runnable command, int permitCount) {
+        if (inFlightTaskLimiter == null) {
+            executor.execute(command);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    inFlightTaskLimiter.release(permitCount);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightTaskLimiter.release(permitCount);
+            throw e;
+        }
+    }
+
+    private void releasePermits(int count) {
+        if (inFlightTaskLimiter != null) {
+            inFlightTaskLimiter.release(count);
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package ru.yandex.money.common.dbqueue.internal.runner;
+
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ограничитель количества задач, выбранных из базы, но ещё не обработанных внешним исполнителем.
+ * <p>
+ * Поток очереди получает разрешения до выборки задач, поэтому задачи не захватываются в базе,
+ * пока исполнитель перегружен. Разрешение возвращается по завершении обработки задачи.
+ *
+ * @author Oleg Kandaurov
+ * @see QueueSettings#getMaxInFlightTasks()
+ * @since 16.10.2026
+ */
+class InFlightTaskLimiter {
+
+    private final Semaphore permits;
+
+    /**
+     * Конструктор
+     *
+     * @param maxInFlightTasks максимальное количество задач в обработке
+     */
+    InFlightTaskLimiter(int maxInFlightTasks) {
+        if (maxInFlightTasks < 1) {
+            throw new IllegalArgumentException("maxInFlightTasks must be greater than zero: maxInFlightTasks=" +
+                    maxInFlightTasks);
+        }
+        this.permits = new Semaphore(maxInFlightTasks);
+    }
+
+    /**
+     * Получить разрешения на обработку задач.
+     * Ожидает хотя бы одно разрешение, остальные получает без ожидания.
+     *
+     * @param maxCount максимальное количество разрешений
+     * @return количество полученных разрешений
+     * @throws InterruptedException если ожидание было прервано
+     */
+    int acquire(int maxCount) throws InterruptedException {
+        permits.acquire();
+        int acquiredCount = 1;
+        while (acquiredCount < maxCount && permits.tryAcquire()) {
+            acquiredCount++;
+        }
+        return acquiredCount;
+    }
+
+    /**
+     * Вернуть разрешения на обработку задач
+     *
+     * @param count количество разрешений
+     */
+    void release(int count) {
+        if (count > 0) {
+            permits.release(count);
+        }
+    }
+
+    /**
+     * Получить количество свободных разрешений
+     *
+     * @return количество задач, которые можно выбрать без ожидания
+     */
+    int getAvailableCount() {
+        return permits.availablePermits();
+    }
+}
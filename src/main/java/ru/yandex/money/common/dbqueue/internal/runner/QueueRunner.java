@@ -1,5 +1,6 @@
 package ru.yandex.money.common.dbqueue.internal.runner;
 
+import ru.yandex.money.common.dbqueue.api.AsyncQueueConsumer;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.config.QueueShard;
 import ru.yandex.money.common.dbqueue.config.TaskLifecycleListener;
@@ -7,15 +8,25 @@ import ru.yandex.money.common.dbqueue.internal.pick.PickTaskSettings;
 import ru.yandex.money.common.dbqueue.internal.processing.MillisTimeProvider;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
 import ru.yandex.money.common.dbqueue.internal.processing.ReenqueueRetryStrategy;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskAcknowledgementBuffer;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskRateLimiter;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskResultHandler;
 import ru.yandex.money.common.dbqueue.settings.ProcessingMode;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 import ru.yandex.money.common.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -43,6 +54,12 @@ public interface QueueRunner {
      */
     final class Factory {
 
+        /**
+         * Максимальное количество потоков обработки результатов асинхронных задач одной очереди
+         */
+        private static final int MAX_RESULT_THREAD_COUNT = 8;
+        private static final Duration RESULT_THREAD_KEEP_ALIVE = Duration.ofMinutes(1L);
+
         private Factory() {
         }
 
@@ -54,10 +71,30 @@ public interface QueueRunner {
          * @param taskLifecycleListener слушатель процесса обработки задач
          * @return инстанс исполнителя задач
          */
-        @SuppressWarnings({"rawtypes", "unchecked"})
         public static QueueRunner create(@Nonnull QueueConsumer queueConsumer,
                                          @Nonnull QueueShard queueShard,
                                          @Nonnull TaskLifecycleListener taskLifecycleListener) {
+            return create(queueConsumer, queueShard, taskLifecycleListener, null, null);
+        }
+
+        /**
+         * Создать исполнителя задач очереди
+         *
+         * @param queueConsumer         очередь обработки задач
+         * @param queueShard            шард, на котором будут запущен consumer
+         * @param taskLifecycleListener слушатель процесса обработки задач
+         * @param acknowledgementBuffer буфер подтверждения завершённых задач,
+         *                              null если задачи удаляются сразу после обработки
+         * @param taskPrefetcher        буфер предварительной выборки задач,
+         *                              null если задачи выбираются из базы каждым потоком обработки
+         * @return инстанс исполнителя задач
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public static QueueRunner create(@Nonnull QueueConsumer queueConsumer,
+                                         @Nonnull QueueShard queueShard,
+                                         @Nonnull TaskLifecycleListener taskLifecycleListener,
+                                         @Nullable TaskAcknowledgementBuffer acknowledgementBuffer,
+                                         @Nullable TaskPrefetcher taskPrefetcher) {
             requireNonNull(queueConsumer);
             requireNonNull(queueShard);
             requireNonNull(taskLifecycleListener);
@@ -67,34 +104,107 @@ public interface QueueRunner {
             ReenqueueRetryStrategy reenqueueRetryStrategy = ReenqueueRetryStrategy.Factory
                     .create(queueSettings.getReenqueueRetrySettings());
 
-            TaskPicker taskPicker = new TaskPicker(queueShard, taskLifecycleListener,
-                    new MillisTimeProvider.SystemMillisTimeProvider(),
-                    new PickTaskSettings(
-                            queueSettings.getRetryType(),
-                            queueSettings.getRetryInterval()));
+            TaskPicker taskPicker = createTaskPicker(queueConsumer, queueShard, taskLifecycleListener);
 
             TaskResultHandler taskResultHandler = new TaskResultHandler(
                     queueConsumer.getQueueConfig().getLocation(),
-                    queueShard, reenqueueRetryStrategy);
+                    queueShard, reenqueueRetryStrategy, acknowledgementBuffer);
 
             TaskProcessor taskProcessor = new TaskProcessor(queueShard, taskLifecycleListener,
                     new MillisTimeProvider.SystemMillisTimeProvider(), taskResultHandler);
 
             ProcessingMode processingMode = queueSettings.getProcessingMode();
+            if (queueConsumer instanceof AsyncQueueConsumer) {
+                if (processingMode == ProcessingMode.WRAP_IN_TRANSACTION) {
+                    throw new IllegalArgumentException("asynchronous consumers are not supported " +
+                            "in processing mode " + ProcessingMode.WRAP_IN_TRANSACTION);
+                }
+                if (queueSettings.getMaxInFlightTasks() == 0) {
+                    throw new IllegalArgumentException("maxInFlightTasks must be greater than zero " +
+                            "for asynchronous consumers: location=" + queueConsumer.getQueueConfig().getLocation());
+                }
+                return new QueueRunnerAsync(taskPicker, taskProcessor, taskPrefetcher,
+                        new InFlightTaskLimiter(queueSettings.getMaxInFlightTasks()),
+                        createResultExecutor(queueConsumer.getQueueConfig().getLocation(),
+                                queueSettings.getMaxInFlightTasks()));
+            }
             switch (processingMode) {
                 case SEPARATE_TRANSACTIONS:
-                    return new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor);
+                    return new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor, taskPrefetcher);
                 case WRAP_IN_TRANSACTION:
+                    if (taskPrefetcher != null) {
+                        throw new IllegalArgumentException("prefetching is not supported in processing mode " +
+                                ProcessingMode.WRAP_IN_TRANSACTION);
+                    }
                     return new QueueRunnerInTransaction(taskPicker, taskProcessor, queueShard);
                 case USE_EXTERNAL_EXECUTOR:
                     Optional<Executor> executor = queueConsumer.getExecutor();
                     return new QueueRunnerInExternalExecutor(taskPicker, taskProcessor,
                             executor.orElseThrow(() -> new IllegalArgumentException("Executor is empty. " +
-                                    "You must provide QueueConsumer#getExecutor in ProcessingMode#USE_EXTERNAL_EXECUTOR")));
+                                    "You must provide QueueConsumer#getExecutor in ProcessingMode#USE_EXTERNAL_EXECUTOR")),
+                            taskPrefetcher, createInFlightTaskLimiter(queueSettings));
+                case USE_VIRTUAL_THREADS:
+                    return new QueueRunnerInExternalExecutor(taskPicker, taskProcessor,
+                            ThreadPerTaskExecutor.create(queueConsumer.getQueueConfig().getLocation()),
+                            taskPrefetcher, createInFlightTaskLimiter(queueSettings));
                 default:
                     throw new IllegalStateException("unknown processing mode: " + processingMode);
             }
         }
 
+        @Nullable
+        private static InFlightTaskLimiter createInFlightTaskLimiter(@Nonnull QueueSettings queueSettings) {
+            return queueSettings.getMaxInFlightTasks() > 0 ?
+                    new InFlightTaskLimiter(queueSettings.getMaxInFlightTasks()) : null;
+        }
+
+        /**
+         * Создать исполнителя обработки результатов асинхронных задач.
+         * <p>
+         * Очередь исполнителя вмещает все задачи в обработке, поэтому результаты не отклоняются,
+         * а простаивающие потоки завершаются.
+         *
+         * @param location         местоположение очереди
+         * @param maxInFlightTasks максимальное количество задач в обработке
+         * @return исполнитель обработки результатов
+         */
+        @Nonnull
+        private static Executor createResultExecutor(@Nonnull QueueLocation location, int maxInFlightTasks) {
+            String namePrefix = "queue-result-" + location.getQueueId().asString() + "-";
+            AtomicLong threadNumber = new AtomicLong(0);
+            int threadCount = Math.min(maxInFlightTasks, MAX_RESULT_THREAD_COUNT);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                    RESULT_THREAD_KEEP_ALIVE.toMillis(), TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(maxInFlightTasks), runnable -> {
+                Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        /**
+         * Создать выборщика задач очереди
+         *
+         * @param queueConsumer         очередь обработки задач
+         * @param queueShard            шард, с которого выбираются задачи
+         * @param taskLifecycleListener слушатель процесса обработки задач
+         * @return инстанс выборщика задач
+         */
+        public static TaskPicker createTaskPicker(@Nonnull QueueConsumer queueConsumer,
+                                                  @Nonnull QueueShard queueShard,
+                                                  @Nonnull TaskLifecycleListener taskLifecycleListener) {
+            QueueSettings queueSettings = queueConsumer.getQueueConfig().getSettings();
+            MillisTimeProvider millisTimeProvider = new MillisTimeProvider.SystemMillisTimeProvider();
+            return new TaskPicker(queueShard, taskLifecycleListener,
+                    millisTimeProvider,
+                    new PickTaskSettings(
+                            queueSettings.getRetryType(),
+                            queueSettings.getRetryInterval(),
+                            queueSettings.getPriorityAgingInterval()),
+                    TaskRateLimiter.Factory.create(queueConsumer.getQueueConfig(), queueShard, millisTimeProvider));
+        }
+
     }
 }
@@ -0,0 +1,104 @@
+package ru.yandex.money.common.dbqueue.internal.runner;
+
+import ru.yandex.money.common.dbqueue.api.AsyncQueueConsumer;
+import ru.yandex.money.common.dbqueue.api.QueueConsumer;
+import ru.yandex.money.common.dbqueue.api.TaskRecord;
+import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Исполнитель задач очереди с асинхронным обработчиком {@link AsyncQueueConsumer}.
+ * <p>
+ * Поток очереди не ожидает завершения задач, количество задач в обработке
+ * ограничивается {@link InFlightTaskLimiter}. Результаты задач обрабатываются
+ * в отдельном исполнителе, очередь которого не превышает количество задач в обработке.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class QueueRunnerAsync implements QueueRunner {
+
+    @Nonnull
+    private final TaskPicker taskPicker;
+    @Nonnull
+    private final TaskProcessor taskProcessor;
+    @Nullable
+    private final TaskPrefetcher taskPrefetcher;
+    @Nonnull
+    private final InFlightTaskLimiter inFlightTaskLimiter;
+    @Nonnull
+    private final Executor resultExecutor;
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker          выборщик задачи
+     * @param taskProcessor       обработчик задачи
+     * @param taskPrefetcher      буфер предварительной выборки задач,
+     *                            null если задачи выбираются из базы при каждом запуске
+     * @param inFlightTaskLimiter ограничитель количества задач в обработке
+     * @param resultExecutor      исполнитель обработки результатов задач
+     */
+    QueueRunnerAsync(@Nonnull TaskPicker taskPicker,
+                     @Nonnull TaskProcessor taskProcessor,
+                     @Nullable TaskPrefetcher taskPrefetcher,
+                     @Nonnull InFlightTaskLimiter inFlightTaskLimiter,
+                     @Nonnull Executor resultExecutor) {
+        this.taskPicker = requireNonNull(taskPicker);
+        this.taskProcessor = requireNonNull(taskProcessor);
+        this.taskPrefetcher = taskPrefetcher;
+        this.inFlightTaskLimiter = requireNonNull(inFlightTaskLimiter);
+        this.resultExecutor = requireNonNull(resultExecutor);
+    }
+
+    @Override
+    @Nonnull
+    public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
+        AsyncQueueConsumer asyncQueueConsumer = (AsyncQueueConsumer) queueConsumer;
+        int batchSize = queueConsumer.getQueueConfig().getSettings().getBatchSize();
+        int permitCount;
+        try {
+            permitCount = inFlightTaskLimiter.acquire(batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return QueueProcessingStatus.SKIPPED;
+        }
+        List<TaskRecord> taskRecords;
+        try {
+            taskRecords = pickTasks(queueConsumer, permitCount);
+        } catch (RuntimeException | Error e) {
+            inFlightTaskLimiter.release(permitCount);
+            throw e;
+        }
+        inFlightTaskLimiter.release(permitCount - taskRecords.size());
+        if (taskRecords.isEmpty()) {
+            return QueueProcessingStatus.SKIPPED;
+        }
+        taskRecords.forEach(taskRecord -> taskProcessor.processTaskAsync(asyncQueueConsumer, taskRecord, resultExecutor)
+                .whenComplete((ignoredResult, ignoredError) -> inFlightTaskLimiter.release(1)));
+        return QueueProcessingStatus.PROCESSED;
+    }
+
+    @Nonnull
+    private List<TaskRecord> pickTasks(@Nonnull QueueConsumer queueConsumer, int count) {
+        if (taskPrefetcher != null) {
+            return taskPrefetcher.takeTasks(count);
+        }
+        if (count > 1) {
+            return taskPicker.pickTasks(queueConsumer, count);
+        }
+        TaskRecord taskRecord = taskPicker.pickTask(queueConsumer);
+        return taskRecord == null ? Collections.emptyList() : Collections.singletonList(taskRecord);
+    }
+}
@@ -3,15 +3,17 @@ package ru.yandex.money.common.dbqueue.internal.runner;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
 import ru.yandex.money.common.dbqueue.settings.ProcessingMode;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.concurrent.Executor;
 
 /**
- * Исполнитель задач очереди в режиме
- * {@link ProcessingMode#USE_EXTERNAL_EXECUTOR}
+ * Исполнитель задач очереди в режимах
+ * {@link ProcessingMode#USE_EXTERNAL_EXECUTOR} и {@link ProcessingMode#USE_VIRTUAL_THREADS}
  *
  * @author Oleg Kandaurov
  * @since 16.07.2017
@@ -31,7 +33,40 @@ class QueueRunnerInExternalExecutor implements QueueRunner {
     QueueRunnerInExternalExecutor(@Nonnull TaskPicker taskPicker,
                                   @Nonnull TaskProcessor taskProcessor,
                                   @Nonnull Executor externalExecutor) {
-        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, externalExecutor);
+        this(taskPicker, taskProcessor, externalExecutor, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker       выборщик задачи
+     * @param taskProcessor    обработчик задачи
+     * @param externalExecutor исполнитель задачи
+     * @param taskPrefetcher   буфер предварительной выборки задач
+     */
+    QueueRunnerInExternalExecutor(@Nonnull TaskPicker taskPicker,
+                                  @Nonnull TaskProcessor taskProcessor,
+                                  @Nonnull Executor externalExecutor,
+                                  @Nullable TaskPrefetcher taskPrefetcher) {
+        this(taskPicker, taskProcessor, externalExecutor, taskPrefetcher, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker          выборщик задачи
+     * @param taskProcessor       обработчик задачи
+     * @param externalExecutor    исполнитель задачи
+     * @param taskPrefetcher      буфер предварительной выборки задач
+     * @param inFlightTaskLimiter ограничитель количества задач, переданных исполнителю
+     */
+    QueueRunnerInExternalExecutor(@Nonnull TaskPicker taskPicker,
+                                  @Nonnull TaskProcessor taskProcessor,
+                                  @Nonnull Executor externalExecutor,
+                                  @Nullable TaskPrefetcher taskPrefetcher,
+                                  @Nullable InFlightTaskLimiter inFlightTaskLimiter) {
+        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, externalExecutor, taskPrefetcher,
+                inFlightTaskLimiter);
     }
 
     @Override
@@ -3,10 +3,12 @@ package ru.yandex.money.common.dbqueue.internal.runner;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
 import ru.yandex.money.common.dbqueue.settings.ProcessingMode;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Исполнитель задач очереди в режиме
@@ -28,7 +30,20 @@ class QueueRunnerInSeparateTransactions implements QueueRunner {
      */
     QueueRunnerInSeparateTransactions(@Nonnull TaskPicker taskPicker,
                                       @Nonnull TaskProcessor taskProcessor) {
-        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, Runnable::run);
+        this(taskPicker, taskProcessor, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker     выборщик задачи
+     * @param taskProcessor  обработчик задачи
+     * @param taskPrefetcher буфер предварительной выборки задач
+     */
+    QueueRunnerInSeparateTransactions(@Nonnull TaskPicker taskPicker,
+                                      @Nonnull TaskProcessor taskProcessor,
+                                      @Nullable TaskPrefetcher taskPrefetcher) {
+        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, Runnable::run, taskPrefetcher);
     }
 
     @Override
@@ -0,0 +1,77 @@
+package ru.yandex.money.common.dbqueue.internal.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.settings.ProcessingMode;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Исполнитель, запускающий каждую задачу в новом потоке, для режима
+ * {@link ProcessingMode#USE_VIRTUAL_THREADS}.
+ * <p>
+ * На Java 21+ задачи выполняются в виртуальных потоках, на более ранних версиях - в обычных.
+ * Виртуальные потоки создаются через reflection, поскольку библиотека собирается под Java 8.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+class ThreadPerTaskExecutor implements Executor {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadPerTaskExecutor.class);
+
+    @Nonnull
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Конструктор
+     *
+     * @param threadFactory фабрика потоков выполнения задач
+     */
+    ThreadPerTaskExecutor(@Nonnull ThreadFactory threadFactory) {
+        this.threadFactory = requireNonNull(threadFactory);
+    }
+
+    /**
+     * Создать исполнителя задач очереди, использующего виртуальные потоки, если они поддерживаются
+     *
+     * @param location местоположение очереди
+     * @return исполнитель задач
+     */
+    @Nonnull
+    static ThreadPerTaskExecutor create(@Nonnull QueueLocation location) {
+        String namePrefix = "queue-task-" + location.getQueueId().asString() + "-";
+        return new ThreadPerTaskExecutor(createVirtualThreadFactory(namePrefix).orElseGet(() -> {
+            log.info("virtual threads are not supported, using platform threads: location={}", location);
+            AtomicLong threadNumber = new AtomicLong(0);
+            return runnable -> new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+        }));
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        requireNonNull(command);
+        threadFactory.newThread(command).start();
+    }
+
+    @Nonnull
+    static Optional<ThreadFactory> createVirtualThreadFactory(@Nonnull String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            Object namedBuilder = nameMethod.invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
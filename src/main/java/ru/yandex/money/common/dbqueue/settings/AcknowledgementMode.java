@@ -0,0 +1,31 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+import ru.yandex.money.common.dbqueue.api.TaskExecutionResult;
+
+/**
+ * Strategy for acknowledgement of successfully processed tasks,
+ * i.e. tasks with {@link TaskExecutionResult#finish()} result.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public enum AcknowledgementMode {
+    /**
+     * Task is deleted from the queue right after processing in its own transaction.
+     */
+    IMMEDIATE,
+    /**
+     * Identifiers of finished tasks are collected in a buffer per queue and shard.
+     * Tasks are deleted from the queue with a single statement when the buffer reaches
+     * {@link QueueSettings#getAcknowledgementBatchSize()} or when
+     * {@link QueueSettings#getAcknowledgementFlushInterval()} elapses.
+     * The buffer is also flushed on queue shutdown.
+     * <p>
+     * Tasks are never lost in that mode. If the application crashes before the buffer is flushed,
+     * the task will be processed again after {@link QueueSettings#getRetryInterval()},
+     * therefore the task processor <strong>must</strong> be idempotent.
+     * Flush interval should be less than retry interval, otherwise tasks might be processed twice
+     * during normal operation.
+     */
+    BATCHED
+}
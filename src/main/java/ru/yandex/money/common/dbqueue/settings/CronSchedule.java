@@ -0,0 +1,148 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Schedule defined by a five-field cron expression.
+ *
+ * @author Oleg Kandaurov
+ * @see RecurringSchedule#cron(String, ZoneId)
+ * @since 16.10.2026
+ */
+class CronSchedule implements RecurringSchedule {
+
+    /**
+     * Expression without matching dates (e.g. 30th of February) is detected by the search limit
+     */
+    private static final int MAX_SEARCH_YEARS = 8;
+
+    @Nonnull
+    private final String expression;
+    @Nonnull
+    private final ZoneId zoneId;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean isDayOfMonthRestricted;
+    private final boolean isDayOfWeekRestricted;
+
+    CronSchedule(@Nonnull String expression, @Nonnull ZoneId zoneId) {
+        this.expression = requireNonNull(expression, "expression");
+        this.zoneId = requireNonNull(zoneId, "zoneId");
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("cron expression must have 5 fields: expression=" + expression);
+        }
+        this.minutes = parseField(fields[0], 0, 59);
+        this.hours = parseField(fields[1], 0, 23);
+        this.daysOfMonth = parseField(fields[2], 1, 31);
+        this.months = parseField(fields[3], 1, 12);
+        this.daysOfWeek = parseField(fields[4], 0, 7);
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        this.isDayOfMonthRestricted = !fields[2].startsWith("*");
+        this.isDayOfWeekRestricted = !fields[4].startsWith("*");
+    }
+
+    private BitSet parseField(@Nonnull String field, int min, int max) {
+        BitSet values = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            String range = part;
+            int step = 1;
+            int stepIndex = part.indexOf('/');
+            if (stepIndex >= 0) {
+                range = part.substring(0, stepIndex);
+                step = parseNumber(part.substring(stepIndex + 1), 1, max);
+            }
+            int from;
+            int to;
+            if ("*".equals(range)) {
+                from = min;
+                to = max;
+            } else if (range.contains("-")) {
+                int dashIndex = range.indexOf('-');
+                from = parseNumber(range.substring(0, dashIndex), min, max);
+                to = parseNumber(range.substring(dashIndex + 1), min, max);
+            } else {
+                from = parseNumber(range, min, max);
+                to = stepIndex >= 0 ? max : from;
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("invalid range in cron expression: expression=" + expression +
+                        ", range=" + range);
+            }
+            for (int value = from; value <= to; value += step) {
+                values.set(value);
+            }
+        }
+        return values;
+    }
+
+    private int parseNumber(@Nonnull String value, int min, int max) {
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid value in cron expression: expression=" + expression +
+                    ", value=" + value, e);
+        }
+        if (number < min || number > max) {
+            throw new IllegalArgumentException("value is out of range in cron expression: expression=" + expression +
+                    ", value=" + value);
+        }
+        return number;
+    }
+
+    @Nonnull
+    @Override
+    public ZonedDateTime getNextFireTime(@Nonnull ZonedDateTime after) {
+        requireNonNull(after, "after");
+        LocalDateTime time = after.withZoneSameInstant(zoneId).toLocalDateTime()
+                .truncatedTo(ChronoUnit.MINUTES).plusMinutes(1L);
+        int maxYear = time.getYear() + MAX_SEARCH_YEARS;
+        while (time.getYear() <= maxYear) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.toLocalDate().withDayOfMonth(1).plusMonths(1L).atStartOfDay();
+            } else if (!isDayMatched(time.toLocalDate())) {
+                time = time.toLocalDate().plusDays(1L).atStartOfDay();
+            } else if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1L);
+            } else if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1L);
+            } else {
+                // local time in a DST gap is shifted forward, in an overlap the earlier offset is taken
+                ZonedDateTime fireTime = time.atZone(zoneId);
+                if (fireTime.isAfter(after)) {
+                    return fireTime.withZoneSameInstant(after.getZone());
+                }
+                time = time.plusMinutes(1L);
+            }
+        }
+        throw new IllegalStateException("cron expression has no fire time: expression=" + expression);
+    }
+
+    private boolean isDayMatched(@Nonnull LocalDate date) {
+        boolean isDayOfMonthMatched = daysOfMonth.get(date.getDayOfMonth());
+        boolean isDayOfWeekMatched = daysOfWeek.get(date.getDayOfWeek().getValue() % 7);
+        if (isDayOfMonthRestricted && isDayOfWeekRestricted) {
+            return isDayOfMonthMatched || isDayOfWeekMatched;
+        }
+        return isDayOfMonthMatched && isDayOfWeekMatched;
+    }
+
+    @Override
+    public String toString() {
+        return "cron(" + expression + ", " + zoneId + ')';
+    }
+}
@@ -0,0 +1,41 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Schedule with a fixed period between fire times, aligned to the epoch.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+class FixedRateSchedule implements RecurringSchedule {
+
+    @Nonnull
+    private final Duration period;
+
+    FixedRateSchedule(@Nonnull Duration period) {
+        this.period = requireNonNull(period, "period");
+        if (period.compareTo(Duration.ofSeconds(1L)) < 0) {
+            throw new IllegalArgumentException("period must be at least one second: period=" + period);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public ZonedDateTime getNextFireTime(@Nonnull ZonedDateTime after) {
+        requireNonNull(after, "after");
+        long periodMillis = period.toMillis();
+        long firedPeriods = Math.floorDiv(after.toInstant().toEpochMilli(), periodMillis);
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli((firedPeriods + 1) * periodMillis), after.getZone());
+    }
+
+    @Override
+    public String toString() {
+        return "fixedRate(" + period + ')';
+    }
+}
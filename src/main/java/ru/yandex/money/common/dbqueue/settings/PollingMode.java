@@ -0,0 +1,27 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+/**
+ * Strategy for polling the queue for new tasks.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public enum PollingMode {
+    /**
+     * Each queue on each shard has its own pool of {@link QueueSettings#getThreadCount()} threads,
+     * and every thread polls the queue independently.
+     */
+    DEDICATED,
+    /**
+     * Queues stored in the same table share a single poller thread per shard,
+     * which finds queues with ready tasks by a single query
+     * every {@link QueueSettings#getNoTaskTimeout()} of the queues.
+     * Tasks of ready queues are processed in a worker pool shared by all multiplexed queues,
+     * at most {@link QueueSettings#getThreadCount()} at a time for each queue.
+     * Queues take turns in the worker pool in proportion to {@link QueueSettings#getMultiplexedWeight()}.
+     * <p>
+     * Suitable for a large number of low-traffic queues, because neither the number of threads
+     * nor the number of idle queries depends on the number of registered queues.
+     */
+    MULTIPLEXED
+}
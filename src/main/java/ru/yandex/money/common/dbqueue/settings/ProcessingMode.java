@@ -50,5 +50,19 @@ public enum ProcessingMode {
      * with increasing the number of queue processing threads,
      * although this also will lead to the increasing database idle polls.
      */
-    USE_EXTERNAL_EXECUTOR
+    USE_EXTERNAL_EXECUTOR,
+
+    /**
+     * Task will be processed at least once, each task in a new virtual thread.
+     * Each call to database will be performed in separate transaction.
+     * <p>
+     * Virtual threads are used when the JVM supports them (Java 21+),
+     * otherwise each task runs in a new platform thread.
+     * Queue threads are only picking tasks from the database,
+     * the number of tasks in flight is limited by {@link QueueSettings#getMaxInFlightTasks()},
+     * which must be set for this mode.
+     * <p>
+     * This mode should be used for blocking task processors, which mostly wait for I/O.
+     */
+    USE_VIRTUAL_THREADS
 }
@@ -41,6 +41,22 @@ import java.util.stream.IntStream;
  * # see {@link QueueConfigsReader#SETTING_TABLE}
  * queue-prefix.testQueue.table=foo
  *
+ * # see {@link QueueConfigsReader#SETTING_NOTIFICATION_CHANNEL}
+ * # PostgreSQL only, disabled by default.
+ * queue-prefix.testQueue.notification-channel=queue_tasks
+ *
+ * # see {@link QueueConfigsReader#SETTING_PARTITION_COUNT}
+ * # 1 by default, queue is stored in tables foo_0 ... foo_3.
+ * queue-prefix.testQueue.partition-count=4
+ *
+ * # see {@link QueueConfigsReader#SETTING_SCHEDULED_TABLE}
+ * # PostgreSQL only, disabled by default.
+ * queue-prefix.testQueue.scheduled-table=foo_scheduled
+ *
+ * # see {@link QueueConfigsReader#SETTING_SCHEDULING_THRESHOLD}
+ * # Required when {@link QueueConfigsReader#SETTING_SCHEDULED_TABLE} is set.
+ * queue-prefix.testQueue.scheduling-threshold=PT1H
+ *
  * # see {@link QueueConfigsReader#SETTING_BETWEEN_TASK_TIMEOUT}
  * queue-prefix.testQueue.between-task-timeout=PT0.1S
  *
@@ -53,6 +69,10 @@ import java.util.stream.IntStream;
  * # see {@link QueueConfigsReader#SETTING_THREAD_COUNT}
  * queue-prefix.testQueue.thread-count=3
  *
+ * # see {@link QueueConfigsReader#SETTING_BATCH_SIZE}
+ * # 1 is used by default.
+ * queue-prefix.testQueue.batch-size=10
+ *
  * # see {@link QueueConfigsReader#SETTING_RETRY_TYPE}
  * # values are:
  * # {@link QueueConfigsReader#VALUE_TASK_RETRY_TYPE_ARITHMETIC}
@@ -98,9 +118,76 @@ import java.util.stream.IntStream;
  * # values are:
  * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_SEPARATE_TRANSACTIONS}
  * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_USE_EXTERNAL_EXECUTOR}
+ * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_USE_VIRTUAL_THREADS}
  * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_WRAP_IN_TRANSACTION}
  * queue-prefix.testQueue.processing-mode=use-external-executor
  *
+ * # see {@link QueueConfigsReader#SETTING_ACKNOWLEDGEMENT_MODE}
+ * # values are:
+ * # {@link QueueConfigsReader#VALUE_ACKNOWLEDGEMENT_MODE_IMMEDIATE}
+ * # {@link QueueConfigsReader#VALUE_ACKNOWLEDGEMENT_MODE_BATCHED}
+ * #
+ * # {@link QueueConfigsReader#VALUE_ACKNOWLEDGEMENT_MODE_IMMEDIATE} is used by default
+ * queue-prefix.testQueue.acknowledgement-mode=batched
+ *
+ * # see {@link QueueConfigsReader#SETTING_ACKNOWLEDGEMENT_BATCH_SIZE}
+ * # 100 is used by default.
+ * queue-prefix.testQueue.acknowledgement-batch-size=50
+ *
+ * # see {@link QueueConfigsReader#SETTING_ACKNOWLEDGEMENT_FLUSH_INTERVAL}
+ * # PT1S is used by default.
+ * queue-prefix.testQueue.acknowledgement-flush-interval=PT0.5S
+ *
+ * # see {@link QueueConfigsReader#SETTING_PREFETCH_SIZE}
+ * # 0 is used by default, prefetching is disabled.
+ * queue-prefix.testQueue.prefetch-size=100
+ *
+ * # see {@link QueueConfigsReader#SETTING_MAX_NO_TASK_TIMEOUT}
+ * # no-task-timeout is used by default, idle delay is fixed.
+ * queue-prefix.testQueue.max-no-task-timeout=PT30S
+ *
+ * # see {@link QueueConfigsReader#SETTING_POLLING_MODE}
+ * # values are:
+ * # {@link QueueConfigsReader#VALUE_POLLING_MODE_DEDICATED}
+ * # {@link QueueConfigsReader#VALUE_POLLING_MODE_MULTIPLEXED}
+ * #
+ * # {@link QueueConfigsReader#VALUE_POLLING_MODE_DEDICATED} is used by default
+ * queue-prefix.testQueue.polling-mode=multiplexed
+ *
+ * # see {@link QueueConfigsReader#SETTING_MULTIPLEXED_WEIGHT}
+ * # applies to multiplexed polling mode only
+ * # 1 is used by default.
+ * queue-prefix.testQueue.multiplexed-weight=3
+ *
+ * # see {@link QueueConfigsReader#SETTING_MAX_IN_FLIGHT_TASKS}
+ * # applies to use-external-executor and use-virtual-threads processing modes and asynchronous consumers only
+ * # 0 is used by default, the number of tasks in flight is not limited.
+ * # a positive value is required in use-virtual-threads processing mode and for asynchronous consumers.
+ * queue-prefix.testQueue.max-in-flight-tasks=20
+ *
+ * # see {@link QueueConfigsReader#SETTING_RATE_LIMIT}
+ * # maximum number of tasks per second on all nodes
+ * # 0 is used by default, the rate is not limited.
+ * queue-prefix.testQueue.rate-limit=100
+ *
+ * # see {@link QueueConfigsReader#SETTING_RATE_LIMIT_MODE}
+ * # values are:
+ * # {@link QueueConfigsReader#VALUE_RATE_LIMIT_MODE_LOCAL}
+ * # {@link QueueConfigsReader#VALUE_RATE_LIMIT_MODE_DISTRIBUTED}
+ * #
+ * # {@link QueueConfigsReader#VALUE_RATE_LIMIT_MODE_LOCAL} is used by default
+ * queue-prefix.testQueue.rate-limit-mode=distributed
+ *
+ * # see {@link QueueConfigsReader#SETTING_RATE_LIMIT_NODE_COUNT}
+ * # applies to local rate limit mode only
+ * # 1 is used by default.
+ * queue-prefix.testQueue.rate-limit-node-count=4
+ *
+ * # see {@link QueueConfigsReader#SETTING_PRIORITY_AGING_INTERVAL}
+ * # applies to queue tables with the priority column only
+ * # PT0S is used by default, aging is disabled.
+ * queue-prefix.testQueue.priority-aging-interval=PT1M
+ *
  * # see {@link QueueConfigsReader#SETTING_ADDITIONAL}
  * # see {@link QueueSettings#getAdditionalSettings()}
  * queue-prefix.testQueue.additional-settings.custom-val=custom-key
@@ -157,6 +244,10 @@ public class QueueConfigsReader {
      * Representation of {@link ProcessingMode#USE_EXTERNAL_EXECUTOR}
      */
     public static final String VALUE_PROCESSING_MODE_USE_EXTERNAL_EXECUTOR = "use-external-executor";
+    /**
+     * Representation of {@link ProcessingMode#USE_VIRTUAL_THREADS}
+     */
+    public static final String VALUE_PROCESSING_MODE_USE_VIRTUAL_THREADS = "use-virtual-threads";
     /**
      * Representation of {@link ProcessingMode#WRAP_IN_TRANSACTION}
      */
@@ -165,6 +256,30 @@ public class QueueConfigsReader {
      * Representation of {@link ProcessingMode#SEPARATE_TRANSACTIONS}
      */
     public static final String VALUE_PROCESSING_MODE_SEPARATE_TRANSACTIONS = "separate-transactions";
+    /**
+     * Representation of {@link AcknowledgementMode#IMMEDIATE}
+     */
+    public static final String VALUE_ACKNOWLEDGEMENT_MODE_IMMEDIATE = "immediate";
+    /**
+     * Representation of {@link AcknowledgementMode#BATCHED}
+     */
+    public static final String VALUE_ACKNOWLEDGEMENT_MODE_BATCHED = "batched";
+    /**
+     * Representation of {@link PollingMode#DEDICATED}
+     */
+    public static final String VALUE_POLLING_MODE_DEDICATED = "dedicated";
+    /**
+     * Representation of {@link PollingMode#MULTIPLEXED}
+     */
+    public static final String VALUE_POLLING_MODE_MULTIPLEXED = "multiplexed";
+    /**
+     * Representation of {@link RateLimitMode#LOCAL}
+     */
+    public static final String VALUE_RATE_LIMIT_MODE_LOCAL = "local";
+    /**
+     * Representation of {@link RateLimitMode#DISTRIBUTED}
+     */
+    public static final String VALUE_RATE_LIMIT_MODE_DISTRIBUTED = "distributed";
     /**
      * Representation of {@link QueueSettings#getProcessingMode()}
      */
@@ -206,6 +321,10 @@ public class QueueConfigsReader {
      * Representation of {@link QueueSettings#getThreadCount()}
      */
     public static final String SETTING_THREAD_COUNT = "thread-count";
+    /**
+     * Representation of {@link QueueSettings#getBatchSize()}
+     */
+    public static final String SETTING_BATCH_SIZE = "batch-size";
     /**
      * Representation of {@link QueueSettings#getFatalCrashTimeout()}
      */
@@ -218,6 +337,54 @@ public class QueueConfigsReader {
      * Representation of {@link QueueSettings#getNoTaskTimeout()}
      */
     public static final String SETTING_NO_TASK_TIMEOUT = "no-task-timeout";
+    /**
+     * Representation of {@link QueueSettings#getAcknowledgementMode()}
+     */
+    public static final String SETTING_ACKNOWLEDGEMENT_MODE = "acknowledgement-mode";
+    /**
+     * Representation of {@link QueueSettings#getAcknowledgementBatchSize()}
+     */
+    public static final String SETTING_ACKNOWLEDGEMENT_BATCH_SIZE = "acknowledgement-batch-size";
+    /**
+     * Representation of {@link QueueSettings#getAcknowledgementFlushInterval()}
+     */
+    public static final String SETTING_ACKNOWLEDGEMENT_FLUSH_INTERVAL = "acknowledgement-flush-interval";
+    /**
+     * Representation of {@link QueueSettings#getPrefetchSize()}
+     */
+    public static final String SETTING_PREFETCH_SIZE = "prefetch-size";
+    /**
+     * Representation of {@link QueueSettings#getMaxNoTaskTimeout()}
+     */
+    public static final String SETTING_MAX_NO_TASK_TIMEOUT = "max-no-task-timeout";
+    /**
+     * Representation of {@link QueueSettings#getPollingMode()}
+     */
+    public static final String SETTING_POLLING_MODE = "polling-mode";
+    /**
+     * Representation of {@link QueueSettings#getMultiplexedWeight()}
+     */
+    public static final String SETTING_MULTIPLEXED_WEIGHT = "multiplexed-weight";
+    /**
+     * Representation of {@link QueueSettings#getMaxInFlightTasks()}
+     */
+    public static final String SETTING_MAX_IN_FLIGHT_TASKS = "max-in-flight-tasks";
+    /**
+     * Representation of {@link QueueSettings#getRateLimit()}
+     */
+    public static final String SETTING_RATE_LIMIT = "rate-limit";
+    /**
+     * Representation of {@link QueueSettings#getRateLimitMode()}
+     */
+    public static final String SETTING_RATE_LIMIT_MODE = "rate-limit-mode";
+    /**
+     * Representation of {@link QueueSettings#getRateLimitNodeCount()}
+     */
+    public static final String SETTING_RATE_LIMIT_NODE_COUNT = "rate-limit-node-count";
+    /**
+     * Representation of {@link QueueSettings#getPriorityAgingInterval()}
+     */
+    public static final String SETTING_PRIORITY_AGING_INTERVAL = "priority-aging-interval";
     /**
      * Representation of {@link QueueLocation#getTableName()}
      */
@@ -226,6 +393,22 @@ public class QueueConfigsReader {
      * Representation of {@link QueueLocation#getIdSequence()}
      */
     public static final String SETTING_ID_SEQUENCE = "id-sequence";
+    /**
+     * Representation of {@link QueueLocation#getNotificationChannel()}
+     */
+    public static final String SETTING_NOTIFICATION_CHANNEL = "notification-channel";
+    /**
+     * Representation of {@link QueueLocation#getPartitionCount()}
+     */
+    public static final String SETTING_PARTITION_COUNT = "partition-count";
+    /**
+     * Representation of {@link QueueLocation#getScheduledTableName()}
+     */
+    public static final String SETTING_SCHEDULED_TABLE = "scheduled-table";
+    /**
+     * Representation of {@link QueueLocation#getSchedulingThreshold()}
+     */
+    public static final String SETTING_SCHEDULING_THRESHOLD = "scheduling-threshold";
     /**
      * Representation of {@link QueueSettings#getAdditionalSettings()}
      */
@@ -323,9 +506,62 @@ public class QueueConfigsReader {
                 .filter(property -> SETTING_ID_SEQUENCE.equals(property.getKey()))
                 .findFirst()
                 .ifPresent(property -> builder.withIdSequence(property.getValue()).build());
+        settings.entrySet().stream()
+                .filter(property -> SETTING_NOTIFICATION_CHANNEL.equals(property.getKey()))
+                .findFirst()
+                .ifPresent(property -> builder.withNotificationChannel(property.getValue()).build());
+        settings.entrySet().stream()
+                .filter(property -> SETTING_PARTITION_COUNT.equals(property.getKey()))
+                .findFirst()
+                .ifPresent(property -> tryFillPartitionCount(builder, property.getValue()));
+        if (settings.containsKey(SETTING_SCHEDULED_TABLE) || settings.containsKey(SETTING_SCHEDULING_THRESHOLD)) {
+            tryFillScheduledTable(builder, settings);
+        }
         return builder.build();
     }
 
+    private void tryFillScheduledTable(QueueLocation.Builder builder, Map<String, String> settings) {
+        String scheduledTable = settings.get(SETTING_SCHEDULED_TABLE);
+        String value = settings.get(SETTING_SCHEDULING_THRESHOLD);
+        if (scheduledTable == null || value == null) {
+            errorMessages.add(String.format("settings must be set together: names=%s,%s",
+                    SETTING_SCHEDULED_TABLE, SETTING_SCHEDULING_THRESHOLD));
+            return;
+        }
+        if (settings.containsKey(SETTING_PARTITION_COUNT) && !"1".equals(settings.get(SETTING_PARTITION_COUNT))) {
+            errorMessages.add(String.format("scheduled table is not supported for partitioned queues: value=%s",
+                    scheduledTable));
+            return;
+        }
+        try {
+            Duration schedulingThreshold = Duration.parse(value);
+            if (schedulingThreshold.isNegative() || schedulingThreshold.isZero()) {
+                errorMessages.add(String.format("scheduling threshold must be positive: value=%s", value));
+                return;
+            }
+            builder.withScheduledTableName(scheduledTable).withSchedulingThreshold(schedulingThreshold);
+        } catch (RuntimeException exc) {
+            log.warn("cannot parse setting", exc);
+            errorMessages.add(String.format("cannot parse setting: name=%s, value=%s",
+                    SETTING_SCHEDULING_THRESHOLD, value));
+        }
+    }
+
+    private void tryFillPartitionCount(QueueLocation.Builder builder, String value) {
+        try {
+            int partitionCount = Integer.parseInt(value);
+            if (partitionCount < 1) {
+                errorMessages.add(String.format("partition count must be positive: value=%s", value));
+                return;
+            }
+            builder.withPartitionCount(partitionCount);
+        } catch (RuntimeException exc) {
+            log.warn("cannot parse setting", exc);
+            errorMessages.add(String.format("cannot parse setting: name=%s, value=%s",
+                    SETTING_PARTITION_COUNT, value));
+        }
+    }
+
     private QueueSettings.Builder buildQueueSettings(Map<String, String> settings) {
         QueueSettings.Builder builder = QueueSettings.builder();
         settings.entrySet().stream()
@@ -333,6 +569,10 @@ public class QueueConfigsReader {
                 .filter(property -> !property.getKey().startsWith(REENQUEUE_RETRY_PREFIX))
                 .filter(property -> !SETTING_TABLE.equals(property.getKey()))
                 .filter(property -> !SETTING_ID_SEQUENCE.equals(property.getKey()))
+                .filter(property -> !SETTING_NOTIFICATION_CHANNEL.equals(property.getKey()))
+                .filter(property -> !SETTING_PARTITION_COUNT.equals(property.getKey()))
+                .filter(property -> !SETTING_SCHEDULED_TABLE.equals(property.getKey()))
+                .filter(property -> !SETTING_SCHEDULING_THRESHOLD.equals(property.getKey()))
                 .forEach(property -> tryFillSetting(builder, property.getKey(), property.getValue()));
         return builder;
     }
@@ -442,6 +682,9 @@ public class QueueConfigsReader {
                 case SETTING_THREAD_COUNT:
                     queueSetting.withThreadCount(Integer.valueOf(value));
                     return;
+                case SETTING_BATCH_SIZE:
+                    queueSetting.withBatchSize(Integer.valueOf(value));
+                    return;
                 case SETTING_RETRY_TYPE:
                     queueSetting.withRetryType(parseRetryType(value).orElse(null));
                     return;
@@ -451,6 +694,42 @@ public class QueueConfigsReader {
                 case SETTING_PROCESSING_MODE:
                     queueSetting.withProcessingMode(parseProcessingMode(value).orElse(null));
                     return;
+                case SETTING_ACKNOWLEDGEMENT_MODE:
+                    queueSetting.withAcknowledgementMode(parseAcknowledgementMode(value).orElse(null));
+                    return;
+                case SETTING_ACKNOWLEDGEMENT_BATCH_SIZE:
+                    queueSetting.withAcknowledgementBatchSize(Integer.valueOf(value));
+                    return;
+                case SETTING_ACKNOWLEDGEMENT_FLUSH_INTERVAL:
+                    queueSetting.withAcknowledgementFlushInterval(Duration.parse(value));
+                    return;
+                case SETTING_PREFETCH_SIZE:
+                    queueSetting.withPrefetchSize(Integer.valueOf(value));
+                    return;
+                case SETTING_MAX_NO_TASK_TIMEOUT:
+                    queueSetting.withMaxNoTaskTimeout(Duration.parse(value));
+                    return;
+                case SETTING_POLLING_MODE:
+                    queueSetting.withPollingMode(parsePollingMode(value).orElse(null));
+                    return;
+                case SETTING_MULTIPLEXED_WEIGHT:
+                    queueSetting.withMultiplexedWeight(Integer.valueOf(value));
+                    return;
+                case SETTING_MAX_IN_FLIGHT_TASKS:
+                    queueSetting.withMaxInFlightTasks(Integer.valueOf(value));
+                    return;
+                case SETTING_RATE_LIMIT:
+                    queueSetting.withRateLimit(Double.valueOf(value));
+                    return;
+                case SETTING_RATE_LIMIT_MODE:
+                    queueSetting.withRateLimitMode(parseRateLimitMode(value).orElse(null));
+                    return;
+                case SETTING_RATE_LIMIT_NODE_COUNT:
+                    queueSetting.withRateLimitNodeCount(Integer.valueOf(value));
+                    return;
+                case SETTING_PRIORITY_AGING_INTERVAL:
+                    queueSetting.withPriorityAgingInterval(Duration.parse(value));
+                    return;
                 default:
                     errorMessages.add(String.format("unknown setting: name=%s, value=%s", name, value));
                     return;
@@ -470,12 +749,50 @@ public class QueueConfigsReader {
                 return Optional.of(ProcessingMode.WRAP_IN_TRANSACTION);
             case VALUE_PROCESSING_MODE_USE_EXTERNAL_EXECUTOR:
                 return Optional.of(ProcessingMode.USE_EXTERNAL_EXECUTOR);
+            case VALUE_PROCESSING_MODE_USE_VIRTUAL_THREADS:
+                return Optional.of(ProcessingMode.USE_VIRTUAL_THREADS);
             default:
                 errorMessages.add(String.format("unknown processing mode: name=%s", name));
                 return Optional.empty();
         }
     }
 
+    private Optional<AcknowledgementMode> parseAcknowledgementMode(String name) {
+        switch (name) {
+            case VALUE_ACKNOWLEDGEMENT_MODE_IMMEDIATE:
+                return Optional.of(AcknowledgementMode.IMMEDIATE);
+            case VALUE_ACKNOWLEDGEMENT_MODE_BATCHED:
+                return Optional.of(AcknowledgementMode.BATCHED);
+            default:
+                errorMessages.add(String.format("unknown acknowledgement mode: name=%s", name));
+                return Optional.empty();
+        }
+    }
+
+    private Optional<PollingMode> parsePollingMode(String name) {
+        switch (name) {
+            case VALUE_POLLING_MODE_DEDICATED:
+                return Optional.of(PollingMode.DEDICATED);
+            case VALUE_POLLING_MODE_MULTIPLEXED:
+                return Optional.of(PollingMode.MULTIPLEXED);
+            default:
+                errorMessages.add(String.format("unknown polling mode: name=%s", name));
+                return Optional.empty();
+        }
+    }
+
+    private Optional<RateLimitMode> parseRateLimitMode(String name) {
+        switch (name) {
+            case VALUE_RATE_LIMIT_MODE_LOCAL:
+                return Optional.of(RateLimitMode.LOCAL);
+            case VALUE_RATE_LIMIT_MODE_DISTRIBUTED:
+                return Optional.of(RateLimitMode.DISTRIBUTED);
+            default:
+                errorMessages.add(String.format("unknown rate limit mode: name=%s", name));
+                return Optional.empty();
+        }
+    }
+
     private Optional<TaskRetryType> parseRetryType(String name) {
         switch (name) {
             case VALUE_TASK_RETRY_TYPE_GEOMETRIC:
@@ -2,6 +2,7 @@ package ru.yandex.money.common.dbqueue.settings;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -25,12 +26,42 @@ public final class QueueLocation {
     private final QueueId queueId;
     @Nullable
     private final String idSequence;
+    @Nullable
+    private final String notificationChannel;
+    private final int partitionCount;
+    @Nullable
+    private final String scheduledTableName;
+    @Nullable
+    private final Duration schedulingThreshold;
 
     private QueueLocation(@Nonnull QueueId queueId, @Nonnull String tableName,
-                          @Nullable String idSequence) {
+                          @Nullable String idSequence, @Nullable String notificationChannel,
+                          int partitionCount, @Nullable String scheduledTableName,
+                          @Nullable Duration schedulingThreshold) {
         this.queueId = Objects.requireNonNull(queueId);
         this.tableName = DISALLOWED_CHARS.matcher(Objects.requireNonNull(tableName)).replaceAll("");
         this.idSequence = idSequence != null ? DISALLOWED_CHARS.matcher(idSequence).replaceAll("") : null;
+        this.notificationChannel = notificationChannel != null ?
+                DISALLOWED_CHARS.matcher(notificationChannel).replaceAll("") : null;
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount must be positive: partitionCount=" + partitionCount);
+        }
+        this.partitionCount = partitionCount;
+        this.scheduledTableName = scheduledTableName != null ?
+                DISALLOWED_CHARS.matcher(scheduledTableName).replaceAll("") : null;
+        this.schedulingThreshold = schedulingThreshold;
+        if ((scheduledTableName == null) != (schedulingThreshold == null)) {
+            throw new IllegalArgumentException("scheduledTableName and schedulingThreshold must be set together: " +
+                    "scheduledTableName=" + scheduledTableName + ", schedulingThreshold=" + schedulingThreshold);
+        }
+        if (schedulingThreshold != null && (schedulingThreshold.isNegative() || schedulingThreshold.isZero())) {
+            throw new IllegalArgumentException("schedulingThreshold must be positive: schedulingThreshold=" +
+                    schedulingThreshold);
+        }
+        if (scheduledTableName != null && partitionCount != 1) {
+            throw new IllegalArgumentException("scheduled table is not supported for partitioned queues: " +
+                    "partitionCount=" + partitionCount);
+        }
     }
 
     /**
@@ -64,12 +95,112 @@ public final class QueueLocation {
         return Optional.ofNullable(idSequence);
     }
 
+    /**
+     * Get name of the database notification channel for new tasks.
+     * <p>
+     * When specified, the producer sends a notification with the queue name on each enqueue,
+     * so idle consumers of the queue on all nodes are woken up immediately,
+     * instead of waiting for {@link QueueSettings#getNoTaskTimeout()}.
+     * Several notifications of the same queue within a transaction are delivered as one.
+     * <p>
+     * Supported for PostgreSQL only (LISTEN/NOTIFY), ignored for other databases.
+     *
+     * @return database notification channel name.
+     */
+    public Optional<String> getNotificationChannel() {
+        return Optional.ofNullable(notificationChannel);
+    }
+
+    /**
+     * Get number of partitions of the queue.
+     * <p>
+     * A partitioned queue is stored in several physical tables, see {@link #getPartition(int)}.
+     * Producers spread tasks over the partitions: tasks with the same ordering key or deduplication key
+     * are stored in the same partition, other tasks are distributed in turn.
+     * Every processing thread of the queue prefers its own partition
+     * and picks tasks from other partitions only when its partition has no ready tasks,
+     * so the threads do not contend for the same rows and every table keeps a small index.
+     * <p>
+     * Identifier of a task determines its partition: the identifier modulo the number of partitions
+     * must be equal to the partition number. So the identity column or the sequence of the partition {@code i}
+     * must start with {@code partitionCount + i} and be incremented by {@code partitionCount}.
+     *
+     * @return number of partitions, 1 for a queue stored in a single table.
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * Get name of the table for tasks scheduled far ahead.
+     * <p>
+     * When specified, tasks delayed for more than {@link #getSchedulingThreshold()} are stored in this table,
+     * so the queue table holds only the tasks, which are due soon, and its index stays small.
+     * A task is moved to the queue table shortly before its processing time, see
+     * {@code ru.yandex.money.common.dbqueue.config.PostgresQueueScheduledTaskMover}.
+     * Tasks with an ordering key or a deduplication key are always stored in the queue table.
+     * <p>
+     * Supported for PostgreSQL only, ignored for other databases.
+     *
+     * @return name of the table for scheduled tasks.
+     */
+    public Optional<String> getScheduledTableName() {
+        return Optional.ofNullable(scheduledTableName);
+    }
+
+    /**
+     * Get minimal execution delay of a task, which is stored in {@link #getScheduledTableName()}.
+     * <p>
+     * Scheduled tasks are moved to the queue table when they are due within the threshold.
+     *
+     * @return threshold of the execution delay, present along with the table for scheduled tasks.
+     */
+    public Optional<Duration> getSchedulingThreshold() {
+        return Optional.ofNullable(schedulingThreshold);
+    }
+
+    /**
+     * Get location of the queue partition.
+     * <p>
+     * Partition {@code i} is stored in table {@code <table>_<i>}, ids of its tasks
+     * are generated by sequence {@code <idSequence>_<i>} when {@link #getIdSequence()} is specified.
+     *
+     * @param partition partition number, from 0 to {@link #getPartitionCount()} exclusive.
+     * @return location of the partition, the same location for a queue without partitions.
+     */
+    @Nonnull
+    public QueueLocation getPartition(int partition) {
+        if (partition < 0 || partition >= partitionCount) {
+            throw new IllegalArgumentException("partition is out of range: partition=" + partition +
+                    ", location=" + this);
+        }
+        if (partitionCount == 1) {
+            return this;
+        }
+        return new QueueLocation(queueId, tableName + "_" + partition,
+                idSequence != null ? idSequence + "_" + partition : null, notificationChannel, 1, null, null);
+    }
+
+    /**
+     * Get number of the partition, which stores the task.
+     *
+     * @param taskId task identifier.
+     * @return partition number.
+     */
+    public int getTaskPartition(long taskId) {
+        return (int) Math.floorMod(taskId, (long) partitionCount);
+    }
+
     @Override
     public String toString() {
         return '{' +
                 "id=" + queueId +
                 ",table=" + tableName +
                 (idSequence != null ? ",idSequence=" + idSequence : "") +
+                (notificationChannel != null ? ",notificationChannel=" + notificationChannel : "") +
+                (partitionCount != 1 ? ",partitionCount=" + partitionCount : "") +
+                (scheduledTableName != null ? ",scheduledTable=" + scheduledTableName : "") +
+                (schedulingThreshold != null ? ",schedulingThreshold=" + schedulingThreshold : "") +
                 '}';
     }
 
@@ -84,12 +215,17 @@ public final class QueueLocation {
         QueueLocation that = (QueueLocation) obj;
         return Objects.equals(tableName, that.tableName) &&
                 Objects.equals(queueId, that.queueId) &&
-                Objects.equals(idSequence, that.idSequence);
+                Objects.equals(idSequence, that.idSequence) &&
+                Objects.equals(notificationChannel, that.notificationChannel) &&
+                partitionCount == that.partitionCount &&
+                Objects.equals(scheduledTableName, that.scheduledTableName) &&
+                Objects.equals(schedulingThreshold, that.schedulingThreshold);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(tableName, queueId, idSequence);
+        return Objects.hash(tableName, queueId, idSequence, notificationChannel, partitionCount,
+                scheduledTableName, schedulingThreshold);
     }
 
     /**
@@ -109,6 +245,13 @@ public final class QueueLocation {
         private QueueId queueId;
         @Nullable
         private String idSequence;
+        @Nullable
+        private String notificationChannel;
+        private int partitionCount = 1;
+        @Nullable
+        private String scheduledTableName;
+        @Nullable
+        private Duration schedulingThreshold;
 
         private Builder() {
         }
@@ -146,13 +289,58 @@ public final class QueueLocation {
             return this;
         }
 
+        /**
+         * Set name of the database notification channel for new tasks.
+         *
+         * @param notificationChannel database notification channel name.
+         * @return Reference to the same builder.
+         */
+        public Builder withNotificationChannel(@Nullable String notificationChannel) {
+            this.notificationChannel = notificationChannel;
+            return this;
+        }
+
+        /**
+         * Set number of partitions of the queue.
+         *
+         * @param partitionCount number of partitions, 1 by default.
+         * @return Reference to the same builder.
+         */
+        public Builder withPartitionCount(int partitionCount) {
+            this.partitionCount = partitionCount;
+            return this;
+        }
+
+        /**
+         * Set name of the table for tasks scheduled far ahead.
+         *
+         * @param scheduledTableName name of the table for scheduled tasks.
+         * @return Reference to the same builder.
+         */
+        public Builder withScheduledTableName(@Nullable String scheduledTableName) {
+            this.scheduledTableName = scheduledTableName;
+            return this;
+        }
+
+        /**
+         * Set minimal execution delay of a task, which is stored in the table for scheduled tasks.
+         *
+         * @param schedulingThreshold threshold of the execution delay.
+         * @return Reference to the same builder.
+         */
+        public Builder withSchedulingThreshold(@Nullable Duration schedulingThreshold) {
+            this.schedulingThreshold = schedulingThreshold;
+            return this;
+        }
+
         /**
          * Build queue location object.
          *
          * @return Queue location  object.
          */
         public QueueLocation build() {
-            return new QueueLocation(queueId, tableName, idSequence);
+            return new QueueLocation(queueId, tableName, idSequence, notificationChannel, partitionCount,
+                    scheduledTableName, schedulingThreshold);
         }
     }
 }
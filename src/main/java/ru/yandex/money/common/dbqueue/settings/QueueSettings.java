@@ -22,8 +22,11 @@ public final class QueueSettings {
             Memoizer.memoize(Duration::parse);
 
     private static final Duration DEFAULT_TIMEOUT_ON_FATAL_CRASH = Duration.ofSeconds(1L);
+    private static final int DEFAULT_ACKNOWLEDGEMENT_BATCH_SIZE = 100;
+    private static final Duration DEFAULT_ACKNOWLEDGEMENT_FLUSH_INTERVAL = Duration.ofSeconds(1L);
 
     private final int threadCount;
+    private final int batchSize;
     @Nonnull
     private final Duration noTaskTimeout;
     @Nonnull
@@ -39,6 +42,24 @@ public final class QueueSettings {
     @Nonnull
     private final ProcessingMode processingMode;
     @Nonnull
+    private final AcknowledgementMode acknowledgementMode;
+    private final int acknowledgementBatchSize;
+    @Nonnull
+    private final Duration acknowledgementFlushInterval;
+    private final int prefetchSize;
+    @Nonnull
+    private final Duration maxNoTaskTimeout;
+    @Nonnull
+    private final PollingMode pollingMode;
+    private final int multiplexedWeight;
+    private final int maxInFlightTasks;
+    private final double rateLimit;
+    @Nonnull
+    private final RateLimitMode rateLimitMode;
+    private final int rateLimitNodeCount;
+    @Nonnull
+    private final Duration priorityAgingInterval;
+    @Nonnull
     private final Map<String, String> additionalSettings;
 
     private QueueSettings(@Nonnull Duration noTaskTimeout,
@@ -49,6 +70,19 @@ public final class QueueSettings {
                           @Nullable Duration retryInterval,
                           @Nullable ReenqueueRetrySettings reenqueueRetrySettings,
                           @Nullable ProcessingMode processingMode,
+                          @Nullable Integer batchSize,
+                          @Nullable AcknowledgementMode acknowledgementMode,
+                          @Nullable Integer acknowledgementBatchSize,
+                          @Nullable Duration acknowledgementFlushInterval,
+                          @Nullable Integer prefetchSize,
+                          @Nullable Duration maxNoTaskTimeout,
+                          @Nullable PollingMode pollingMode,
+                          @Nullable Integer multiplexedWeight,
+                          @Nullable Integer maxInFlightTasks,
+                          @Nullable Double rateLimit,
+                          @Nullable RateLimitMode rateLimitMode,
+                          @Nullable Integer rateLimitNodeCount,
+                          @Nullable Duration priorityAgingInterval,
                           @Nullable Map<String, String> additionalSettings) {
         this.noTaskTimeout = Objects.requireNonNull(noTaskTimeout);
         this.betweenTaskTimeout = Objects.requireNonNull(betweenTaskTimeout);
@@ -60,6 +94,82 @@ public final class QueueSettings {
                 ? ReenqueueRetrySettings.createDefault()
                 : reenqueueRetrySettings;
         this.processingMode = processingMode == null ? ProcessingMode.SEPARATE_TRANSACTIONS : processingMode;
+        this.batchSize = batchSize == null ? 1 : batchSize;
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than zero: batchSize=" + this.batchSize);
+        }
+        this.acknowledgementMode = acknowledgementMode == null ? AcknowledgementMode.IMMEDIATE : acknowledgementMode;
+        this.acknowledgementBatchSize = acknowledgementBatchSize == null ?
+                DEFAULT_ACKNOWLEDGEMENT_BATCH_SIZE : acknowledgementBatchSize;
+        if (this.acknowledgementBatchSize < 1) {
+            throw new IllegalArgumentException("acknowledgementBatchSize must be greater than zero: " +
+                    "acknowledgementBatchSize=" + this.acknowledgementBatchSize);
+        }
+        this.acknowledgementFlushInterval = acknowledgementFlushInterval == null ?
+                DEFAULT_ACKNOWLEDGEMENT_FLUSH_INTERVAL : acknowledgementFlushInterval;
+        if (this.acknowledgementMode == AcknowledgementMode.BATCHED) {
+            if (this.processingMode == ProcessingMode.WRAP_IN_TRANSACTION) {
+                // deletion of the task must be committed along with the work of the consumer
+                throw new IllegalArgumentException("batched acknowledgement is not supported in processing mode " +
+                        ProcessingMode.WRAP_IN_TRANSACTION);
+            }
+            if (this.acknowledgementFlushInterval.compareTo(this.retryInterval) >= 0) {
+                // otherwise a finished task can be picked again before it is deleted
+                throw new IllegalArgumentException("acknowledgementFlushInterval must be less than retryInterval: " +
+                        "acknowledgementFlushInterval=" + this.acknowledgementFlushInterval +
+                        ", retryInterval=" + this.retryInterval);
+            }
+        }
+        this.prefetchSize = prefetchSize == null ? 0 : prefetchSize;
+        if (this.prefetchSize < 0) {
+            throw new IllegalArgumentException("prefetchSize must not be negative: prefetchSize=" + this.prefetchSize);
+        }
+        if (this.prefetchSize > 0 && this.processingMode == ProcessingMode.WRAP_IN_TRANSACTION) {
+            throw new IllegalArgumentException("prefetching is not supported in processing mode " +
+                    ProcessingMode.WRAP_IN_TRANSACTION);
+        }
+        this.maxNoTaskTimeout = maxNoTaskTimeout == null ? noTaskTimeout : maxNoTaskTimeout;
+        if (this.maxNoTaskTimeout.compareTo(noTaskTimeout) < 0) {
+            throw new IllegalArgumentException("maxNoTaskTimeout must not be less than noTaskTimeout: " +
+                    "maxNoTaskTimeout=" + this.maxNoTaskTimeout + ", noTaskTimeout=" + noTaskTimeout);
+        }
+        this.pollingMode = pollingMode == null ? PollingMode.DEDICATED : pollingMode;
+        if (this.prefetchSize > 0 && this.pollingMode == PollingMode.MULTIPLEXED) {
+            throw new IllegalArgumentException("prefetching is not supported in polling mode " +
+                    PollingMode.MULTIPLEXED);
+        }
+        this.multiplexedWeight = multiplexedWeight == null ? 1 : multiplexedWeight;
+        if (this.multiplexedWeight < 1) {
+            throw new IllegalArgumentException("multiplexedWeight must be greater than zero: multiplexedWeight=" +
+                    this.multiplexedWeight);
+        }
+        this.maxInFlightTasks = maxInFlightTasks == null ? 0 : maxInFlightTasks;
+        if (this.maxInFlightTasks < 0) {
+            throw new IllegalArgumentException("maxInFlightTasks must not be negative: maxInFlightTasks=" +
+                    this.maxInFlightTasks);
+        }
+        if (this.maxInFlightTasks == 0 && this.processingMode == ProcessingMode.USE_VIRTUAL_THREADS) {
+            // every picked task gets its own thread, so the limit is the only bound of started threads
+            throw new IllegalArgumentException("maxInFlightTasks must be greater than zero in processing mode " +
+                    ProcessingMode.USE_VIRTUAL_THREADS);
+        }
+        this.rateLimit = rateLimit == null ? 0.0 : rateLimit;
+        if (!(this.rateLimit >= 0.0) || Double.isInfinite(this.rateLimit)) {
+            throw new IllegalArgumentException("rateLimit must be finite and not negative: rateLimit=" +
+                    this.rateLimit);
+        }
+        this.rateLimitMode = rateLimitMode == null ? RateLimitMode.LOCAL : rateLimitMode;
+        this.rateLimitNodeCount = rateLimitNodeCount == null ? 1 : rateLimitNodeCount;
+        if (this.rateLimitNodeCount < 1) {
+            throw new IllegalArgumentException("rateLimitNodeCount must be greater than zero: rateLimitNodeCount=" +
+                    this.rateLimitNodeCount);
+        }
+        this.priorityAgingInterval = priorityAgingInterval == null ? Duration.ZERO : priorityAgingInterval;
+        if (this.priorityAgingInterval.isNegative() ||
+                (!this.priorityAgingInterval.isZero() && this.priorityAgingInterval.getSeconds() == 0L)) {
+            throw new IllegalArgumentException("priorityAgingInterval must be zero or at least one second: " +
+                    "priorityAgingInterval=" + this.priorityAgingInterval);
+        }
         this.additionalSettings = additionalSettings == null ? Collections.emptyMap() :
                 Collections.unmodifiableMap(new HashMap<>(additionalSettings));
     }
@@ -105,6 +215,17 @@ public final class QueueSettings {
         return threadCount;
     }
 
+    /**
+     * Get maximum number of tasks picked from the queue in a single database round trip.
+     * <p>
+     * Value 1 (default) picks tasks one by one.
+     *
+     * @return Maximum number of tasks in a single pick.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     /**
      * Get delay duration between picking tasks from the queue if there are no task for processing.
      *
@@ -145,6 +266,171 @@ public final class QueueSettings {
         return processingMode;
     }
 
+    /**
+     * Get acknowledgement mode for successfully processed tasks.
+     * <p>
+     * {@link AcknowledgementMode#BATCHED} is not supported in {@link ProcessingMode#WRAP_IN_TRANSACTION} mode.
+     *
+     * @return Acknowledgement mode.
+     */
+    @Nonnull
+    public AcknowledgementMode getAcknowledgementMode() {
+        return acknowledgementMode;
+    }
+
+    /**
+     * Get maximum number of finished tasks which are deleted with a single statement
+     * in {@link AcknowledgementMode#BATCHED} mode.
+     *
+     * @return Maximum number of acknowledged tasks in a single statement.
+     */
+    public int getAcknowledgementBatchSize() {
+        return acknowledgementBatchSize;
+    }
+
+    /**
+     * Get maximum duration the finished tasks are kept in the buffer
+     * in {@link AcknowledgementMode#BATCHED} mode.
+     * Must be less than {@link #getRetryInterval()}, so a finished task is deleted before it is picked again.
+     *
+     * @return Interval of acknowledgement buffer flushing.
+     */
+    @Nonnull
+    public Duration getAcknowledgementFlushInterval() {
+        return acknowledgementFlushInterval;
+    }
+
+    /**
+     * Get maximum number of tasks prefetched from the queue into memory.
+     * <p>
+     * When the value is positive, a single fetcher per queue and shard picks tasks in batches
+     * and worker threads take them from the memory buffer without accessing the database.
+     * The actual buffer size adapts to consumption rate within the given maximum.
+     * Prefetched tasks are kept in memory no longer than half of {@link #getRetryInterval()}.
+     * Value 0 (default) disables prefetching.
+     *
+     * @return Maximum number of prefetched tasks.
+     */
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    /**
+     * Get maximum delay duration between picking tasks from the queue if there are no task for processing.
+     * <p>
+     * When the value is greater than {@link #getNoTaskTimeout()}, the delay grows exponentially
+     * with random jitter from {@link #getNoTaskTimeout()} up to the given maximum
+     * while the queue stays empty, and drops back to {@link #getNoTaskTimeout()} once a task is processed.
+     * Equals to {@link #getNoTaskTimeout()} by default, so the delay is fixed.
+     *
+     * @return Maximum delay when there are no tasks to process.
+     */
+    @Nonnull
+    public Duration getMaxNoTaskTimeout() {
+        return maxNoTaskTimeout;
+    }
+
+    /**
+     * Get polling mode of the queue.
+     * <p>
+     * {@link PollingMode#MULTIPLEXED} mode does not support prefetching,
+     * and {@link #getMaxNoTaskTimeout()} does not apply to the shared poller.
+     *
+     * @return Polling mode.
+     */
+    @Nonnull
+    public PollingMode getPollingMode() {
+        return pollingMode;
+    }
+
+    /**
+     * Get share of the worker pool, which the queue gets in {@link PollingMode#MULTIPLEXED} mode.
+     * <p>
+     * Queues with pending iterations take turns in the shared worker pool,
+     * and a queue starts up to the given number of iterations in a row before yielding to the next queue.
+     * So a flooded queue gets at most its share of the pool while other queues have ready tasks.
+     * Value 1 is used by default.
+     *
+     * @return Weight of the queue.
+     */
+    public int getMultiplexedWeight() {
+        return multiplexedWeight;
+    }
+
+    /**
+     * Get maximum number of tasks, which are picked but not yet processed by the external executor,
+     * in virtual threads or by an asynchronous consumer.
+     * <p>
+     * Applies to {@link ProcessingMode#USE_EXTERNAL_EXECUTOR} and {@link ProcessingMode#USE_VIRTUAL_THREADS}
+     * modes and to asynchronous consumers only.
+     * When the limit is reached, the queue thread waits for a free slot before picking new tasks,
+     * so tasks are not claimed in the database while they wait in the executor queue.
+     * Value 0 (default) disables the limit, a positive value is required
+     * in {@link ProcessingMode#USE_VIRTUAL_THREADS} mode and for asynchronous consumers.
+     *
+     * @return Maximum number of tasks in flight.
+     */
+    public int getMaxInFlightTasks() {
+        return maxInFlightTasks;
+    }
+
+    /**
+     * Get maximum number of tasks per second, which are picked from the queue on all nodes.
+     * <p>
+     * When the limit is exhausted, the queue thread skips picking and waits for the next attempt
+     * as if the queue were empty, so tasks are not claimed in the database beyond the limit.
+     * With several shards the limit applies to each shard.
+     * Value 0 (default) disables the limit.
+     *
+     * @return Maximum number of tasks per second.
+     * @see #getRateLimitMode()
+     */
+    public double getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Get strategy for enforcing the rate limit of the queue.
+     * <p>
+     * {@link RateLimitMode#LOCAL} is used by default.
+     *
+     * @return Rate limit mode.
+     */
+    @Nonnull
+    public RateLimitMode getRateLimitMode() {
+        return rateLimitMode;
+    }
+
+    /**
+     * Get number of nodes, which process the queue.
+     * <p>
+     * Applies to {@link RateLimitMode#LOCAL} only, every node picks at most
+     * {@link #getRateLimit()} divided by the number of nodes tasks per second.
+     * Value 1 is used by default.
+     *
+     * @return Number of nodes.
+     */
+    public int getRateLimitNodeCount() {
+        return rateLimitNodeCount;
+    }
+
+    /**
+     * Get waiting time, which raises the priority of a ready task by one.
+     * <p>
+     * Applies only when {@link ru.yandex.money.common.dbqueue.config.QueueTableSchema#getPriorityField()}
+     * is specified. A task of lower priority, which waits long enough, outruns newer tasks of higher priority,
+     * so a steady flow of urgent tasks does not starve bulk ones.
+     * Aging orders ready tasks by a computed value, so the database sorts them instead of reading the index
+     * in order. The interval is applied with seconds granularity.
+     * Value {@linkplain Duration#ZERO} (default) disables aging.
+     *
+     * @return Waiting time per priority step.
+     */
+    @Nonnull
+    public Duration getPriorityAgingInterval() {
+        return priorityAgingInterval;
+    }
+
     /**
      * Get all additional properties for the queue.
      *
@@ -192,6 +478,7 @@ public final class QueueSettings {
     public String toString() {
         return '{' +
                 "threadCount=" + threadCount +
+                ", batchSize=" + batchSize +
                 ", betweenTaskTimeout=" + betweenTaskTimeout +
                 ", noTaskTimeout=" + noTaskTimeout +
                 ", processingMode=" + processingMode +
@@ -199,6 +486,18 @@ public final class QueueSettings {
                 ", retryInterval=" + retryInterval +
                 ", reenqueueRetrySettings=" + reenqueueRetrySettings +
                 ", fatalCrashTimeout=" + fatalCrashTimeout +
+                ", acknowledgementMode=" + acknowledgementMode +
+                ", acknowledgementBatchSize=" + acknowledgementBatchSize +
+                ", acknowledgementFlushInterval=" + acknowledgementFlushInterval +
+                ", prefetchSize=" + prefetchSize +
+                ", maxNoTaskTimeout=" + maxNoTaskTimeout +
+                ", pollingMode=" + pollingMode +
+                ", multiplexedWeight=" + multiplexedWeight +
+                ", maxInFlightTasks=" + maxInFlightTasks +
+                ", rateLimit=" + rateLimit +
+                ", rateLimitMode=" + rateLimitMode +
+                ", rateLimitNodeCount=" + rateLimitNodeCount +
+                ", priorityAgingInterval=" + priorityAgingInterval +
                 (additionalSettings.isEmpty() ? "" : ", additionalSettings=" + additionalSettings) +
                 '}';
     }
@@ -213,8 +512,21 @@ public final class QueueSettings {
         }
         QueueSettings that = (QueueSettings) obj;
         return threadCount == that.threadCount &&
+                batchSize == that.batchSize &&
                 retryType == that.retryType &&
                 processingMode == that.processingMode &&
+                acknowledgementMode == that.acknowledgementMode &&
+                acknowledgementBatchSize == that.acknowledgementBatchSize &&
+                Objects.equals(acknowledgementFlushInterval, that.acknowledgementFlushInterval) &&
+                prefetchSize == that.prefetchSize &&
+                Objects.equals(maxNoTaskTimeout, that.maxNoTaskTimeout) &&
+                Objects.equals(pollingMode, that.pollingMode) &&
+                multiplexedWeight == that.multiplexedWeight &&
+                maxInFlightTasks == that.maxInFlightTasks &&
+                Double.compare(rateLimit, that.rateLimit) == 0 &&
+                Objects.equals(rateLimitMode, that.rateLimitMode) &&
+                rateLimitNodeCount == that.rateLimitNodeCount &&
+                Objects.equals(priorityAgingInterval, that.priorityAgingInterval) &&
                 Objects.equals(reenqueueRetrySettings, that.reenqueueRetrySettings) &&
                 Objects.equals(noTaskTimeout, that.noTaskTimeout) &&
                 Objects.equals(betweenTaskTimeout, that.betweenTaskTimeout) &&
@@ -225,8 +537,10 @@ public final class QueueSettings {
 
     @Override
     public int hashCode() {
-        return Objects.hash(threadCount, noTaskTimeout, betweenTaskTimeout, fatalCrashTimeout, retryType, reenqueueRetrySettings,
-                processingMode, retryInterval, additionalSettings);
+        return Objects.hash(threadCount, batchSize, noTaskTimeout, betweenTaskTimeout, fatalCrashTimeout, retryType, reenqueueRetrySettings,
+                processingMode, retryInterval, acknowledgementMode, acknowledgementBatchSize, acknowledgementFlushInterval,
+                prefetchSize, maxNoTaskTimeout, pollingMode, multiplexedWeight, maxInFlightTasks, rateLimit, rateLimitMode,
+                rateLimitNodeCount, priorityAgingInterval, additionalSettings);
     }
 
     /**
@@ -241,6 +555,19 @@ public final class QueueSettings {
         private Duration retryInterval;
         private ReenqueueRetrySettings reenqueueRetrySettings;
         private ProcessingMode processingMode;
+        private Integer batchSize;
+        private AcknowledgementMode acknowledgementMode;
+        private Integer acknowledgementBatchSize;
+        private Duration acknowledgementFlushInterval;
+        private Integer prefetchSize;
+        private Duration maxNoTaskTimeout;
+        private PollingMode pollingMode;
+        private Integer multiplexedWeight;
+        private Integer maxInFlightTasks;
+        private Double rateLimit;
+        private RateLimitMode rateLimitMode;
+        private Integer rateLimitNodeCount;
+        private Duration priorityAgingInterval;
         private final Map<String, String> additionalSettings = new HashMap<>();
 
         private Builder() {
@@ -292,6 +619,17 @@ public final class QueueSettings {
             return this;
         }
 
+        /**
+         * Set maximum number of tasks picked from the queue in a single database round trip.
+         *
+         * @param batchSize Maximum number of tasks in a single pick.
+         * @return Reference to the same builder.
+         */
+        public Builder withBatchSize(@Nullable Integer batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
         /**
          * Set task execution retry strategy.
          *
@@ -337,6 +675,140 @@ public final class QueueSettings {
             return this;
         }
 
+        /**
+         * Set acknowledgement mode for successfully processed tasks.
+         *
+         * @param acknowledgementMode Acknowledgement mode.
+         * @return Reference to the same builder.
+         */
+        public Builder withAcknowledgementMode(@Nullable AcknowledgementMode acknowledgementMode) {
+            this.acknowledgementMode = acknowledgementMode;
+            return this;
+        }
+
+        /**
+         * Set maximum number of finished tasks which are deleted with a single statement
+         * in {@link AcknowledgementMode#BATCHED} mode.
+         *
+         * @param acknowledgementBatchSize Maximum number of acknowledged tasks in a single statement.
+         * @return Reference to the same builder.
+         */
+        public Builder withAcknowledgementBatchSize(@Nullable Integer acknowledgementBatchSize) {
+            this.acknowledgementBatchSize = acknowledgementBatchSize;
+            return this;
+        }
+
+        /**
+         * Set maximum duration the finished tasks are kept in the buffer
+         * in {@link AcknowledgementMode#BATCHED} mode.
+         *
+         * @param acknowledgementFlushInterval Interval of acknowledgement buffer flushing.
+         * @return Reference to the same builder.
+         */
+        public Builder withAcknowledgementFlushInterval(@Nullable Duration acknowledgementFlushInterval) {
+            this.acknowledgementFlushInterval = acknowledgementFlushInterval;
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks prefetched from the queue into memory.
+         *
+         * @param prefetchSize Maximum number of prefetched tasks.
+         * @return Reference to the same builder.
+         */
+        public Builder withPrefetchSize(@Nullable Integer prefetchSize) {
+            this.prefetchSize = prefetchSize;
+            return this;
+        }
+
+        /**
+         * Set maximum delay duration between picking tasks from the queue if there are no task for processing.
+         *
+         * @param maxNoTaskTimeout Maximum delay when there are no tasks to process.
+         * @return Reference to the same builder.
+         */
+        public Builder withMaxNoTaskTimeout(@Nullable Duration maxNoTaskTimeout) {
+            this.maxNoTaskTimeout = maxNoTaskTimeout;
+            return this;
+        }
+
+        /**
+         * Set polling mode of the queue.
+         *
+         * @param pollingMode Polling mode.
+         * @return Reference to the same builder.
+         */
+        public Builder withPollingMode(@Nullable PollingMode pollingMode) {
+            this.pollingMode = pollingMode;
+            return this;
+        }
+
+        /**
+         * Set share of the worker pool, which the queue gets in {@link PollingMode#MULTIPLEXED} mode.
+         *
+         * @param multiplexedWeight Weight of the queue.
+         * @return Reference to the same builder.
+         */
+        public Builder withMultiplexedWeight(@Nullable Integer multiplexedWeight) {
+            this.multiplexedWeight = multiplexedWeight;
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks, which are picked but not yet processed by the external executor.
+         *
+         * @param maxInFlightTasks Maximum number of tasks in flight.
+         * @return Reference to the same builder.
+         */
+        public Builder withMaxInFlightTasks(@Nullable Integer maxInFlightTasks) {
+            this.maxInFlightTasks = maxInFlightTasks;
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks per second, which are picked from the queue on all nodes.
+         *
+         * @param rateLimit Maximum number of tasks per second.
+         * @return Reference to the same builder.
+         */
+        public Builder withRateLimit(@Nullable Double rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+
+        /**
+         * Set strategy for enforcing the rate limit of the queue.
+         *
+         * @param rateLimitMode Rate limit mode.
+         * @return Reference to the same builder.
+         */
+        public Builder withRateLimitMode(@Nullable RateLimitMode rateLimitMode) {
+            this.rateLimitMode = rateLimitMode;
+            return this;
+        }
+
+        /**
+         * Set number of nodes, which process the queue.
+         *
+         * @param rateLimitNodeCount Number of nodes.
+         * @return Reference to the same builder.
+         */
+        public Builder withRateLimitNodeCount(@Nullable Integer rateLimitNodeCount) {
+            this.rateLimitNodeCount = rateLimitNodeCount;
+            return this;
+        }
+
+        /**
+         * Set waiting time, which raises the priority of a ready task by one.
+         *
+         * @param priorityAgingInterval Waiting time per priority step.
+         * @return Reference to the same builder.
+         */
+        public Builder withPriorityAgingInterval(@Nullable Duration priorityAgingInterval) {
+            this.priorityAgingInterval = priorityAgingInterval;
+            return this;
+        }
+
         /**
          * Set the map of additional properties for the queue.
          *
@@ -368,7 +840,17 @@ public final class QueueSettings {
          */
         public QueueSettings build() {
             return new QueueSettings(noTaskTimeout, betweenTaskTimeout, fatalCrashTimeout, threadCount,
-                    retryType, retryInterval, reenqueueRetrySettings, processingMode, additionalSettings);
+                    retryType, retryInterval, reenqueueRetrySettings, processingMode, batchSize,
+                    acknowledgementMode, acknowledgementBatchSize, acknowledgementFlushInterval, prefetchSize,
+                    maxNoTaskTimeout,
+                    pollingMode,
+                    multiplexedWeight,
+                    maxInFlightTasks,
+                    rateLimit,
+                    rateLimitMode,
+                    rateLimitNodeCount,
+                    priorityAgingInterval,
+                    additionalSettings);
         }
     }
 
@@ -0,0 +1,26 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+/**
+ * Strategy for enforcing {@link QueueSettings#getRateLimit()} of the queue.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public enum RateLimitMode {
+    /**
+     * Every node enforces its share of the limit with an in-memory token bucket.
+     * The share is the limit divided by {@link QueueSettings#getRateLimitNodeCount()}.
+     * <p>
+     * Does not access the database, but requires the number of nodes to be known in advance.
+     */
+    LOCAL,
+    /**
+     * Nodes share the limit through a counter table in the database of the shard.
+     * Every pick consumes tokens of the current time window with a single update statement,
+     * so the limit holds regardless of the number of nodes.
+     * The window is taken from the database clock, tokens unused by a pick are given back to their window.
+     * <p>
+     * Requires the counter table, see {@link ru.yandex.money.common.dbqueue.dao.QueueRateLimitDao}.
+     */
+    DISTRIBUTED
+}
@@ -0,0 +1,56 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Schedule of a recurring task.
+ *
+ * @author Oleg Kandaurov
+ * @see ru.yandex.money.common.dbqueue.config.RecurringTaskScheduler
+ * @since 16.10.2026
+ */
+@FunctionalInterface
+public interface RecurringSchedule {
+
+    /**
+     * Get the next fire time of the task.
+     *
+     * @param after Date and time after which the task should fire.
+     * @return Date and time of the next fire, strictly after the given one.
+     */
+    @Nonnull
+    ZonedDateTime getNextFireTime(@Nonnull ZonedDateTime after);
+
+    /**
+     * Create a schedule, which fires with a fixed period.
+     * Fire times are aligned to the epoch, so they do not depend on the time of the previous execution.
+     *
+     * @param period Period between fire times, at least one second.
+     * @return Fixed rate schedule.
+     */
+    @Nonnull
+    static RecurringSchedule fixedRate(@Nonnull Duration period) {
+        return new FixedRateSchedule(period);
+    }
+
+    /**
+     * Create a schedule, which fires according to a cron expression.
+     * <p>
+     * Expression consists of five fields: minute, hour, day of month, month and day of week (0 or 7 is Sunday).
+     * Every field supports {@code *}, values, ranges {@code 1-5}, lists {@code 1,3,5}
+     * and steps {@code *}{@code /15}, {@code 0-30/10}.
+     * Task fires when both day of month and day of week match,
+     * or either of them, when both fields are restricted.
+     *
+     * @param expression Cron expression, for example {@code "0 3 * * 1-5"}.
+     * @param zoneId     Time zone of the expression.
+     * @return Cron schedule.
+     */
+    @Nonnull
+    static RecurringSchedule cron(@Nonnull String expression, @Nonnull ZoneId zoneId) {
+        return new CronSchedule(expression, zoneId);
+    }
+}
@@ -8,6 +8,8 @@ import ru.yandex.money.common.dbqueue.config.QueueShard;
 import ru.yandex.money.common.dbqueue.settings.QueueConfig;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -33,14 +35,26 @@ public class StringQueueProducer implements QueueProducer<String> {
     @Override
     public long enqueue(@Nonnull EnqueueParams<String> enqueueParams) {
         requireNonNull(enqueueParams);
-        EnqueueParams<String> rawEnqueueParams = new EnqueueParams<String>()
-                .withPayload(getPayloadTransformer().fromObject(enqueueParams.getPayload()))
-                .withExecutionDelay(enqueueParams.getExecutionDelay())
-                .withExtData(enqueueParams.getExtData());
+        EnqueueParams<String> rawEnqueueParams = toRawEnqueueParams(enqueueParams);
         return requireNonNull(queueShard.getTransactionTemplate().execute(status ->
                 queueShard.getQueueDao().enqueue(queueConfig.getLocation(), rawEnqueueParams)));
     }
 
+    @Nonnull
+    @Override
+    public List<Long> enqueueBatch(@Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(enqueueParams);
+        List<EnqueueParams<String>> rawEnqueueParams = enqueueParams.stream()
+                .map(this::toRawEnqueueParams)
+                .collect(Collectors.toList());
+        return requireNonNull(queueShard.getTransactionTemplate().execute(status ->
+                queueShard.getQueueDao().enqueueBatch(queueConfig.getLocation(), rawEnqueueParams)));
+    }
+
+    private EnqueueParams<String> toRawEnqueueParams(@Nonnull EnqueueParams<String> enqueueParams) {
+        return enqueueParams.mapPayload(getPayloadTransformer()::fromObject);
+    }
+
     @Nonnull
     @Override
     public TaskPayloadTransformer<String> getPayloadTransformer() {
@@ -4,6 +4,11 @@ import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
 import org.junit.Test;
 
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
 /**
  * @author Oleg Kandaurov
  * @since 10.08.2017
@@ -14,4 +19,21 @@ public class EnqueueParamsTest {
     public void should_define_correct_equals_hashcode() throws Exception {
         EqualsVerifier.forClass(EnqueueParams.class).suppress(Warning.NONFINAL_FIELDS).verify();
     }
+
+    @Test
+    public void should_copy_all_parameters_when_mapping_payload() throws Exception {
+        EnqueueParams<Integer> enqueueParams = EnqueueParams.create(1)
+                .withExecutionDelay(Duration.ofSeconds(5L))
+                .withPriority(3)
+                .withOrderingKey("order")
+                .withDedupKey("dedup")
+                .withExtData("trace", "1");
+
+        assertThat(enqueueParams.mapPayload(String::valueOf), equalTo(EnqueueParams.create("1")
+                .withExecutionDelay(Duration.ofSeconds(5L))
+                .withPriority(3)
+                .withOrderingKey("order")
+                .withDedupKey("dedup")
+                .withExtData("trace", "1")));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Assert;
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.impl.NoopPayloadTransformer;
+import ru.yandex.money.common.dbqueue.dao.QueueDao;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+import ru.yandex.money.common.dbqueue.stub.FakeTransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class AsyncBufferedQueueProducerTest {
+
+    private static final QueueConfig queueConfig = new QueueConfig(
+            QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("testQueue")).build(),
+            QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO).build());
+
+    @Test
+    public void should_enqueue_tasks_in_single_batch() throws Exception {
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.enqueueBatch(eq(queueConfig.getLocation()), anyList())).thenReturn(Arrays.asList(1L, 2L, 3L));
+        AsyncBufferedQueueProducer<String> producer = createProducer(queueDao)
+                .withMaxBatchSize(3)
+                .withMaxLingerTime(Duration.ofMinutes(1L))
+                .build();
+        producer.start();
+
+        CompletableFuture<Long> first = producer.enqueueAsync(EnqueueParams.create("1"));
+        CompletableFuture<Long> second = producer.enqueueAsync(EnqueueParams.create("2")
+                .withPriority(5).withOrderingKey("order"));
+        CompletableFuture<Long> third = producer.enqueueAsync(EnqueueParams.create("3").withDedupKey("dedup"));
+
+        Assert.assertThat(first.get(5L, TimeUnit.SECONDS), equalTo(1L));
+        Assert.assertThat(second.get(5L, TimeUnit.SECONDS), equalTo(2L));
+        Assert.assertThat(third.get(5L, TimeUnit.SECONDS), equalTo(3L));
+        verify(queueDao).enqueueBatch(queueConfig.getLocation(), Arrays.asList(
+                EnqueueParams.create("1"),
+                EnqueueParams.create("2").withPriority(5).withOrderingKey("order"),
+                EnqueueParams.create("3").withDedupKey("dedup")));
+        producer.shutdown();
+        Assert.assertThat(producer.awaitTermination(Duration.ofSeconds(5L)), equalTo(true));
+    }
+
+    @Test
+    public void should_write_incomplete_batch_after_linger_time() throws Exception {
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.enqueueBatch(eq(queueConfig.getLocation()), anyList()))
+                .thenReturn(Collections.singletonList(1L));
+        AsyncBufferedQueueProducer<String> producer = createProducer(queueDao)
+                .withMaxBatchSize(100)
+                .withMaxLingerTime(Duration.ofMillis(10L))
+                .build();
+        producer.start();
+
+        Assert.assertThat(producer.enqueue(EnqueueParams.create("1")), equalTo(1L));
+        producer.shutdown();
+    }
+
+    @Test
+    public void should_write_buffered_tasks_on_shutdown_and_reject_new_tasks() throws Exception {
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.enqueueBatch(eq(queueConfig.getLocation()), anyList()))
+                .thenReturn(Collections.singletonList(1L));
+        AsyncBufferedQueueProducer<String> producer = createProducer(queueDao)
+                .withMaxLingerTime(Duration.ofMinutes(1L))
+                .build();
+
+        CompletableFuture<Long> buffered = producer.enqueueAsync(EnqueueParams.create("1"));
+        producer.start();
+        producer.shutdown();
+        CompletableFuture<Long> rejected = producer.enqueueAsync(EnqueueParams.create("2"));
+
+        Assert.assertThat(producer.awaitTermination(Duration.ofSeconds(5L)), equalTo(true));
+        Assert.assertThat(buffered.get(), equalTo(1L));
+        assertFailed(rejected, RejectedExecutionException.class);
+    }
+
+    @Test
+    public void should_fail_when_buffer_is_full() throws Exception {
+        AsyncBufferedQueueProducer<String> producer = createProducer(mock(QueueDao.class))
+                .withMaxBatchSize(1)
+                .withBufferCapacity(1)
+                .withOverflowPolicy(AsyncBufferedQueueProducer.OverflowPolicy.FAIL)
+                .build();
+
+        CompletableFuture<Long> buffered = producer.enqueueAsync(EnqueueParams.create("1"));
+        CompletableFuture<Long> rejected = producer.enqueueAsync(EnqueueParams.create("2"));
+
+        Assert.assertThat(buffered.isDone(), equalTo(false));
+        assertFailed(rejected, RejectedExecutionException.class);
+    }
+
+    @Test
+    public void should_enqueue_in_caller_thread_when_buffer_is_full() throws Exception {
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.enqueue(eq(queueConfig.getLocation()), any())).thenReturn(7L);
+        AsyncBufferedQueueProducer<String> producer = createProducer(queueDao)
+                .withMaxBatchSize(1)
+                .withBufferCapacity(1)
+                .withOverflowPolicy(AsyncBufferedQueueProducer.OverflowPolicy.CALLER_RUNS)
+                .build();
+
+        producer.enqueueAsync(EnqueueParams.create("1"));
+        CompletableFuture<Long> enqueued = producer.enqueueAsync(EnqueueParams.create("2"));
+
+        Assert.assertThat(enqueued.get(), equalTo(7L));
+        verify(queueDao).enqueue(queueConfig.getLocation(), EnqueueParams.create("2"));
+    }
+
+    @Test
+    public void should_fail_all_tasks_of_batch_when_enqueue_failed() throws Exception {
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.enqueueBatch(eq(queueConfig.getLocation()), anyList()))
+                .thenThrow(new IllegalStateException("fail"));
+        AsyncBufferedQueueProducer<String> producer = createProducer(queueDao)
+                .withMaxBatchSize(2)
+                .withMaxLingerTime(Duration.ofMinutes(1L))
+                .build();
+        producer.start();
+
+        CompletableFuture<Long> first = producer.enqueueAsync(EnqueueParams.create("1"));
+        CompletableFuture<Long> second = producer.enqueueAsync(EnqueueParams.create("2"));
+
+        assertFailed(first, IllegalStateException.class);
+        assertFailed(second, IllegalStateException.class);
+        producer.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_producer_when_buffer_is_less_than_batch() {
+        createProducer(mock(QueueDao.class))
+                .withMaxBatchSize(10)
+                .withBufferCapacity(5)
+                .build();
+    }
+
+    private static void assertFailed(CompletableFuture<Long> future, Class<?> exceptionType) throws Exception {
+        try {
+            future.get(5L, TimeUnit.SECONDS);
+            Assert.fail("future must be completed exceptionally");
+        } catch (ExecutionException e) {
+            Assert.assertThat(e.getCause(), instanceOf(exceptionType));
+        }
+    }
+
+    private static AsyncBufferedQueueProducer.Builder<String> createProducer(QueueDao queueDao) {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(new QueueShardId("s1"));
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+        return AsyncBufferedQueueProducer.<String>builder()
+                .withQueueConfig(queueConfig)
+                .withQueueShard(queueShard)
+                .withPayloadTransformer(NoopPayloadTransformer.getInstance());
+    }
+}
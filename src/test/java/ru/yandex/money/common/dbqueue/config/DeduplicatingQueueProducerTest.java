@@ -0,0 +1,66 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.QueueProducer;
+import ru.yandex.money.common.dbqueue.stub.FakeMillisTimeProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DeduplicatingQueueProducerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_not_enqueue_recently_enqueued_key() {
+        QueueProducer<String> delegate = mock(QueueProducer.class);
+        when(delegate.enqueue(any())).thenReturn(1L, 2L);
+        DeduplicatingQueueProducer<String> producer = new DeduplicatingQueueProducer<>(delegate, 10,
+                Duration.ofMinutes(1), new FakeMillisTimeProvider(Arrays.asList(0L, 0L, 1000L, 120000L, 120000L)));
+
+        long firstId = producer.enqueue(EnqueueParams.create("first").withDedupKey("key"));
+        long secondId = producer.enqueue(EnqueueParams.create("second").withDedupKey("key"));
+        long expiredId = producer.enqueue(EnqueueParams.create("third").withDedupKey("key"));
+
+        assertThat(firstId, equalTo(1L));
+        assertThat(secondId, equalTo(1L));
+        assertThat(expiredId, equalTo(2L));
+        verify(delegate, times(2)).enqueue(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_not_remember_key_of_rolled_back_enqueue() {
+        QueueProducer<String> delegate = mock(QueueProducer.class);
+        when(delegate.enqueue(any())).thenReturn(1L, 2L);
+        DeduplicatingQueueProducer<String> producer = new DeduplicatingQueueProducer<>(delegate, 10,
+                Duration.ofMinutes(1), new FakeMillisTimeProvider(Arrays.asList(0L, 1000L, 1000L)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            producer.enqueue(EnqueueParams.create("first").withDedupKey("key"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        long retriedId = producer.enqueue(EnqueueParams.create("first").withDedupKey("key"));
+
+        assertThat(retriedId, equalTo(2L));
+        verify(delegate, times(2)).enqueue(any());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresNotificationListenerTest {
+
+    @Test
+    public void should_wakeup_queue_named_in_notification() {
+        PostgresNotificationListener listener = new PostgresNotificationListener(mock(QueueShard.class),
+                mock(ExecutorService.class));
+        Runnable firstWakeup = mock(Runnable.class);
+        Runnable secondWakeup = mock(Runnable.class);
+        listener.register(createLocation("queue1", "channel"), firstWakeup);
+        listener.register(createLocation("queue2", "channel"), secondWakeup);
+
+        listener.onNotification("channel", "queue2");
+        listener.onNotification("channel", "unknown");
+        listener.onNotification("unknown", "queue1");
+
+        verify(secondWakeup).run();
+        verifyZeroInteractions(firstWakeup);
+    }
+
+    @Test
+    public void should_start_listen_loop_once() {
+        ExecutorService executor = mock(ExecutorService.class);
+        PostgresNotificationListener listener = new PostgresNotificationListener(mock(QueueShard.class), executor);
+
+        listener.start();
+        listener.start();
+        listener.shutdown();
+
+        verify(executor).execute(any());
+        verify(executor).shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_register_queue_without_notification_channel() {
+        new PostgresNotificationListener(mock(QueueShard.class), mock(ExecutorService.class))
+                .register(QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(), () -> {
+                });
+    }
+
+    private static QueueLocation createLocation(String queueId, String channel) {
+        return QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId(queueId)).withNotificationChannel(channel).build();
+    }
+}
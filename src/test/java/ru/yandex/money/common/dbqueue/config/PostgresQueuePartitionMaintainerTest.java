@@ -0,0 +1,99 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcOperations;
+import ru.yandex.money.common.dbqueue.stub.FakeTransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueuePartitionMaintainerTest {
+
+    private static final long NOW = Instant.parse("2026-10-16T10:30:00Z").toEpochMilli();
+
+    @Test
+    public void should_create_current_and_next_partitions() {
+        JdbcOperations jdbcTemplate = mock(JdbcOperations.class);
+        QueueShard queueShard = createQueueShard(jdbcTemplate, DatabaseDialect.POSTGRESQL);
+
+        new PostgresQueuePartitionMaintainer(queueShard, "public.queue_tasks", Duration.ofDays(1L),
+                Duration.ofDays(1L), () -> NOW).maintain();
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS public.queue_tasks_p202610160000" +
+                " PARTITION OF public.queue_tasks" +
+                " FOR VALUES FROM ('2026-10-16T00:00:00Z') TO ('2026-10-17T00:00:00Z')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS public.queue_tasks_p202610170000" +
+                " PARTITION OF public.queue_tasks" +
+                " FOR VALUES FROM ('2026-10-17T00:00:00Z') TO ('2026-10-18T00:00:00Z')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS public.queue_tasks_p202610180000" +
+                " PARTITION OF public.queue_tasks" +
+                " FOR VALUES FROM ('2026-10-18T00:00:00Z') TO ('2026-10-19T00:00:00Z')");
+    }
+
+    @Test
+    public void should_drop_expired_partitions_without_live_tasks() {
+        JdbcOperations jdbcTemplate = mock(JdbcOperations.class);
+        QueueShard queueShard = createQueueShard(jdbcTemplate, DatabaseDialect.POSTGRESQL);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("queue_tasks"))).thenReturn(Arrays.asList(
+                "queue_tasks_p202610130000", "queue_tasks_p202610140000", "queue_tasks_p202610150000",
+                "queue_tasks_archive"));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS (SELECT 1 FROM queue_tasks_p202610130000 "),
+                eq(Boolean.class))).thenReturn(false);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS (SELECT 1 FROM queue_tasks_p202610140000 "),
+                eq(Boolean.class))).thenReturn(true);
+
+        new PostgresQueuePartitionMaintainer(queueShard, "queue_tasks", Duration.ofDays(1L),
+                Duration.ofDays(1L), () -> NOW).maintain();
+
+        verify(jdbcTemplate).execute("LOCK TABLE queue_tasks_p202610130000 IN ACCESS EXCLUSIVE MODE");
+        verify(jdbcTemplate).queryForObject("SELECT EXISTS (SELECT 1 FROM queue_tasks_p202610130000" +
+                " WHERE done_at IS NULL OR done_at > now() - 86400 * INTERVAL '1 SECOND')", Boolean.class);
+        verify(jdbcTemplate).execute("DROP TABLE queue_tasks_p202610130000");
+        verify(jdbcTemplate, never()).execute("DROP TABLE queue_tasks_p202610140000");
+        verify(jdbcTemplate, never()).execute("LOCK TABLE queue_tasks_p202610150000 IN ACCESS EXCLUSIVE MODE");
+        verify(jdbcTemplate, never()).execute("LOCK TABLE queue_tasks_archive IN ACCESS EXCLUSIVE MODE");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_maintainer_for_other_databases() {
+        new PostgresQueuePartitionMaintainer(createQueueShard(mock(JdbcOperations.class), DatabaseDialect.MSSQL),
+                "queue_tasks", Duration.ofDays(1L), Duration.ofDays(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_maintainer_for_partial_minutes_interval() {
+        new PostgresQueuePartitionMaintainer(createQueueShard(mock(JdbcOperations.class),
+                DatabaseDialect.POSTGRESQL), "queue_tasks", Duration.ofSeconds(90L), Duration.ofDays(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_maintainer_for_table_with_dedup_key() {
+        QueueShard queueShard = createQueueShard(mock(JdbcOperations.class), DatabaseDialect.POSTGRESQL);
+        when(queueShard.getQueueTableSchema()).thenReturn(QueueTableSchema.builder()
+                .withDoneAtField("done_at").withDedupKeyField("dedup_key").build());
+        new PostgresQueuePartitionMaintainer(queueShard, "queue_tasks", Duration.ofDays(1L), Duration.ofDays(1L));
+    }
+
+    private static QueueShard createQueueShard(JdbcOperations jdbcTemplate, DatabaseDialect databaseDialect) {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getDatabaseDialect()).thenReturn(databaseDialect);
+        when(queueShard.getQueueTableSchema()).thenReturn(QueueTableSchema.builder()
+                .withDoneAtField("done_at").build());
+        when(queueShard.getJdbcTemplate()).thenReturn(jdbcTemplate);
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        return queueShard;
+    }
+}
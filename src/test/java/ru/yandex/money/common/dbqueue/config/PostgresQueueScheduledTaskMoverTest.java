@@ -0,0 +1,164 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.dao.QueueDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueScheduledTaskMoverTest {
+
+    private static final String SCHEDULED_TABLE_NAME = PostgresDatabaseInitializer.CUSTOM_TABLE_NAME + "_scheduled";
+    private static final QueueTableSchema SCHEMA = PostgresDatabaseInitializer.CUSTOM_SCHEMA;
+
+    private static QueueShard queueShard;
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+        queueShard = new QueueShard(DatabaseDialect.POSTGRESQL, SCHEMA, new QueueShardId("s1"),
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+        new PostgresQueueScheduledTaskMover(queueShard, generateUniqueLocation()).install();
+    }
+
+    @Test
+    public void enqueue_should_store_delayed_tasks_in_scheduled_table() {
+        QueueLocation location = generateUniqueLocation();
+        QueueDao queueDao = queueShard.getQueueDao();
+
+        Long dueId = execute(() -> queueDao.enqueue(location,
+                EnqueueParams.create("due").withExecutionDelay(Duration.ofMinutes(5L))));
+        Long delayedId = execute(() -> queueDao.enqueue(location,
+                EnqueueParams.create("delayed").withExecutionDelay(Duration.ofDays(7L))));
+        Long orderedId = execute(() -> queueDao.enqueue(location,
+                EnqueueParams.create("ordered").withExecutionDelay(Duration.ofDays(7L)).withOrderingKey("key")));
+        List<Long> batchIds = execute(() -> queueDao.enqueueBatch(location, Arrays.asList(
+                EnqueueParams.create("delayed").withExecutionDelay(Duration.ofDays(7L)),
+                EnqueueParams.create("due"))));
+
+        Assert.assertThat(findIds(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME, location),
+                equalTo(Arrays.asList(dueId, orderedId, batchIds.get(1))));
+        Assert.assertThat(findIds(SCHEDULED_TABLE_NAME, location),
+                equalTo(Arrays.asList(delayedId, batchIds.get(0))));
+    }
+
+    @Test
+    public void move_should_transfer_tasks_due_within_threshold() {
+        QueueLocation location = generateUniqueLocation();
+        QueueDao queueDao = queueShard.getQueueDao();
+        Long soonId = execute(() -> queueDao.enqueue(location, EnqueueParams.create("soon")
+                .withExecutionDelay(Duration.ofDays(7L)).withExtData("trace", "1")));
+        Long laterId = execute(() -> queueDao.enqueue(location,
+                EnqueueParams.create("later").withExecutionDelay(Duration.ofDays(7L))));
+        PostgresDatabaseInitializer.getJdbcTemplate().update("update " + SCHEDULED_TABLE_NAME + " set " +
+                SCHEMA.getNextProcessAtField() + " = now() + INTERVAL '30 MINUTE' where " +
+                SCHEMA.getIdField() + " = " + soonId);
+
+        int movedCount = new PostgresQueueScheduledTaskMover(queueShard, location).move();
+
+        Assert.assertThat(movedCount, equalTo(1));
+        Assert.assertThat(findIds(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME, location),
+                equalTo(Collections.singletonList(soonId)));
+        Assert.assertThat(findIds(SCHEDULED_TABLE_NAME, location), equalTo(Collections.singletonList(laterId)));
+        Assert.assertThat(PostgresDatabaseInitializer.getJdbcTemplate().queryForObject("select trace from " +
+                PostgresDatabaseInitializer.CUSTOM_TABLE_NAME + " where " + SCHEMA.getIdField() + " = " + soonId,
+                String.class), equalTo("1"));
+    }
+
+    @Test
+    public void move_should_transfer_tasks_of_queue_with_notification_channel() {
+        QueueLocation location = QueueLocation.builder().withTableName(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME)
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID()))
+                .withScheduledTableName(SCHEDULED_TABLE_NAME)
+                .withSchedulingThreshold(Duration.ofHours(1L))
+                .withNotificationChannel("queue_tasks").build();
+        Long soonId = execute(() -> queueShard.getQueueDao().enqueue(location,
+                EnqueueParams.create("soon").withExecutionDelay(Duration.ofDays(7L))));
+        PostgresDatabaseInitializer.getJdbcTemplate().update("update " + SCHEDULED_TABLE_NAME + " set " +
+                SCHEMA.getNextProcessAtField() + " = now() + INTERVAL '30 MINUTE' where " +
+                SCHEMA.getIdField() + " = " + soonId);
+
+        int movedCount = new PostgresQueueScheduledTaskMover(queueShard, location).move();
+
+        Assert.assertThat(movedCount, equalTo(1));
+        Assert.assertThat(findIds(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME, location),
+                equalTo(Collections.singletonList(soonId)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_start_mover_with_interval_longer_than_threshold() {
+        new PostgresQueueScheduledTaskMover(queueShard, generateUniqueLocation()).start(Duration.ofHours(1L));
+    }
+
+    @Test
+    public void delete_should_remove_task_from_scheduled_table() {
+        QueueLocation location = generateUniqueLocation();
+        QueueDao queueDao = queueShard.getQueueDao();
+        Long delayedId = execute(() -> queueDao.enqueue(location,
+                EnqueueParams.create("delayed").withExecutionDelay(Duration.ofDays(7L))));
+
+        Boolean deleted = execute(() -> queueDao.deleteTask(location, delayedId));
+        Boolean deletedAgain = execute(() -> queueDao.deleteTask(location, delayedId));
+
+        Assert.assertThat(deleted, equalTo(true));
+        Assert.assertThat(deletedAgain, equalTo(false));
+        Assert.assertThat(findIds(SCHEDULED_TABLE_NAME, location), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void should_create_table_like_queue_table() {
+        Assert.assertThat(new PostgresQueueScheduledTaskMover(queueShard, generateUniqueLocation())
+                .createInstallSql(), equalTo("CREATE TABLE IF NOT EXISTS queue_custom_scheduled" +
+                " (LIKE queue_custom INCLUDING DEFAULTS);\n" +
+                "CREATE UNIQUE INDEX IF NOT EXISTS queue_custom_scheduled_id_idx ON queue_custom_scheduled (qid);\n" +
+                "CREATE INDEX IF NOT EXISTS queue_custom_scheduled_name_time_idx" +
+                " ON queue_custom_scheduled (qn, pt);\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_mover_for_other_databases() {
+        new PostgresQueueScheduledTaskMover(new QueueShard(DatabaseDialect.MSSQL, SCHEMA, new QueueShardId("s1"),
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate()),
+                generateUniqueLocation());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_mover_without_scheduled_table() {
+        new PostgresQueueScheduledTaskMover(queueShard, QueueLocation.builder()
+                .withTableName(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME)
+                .withQueueId(new QueueId("test")).build());
+    }
+
+    private static QueueLocation generateUniqueLocation() {
+        return QueueLocation.builder().withTableName(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME)
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID()))
+                .withScheduledTableName(SCHEDULED_TABLE_NAME)
+                .withSchedulingThreshold(Duration.ofHours(1L)).build();
+    }
+
+    private static List<Long> findIds(String tableName, QueueLocation location) {
+        return PostgresDatabaseInitializer.getJdbcTemplate().queryForList("select " + SCHEMA.getIdField() +
+                " from " + tableName + " where " + SCHEMA.getQueueNameField() + " = ? order by " +
+                SCHEMA.getIdField(), Long.class, location.getQueueId().asString());
+    }
+
+    private static <T> T execute(Supplier<T> supplier) {
+        return PostgresDatabaseInitializer.getTransactionTemplate().execute(status -> supplier.get());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.stub.FakeMillisTimeProvider;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class QueueAutoscalerTest {
+
+    private static final QueueShardId SHARD_ID = new QueueShardId("s1");
+
+    @Test
+    public void should_compute_thread_count() {
+        assertThat(QueueAutoscaler.computeThreadCount(2, 1, 10, 0.9, 1.0), equalTo(3));
+        assertThat(QueueAutoscaler.computeThreadCount(4, 1, 10, 1.0, 0.95), equalTo(7));
+        assertThat(QueueAutoscaler.computeThreadCount(8, 1, 10, 1.0, 1.0), equalTo(10));
+        assertThat(QueueAutoscaler.computeThreadCount(4, 1, 10, 0.9, 0.5), equalTo(4));
+        assertThat(QueueAutoscaler.computeThreadCount(4, 1, 10, 0.5, 1.0), equalTo(4));
+        assertThat(QueueAutoscaler.computeThreadCount(6, 1, 10, 0.05, 0.1), equalTo(1));
+        assertThat(QueueAutoscaler.computeThreadCount(6, 1, 10, 0.5, 0.2), equalTo(5));
+        assertThat(QueueAutoscaler.computeThreadCount(2, 2, 10, 0.0, 0.0), equalTo(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_register_invalid_bounds() {
+        new QueueAutoscaler(mock(ThreadLifecycleListener.class)).register(new QueueId("queue"), 3, 2);
+    }
+
+    @Test
+    public void should_resize_busy_queue() {
+        QueueId queueId = new QueueId("queue");
+        QueueLocation location = QueueLocation.builder().withTableName("table").withQueueId(queueId).build();
+        ThreadLifecycleListener delegate = mock(ThreadLifecycleListener.class);
+        QueueAutoscaler autoscaler = new QueueAutoscaler(delegate,
+                new FakeMillisTimeProvider(Arrays.asList(0L, 1000L)));
+        autoscaler.register(queueId, 1, 4);
+        QueueService queueService = mock(QueueService.class);
+        when(queueService.getShardCount()).thenReturn(1);
+        when(queueService.getThreadCount(queueId)).thenReturn(2);
+
+        for (int i = 0; i < 20; i++) {
+            autoscaler.executed(SHARD_ID, location, true, 100L);
+        }
+        autoscaler.evaluate(queueService);
+
+        verify(queueService).resize(queueId, 4);
+        verify(delegate, times(20)).executed(SHARD_ID, location, true, 100L);
+    }
+
+    @Test
+    public void should_not_resize_without_statistics() {
+        QueueId queueId = new QueueId("queue");
+        QueueAutoscaler autoscaler = new QueueAutoscaler(mock(ThreadLifecycleListener.class),
+                new FakeMillisTimeProvider(Arrays.asList(0L, 1000L)));
+        autoscaler.register(queueId, 1, 4);
+        QueueService queueService = mock(QueueService.class);
+        when(queueService.getShardCount()).thenReturn(1);
+
+        autoscaler.evaluate(queueService);
+
+        verify(queueService, never()).resize(any(), anyInt());
+    }
+}
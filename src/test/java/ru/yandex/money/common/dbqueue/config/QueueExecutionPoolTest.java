@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.transaction.support.TransactionOperations;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueLoop;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskAcknowledgementBuffer;
 import ru.yandex.money.common.dbqueue.internal.runner.QueueRunner;
 import ru.yandex.money.common.dbqueue.settings.QueueConfig;
 import ru.yandex.money.common.dbqueue.settings.QueueId;
@@ -16,9 +17,13 @@ import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Oleg Kandaurov
@@ -46,6 +51,52 @@ public class QueueExecutionPoolTest {
         verify(queueLoop, times(2)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
     }
 
+    @Test
+    public void should_resize() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(2)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        when(queueLoop.cancelRetirement(3)).thenReturn(1);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, new DirectExecutor(), queueRunner);
+        pool.start();
+        verify(queueLoop, times(2)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+
+        pool.resize(1);
+        verify(queueLoop).retire(1);
+        assertThat(pool.getThreadCount(), equalTo(1));
+
+        pool.resize(4);
+        verify(queueLoop).cancelRetirement(3);
+        verify(queueLoop, times(4)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+        assertThat(pool.getThreadCount(), equalTo(4));
+    }
+
+    @Test
+    public void should_resize_before_start() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(2)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, new DirectExecutor(), queueRunner);
+        pool.resize(3);
+        verifyZeroInteractions(queueLoop);
+        pool.start();
+        verify(queueLoop, times(3)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+    }
+
     @Test
     public void should_shutdown() {
         QueueConfig queueConfig = new QueueConfig(
@@ -60,6 +111,25 @@ public class QueueExecutionPoolTest {
         verify(executor).shutdownNow();
     }
 
+    @Test
+    public void should_start_and_shutdown_acknowledgement_buffer() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        ExecutorService executor = mock(ExecutorService.class);
+        TaskAcknowledgementBuffer acknowledgementBuffer = mock(TaskAcknowledgementBuffer.class);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, executor, queueRunner,
+                acknowledgementBuffer, null);
+        pool.start();
+        verify(acknowledgementBuffer).start();
+        pool.shutdown();
+        verify(executor).shutdownNow();
+        verify(acknowledgementBuffer).shutdown();
+    }
+
     @Test
     public void should_pause() {
         QueueConfig queueConfig = new QueueConfig(
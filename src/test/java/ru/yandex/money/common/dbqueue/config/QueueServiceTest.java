@@ -2,6 +2,7 @@ package ru.yandex.money.common.dbqueue.config;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.transaction.support.TransactionOperations;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
@@ -20,6 +21,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -320,4 +322,80 @@ public class QueueServiceTest {
         verify(queueExecutionPool).awaitTermination(Duration.ofMinutes(1));
         verify(queueExecutionPool, times(2)).isTerminated();
     }
+
+    @Test
+    public void should_resize_queue_on_every_shard() {
+        QueueConsumer<?> consumer = mock(QueueConsumer.class);
+        QueueId queueId = new QueueId("queue1");
+        when(consumer.getQueueConfig()).thenReturn(new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(queueId).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(1)
+                        .withBetweenTaskTimeout(Duration.ZERO).build()));
+        QueueExecutionPool queueExecutionPool1 = mock(QueueExecutionPool.class);
+        QueueExecutionPool queueExecutionPool2 = mock(QueueExecutionPool.class);
+        when(queueExecutionPool2.getThreadCount()).thenReturn(3);
+        QueueShard shard2 = new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
+                new QueueShardId("s2"), mock(JdbcOperations.class), mock(TransactionOperations.class));
+        QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD, shard2),
+                (shard, queueConsumer) -> shard.getShardId().equals(DEFAULT_SHARD.getShardId()) ?
+                        queueExecutionPool1 : queueExecutionPool2);
+
+        assertTrue(queueService.registerQueue(consumer));
+        queueService.resize(queueId, 3);
+
+        verify(queueExecutionPool1).resize(3);
+        verify(queueExecutionPool2).resize(3);
+        assertThat(queueService.getThreadCount(queueId), equalTo(3));
+        assertThat(queueService.getShardCount(), equalTo(2));
+    }
+
+    @Test
+    public void should_wakeup_queue_by_notifications_when_notification_channel_specified() {
+        QueueConsumer<?> consumer = mock(QueueConsumer.class);
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("queue1")).withNotificationChannel("test_channel").build();
+        when(consumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(1)
+                        .withBetweenTaskTimeout(Duration.ZERO).build()));
+        QueueExecutionPool queueExecutionPool = mock(QueueExecutionPool.class);
+        PostgresNotificationListener notificationListener = mock(PostgresNotificationListener.class);
+        QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> queueExecutionPool, shard -> notificationListener);
+
+        assertTrue(queueService.registerQueue(consumer));
+        ArgumentCaptor<Runnable> wakeupCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(notificationListener).register(eq(location), wakeupCaptor.capture());
+        wakeupCaptor.getValue().run();
+        verify(queueExecutionPool).wakeup();
+
+        queueService.start();
+        verify(notificationListener).start();
+        queueService.shutdown();
+        verify(notificationListener).shutdown();
+    }
+
+    @Test
+    public void should_not_listen_notifications_when_notification_channel_not_specified() {
+        QueueConsumer<?> consumer = mock(QueueConsumer.class);
+        when(consumer.getQueueConfig()).thenReturn(new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(1)
+                        .withBetweenTaskTimeout(Duration.ZERO).build()));
+        PostgresNotificationListener notificationListener = mock(PostgresNotificationListener.class);
+        QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> mock(QueueExecutionPool.class), shard -> notificationListener);
+
+        assertTrue(queueService.registerQueue(consumer));
+        queueService.start();
+        queueService.shutdown();
+        verifyZeroInteractions(notificationListener);
+    }
 }
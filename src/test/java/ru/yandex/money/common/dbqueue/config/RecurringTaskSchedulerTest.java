@@ -0,0 +1,90 @@
+package ru.yandex.money.common.dbqueue.config;
+
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.Task;
+import ru.yandex.money.common.dbqueue.api.TaskExecutionResult;
+import ru.yandex.money.common.dbqueue.dao.QueueDao;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+import ru.yandex.money.common.dbqueue.settings.RecurringSchedule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RecurringTaskSchedulerTest {
+
+    private static final QueueShardId SHARD_ID = new QueueShardId("s1");
+    private static final QueueConfig QUEUE_CONFIG = new QueueConfig(
+            QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("recurring")).build(),
+            QueueSettings.builder()
+                    .withNoTaskTimeout(Duration.ZERO)
+                    .withBetweenTaskTimeout(Duration.ZERO).build());
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-16T10:00:30.500Z"), ZoneOffset.UTC);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_require_dedup_key_field() {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getQueueTableSchema()).thenReturn(QueueTableSchema.builder().build());
+        new RecurringTaskScheduler(QUEUE_CONFIG, queueShard, CLOCK);
+    }
+
+    @Test
+    public void should_enqueue_task_to_next_fire_time_on_registration() {
+        QueueDao queueDao = mock(QueueDao.class);
+        RecurringTaskScheduler scheduler = new RecurringTaskScheduler(QUEUE_CONFIG, createShard(queueDao), CLOCK);
+
+        scheduler.register("report", RecurringSchedule.fixedRate(Duration.ofMinutes(1)),
+                task -> TaskExecutionResult.finish());
+
+        verify(queueDao).enqueue(QUEUE_CONFIG.getLocation(), EnqueueParams.create("report")
+                .withDedupKey("report").withExecutionDelay(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    public void should_reenqueue_executed_task_to_next_fire_time() {
+        RecurringTaskScheduler scheduler = new RecurringTaskScheduler(QUEUE_CONFIG,
+                createShard(mock(QueueDao.class)), CLOCK);
+        scheduler.register("report", RecurringSchedule.fixedRate(Duration.ofMinutes(1)),
+                task -> TaskExecutionResult.finish());
+        scheduler.register("failing", RecurringSchedule.fixedRate(Duration.ofMinutes(1)),
+                task -> TaskExecutionResult.fail());
+
+        assertThat(scheduler.execute(Task.<String>builder(SHARD_ID).withPayload("report").build()),
+                equalTo(TaskExecutionResult.reenqueue(Duration.ofSeconds(30))));
+        assertThat(scheduler.execute(Task.<String>builder(SHARD_ID).withPayload("failing").build()),
+                equalTo(TaskExecutionResult.fail()));
+        assertThat(scheduler.execute(Task.<String>builder(SHARD_ID).withPayload("unknown").build()),
+                equalTo(TaskExecutionResult.fail()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QueueShard createShard(QueueDao queueDao) {
+        TransactionOperations transactionTemplate = mock(TransactionOperations.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(SHARD_ID);
+        when(queueShard.getQueueTableSchema()).thenReturn(QueueTableSchema.builder().withDedupKeyField("dk").build());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+        when(queueShard.getTransactionTemplate()).thenReturn(transactionTemplate);
+        return queueShard;
+    }
+}
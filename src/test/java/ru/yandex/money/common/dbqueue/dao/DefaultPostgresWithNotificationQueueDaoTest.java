@@ -0,0 +1,32 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+import java.util.UUID;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DefaultPostgresWithNotificationQueueDaoTest extends QueueDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    public DefaultPostgresWithNotificationQueueDaoTest() {
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.DEFAULT_SCHEMA),
+                PostgresDatabaseInitializer.DEFAULT_TABLE_NAME, PostgresDatabaseInitializer.DEFAULT_SCHEMA,
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+    }
+
+    protected QueueLocation generateUniqueLocation() {
+        return QueueLocation.builder().withTableName(tableName)
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID()))
+                .withNotificationChannel("queue_tasks").build();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DonePostgresQueueDaoTest extends QueueDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    public DonePostgresQueueDaoTest() {
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.DONE_SCHEMA),
+                PostgresDatabaseInitializer.DONE_TABLE_NAME, PostgresDatabaseInitializer.DONE_SCHEMA,
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+    }
+}
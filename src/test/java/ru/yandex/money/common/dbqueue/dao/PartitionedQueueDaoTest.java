@@ -0,0 +1,143 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PartitionedQueueDaoTest {
+
+    private static final QueueLocation LOCATION = QueueLocation.builder().withTableName("queue")
+            .withQueueId(new QueueId("test")).withPartitionCount(3).build();
+
+    @Test
+    public void should_pass_not_partitioned_queue_as_is() {
+        QueueLocation location = QueueLocation.builder().withTableName("queue")
+                .withQueueId(new QueueId("test")).build();
+        QueueDao queueDao = mock(QueueDao.class);
+        EnqueueParams<String> enqueueParams = EnqueueParams.create("1");
+        when(queueDao.enqueue(location, enqueueParams)).thenReturn(4L);
+        PartitionedQueueDao partitionedQueueDao = new PartitionedQueueDao(queueDao);
+
+        assertThat(partitionedQueueDao.enqueue(location, enqueueParams), equalTo(4L));
+        partitionedQueueDao.deleteTask(location, 4L);
+
+        verify(queueDao).deleteTask(location, 4L);
+    }
+
+    @Test
+    public void should_distribute_tasks_without_keys_in_turn() {
+        QueueDao queueDao = mock(QueueDao.class);
+        EnqueueParams<String> enqueueParams = EnqueueParams.create("1");
+        when(queueDao.enqueue(LOCATION.getPartition(0), enqueueParams)).thenReturn(3L);
+        when(queueDao.enqueue(LOCATION.getPartition(1), enqueueParams)).thenReturn(4L);
+        when(queueDao.enqueue(LOCATION.getPartition(2), enqueueParams)).thenReturn(5L);
+        PartitionedQueueDao partitionedQueueDao = new PartitionedQueueDao(queueDao);
+
+        assertThat(Arrays.asList(partitionedQueueDao.enqueue(LOCATION, enqueueParams),
+                partitionedQueueDao.enqueue(LOCATION, enqueueParams),
+                partitionedQueueDao.enqueue(LOCATION, enqueueParams),
+                partitionedQueueDao.enqueue(LOCATION, enqueueParams)), equalTo(Arrays.asList(3L, 4L, 5L, 3L)));
+    }
+
+    @Test
+    public void should_store_tasks_with_same_ordering_key_in_same_partition() {
+        QueueDao queueDao = mock(QueueDao.class);
+        EnqueueParams<String> first = EnqueueParams.create("1").withOrderingKey("key");
+        EnqueueParams<String> second = EnqueueParams.create("2").withOrderingKey("key");
+        QueueLocation partition = LOCATION.getPartition(Math.floorMod("key".hashCode(), 3));
+        PartitionedQueueDao partitionedQueueDao = new PartitionedQueueDao(queueDao);
+
+        partitionedQueueDao.enqueue(LOCATION, first);
+        partitionedQueueDao.enqueue(LOCATION, second);
+
+        verify(queueDao).enqueue(partition, first);
+        verify(queueDao).enqueue(partition, second);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_enqueue_task_with_ordering_and_dedup_keys_in_partitioned_queue() {
+        new PartitionedQueueDao(mock(QueueDao.class)).enqueue(LOCATION,
+                EnqueueParams.create("1").withOrderingKey("key").withDedupKey("dedup"));
+    }
+
+    @Test
+    public void should_not_enqueue_batch_with_ordering_and_dedup_keys_in_partitioned_queue() {
+        QueueDao queueDao = mock(QueueDao.class);
+        try {
+            new PartitionedQueueDao(queueDao).enqueueBatch(LOCATION, Arrays.asList(EnqueueParams.create("1"),
+                    EnqueueParams.create("2").withOrderingKey("key").withDedupKey("dedup")));
+            fail("exception is expected");
+        } catch (IllegalArgumentException ignored) {
+        }
+        verify(queueDao, never()).enqueueBatch(any(), any());
+    }
+
+    @Test
+    public void should_return_batch_ids_in_order_of_tasks() {
+        QueueDao queueDao = mock(QueueDao.class);
+        EnqueueParams<String> first = EnqueueParams.create("1");
+        EnqueueParams<String> second = EnqueueParams.create("2");
+        EnqueueParams<String> third = EnqueueParams.create("3");
+        EnqueueParams<String> fourth = EnqueueParams.create("4");
+        when(queueDao.enqueueBatch(LOCATION.getPartition(0), Arrays.asList(first, fourth)))
+                .thenReturn(Arrays.asList(3L, 6L));
+        when(queueDao.enqueueBatch(LOCATION.getPartition(1), Collections.singletonList(second)))
+                .thenReturn(Collections.singletonList(4L));
+        when(queueDao.enqueueBatch(LOCATION.getPartition(2), Collections.singletonList(third)))
+                .thenReturn(Collections.singletonList(5L));
+
+        List<Long> ids = new PartitionedQueueDao(queueDao).enqueueBatch(LOCATION,
+                Arrays.asList(first, second, third, fourth));
+
+        assertThat(ids, equalTo(Arrays.asList(3L, 4L, 5L, 6L)));
+    }
+
+    @Test
+    public void should_route_task_operations_by_id() {
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.deleteTask(LOCATION.getPartition(2), 5L)).thenReturn(true);
+        when(queueDao.reenqueue(LOCATION.getPartition(1), 7L, Duration.ofSeconds(1L))).thenReturn(true);
+        when(queueDao.deleteTasks(LOCATION.getPartition(0), Arrays.asList(3L, 6L))).thenReturn(2);
+        when(queueDao.deleteTasks(LOCATION.getPartition(1), Collections.singletonList(4L))).thenReturn(1);
+        PartitionedQueueDao partitionedQueueDao = new PartitionedQueueDao(queueDao);
+
+        assertThat(partitionedQueueDao.deleteTask(LOCATION, 5L), equalTo(true));
+        assertThat(partitionedQueueDao.reenqueue(LOCATION, 7L, Duration.ofSeconds(1L)), equalTo(true));
+        assertThat(partitionedQueueDao.deleteTasks(LOCATION, Arrays.asList(3L, 4L, 6L)), equalTo(3));
+    }
+
+    @Test
+    public void should_find_queue_ready_in_any_partition() {
+        QueueLocation otherLocation = QueueLocation.builder().withTableName("queue")
+                .withQueueId(new QueueId("other")).withPartitionCount(3).build();
+        QueueDao queueDao = mock(QueueDao.class);
+        when(queueDao.findReadyQueues(anyCollection())).thenReturn(Collections.emptyList());
+        when(queueDao.findReadyQueues(Arrays.asList(LOCATION.getPartition(2), otherLocation.getPartition(2))))
+                .thenReturn(Collections.singletonList(otherLocation.getPartition(2)));
+
+        List<QueueLocation> readyQueues = new PartitionedQueueDao(queueDao)
+                .findReadyQueues(Arrays.asList(LOCATION, otherLocation));
+
+        assertThat(readyQueues, equalTo(Collections.singletonList(otherLocation)));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueCopyLoaderTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    @Test
+    public void load_should_save_all_values() {
+        QueueTableSchema tableSchema = PostgresDatabaseInitializer.CUSTOM_SCHEMA;
+        QueueLocation location = generateUniqueLocation(PostgresDatabaseInitializer.CUSTOM_TABLE_NAME);
+        PostgresQueueCopyLoader loader = new PostgresQueueCopyLoader(PostgresDatabaseInitializer.getJdbcTemplate(),
+                tableSchema);
+        String extField = tableSchema.getExtFields().get(0);
+        ZonedDateTime beforeExecution = ZonedDateTime.now();
+
+        Long loadedCount = PostgresDatabaseInitializer.getTransactionTemplate().execute(status ->
+                loader.load(location, Arrays.asList(
+                        EnqueueParams.create("{\"a\": \"b,\nc\"}").withExtData(extField, "trace"),
+                        new EnqueueParams<String>().withExecutionDelay(Duration.ofHours(1L))).iterator()));
+
+        Assert.assertThat(loadedCount, equalTo(2L));
+        List<String> payloads = new ArrayList<>();
+        List<String> extValues = new ArrayList<>();
+        List<ZonedDateTime> processTimes = new ArrayList<>();
+        PostgresDatabaseInitializer.getJdbcTemplate().query("select * from " + location.getTableName() +
+                " where " + tableSchema.getQueueNameField() + "='" + location.getQueueId().asString() +
+                "' order by " + tableSchema.getIdField(), rs -> {
+            payloads.add(rs.getString(tableSchema.getPayloadField()));
+            extValues.add(rs.getString(extField));
+            processTimes.add(ZonedDateTime.ofInstant(
+                    rs.getTimestamp(tableSchema.getNextProcessAtField()).toInstant(), beforeExecution.getZone()));
+        });
+        Assert.assertThat(payloads, equalTo(Arrays.asList("{\"a\": \"b,\nc\"}", null)));
+        Assert.assertThat(extValues, equalTo(Arrays.asList("trace", null)));
+        Assert.assertThat(processTimes.get(1).isAfter(beforeExecution.plusMinutes(59L)), equalTo(true));
+    }
+
+    @Test
+    public void load_should_stream_many_tasks() {
+        QueueLocation location = generateUniqueLocation(PostgresDatabaseInitializer.DEFAULT_TABLE_NAME);
+        PostgresQueueCopyLoader loader = new PostgresQueueCopyLoader(PostgresDatabaseInitializer.getJdbcTemplate(),
+                PostgresDatabaseInitializer.DEFAULT_SCHEMA);
+
+        Long loadedCount = PostgresDatabaseInitializer.getTransactionTemplate().execute(status ->
+                loader.load(location, IntStream.range(0, 10000)
+                        .mapToObj(i -> EnqueueParams.create(String.valueOf(i))).iterator()));
+
+        Assert.assertThat(loadedCount, equalTo(10000L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void load_should_fail_when_id_sequence_specified() {
+        QueueLocation location = QueueLocation.builder()
+                .withTableName(PostgresDatabaseInitializer.DEFAULT_TABLE_NAME_WO_INC)
+                .withIdSequence("tasks_seq")
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID())).build();
+        new PostgresQueueCopyLoader(PostgresDatabaseInitializer.getJdbcTemplate(),
+                PostgresDatabaseInitializer.DEFAULT_SCHEMA)
+                .load(location, Arrays.asList(EnqueueParams.create("1")).iterator());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void load_should_fail_when_dedup_key_specified() {
+        new PostgresQueueCopyLoader(PostgresDatabaseInitializer.getJdbcTemplate(),
+                PostgresDatabaseInitializer.DEFAULT_SCHEMA)
+                .load(generateUniqueLocation(PostgresDatabaseInitializer.DEFAULT_TABLE_NAME), Arrays.asList(
+                        EnqueueParams.create("1"), EnqueueParams.create("2").withDedupKey("key")).iterator());
+    }
+
+    private static QueueLocation generateUniqueLocation(String tableName) {
+        return QueueLocation.builder().withTableName(tableName)
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID())).build();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class PostgresQueueRateLimitDaoTest {
+
+    /**
+     * Окно в сутки, чтобы текущее окно не сменилось во время теста
+     */
+    private static final long WINDOW_MILLIS = 86_400_000L;
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    private final QueueRateLimitDao rateLimitDao = new QueueRateLimitDao(DatabaseDialect.POSTGRESQL,
+            PostgresDatabaseInitializer.getJdbcTemplate(), QueueRateLimitDao.DEFAULT_TABLE_NAME);
+
+    @Test
+    public void should_limit_tokens_in_window() {
+        QueueId queueId = new QueueId("rate-limit-" + UUID.randomUUID());
+        assertNotNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 3L, 2));
+        assertNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 3L, 2));
+        assertNotNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 3L, 1));
+        assertNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 3L, 1));
+    }
+
+    @Test
+    public void should_take_window_from_database_clock() {
+        QueueId queueId = new QueueId("rate-limit-" + UUID.randomUUID());
+        Long windowStart = rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 3L, 1);
+        Long databaseMillis = PostgresDatabaseInitializer.getJdbcTemplate().queryForObject(
+                "SELECT (extract(epoch FROM CURRENT_TIMESTAMP) * 1000)::BIGINT", Long.class);
+
+        assertNotNull(windowStart);
+        assertThat(windowStart % WINDOW_MILLIS, equalTo(0L));
+        assertTrue(windowStart <= databaseMillis && databaseMillis < windowStart + WINDOW_MILLIS);
+    }
+
+    @Test
+    public void should_reset_tokens_in_next_window() {
+        QueueId queueId = new QueueId("rate-limit-" + UUID.randomUUID());
+        Long windowStart = rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 2);
+        assertNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+        PostgresDatabaseInitializer.getJdbcTemplate().update("UPDATE " + QueueRateLimitDao.DEFAULT_TABLE_NAME +
+                " SET window_start = ? WHERE queue_name = ?", windowStart - WINDOW_MILLIS, queueId.asString());
+
+        assertThat(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 2), equalTo(windowStart));
+    }
+
+    @Test
+    public void should_release_tokens_to_window() {
+        QueueId queueId = new QueueId("rate-limit-" + UUID.randomUUID());
+        Long windowStart = rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 2);
+        assertNotNull(windowStart);
+
+        rateLimitDao.release(queueId, windowStart, 1);
+
+        assertNotNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+        assertNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+    }
+
+    @Test
+    public void should_not_release_tokens_to_passed_window() {
+        QueueId queueId = new QueueId("rate-limit-" + UUID.randomUUID());
+        Long windowStart = rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 2);
+        assertNotNull(windowStart);
+
+        rateLimitDao.release(queueId, windowStart - WINDOW_MILLIS, 2);
+
+        assertNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+    }
+
+    @Test
+    public void should_share_tokens_between_nodes() {
+        QueueId queueId = new QueueId("rate-limit-" + UUID.randomUUID());
+        QueueRateLimitDao otherNodeDao = new QueueRateLimitDao(DatabaseDialect.POSTGRESQL,
+                PostgresDatabaseInitializer.getJdbcTemplate(), QueueRateLimitDao.DEFAULT_TABLE_NAME);
+        assertNotNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+        assertNotNull(otherNodeDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+        assertNull(otherNodeDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+        assertNull(rateLimitDao.tryAcquire(queueId, WINDOW_MILLIS, 2L, 1));
+    }
+}
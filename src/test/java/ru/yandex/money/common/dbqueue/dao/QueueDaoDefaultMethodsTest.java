@@ -0,0 +1,55 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class QueueDaoDefaultMethodsTest {
+
+    private static final QueueLocation LOCATION = QueueLocation.builder().withTableName("queue")
+            .withQueueId(new QueueId("test")).build();
+
+    @Test
+    public void should_enqueue_batch_one_by_one() {
+        QueueDao queueDao = mock(QueueDao.class, CALLS_REAL_METHODS);
+        EnqueueParams<String> first = EnqueueParams.create("1");
+        EnqueueParams<String> second = EnqueueParams.create("2");
+        doReturn(3L).when(queueDao).enqueue(LOCATION, first);
+        doReturn(4L).when(queueDao).enqueue(LOCATION, second);
+
+        assertThat(queueDao.enqueueBatch(LOCATION, Arrays.asList(first, second)), equalTo(Arrays.asList(3L, 4L)));
+    }
+
+    @Test
+    public void should_delete_tasks_one_by_one() {
+        QueueDao queueDao = mock(QueueDao.class, CALLS_REAL_METHODS);
+        doReturn(true).when(queueDao).deleteTask(LOCATION, 3L);
+        doReturn(false).when(queueDao).deleteTask(LOCATION, 4L);
+        doReturn(true).when(queueDao).deleteTask(LOCATION, 5L);
+
+        assertThat(queueDao.deleteTasks(LOCATION, Arrays.asList(3L, 4L, 5L)), equalTo(2));
+    }
+
+    @Test
+    public void should_consider_all_queues_ready() {
+        QueueLocation otherLocation = QueueLocation.builder().withTableName("queue")
+                .withQueueId(new QueueId("other")).build();
+        QueueDao queueDao = mock(QueueDao.class, CALLS_REAL_METHODS);
+
+        assertThat(queueDao.findReadyQueues(Arrays.asList(LOCATION, otherLocation)),
+                equalTo(Arrays.asList(LOCATION, otherLocation)));
+    }
+}
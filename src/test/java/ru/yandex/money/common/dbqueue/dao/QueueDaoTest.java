@@ -1,6 +1,7 @@
 package ru.yandex.money.common.dbqueue.dao;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -12,11 +13,19 @@ import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
 import ru.yandex.money.common.dbqueue.settings.QueueId;
 import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 
+import java.sql.ResultSet;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
@@ -82,6 +91,72 @@ public abstract class QueueDaoTest {
         });
     }
 
+    @Test
+    public void enqueue_batch_should_return_ids_in_order_of_params() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        List<Long> enqueueIds = executeInTransaction(() -> queueDao.enqueueBatch(location, Arrays.asList(
+                EnqueueParams.create("first"), EnqueueParams.create("second"),
+                EnqueueParams.create("third").withExecutionDelay(Duration.ofHours(1L)))));
+        Assert.assertThat(enqueueIds.size(), equalTo(3));
+        List<String> payloads = Arrays.asList("first", "second", "third");
+        for (int i = 0; i < payloads.size(); i++) {
+            String payload = payloads.get(i);
+            jdbcTemplate.query("select * from " + tableName + " where " + tableSchema.getIdField() + "=" +
+                    enqueueIds.get(i), rs -> {
+                Assert.assertThat(rs.next(), equalTo(true));
+                Assert.assertThat(rs.getString(tableSchema.getPayloadField()), equalTo(payload));
+                return new Object();
+            });
+        }
+    }
+
+    @Test
+    public void enqueue_batch_should_map_ids_to_params_of_several_statements() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        List<EnqueueParams<String>> enqueueParams = IntStream.range(0, 2500)
+                .mapToObj(i -> EnqueueParams.create(String.valueOf(i))).collect(Collectors.toList());
+        List<Long> enqueueIds = executeInTransaction(() -> queueDao.enqueueBatch(location, enqueueParams));
+        Map<Long, String> payloads = new HashMap<>();
+        jdbcTemplate.query("select " + tableSchema.getIdField() + ", " + tableSchema.getPayloadField() +
+                " from " + tableName + " where " + tableSchema.getQueueNameField() + "='" +
+                location.getQueueId().asString() + "'", (ResultSet rs) -> {
+            payloads.put(rs.getLong(1), rs.getString(2));
+        });
+        Assert.assertThat(enqueueIds.size(), equalTo(enqueueParams.size()));
+        for (int i = 0; i < enqueueIds.size(); i++) {
+            Assert.assertThat(payloads.get(enqueueIds.get(i)), equalTo(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void enqueue_batch_should_return_empty_list_when_no_params_given() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        List<Long> enqueueIds = executeInTransaction(() -> queueDao.enqueueBatch(location, Collections.emptyList()));
+        Assert.assertThat(enqueueIds, equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void enqueue_should_return_existing_task_with_same_dedup_key() throws Exception {
+        Assume.assumeTrue(tableSchema.getDedupKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        Long firstId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("first").withDedupKey("key")));
+        Long retriedId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("retried").withDedupKey("key")));
+        List<Long> batchIds = executeInTransaction(() -> queueDao.enqueueBatch(location, Arrays.asList(
+                EnqueueParams.create("other").withDedupKey("other-key"),
+                EnqueueParams.create("retried").withDedupKey("key"))));
+
+        Assert.assertThat(retriedId, equalTo(firstId));
+        Assert.assertThat(batchIds.get(0), not(equalTo(firstId)));
+        Assert.assertThat(batchIds.get(1), equalTo(firstId));
+        jdbcTemplate.query("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + firstId, rs -> {
+            Assert.assertThat(rs.next(), equalTo(true));
+            Assert.assertThat(rs.getString(tableSchema.getPayloadField()), equalTo("first"));
+            return new Object();
+        });
+    }
+
     @Test
     public void delete_should_return_false_when_no_deletion() throws Exception {
         QueueLocation location = generateUniqueLocation();
@@ -96,12 +171,86 @@ public abstract class QueueDaoTest {
 
         Boolean deleteResult = executeInTransaction(() -> queueDao.deleteTask(location, enqueueId));
         Assert.assertThat(deleteResult, equalTo(true));
+        jdbcTemplate.query("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + enqueueId +
+                notDoneSql(), rs -> {
+            Assert.assertThat(rs.next(), equalTo(false));
+            return new Object();
+        });
+    }
+
+    @Test
+    public void delete_should_mark_task_done_when_done_at_field_given() throws Exception {
+        Assume.assumeTrue(tableSchema.getDoneAtField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        Long enqueueId = executeInTransaction(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+
+        Boolean firstDeleteResult = executeInTransaction(() -> queueDao.deleteTask(location, enqueueId));
+        Boolean secondDeleteResult = executeInTransaction(() -> queueDao.deleteTask(location, enqueueId));
+        Boolean reenqueueResult = executeInTransaction(() -> queueDao.reenqueue(location, enqueueId, Duration.ZERO));
+
+        Assert.assertThat(firstDeleteResult, equalTo(true));
+        Assert.assertThat(secondDeleteResult, equalTo(false));
+        Assert.assertThat(reenqueueResult, equalTo(false));
         jdbcTemplate.query("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + enqueueId, rs -> {
+            Assert.assertThat(rs.next(), equalTo(true));
+            Assert.assertThat(rs.getTimestamp(tableSchema.getDoneAtField().get()), not(equalTo(null)));
+            return new Object();
+        });
+    }
+
+    @Test
+    public void enqueue_should_accept_dedup_key_of_done_task() throws Exception {
+        Assume.assumeTrue(tableSchema.getDedupKeyField().isPresent() && tableSchema.getDoneAtField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        Long firstId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("first").withDedupKey("key")));
+        executeInTransaction(() -> queueDao.deleteTask(location, firstId));
+        Long secondId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("second").withDedupKey("key")));
+
+        Assert.assertThat(secondId, not(equalTo(firstId)));
+    }
+
+    @Test
+    public void delete_tasks_should_delete_only_given_tasks() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        Long firstId = executeInTransaction(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+        Long secondId = executeInTransaction(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+        Long thirdId = executeInTransaction(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+
+        Integer deletedCount = executeInTransaction(() -> queueDao.deleteTasks(location, Arrays.asList(firstId, thirdId, 0L)));
+        Assert.assertThat(deletedCount, equalTo(2));
+        jdbcTemplate.query("select * from " + tableName + " where " + tableSchema.getQueueNameField() + "='" +
+                location.getQueueId().asString() + "'" + notDoneSql(), rs -> {
+            Assert.assertThat(rs.next(), equalTo(true));
+            Assert.assertThat(rs.getLong(tableSchema.getIdField()), equalTo(secondId));
             Assert.assertThat(rs.next(), equalTo(false));
             return new Object();
         });
     }
 
+    @Test
+    public void delete_tasks_should_return_zero_when_no_tasks_given() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        Integer deletedCount = executeInTransaction(() -> queueDao.deleteTasks(location, Collections.emptyList()));
+        Assert.assertThat(deletedCount, equalTo(0));
+    }
+
+    @Test
+    public void find_ready_queues_should_return_only_queues_with_ready_tasks() throws Exception {
+        QueueLocation readyLocation = generateUniqueLocation();
+        QueueLocation delayedLocation = generateUniqueLocation();
+        QueueLocation emptyLocation = generateUniqueLocation();
+        executeInTransaction(() -> {
+            queueDao.enqueue(readyLocation, new EnqueueParams<>());
+            queueDao.enqueue(readyLocation, new EnqueueParams<>());
+            queueDao.enqueue(delayedLocation, new EnqueueParams<String>().withExecutionDelay(Duration.ofHours(1L)));
+        });
+        List<QueueLocation> readyLocations = executeInTransaction(() ->
+                queueDao.findReadyQueues(Arrays.asList(readyLocation, delayedLocation, emptyLocation)));
+        Assert.assertThat(readyLocations, equalTo(Collections.singletonList(readyLocation)));
+    }
+
     @Test
     public void reenqueue_should_update_next_process_time() throws Exception {
         QueueLocation location = generateUniqueLocation();
@@ -186,6 +335,10 @@ public abstract class QueueDaoTest {
     }
 
 
+    private String notDoneSql() {
+        return tableSchema.getDoneAtField().map(field -> " and " + field + " is null").orElse("");
+    }
+
     protected void executeInTransaction(Runnable runnable) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
             @Override
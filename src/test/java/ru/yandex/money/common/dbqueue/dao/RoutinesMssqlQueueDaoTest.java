@@ -0,0 +1,22 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.utils.MssqlDatabaseInitializer;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RoutinesMssqlQueueDaoTest extends QueueDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        MssqlDatabaseInitializer.initialize();
+    }
+
+    public RoutinesMssqlQueueDaoTest() {
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.ROUTINES_SCHEMA),
+                MssqlDatabaseInitializer.ROUTINES_TABLE_NAME, MssqlDatabaseInitializer.ROUTINES_SCHEMA,
+                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+    }
+}
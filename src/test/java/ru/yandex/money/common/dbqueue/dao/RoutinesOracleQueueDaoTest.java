@@ -0,0 +1,33 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.utils.OracleDatabaseInitializer;
+
+import java.util.UUID;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RoutinesOracleQueueDaoTest extends QueueDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        OracleDatabaseInitializer.initialize();
+    }
+
+    public RoutinesOracleQueueDaoTest() {
+        super(new Oracle11QueueDao(OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.ROUTINES_SCHEMA),
+                OracleDatabaseInitializer.ROUTINES_TABLE_NAME, OracleDatabaseInitializer.ROUTINES_SCHEMA,
+                OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.getTransactionTemplate());
+    }
+
+    @Override
+    protected QueueLocation generateUniqueLocation() {
+        return QueueLocation.builder().withTableName(tableName)
+                .withIdSequence("tasks_seq")
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID())).build();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.money.common.dbqueue.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RoutinesPostgresQueueDaoTest extends QueueDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    public RoutinesPostgresQueueDaoTest() {
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.ROUTINES_SCHEMA),
+                PostgresDatabaseInitializer.ROUTINES_TABLE_NAME, PostgresDatabaseInitializer.ROUTINES_SCHEMA,
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.money.common.dbqueue.internal.dao;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.api.TaskRecord;
+import ru.yandex.money.common.dbqueue.dao.Oracle11QueueDao;
+import ru.yandex.money.common.dbqueue.internal.pick.Oracle12QueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.internal.pick.PickTaskSettings;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
+import ru.yandex.money.common.dbqueue.utils.OracleDatabaseInitializer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DefaultOracle12QueuePickTaskDaoTest extends QueuePickTaskDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        OracleDatabaseInitializer.initialize();
+    }
+
+    public DefaultOracle12QueuePickTaskDaoTest() {
+        super(new Oracle11QueueDao(OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.DEFAULT_SCHEMA),
+                pickTaskSettings -> new Oracle12QueuePickTaskDao(OracleDatabaseInitializer.getJdbcTemplate(),
+                        OracleDatabaseInitializer.DEFAULT_SCHEMA, pickTaskSettings),
+                OracleDatabaseInitializer.DEFAULT_TABLE_NAME, OracleDatabaseInitializer.DEFAULT_SCHEMA,
+                OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.getTransactionTemplate());
+    }
+
+    @Test
+    public void pick_tasks_should_pick_earliest_tasks_first() {
+        QueueLocation location = generateUniqueLocation();
+        Oracle11QueueDao queueDao = new Oracle11QueueDao(jdbcTemplate, tableSchema);
+        Oracle12QueuePickTaskDao pickTaskDao = new Oracle12QueuePickTaskDao(jdbcTemplate, tableSchema,
+                new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofMinutes(1)));
+        Long lateId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("late").withExecutionDelay(Duration.ofMinutes(-1))));
+        Long earlyId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("early").withExecutionDelay(Duration.ofMinutes(-30))));
+        Long middleId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("middle").withExecutionDelay(Duration.ofMinutes(-10))));
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+        TaskRecord lastTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+
+        Assert.assertThat(firstBatch.stream().map(TaskRecord::getId).collect(Collectors.toSet()),
+                equalTo(new HashSet<>(Arrays.asList(earlyId, middleId))));
+        Assert.assertThat(lastTask.getId(), equalTo(lateId));
+    }
+
+    @Override
+    protected String currentTimeSql() {
+        return "CURRENT_TIMESTAMP";
+    }
+
+    @Override
+    protected QueueLocation generateUniqueLocation() {
+        return QueueLocation.builder().withTableName(tableName)
+                .withIdSequence("tasks_seq")
+                .withQueueId(new QueueId("test-queue-" + UUID.randomUUID())).build();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.yandex.money.common.dbqueue.internal.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.dao.PostgresQueueDao;
+import ru.yandex.money.common.dbqueue.internal.pick.PostgresQueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DonePostgresQueuePickTaskDaoTest extends QueuePickTaskDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    public DonePostgresQueuePickTaskDaoTest() {
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.DONE_SCHEMA),
+                pickTaskSettings -> new PostgresQueuePickTaskDao(PostgresDatabaseInitializer.getJdbcTemplate(),
+                        PostgresDatabaseInitializer.DONE_SCHEMA, pickTaskSettings),
+                PostgresDatabaseInitializer.DONE_TABLE_NAME, PostgresDatabaseInitializer.DONE_SCHEMA,
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+    }
+
+    @Override
+    protected String currentTimeSql() {
+        return "now()";
+    }
+}
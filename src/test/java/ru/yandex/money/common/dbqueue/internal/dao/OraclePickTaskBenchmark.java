@@ -0,0 +1,97 @@
+package ru.yandex.money.common.dbqueue.internal.dao;
+
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.dao.Oracle11QueueDao;
+import ru.yandex.money.common.dbqueue.internal.pick.Oracle11QueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.internal.pick.Oracle12QueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.internal.pick.PickTaskSettings;
+import ru.yandex.money.common.dbqueue.internal.pick.QueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
+import ru.yandex.money.common.dbqueue.utils.OracleDatabaseInitializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Замер задержки выборки задач в Oracle при большом количестве готовых задач.
+ * Запускается вручную, результаты выводятся в лог.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+@Ignore("benchmark, run manually")
+public class OraclePickTaskBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OraclePickTaskBenchmark.class);
+
+    private static final int BACKLOG_SIZE = 200_000;
+    private static final int ENQUEUE_BATCH_SIZE = 1000;
+    private static final int PICK_COUNT = 500;
+    private static final int PICK_BATCH_SIZE = 10;
+
+    private static final PickTaskSettings PICK_TASK_SETTINGS =
+            new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofHours(1));
+
+    @BeforeClass
+    public static void beforeClass() {
+        OracleDatabaseInitializer.initialize();
+    }
+
+    @Test
+    public void oracle11_pick_latency() {
+        measure("oracle11", new Oracle11QueuePickTaskDao(OracleDatabaseInitializer.getJdbcTemplate(),
+                OracleDatabaseInitializer.DEFAULT_SCHEMA, PICK_TASK_SETTINGS));
+    }
+
+    @Test
+    public void oracle12_pick_latency() {
+        measure("oracle12", new Oracle12QueuePickTaskDao(OracleDatabaseInitializer.getJdbcTemplate(),
+                OracleDatabaseInitializer.DEFAULT_SCHEMA, PICK_TASK_SETTINGS));
+    }
+
+    private static void measure(String name, QueuePickTaskDao pickTaskDao) {
+        QueueLocation location = fillBacklog();
+        long singleNanos = 0L;
+        for (int i = 0; i < PICK_COUNT; i++) {
+            long start = System.nanoTime();
+            OracleDatabaseInitializer.getTransactionTemplate().execute(status -> pickTaskDao.pickTask(location));
+            singleNanos += System.nanoTime() - start;
+        }
+        long batchNanos = 0L;
+        for (int i = 0; i < PICK_COUNT; i++) {
+            long start = System.nanoTime();
+            OracleDatabaseInitializer.getTransactionTemplate().execute(status ->
+                    pickTaskDao.pickTasks(location, PICK_BATCH_SIZE));
+            batchNanos += System.nanoTime() - start;
+        }
+        log.info("pick latency: dao={}, backlog={}, pickTask={}us, pickTasks({})={}us", name, BACKLOG_SIZE,
+                singleNanos / PICK_COUNT / 1000L, PICK_BATCH_SIZE, batchNanos / PICK_COUNT / 1000L);
+    }
+
+    private static QueueLocation fillBacklog() {
+        QueueLocation location = QueueLocation.builder()
+                .withTableName(OracleDatabaseInitializer.DEFAULT_TABLE_NAME)
+                .withIdSequence("tasks_seq")
+                .withQueueId(new QueueId("benchmark-" + UUID.randomUUID())).build();
+        Oracle11QueueDao queueDao = new Oracle11QueueDao(OracleDatabaseInitializer.getJdbcTemplate(),
+                OracleDatabaseInitializer.DEFAULT_SCHEMA);
+        for (int i = 0; i < BACKLOG_SIZE; i += ENQUEUE_BATCH_SIZE) {
+            List<EnqueueParams<String>> batch = new ArrayList<>(ENQUEUE_BATCH_SIZE);
+            for (int j = 0; j < ENQUEUE_BATCH_SIZE; j++) {
+                batch.add(EnqueueParams.create("{}").withExecutionDelay(Duration.ofMinutes(-1)));
+            }
+            OracleDatabaseInitializer.getTransactionTemplate().execute(status ->
+                    queueDao.enqueueBatch(location, batch));
+        }
+        return location;
+    }
+}
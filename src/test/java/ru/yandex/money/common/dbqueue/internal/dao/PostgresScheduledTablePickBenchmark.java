@@ -0,0 +1,110 @@
+package ru.yandex.money.common.dbqueue.internal.dao;
+
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.money.common.dbqueue.api.EnqueueParams;
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.config.PostgresQueueScheduledTaskMover;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.config.QueueShardId;
+import ru.yandex.money.common.dbqueue.dao.PostgresQueueDao;
+import ru.yandex.money.common.dbqueue.internal.pick.PickTaskSettings;
+import ru.yandex.money.common.dbqueue.internal.pick.PostgresQueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
+import ru.yandex.money.common.dbqueue.utils.PostgresDatabaseInitializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Замер задержки выборки задач в PostgreSQL при большом количестве задач, отложенных надолго,
+ * в одной таблице и с отдельной таблицей для отложенных задач.
+ * Запускается вручную, результаты выводятся в лог.
+ *
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+@Ignore("benchmark, run manually")
+public class PostgresScheduledTablePickBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresScheduledTablePickBenchmark.class);
+
+    private static final int SCHEDULED_BACKLOG_SIZE = 500_000;
+    private static final int ENQUEUE_BATCH_SIZE = 1000;
+    private static final int PICK_COUNT = 500;
+
+    private static final PickTaskSettings PICK_TASK_SETTINGS =
+            new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofHours(1));
+
+    @BeforeClass
+    public static void beforeClass() {
+        PostgresDatabaseInitializer.initialize();
+    }
+
+    @Test
+    public void single_table_pick_latency() {
+        String tableName = "queue_benchmark_single";
+        PostgresDatabaseInitializer.createDefaultTable(tableName);
+        measure("single", QueueLocation.builder().withTableName(tableName)
+                .withQueueId(new QueueId("benchmark-" + UUID.randomUUID())).build());
+    }
+
+    @Test
+    public void scheduled_table_pick_latency() {
+        String tableName = "queue_benchmark_hot";
+        PostgresDatabaseInitializer.createDefaultTable(tableName);
+        QueueLocation location = QueueLocation.builder().withTableName(tableName)
+                .withQueueId(new QueueId("benchmark-" + UUID.randomUUID()))
+                .withScheduledTableName("queue_benchmark_scheduled")
+                .withSchedulingThreshold(Duration.ofHours(1L)).build();
+        new PostgresQueueScheduledTaskMover(new QueueShard(DatabaseDialect.POSTGRESQL,
+                PostgresDatabaseInitializer.DEFAULT_SCHEMA, new QueueShardId("benchmark"),
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate()),
+                location).install();
+        measure("scheduled", location);
+    }
+
+    private static void measure(String name, QueueLocation location) {
+        fillBacklog(location);
+        PostgresDatabaseInitializer.getJdbcTemplate().execute("ANALYZE " + location.getTableName());
+        PostgresQueuePickTaskDao pickTaskDao = new PostgresQueuePickTaskDao(
+                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.DEFAULT_SCHEMA,
+                PICK_TASK_SETTINGS);
+        long pickNanos = 0L;
+        for (int i = 0; i < PICK_COUNT; i++) {
+            long start = System.nanoTime();
+            PostgresDatabaseInitializer.getTransactionTemplate().execute(status -> pickTaskDao.pickTask(location));
+            pickNanos += System.nanoTime() - start;
+        }
+        Long tableSize = PostgresDatabaseInitializer.getJdbcTemplate().queryForObject(
+                "SELECT pg_total_relation_size('" + location.getTableName() + "')", Long.class);
+        log.info("pick latency: layout={}, scheduled={}, pickTask={}us, queueTableSize={}kB", name,
+                SCHEDULED_BACKLOG_SIZE, pickNanos / PICK_COUNT / 1000L, tableSize / 1024L);
+    }
+
+    private static void fillBacklog(QueueLocation location) {
+        PostgresQueueDao queueDao = new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(),
+                PostgresDatabaseInitializer.DEFAULT_SCHEMA);
+        for (int i = 0; i < SCHEDULED_BACKLOG_SIZE; i += ENQUEUE_BATCH_SIZE) {
+            List<EnqueueParams<String>> batch = new ArrayList<>(ENQUEUE_BATCH_SIZE);
+            for (int j = 0; j < ENQUEUE_BATCH_SIZE; j++) {
+                batch.add(EnqueueParams.create("{}").withExecutionDelay(Duration.ofDays(1L + j % 30)));
+            }
+            PostgresDatabaseInitializer.getTransactionTemplate().execute(status ->
+                    queueDao.enqueueBatch(location, batch));
+        }
+        List<EnqueueParams<String>> ready = new ArrayList<>(PICK_COUNT);
+        for (int i = 0; i < PICK_COUNT; i++) {
+            ready.add(EnqueueParams.create("{}").withExecutionDelay(Duration.ofMinutes(-1)));
+        }
+        PostgresDatabaseInitializer.getTransactionTemplate().execute(status ->
+                queueDao.enqueueBatch(location, ready));
+    }
+}
@@ -1,6 +1,7 @@
 package ru.yandex.money.common.dbqueue.internal.dao;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -20,6 +21,9 @@ import ru.yandex.money.common.dbqueue.settings.TaskRetryType;
 import java.math.BigInteger;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Function;
@@ -171,6 +175,129 @@ public abstract class QueuePickTaskDaoTest {
         }
     }
 
+    @Test
+    public void pick_tasks_should_return_no_more_than_limit() {
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofMinutes(1)));
+        HashSet<Long> enqueueIds = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            enqueueIds.add(executeInTransaction(() -> queueDao.enqueue(location, EnqueueParams.create("{}"))));
+        }
+        executeInTransaction(() -> {
+            jdbcTemplate.update("update " + tableName +
+                    " set " + tableSchema.getNextProcessAtField() + "= " + currentTimeSql() +
+                    " where " + tableSchema.getQueueNameField() + "='" + location.getQueueId().asString() + "'");
+        });
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+        List<TaskRecord> secondBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+        List<TaskRecord> thirdBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+
+        Assert.assertThat(firstBatch.size(), equalTo(2));
+        Assert.assertThat(secondBatch.size(), equalTo(1));
+        Assert.assertThat(thirdBatch.isEmpty(), equalTo(true));
+        HashSet<Long> pickedIds = new HashSet<>();
+        firstBatch.forEach(taskRecord -> {
+            Assert.assertThat(taskRecord.getAttemptsCount(), equalTo(1L));
+            Assert.assertThat(taskRecord.getPayload(), equalTo("{}"));
+            pickedIds.add(taskRecord.getId());
+        });
+        secondBatch.forEach(taskRecord -> pickedIds.add(taskRecord.getId()));
+        Assert.assertThat(pickedIds, equalTo(enqueueIds));
+    }
+
+    @Test
+    public void pick_task_should_pick_task_with_greater_priority_first() {
+        Assume.assumeTrue(tableSchema.getPriorityField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofMinutes(1)));
+        Long bulkId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("bulk").withExecutionDelay(Duration.ofMinutes(-10))));
+        Long urgentId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("urgent").withExecutionDelay(Duration.ofMinutes(-1)).withPriority(10)));
+
+        TaskRecord firstTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+        TaskRecord secondTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+
+        Assert.assertThat(Objects.requireNonNull(firstTask).getId(), equalTo(urgentId));
+        Assert.assertThat(Objects.requireNonNull(secondTask).getId(), equalTo(bulkId));
+    }
+
+    @Test
+    public void pick_task_should_raise_priority_of_waiting_task() {
+        Assume.assumeTrue(tableSchema.getPriorityField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF,
+                Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        Long bulkId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("bulk").withExecutionDelay(Duration.ofHours(-1))));
+        Long urgentId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("urgent").withExecutionDelay(Duration.ofMinutes(-1)).withPriority(10)));
+
+        TaskRecord firstTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+        TaskRecord secondTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+
+        Assert.assertThat(Objects.requireNonNull(firstTask).getId(), equalTo(bulkId));
+        Assert.assertThat(Objects.requireNonNull(secondTask).getId(), equalTo(urgentId));
+    }
+
+    @Test
+    public void pick_tasks_should_process_tasks_with_same_ordering_key_sequentially() {
+        Assume.assumeTrue(tableSchema.getOrderingKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofMinutes(1)));
+        Long firstId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("first").withExecutionDelay(Duration.ofMinutes(-10)).withOrderingKey("account-1")));
+        Long secondId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("second").withExecutionDelay(Duration.ofMinutes(-10)).withOrderingKey("account-1")));
+        Long otherId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("other").withExecutionDelay(Duration.ofMinutes(-10)).withOrderingKey("account-2")));
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+        List<TaskRecord> secondBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+        executeInTransaction(() -> queueDao.deleteTask(location, firstId));
+        List<TaskRecord> thirdBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+
+        HashSet<Long> firstBatchIds = new HashSet<>();
+        firstBatch.forEach(taskRecord -> firstBatchIds.add(taskRecord.getId()));
+        Assert.assertThat(firstBatchIds, equalTo(new HashSet<>(Arrays.asList(firstId, otherId))));
+        Assert.assertThat(secondBatch.isEmpty(), equalTo(true));
+        Assert.assertThat(thirdBatch.size(), equalTo(1));
+        Assert.assertThat(thirdBatch.get(0).getId(), equalTo(secondId));
+    }
+
+    @Test
+    public void pick_tasks_should_not_process_task_before_delayed_older_task_of_same_key() {
+        Assume.assumeTrue(tableSchema.getOrderingKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.LINEAR_BACKOFF, Duration.ofMinutes(1)));
+        Long delayedId = executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("delayed").withExecutionDelay(Duration.ofMinutes(10)).withOrderingKey("account-1")));
+        executeInTransaction(() -> queueDao.enqueue(location,
+                EnqueueParams.create("ready").withExecutionDelay(Duration.ofMinutes(-10)).withOrderingKey("account-1")));
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+        executeInTransaction(() -> queueDao.deleteTask(location, delayedId));
+        List<TaskRecord> secondBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+
+        Assert.assertThat(firstBatch.isEmpty(), equalTo(true));
+        Assert.assertThat(secondBatch.size(), equalTo(1));
+    }
+
+    @Test
+    public void pick_task_should_skip_done_task() {
+        Assume.assumeTrue(tableSchema.getDoneAtField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+        Long enqueueId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withExecutionDelay(Duration.ofMinutes(-10))));
+        executeInTransaction(() -> queueDao.deleteTask(location, enqueueId));
+
+        TaskRecord taskRecord = executeInTransaction(() -> pickTaskDao.pickTask(location));
+
+        Assert.assertThat(taskRecord, is(nullValue()));
+    }
+
     private TaskRecord resetProcessTimeAndPick(QueueLocation location, QueuePickTaskDao pickTaskDao, Long enqueueId) {
         executeInTransaction(() -> {
             jdbcTemplate.update("update " + tableName +
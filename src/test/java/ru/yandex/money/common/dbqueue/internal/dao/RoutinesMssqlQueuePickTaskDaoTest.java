@@ -0,0 +1,31 @@
+package ru.yandex.money.common.dbqueue.internal.dao;
+
+import org.junit.BeforeClass;
+import ru.yandex.money.common.dbqueue.dao.MssqlQueueDao;
+import ru.yandex.money.common.dbqueue.internal.pick.MssqlQueuePickTaskDao;
+import ru.yandex.money.common.dbqueue.utils.MssqlDatabaseInitializer;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RoutinesMssqlQueuePickTaskDaoTest extends QueuePickTaskDaoTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        MssqlDatabaseInitializer.initialize();
+    }
+
+    public RoutinesMssqlQueuePickTaskDaoTest() {
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.ROUTINES_SCHEMA),
+                pickTaskSettings -> new MssqlQueuePickTaskDao(MssqlDatabaseInitializer.getJdbcTemplate(),
+                        MssqlDatabaseInitializer.ROUTINES_SCHEMA, pickTaskSettings),
+                MssqlDatabaseInitializer.ROUTINES_TABLE_NAME, MssqlDatabaseInitializer.ROUTINES_SCHEMA,
+                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+    }
+
+    @Override
+    protected String currentTimeSql() {
+        return "SYSDATETIMEOFFSET()";
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.dao.QueueRateLimitDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class DistributedTaskRateLimiterTest {
+
+    private static final QueueId QUEUE_ID = new QueueId("queue");
+
+    @Test
+    public void should_acquire_tokens_in_current_window() {
+        QueueRateLimitDao rateLimitDao = mock(QueueRateLimitDao.class);
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 1000L, 10L, 3)).thenReturn(5000L);
+        DistributedTaskRateLimiter rateLimiter = new DistributedTaskRateLimiter(QUEUE_ID, 10.0, rateLimitDao);
+
+        assertThat(rateLimiter.tryAcquire(3), equalTo(3));
+    }
+
+    @Test
+    public void should_acquire_single_token_when_batch_exceeds_limit() {
+        QueueRateLimitDao rateLimitDao = mock(QueueRateLimitDao.class);
+        // mock returns 0 for Long, so the exhausted window is stubbed explicitly
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 1000L, 10L, 10)).thenReturn(null);
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 1000L, 10L, 1)).thenReturn(5000L);
+        DistributedTaskRateLimiter rateLimiter = new DistributedTaskRateLimiter(QUEUE_ID, 10.0, rateLimitDao);
+
+        assertThat(rateLimiter.tryAcquire(20), equalTo(1));
+        verify(rateLimitDao).tryAcquire(QUEUE_ID, 1000L, 10L, 10);
+    }
+
+    @Test
+    public void should_extend_window_for_low_rate() {
+        QueueRateLimitDao rateLimitDao = mock(QueueRateLimitDao.class);
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 4000L, 1L, 1)).thenReturn(null);
+        DistributedTaskRateLimiter rateLimiter = new DistributedTaskRateLimiter(QUEUE_ID, 0.25, rateLimitDao);
+
+        assertThat(rateLimiter.tryAcquire(5), equalTo(0));
+        verify(rateLimitDao).tryAcquire(QUEUE_ID, 4000L, 1L, 1);
+    }
+
+    @Test
+    public void should_release_unused_tokens_to_window_of_acquisition() {
+        QueueRateLimitDao rateLimitDao = mock(QueueRateLimitDao.class);
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 1000L, 10L, 5)).thenReturn(5000L);
+        DistributedTaskRateLimiter rateLimiter = new DistributedTaskRateLimiter(QUEUE_ID, 10.0, rateLimitDao);
+
+        assertThat(rateLimiter.tryAcquire(5), equalTo(5));
+        rateLimiter.release(2);
+        rateLimiter.release(2);
+
+        verify(rateLimitDao).release(QUEUE_ID, 5000L, 2);
+    }
+
+    @Test
+    public void should_not_release_tokens_when_nothing_acquired() {
+        QueueRateLimitDao rateLimitDao = mock(QueueRateLimitDao.class);
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 1000L, 10L, 5)).thenReturn(null);
+        when(rateLimitDao.tryAcquire(QUEUE_ID, 1000L, 10L, 1)).thenReturn(null);
+        DistributedTaskRateLimiter rateLimiter = new DistributedTaskRateLimiter(QUEUE_ID, 10.0, rateLimitDao);
+
+        assertThat(rateLimiter.tryAcquire(5), equalTo(0));
+        rateLimiter.release(5);
+
+        verify(rateLimitDao, never()).release(eq(QUEUE_ID), anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,69 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class IdleTimeoutBackoffTest {
+
+    @Test
+    public void should_return_fixed_timeout_when_max_equals_min() {
+        IdleTimeoutBackoff backoff = new IdleTimeoutBackoff(Duration.ofSeconds(1L), Duration.ofSeconds(1L),
+                mock(Random.class));
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofSeconds(1L)));
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofSeconds(1L)));
+    }
+
+    @Test
+    public void should_grow_timeout_up_to_max_with_jitter() {
+        Random random = mock(Random.class);
+        when(random.nextDouble()).thenReturn(0.5);
+        IdleTimeoutBackoff backoff = new IdleTimeoutBackoff(Duration.ofMillis(100L), Duration.ofMillis(500L),
+                random);
+
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(100L)));
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(150L)));
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(300L)));
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(375L)));
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(375L)));
+    }
+
+    @Test
+    public void should_not_return_timeout_less_than_min() {
+        Random random = mock(Random.class);
+        when(random.nextDouble()).thenReturn(0.0);
+        IdleTimeoutBackoff backoff = new IdleTimeoutBackoff(Duration.ofMillis(100L), Duration.ofMillis(150L),
+                random);
+
+        backoff.nextTimeout();
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(100L)));
+    }
+
+    @Test
+    public void should_reset_timeout_to_min() {
+        Random random = mock(Random.class);
+        when(random.nextDouble()).thenReturn(1.0);
+        IdleTimeoutBackoff backoff = new IdleTimeoutBackoff(Duration.ofMillis(100L), Duration.ofSeconds(10L),
+                random);
+        backoff.nextTimeout();
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(200L)));
+
+        backoff.reset();
+        Assert.assertThat(backoff.nextTimeout(), equalTo(Duration.ofMillis(100L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_backoff_when_max_less_than_min() {
+        new IdleTimeoutBackoff(Duration.ofSeconds(2L), Duration.ofSeconds(1L), new Random());
+    }
+}
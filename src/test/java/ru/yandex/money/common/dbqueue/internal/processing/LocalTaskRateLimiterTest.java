@@ -0,0 +1,49 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.stub.FakeMillisTimeProvider;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class LocalTaskRateLimiterTest {
+
+    @Test
+    public void should_refill_tokens_with_time() {
+        LocalTaskRateLimiter rateLimiter = new LocalTaskRateLimiter(10.0,
+                new FakeMillisTimeProvider(Arrays.asList(0L, 0L, 0L, 250L, 10_000L)));
+        assertThat(rateLimiter.tryAcquire(4), equalTo(4));
+        assertThat(rateLimiter.tryAcquire(20), equalTo(6));
+        assertThat(rateLimiter.tryAcquire(5), equalTo(2));
+        assertThat(rateLimiter.tryAcquire(20), equalTo(10));
+    }
+
+    @Test
+    public void should_skip_when_tokens_exhausted() {
+        LocalTaskRateLimiter rateLimiter = new LocalTaskRateLimiter(0.5,
+                new FakeMillisTimeProvider(Arrays.asList(0L, 0L, 1000L, 2000L)));
+        assertThat(rateLimiter.tryAcquire(1), equalTo(1));
+        assertThat(rateLimiter.tryAcquire(1), equalTo(0));
+        assertThat(rateLimiter.tryAcquire(1), equalTo(1));
+    }
+
+    @Test
+    public void should_return_released_tokens() {
+        LocalTaskRateLimiter rateLimiter = new LocalTaskRateLimiter(2.0,
+                new FakeMillisTimeProvider(Arrays.asList(0L, 0L, 0L)));
+        assertThat(rateLimiter.tryAcquire(5), equalTo(2));
+        rateLimiter.release(1);
+        assertThat(rateLimiter.tryAcquire(5), equalTo(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_without_rate() {
+        new LocalTaskRateLimiter(0.0, new MillisTimeProvider.SystemMillisTimeProvider());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class MultiplexedLoopPolicyTest {
+
+    @Test
+    public void should_start_iterations_only_when_unpaused() {
+        ScheduledExecutorService workers = mock(ScheduledExecutorService.class);
+        Runnable pollerWakeup = mock(Runnable.class);
+        MultiplexedLoopPolicy loopPolicy = new MultiplexedLoopPolicy(workers, pollerWakeup);
+        loopPolicy.doRun(() -> {
+        });
+
+        Assert.assertThat(loopPolicy.isWaitingForTasks(), equalTo(false));
+        loopPolicy.startIterations();
+        verifyZeroInteractions(workers);
+
+        loopPolicy.unpause();
+        verify(pollerWakeup).run();
+        Assert.assertThat(loopPolicy.isWaitingForTasks(), equalTo(true));
+        loopPolicy.startIterations();
+        verify(workers).execute(any());
+        Assert.assertThat(loopPolicy.isWaitingForTasks(), equalTo(false));
+    }
+
+    @Test
+    public void should_release_iteration_when_queue_is_empty() {
+        ScheduledExecutorService workers = mock(ScheduledExecutorService.class);
+        MultiplexedLoopPolicy loopPolicy = new MultiplexedLoopPolicy(workers, () -> {
+        });
+        loopPolicy.doRun(() -> loopPolicy.doWait(Duration.ofSeconds(1L), LoopPolicy.WaitInterrupt.ALLOW));
+        loopPolicy.unpause();
+
+        runStartedIteration(loopPolicy, workers);
+
+        Assert.assertThat(loopPolicy.isWaitingForTasks(), equalTo(true));
+    }
+
+    @Test
+    public void should_reschedule_iteration_when_task_processed() {
+        ScheduledExecutorService workers = mock(ScheduledExecutorService.class);
+        MultiplexedLoopPolicy loopPolicy = new MultiplexedLoopPolicy(workers, () -> {
+        });
+        loopPolicy.doRun(() -> loopPolicy.doWait(Duration.ofMillis(100L), LoopPolicy.WaitInterrupt.DENY));
+        loopPolicy.unpause();
+
+        runStartedIteration(loopPolicy, workers);
+
+        verify(workers).schedule(any(Runnable.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+        Assert.assertThat(loopPolicy.isWaitingForTasks(), equalTo(false));
+    }
+
+    @Test
+    public void should_terminate_when_running_iterations_finished() throws Exception {
+        ScheduledExecutorService workers = mock(ScheduledExecutorService.class);
+        MultiplexedLoopPolicy loopPolicy = new MultiplexedLoopPolicy(workers, () -> {
+        });
+        loopPolicy.doRun(() -> loopPolicy.doWait(Duration.ofMillis(100L), LoopPolicy.WaitInterrupt.DENY));
+        loopPolicy.unpause();
+        loopPolicy.startIterations();
+        ArgumentCaptor<Runnable> iterationCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(workers).execute(iterationCaptor.capture());
+
+        loopPolicy.shutdown();
+        Assert.assertThat(loopPolicy.isShutdown(), equalTo(true));
+        Assert.assertThat(loopPolicy.isTerminated(), equalTo(false));
+        Assert.assertThat(loopPolicy.awaitTermination(Duration.ZERO), equalTo(false));
+
+        iterationCaptor.getValue().run();
+        Assert.assertThat(loopPolicy.isTerminated(), equalTo(true));
+        Assert.assertThat(loopPolicy.awaitTermination(Duration.ZERO), equalTo(true));
+    }
+
+    private static void runStartedIteration(MultiplexedLoopPolicy loopPolicy, ScheduledExecutorService workers) {
+        loopPolicy.startIterations();
+        ArgumentCaptor<Runnable> iterationCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(workers).execute(iterationCaptor.capture());
+        iterationCaptor.getValue().run();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.dao.QueueDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+@SuppressWarnings("unchecked")
+public class MultiplexedQueuePollerTest {
+
+    private static final QueueLocation location1 = createLocation("queue1");
+    private static final QueueLocation location2 = createLocation("queue2");
+    private static final QueueLocation location3 = createLocation("queue3");
+
+    @Test
+    public void should_start_iterations_of_ready_queues_only() {
+        QueueDao queueDao = mock(QueueDao.class);
+        MultiplexedQueuePoller poller = new MultiplexedQueuePoller(createShard(queueDao), "testTable",
+                mock(ExecutorService.class));
+        MultiplexedLoopPolicy readyPolicy = createPolicy(true);
+        MultiplexedLoopPolicy emptyPolicy = createPolicy(true);
+        MultiplexedLoopPolicy busyPolicy = createPolicy(false);
+        poller.register(location1, Duration.ofSeconds(1L), readyPolicy);
+        poller.register(location2, Duration.ofSeconds(1L), emptyPolicy);
+        poller.register(location3, Duration.ofSeconds(1L), busyPolicy);
+        when(queueDao.findReadyQueues(any())).thenReturn(Collections.singletonList(location1));
+
+        poller.poll();
+
+        ArgumentCaptor<Collection<QueueLocation>> candidatesCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(queueDao).findReadyQueues(candidatesCaptor.capture());
+        Assert.assertThat(new HashSet<>(candidatesCaptor.getValue()),
+                equalTo(new HashSet<>(Arrays.asList(location1, location2))));
+        verify(readyPolicy).startIterations();
+        verify(emptyPolicy, never()).startIterations();
+        verify(busyPolicy, never()).startIterations();
+    }
+
+    @Test
+    public void should_not_query_database_when_no_queue_is_waiting() {
+        QueueDao queueDao = mock(QueueDao.class);
+        MultiplexedQueuePoller poller = new MultiplexedQueuePoller(createShard(queueDao), "testTable",
+                mock(ExecutorService.class));
+        poller.register(location1, Duration.ofSeconds(1L), createPolicy(false));
+
+        poller.poll();
+
+        verifyZeroInteractions(queueDao);
+    }
+
+    @Test
+    public void should_start_poll_loop_once() {
+        ExecutorService executor = mock(ExecutorService.class);
+        MultiplexedQueuePoller poller = new MultiplexedQueuePoller(mock(QueueShard.class), "testTable", executor);
+
+        poller.start();
+        poller.start();
+        poller.shutdown();
+
+        verify(executor).execute(any());
+        verify(executor).shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_register_queue_from_another_table() {
+        new MultiplexedQueuePoller(mock(QueueShard.class), "anotherTable", mock(ExecutorService.class))
+                .register(location1, Duration.ofSeconds(1L), createPolicy(true));
+    }
+
+    private static QueueShard createShard(QueueDao queueDao) {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+        return queueShard;
+    }
+
+    private static MultiplexedLoopPolicy createPolicy(boolean isWaitingForTasks) {
+        MultiplexedLoopPolicy loopPolicy = mock(MultiplexedLoopPolicy.class);
+        when(loopPolicy.isWaitingForTasks()).thenReturn(isWaitingForTasks);
+        return loopPolicy;
+    }
+
+    private static QueueLocation createLocation(String queueId) {
+        return QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId(queueId)).build();
+    }
+}
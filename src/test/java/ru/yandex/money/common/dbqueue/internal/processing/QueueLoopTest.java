@@ -14,12 +14,15 @@ import ru.yandex.money.common.dbqueue.stub.FakeMillisTimeProvider;
 import java.time.Duration;
 import java.util.Arrays;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -53,6 +56,7 @@ public class QueueLoopTest {
         verify(listener).started(shardId, location);
         verify(queueRunner).runQueue(queueConsumer);
         verify(listener).executed(shardId, location, false, 4);
+        verify(listener).idle(shardId, location, waitDuration);
         verify(loopPolicy).doWait(waitDuration, LoopPolicy.WaitInterrupt.ALLOW);
         verify(listener).finished(shardId, location);
     }
@@ -91,6 +95,36 @@ public class QueueLoopTest {
         verify(loopPolicy).pause();
     }
 
+    @Test
+    public void should_stop_retired_loop() throws Exception {
+        LoopPolicy loopPolicy = spy(new SyncLoopPolicy());
+        ThreadLifecycleListener listener = mock(ThreadLifecycleListener.class);
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueLocation location = QueueLocation.builder().withTableName("table")
+                .withQueueId(new QueueId("queue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .build()));
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        when(queueRunner.runQueue(queueConsumer)).thenReturn(QueueProcessingStatus.SKIPPED);
+
+        QueueLoop queueLoop = new QueueLoop(loopPolicy, listener, mock(MillisTimeProvider.class));
+        queueLoop.retire(2);
+        assertThat(queueLoop.cancelRetirement(5), equalTo(2));
+        queueLoop.retire(1);
+        queueLoop.start(shardId, queueConsumer, queueRunner);
+
+        verify(loopPolicy).doStop();
+        verifyZeroInteractions(queueRunner, listener);
+
+        queueLoop.start(shardId, queueConsumer, queueRunner);
+        verify(queueRunner).runQueue(queueConsumer);
+        assertThat(queueLoop.cancelRetirement(1), equalTo(0));
+    }
+
     @Test
     public void should_perform_crash_lifecycle() throws Exception {
         LoopPolicy loopPolicy = spy(new SyncLoopPolicy());
@@ -173,6 +207,11 @@ public class QueueLoopTest {
             runnable.run();
         }
 
+        @Override
+        public void doStop() {
+
+        }
+
         @Override
         public void doContinue() {
 
@@ -0,0 +1,110 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.config.QueueShardId;
+import ru.yandex.money.common.dbqueue.dao.PostgresQueueDao;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.stub.FakeTransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class TaskAcknowledgementBufferTest {
+
+    private static final QueueLocation location = QueueLocation.builder().withTableName("testTable")
+            .withQueueId(new QueueId("testQueue")).build();
+
+    @Test
+    public void should_schedule_flush_on_start() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        TaskAcknowledgementBuffer buffer = new TaskAcknowledgementBuffer(location, mock(QueueShard.class), 10,
+                Duration.ofSeconds(2L), scheduler);
+        buffer.start();
+        verify(scheduler).scheduleWithFixedDelay(any(), eq(2000L), eq(2000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void should_delete_tasks_when_batch_is_full() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mockShard(queueDao);
+        TaskAcknowledgementBuffer buffer = new TaskAcknowledgementBuffer(location, queueShard, 3,
+                Duration.ofSeconds(1L), mock(ScheduledExecutorService.class));
+
+        buffer.acknowledge(1L);
+        buffer.acknowledge(2L);
+        verifyZeroInteractions(queueDao);
+
+        buffer.acknowledge(3L);
+        verify(queueDao).deleteTasks(location, Arrays.asList(1L, 2L, 3L));
+    }
+
+    @Test
+    public void should_delete_tasks_on_flush() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mockShard(queueDao);
+        TaskAcknowledgementBuffer buffer = new TaskAcknowledgementBuffer(location, queueShard, 10,
+                Duration.ofSeconds(1L), mock(ScheduledExecutorService.class));
+
+        buffer.flush();
+        verifyZeroInteractions(queueDao);
+
+        buffer.acknowledge(1L);
+        buffer.acknowledge(2L);
+        buffer.flush();
+        verify(queueDao).deleteTasks(location, Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    public void should_flush_on_shutdown_and_delete_tasks_immediately_after() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mockShard(queueDao);
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        TaskAcknowledgementBuffer buffer = new TaskAcknowledgementBuffer(location, queueShard, 10,
+                Duration.ofSeconds(1L), scheduler);
+
+        buffer.acknowledge(1L);
+        buffer.shutdown();
+        verify(scheduler).shutdownNow();
+        verify(queueDao).deleteTasks(location, Collections.singletonList(1L));
+
+        buffer.acknowledge(2L);
+        verify(queueDao).deleteTasks(location, Collections.singletonList(2L));
+    }
+
+    @Test
+    public void should_not_throw_when_delete_failed() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mockShard(queueDao);
+        when(queueDao.deleteTasks(eq(location), anyCollection())).thenThrow(new IllegalStateException("fail"));
+        TaskAcknowledgementBuffer buffer = new TaskAcknowledgementBuffer(location, queueShard, 1,
+                Duration.ofSeconds(1L), mock(ScheduledExecutorService.class));
+
+        buffer.acknowledge(1L);
+        verify(queueDao).deleteTasks(location, Collections.singletonList(1L));
+    }
+
+    private static QueueShard mockShard(PostgresQueueDao queueDao) {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+        when(queueShard.getShardId()).thenReturn(new QueueShardId("s1"));
+        return queueShard;
+    }
+}
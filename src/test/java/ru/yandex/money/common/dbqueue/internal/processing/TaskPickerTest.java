@@ -16,10 +16,16 @@ import ru.yandex.money.common.dbqueue.stub.FakeTransactionTemplate;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -88,6 +94,173 @@ public class TaskPickerTest {
         verifyZeroInteractions(listener);
     }
 
+    @Test
+    public void should_successfully_pick_tasks_batch() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        FakeTransactionTemplate transactionTemplate = spy(new FakeTransactionTemplate());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withBatchSize(3).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(queueShard.getTransactionTemplate()).thenReturn(transactionTemplate);
+        TaskRecord firstTask = TaskRecord.builder().withId(1L).build();
+        TaskRecord secondTask = TaskRecord.builder().withId(2L).build();
+        when(pickTaskDao.pickTasks(location, 3)).thenReturn(Arrays.asList(firstTask, secondTask));
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        FakeMillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, listener, millisTimeProvider, pickTaskDao).pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Arrays.asList(firstTask, secondTask)));
+
+        verify(millisTimeProvider, times(2)).getMillis();
+        verify(queueShard).getTransactionTemplate();
+        verify(pickTaskDao).pickTasks(location, 3);
+        verify(listener).picked(shardId, location, firstTask, 2L);
+        verify(listener).picked(shardId, location, secondTask, 2L);
+    }
+
+    @Test
+    public void should_not_notify_when_tasks_batch_not_picked() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        FakeTransactionTemplate transactionTemplate = spy(new FakeTransactionTemplate());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withBatchSize(3).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(queueShard.getTransactionTemplate()).thenReturn(transactionTemplate);
+        when(pickTaskDao.pickTasks(location, 3)).thenReturn(Collections.emptyList());
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        FakeMillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, listener, millisTimeProvider, pickTaskDao).pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Collections.emptyList()));
+
+        verify(millisTimeProvider).getMillis();
+        verify(pickTaskDao).pickTasks(location, 3);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void should_skip_pick_when_rate_limit_exhausted() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withBatchSize(3).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        TaskRateLimiter rateLimiter = mock(TaskRateLimiter.class);
+        when(rateLimiter.tryAcquire(anyInt())).thenReturn(0);
+
+        TaskPicker taskPicker = new TaskPicker(queueShard, listener, mock(MillisTimeProvider.class), pickTaskDao,
+                rateLimiter);
+
+        assertThat(taskPicker.pickTask(queueConsumer), nullValue());
+        assertThat(taskPicker.pickTasks(queueConsumer), equalTo(Collections.emptyList()));
+        verifyZeroInteractions(queueShard, pickTaskDao, listener);
+    }
+
+    @Test
+    public void should_pick_tasks_within_rate_limit() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withBatchSize(5).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(1L).build();
+        when(pickTaskDao.pickTasks(location, 3)).thenReturn(Collections.singletonList(taskRecord));
+        TaskRateLimiter rateLimiter = mock(TaskRateLimiter.class);
+        when(rateLimiter.tryAcquire(5)).thenReturn(3);
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, mock(TaskLifecycleListener.class),
+                mock(MillisTimeProvider.class), pickTaskDao, rateLimiter).pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Collections.singletonList(taskRecord)));
+        verify(pickTaskDao).pickTasks(location, 3);
+        verify(rateLimiter).release(2);
+    }
+
+    @Test
+    public void should_pick_tasks_from_other_partition_when_own_partition_is_empty() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).withPartitionCount(3).build();
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withBatchSize(2).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(4L).build();
+        when(pickTaskDao.pickTasks(location.getPartition(0), 2)).thenReturn(Collections.emptyList());
+        when(pickTaskDao.pickTasks(location.getPartition(1), 2)).thenReturn(Collections.singletonList(taskRecord));
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, listener,
+                new FakeMillisTimeProvider(Arrays.asList(3L, 5L)), pickTaskDao).pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Collections.singletonList(taskRecord)));
+        verify(pickTaskDao).pickTasks(location.getPartition(0), 2);
+        verify(pickTaskDao).pickTasks(location.getPartition(1), 2);
+        verify(pickTaskDao, never()).pickTasks(location.getPartition(2), 2);
+        verify(listener).picked(shardId, location, taskRecord, 2L);
+    }
+
+    @Test
+    public void should_pick_task_from_own_partition_of_thread() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).withPartitionCount(2).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRecord firstTask = TaskRecord.builder().withId(2L).build();
+        TaskRecord secondTask = TaskRecord.builder().withId(3L).build();
+        when(pickTaskDao.pickTask(location.getPartition(0))).thenReturn(firstTask);
+        when(pickTaskDao.pickTask(location.getPartition(1))).thenReturn(secondTask);
+        TaskPicker taskPicker = new TaskPicker(queueShard, mock(TaskLifecycleListener.class),
+                mock(MillisTimeProvider.class), pickTaskDao);
+
+        // other tests may leave the interrupt flag of the test runner thread set
+        Thread.interrupted();
+        AtomicReference<TaskRecord> firstThreadTask = new AtomicReference<>();
+        Thread firstThread = new Thread(() -> firstThreadTask.set(taskPicker.pickTask(queueConsumer)));
+        firstThread.start();
+        firstThread.join();
+        AtomicReference<TaskRecord> secondThreadTask = new AtomicReference<>();
+        Thread secondThread = new Thread(() -> secondThreadTask.set(taskPicker.pickTask(queueConsumer)));
+        secondThread.start();
+        secondThread.join();
+
+        assertThat(firstThreadTask.get(), equalTo(firstTask));
+        assertThat(secondThreadTask.get(), equalTo(secondTask));
+        verify(pickTaskDao).pickTask(location.getPartition(0));
+        verify(pickTaskDao).pickTask(location.getPartition(1));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void should_not_catch_exception() throws Exception {
         QueueLocation location = QueueLocation.builder().withTableName("testTable")
@@ -0,0 +1,146 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Assert;
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.QueueConsumer;
+import ru.yandex.money.common.dbqueue.api.TaskRecord;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class TaskPrefetcherTest {
+
+    private static final QueueLocation location = QueueLocation.builder().withTableName("testTable")
+            .withQueueId(new QueueId("testQueue")).build();
+
+    private final AtomicLong currentTime = new AtomicLong(1000L);
+
+    @Test
+    public void should_take_fetched_tasks() {
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        QueueConsumer queueConsumer = createConsumer(4);
+        when(taskPicker.pickTasks(queueConsumer, 1)).thenReturn(createTasks(1L));
+        AtomicInteger notificationCount = new AtomicInteger();
+        TaskPrefetcher prefetcher = createPrefetcher(queueConsumer, taskPicker);
+        prefetcher.start(notificationCount::incrementAndGet);
+
+        Assert.assertThat(prefetcher.fetchTasks(), equalTo(true));
+        Assert.assertThat(notificationCount.get(), equalTo(1));
+        Assert.assertThat(prefetcher.takeTasks(10).stream().map(TaskRecord::getId).collect(Collectors.toList()),
+                equalTo(Collections.singletonList(1L)));
+        Assert.assertThat(prefetcher.takeTasks(10), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    public void should_double_prefetch_size_when_buffer_drained() {
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        QueueConsumer queueConsumer = createConsumer(3);
+        when(taskPicker.pickTasks(eq(queueConsumer), anyInt()))
+                .thenAnswer(invocation -> createTasks(LongStream.range(0, invocation.<Integer>getArgument(1))
+                        .boxed().toArray(Long[]::new)));
+        TaskPrefetcher prefetcher = createPrefetcher(queueConsumer, taskPicker);
+
+        prefetcher.fetchTasks();
+        Assert.assertThat(prefetcher.takeTasks(10).size(), equalTo(1));
+        prefetcher.fetchTasks();
+        Assert.assertThat(prefetcher.getPrefetchSize(), equalTo(2));
+        Assert.assertThat(prefetcher.takeTasks(10).size(), equalTo(2));
+        prefetcher.fetchTasks();
+        Assert.assertThat(prefetcher.getPrefetchSize(), equalTo(3));
+        verify(taskPicker).pickTasks(queueConsumer, 3);
+    }
+
+    @Test
+    public void should_drop_expired_tasks_and_halve_prefetch_size() {
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        QueueConsumer queueConsumer = createConsumer(8);
+        when(taskPicker.pickTasks(eq(queueConsumer), anyInt()))
+                .thenAnswer(invocation -> createTasks(LongStream.range(0, invocation.<Integer>getArgument(1))
+                        .boxed().toArray(Long[]::new)));
+        TaskPrefetcher prefetcher = createPrefetcher(queueConsumer, taskPicker);
+        prefetcher.fetchTasks();
+        prefetcher.takeTasks(1);
+        prefetcher.fetchTasks();
+        prefetcher.takeTasks(2);
+        prefetcher.fetchTasks();
+        Assert.assertThat(prefetcher.getPrefetchSize(), equalTo(4));
+
+        currentTime.addAndGet(Duration.ofMinutes(1L).toMillis());
+        Assert.assertThat(prefetcher.takeTasks(10), equalTo(Collections.emptyList()));
+        prefetcher.fetchTasks();
+        Assert.assertThat(prefetcher.getPrefetchSize(), equalTo(2));
+    }
+
+    @Test
+    public void should_not_fetch_tasks_when_paused() {
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskPrefetcher prefetcher = createPrefetcher(createConsumer(4), taskPicker);
+
+        prefetcher.pause();
+        Assert.assertThat(prefetcher.fetchTasks(), equalTo(false));
+        verifyZeroInteractions(taskPicker);
+    }
+
+    @Test
+    public void should_execute_fetch_loop_on_start_and_stop_executor_on_shutdown() {
+        ExecutorService executor = mock(ExecutorService.class);
+        TaskPrefetcher prefetcher = new TaskPrefetcher(createConsumer(4), mock(TaskPicker.class),
+                currentTime::get, executor);
+
+        prefetcher.start(() -> {
+        });
+        prefetcher.shutdown();
+
+        verify(executor).execute(any());
+        verify(executor).shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_prefetcher_when_prefetching_disabled() {
+        createPrefetcher(createConsumer(0), mock(TaskPicker.class));
+    }
+
+    private TaskPrefetcher createPrefetcher(QueueConsumer queueConsumer, TaskPicker taskPicker) {
+        return new TaskPrefetcher(queueConsumer, taskPicker, currentTime::get, mock(ExecutorService.class));
+    }
+
+    private static QueueConsumer createConsumer(int prefetchSize) {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withBetweenTaskTimeout(Duration.ZERO)
+                        .withRetryInterval(Duration.ofSeconds(10L))
+                        .withPrefetchSize(prefetchSize)
+                        .build()));
+        return queueConsumer;
+    }
+
+    private static List<TaskRecord> createTasks(Long... ids) {
+        return Arrays.stream(ids).map(id -> TaskRecord.builder().withId(id).build()).collect(Collectors.toList());
+    }
+}
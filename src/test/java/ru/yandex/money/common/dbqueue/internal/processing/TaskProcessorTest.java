@@ -1,6 +1,9 @@
 package ru.yandex.money.common.dbqueue.internal.processing;
 
+import org.junit.Assert;
 import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.AsyncQueueConsumer;
+import ru.yandex.money.common.dbqueue.api.BatchQueueConsumer;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.api.Task;
 import ru.yandex.money.common.dbqueue.api.TaskExecutionResult;
@@ -21,13 +24,19 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -140,6 +149,138 @@ public class TaskProcessorTest {
         verify(listener).finished(shardId, location, taskRecord);
     }
 
+    @Test
+    public void should_successfully_process_tasks_batch() {
+        QueueLocation location = QueueLocation.builder().withTableName("testLocation")
+                .withQueueId(new QueueId("testQueue")).build();
+        TaskRecord firstRecord = TaskRecord.builder().withId(1L).withCreatedAt(ofSeconds(1)).withPayload("first").build();
+        TaskRecord secondRecord = TaskRecord.builder().withId(2L).withCreatedAt(ofSeconds(2)).withPayload("second").build();
+        List<TaskRecord> taskRecords = Arrays.asList(firstRecord, secondRecord);
+        QueueShardId shardId = new QueueShardId("s1");
+        List<TaskExecutionResult> queueResults = Arrays.asList(TaskExecutionResult.finish(), TaskExecutionResult.fail());
+
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        MillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
+        TaskResultHandler resultHandler = mock(TaskResultHandler.class);
+        TaskPayloadTransformer<String> transformer = mock(TaskPayloadTransformer.class);
+        when(transformer.toObject(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        BatchQueueConsumer<String> queueConsumer = mock(BatchQueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()));
+        when(queueConsumer.getPayloadTransformer()).thenReturn(transformer);
+        when(queueConsumer.executeBatch(any())).thenReturn(queueResults);
+
+        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler).processTasks(queueConsumer, taskRecords);
+
+        verify(listener).started(shardId, location, firstRecord);
+        verify(listener).started(shardId, location, secondRecord);
+        verify(millisTimeProvider, times(2)).getMillis();
+        verify(queueConsumer).executeBatch(Arrays.asList(
+                Task.<String>builder(shardId).withCreatedAt(firstRecord.getCreatedAt()).withPayload("first").build(),
+                Task.<String>builder(shardId).withCreatedAt(secondRecord.getCreatedAt()).withPayload("second").build()));
+        verify(listener).executed(shardId, location, firstRecord, queueResults.get(0), 2);
+        verify(listener).executed(shardId, location, secondRecord, queueResults.get(1), 2);
+        verify(resultHandler).handleResults(taskRecords, queueResults);
+        verify(listener).finished(shardId, location, firstRecord);
+        verify(listener).finished(shardId, location, secondRecord);
+    }
+
+    @Test
+    public void should_handle_exception_when_batch_results_mismatch() {
+        QueueLocation location = QueueLocation.builder().withTableName("testLocation")
+                .withQueueId(new QueueId("testQueue")).build();
+        TaskRecord firstRecord = TaskRecord.builder().withId(1L).withCreatedAt(ofSeconds(1)).withPayload("first").build();
+        TaskRecord secondRecord = TaskRecord.builder().withId(2L).withCreatedAt(ofSeconds(2)).withPayload("second").build();
+        List<TaskRecord> taskRecords = Arrays.asList(firstRecord, secondRecord);
+        QueueShardId shardId = new QueueShardId("s1");
+
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        MillisTimeProvider millisTimeProvider = mock(MillisTimeProvider.class);
+        TaskResultHandler resultHandler = mock(TaskResultHandler.class);
+        TaskPayloadTransformer<String> transformer = mock(TaskPayloadTransformer.class);
+        BatchQueueConsumer<String> queueConsumer = mock(BatchQueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()));
+        when(queueConsumer.getPayloadTransformer()).thenReturn(transformer);
+        when(queueConsumer.executeBatch(any())).thenReturn(Collections.singletonList(TaskExecutionResult.finish()));
+
+        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler).processTasks(queueConsumer, taskRecords);
+
+        verify(listener).crashed(eq(shardId), eq(location), eq(firstRecord), any(IllegalStateException.class));
+        verify(listener).crashed(eq(shardId), eq(location), eq(secondRecord), any(IllegalStateException.class));
+        verify(listener).finished(shardId, location, firstRecord);
+        verify(listener).finished(shardId, location, secondRecord);
+        verifyZeroInteractions(resultHandler);
+    }
+
+    @Test
+    public void should_handle_result_when_async_task_completed() {
+        QueueLocation location = QueueLocation.builder().withTableName("testLocation")
+                .withQueueId(new QueueId("testQueue")).build();
+        TaskRecord taskRecord = TaskRecord.builder().withCreatedAt(ofSeconds(1)).withPayload("testPayload").build();
+        QueueShardId shardId = new QueueShardId("s1");
+        TaskExecutionResult queueResult = TaskExecutionResult.finish();
+
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        MillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
+        TaskResultHandler resultHandler = mock(TaskResultHandler.class);
+        CompletableFuture<TaskExecutionResult> execution = new CompletableFuture<>();
+        AsyncQueueConsumer<String> queueConsumer = createAsyncConsumer(location, execution);
+
+        CompletionStage<Void> processing = new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler)
+                .processTaskAsync(queueConsumer, taskRecord, Runnable::run);
+
+        verify(listener).started(shardId, location, taskRecord);
+        verifyZeroInteractions(resultHandler);
+        execution.complete(queueResult);
+        Assert.assertThat(processing.toCompletableFuture().isDone(), equalTo(true));
+        verify(listener).executed(shardId, location, taskRecord, queueResult, 2);
+        verify(resultHandler).handleResult(taskRecord, queueResult);
+        verify(listener).finished(shardId, location, taskRecord);
+    }
+
+    @Test
+    public void should_handle_exception_when_async_task_failed() {
+        QueueLocation location = QueueLocation.builder().withTableName("testLocation")
+                .withQueueId(new QueueId("testQueue")).build();
+        TaskRecord taskRecord = TaskRecord.builder().withCreatedAt(ofSeconds(1)).withPayload("testPayload").build();
+        QueueShardId shardId = new QueueShardId("s1");
+        RuntimeException queueException = new RuntimeException("fail");
+
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        TaskResultHandler resultHandler = mock(TaskResultHandler.class);
+        CompletableFuture<TaskExecutionResult> execution = new CompletableFuture<>();
+        execution.completeExceptionally(queueException);
+
+        CompletionStage<Void> processing = new TaskProcessor(queueShard, listener, mock(MillisTimeProvider.class),
+                resultHandler).processTaskAsync(createAsyncConsumer(location, execution), taskRecord,
+                Runnable::run);
+
+        Assert.assertThat(processing.toCompletableFuture().isDone(), equalTo(true));
+        verify(listener).crashed(shardId, location, taskRecord, queueException);
+        verifyZeroInteractions(resultHandler);
+        verify(listener).finished(shardId, location, taskRecord);
+    }
+
+    private static AsyncQueueConsumer<String> createAsyncConsumer(QueueLocation location,
+                                                                  CompletableFuture<TaskExecutionResult> execution) {
+        TaskPayloadTransformer<String> transformer = mock(TaskPayloadTransformer.class);
+        when(transformer.toObject(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        AsyncQueueConsumer<String> queueConsumer = mock(AsyncQueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()));
+        when(queueConsumer.getPayloadTransformer()).thenReturn(transformer);
+        when(queueConsumer.executeAsync(any())).thenReturn(execution);
+        return queueConsumer;
+    }
 
     private ZonedDateTime ofSeconds(int seconds) {
         return ZonedDateTime.of(0, 1, 1, 0, 0, seconds, 0, ZoneId.systemDefault());
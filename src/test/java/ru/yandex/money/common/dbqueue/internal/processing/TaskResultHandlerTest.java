@@ -10,9 +10,13 @@ import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 import ru.yandex.money.common.dbqueue.stub.FakeTransactionTemplate;
 
 import java.time.Duration;
+import java.util.Arrays;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -70,6 +74,24 @@ public class TaskResultHandlerTest {
         verifyZeroInteractions(strategy);
     }
 
+    @Test
+    public void should_acknowledge_finished_task_through_buffer() {
+        long taskId = 5L;
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        TaskRecord taskRecord = TaskRecord.builder().withId(taskId).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+        TaskAcknowledgementBuffer acknowledgementBuffer = mock(TaskAcknowledgementBuffer.class);
+
+        new TaskResultHandler(location, queueShard, strategy, acknowledgementBuffer)
+                .handleResult(taskRecord, TaskExecutionResult.finish());
+
+        verify(acknowledgementBuffer).acknowledge(taskId);
+        verifyZeroInteractions(queueShard, strategy);
+    }
+
     @Test
     public void should_fail_task_when_no_delay() {
         QueueLocation location = QueueLocation.builder().withTableName("testTable")
@@ -115,4 +137,47 @@ public class TaskResultHandlerTest {
         verify(queueDao).reenqueue(location, taskId, Duration.ofSeconds(10L));
         verify(strategy).calculateDelay(taskRecord);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_handle_batch_results_in_single_transaction() {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        TaskRecord finishedRecord = TaskRecord.builder().withId(1L).build();
+        TaskRecord reenqueuedRecord = TaskRecord.builder().withId(2L).build();
+        TaskRecord failedRecord = TaskRecord.builder().withId(3L).build();
+        TaskRecord otherFinishedRecord = TaskRecord.builder().withId(4L).build();
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+
+        new TaskResultHandler(location, queueShard, strategy).handleResults(
+                Arrays.asList(finishedRecord, reenqueuedRecord, failedRecord, otherFinishedRecord),
+                Arrays.asList(TaskExecutionResult.finish(), TaskExecutionResult.reenqueue(Duration.ofSeconds(1L)),
+                        TaskExecutionResult.fail(), TaskExecutionResult.finish()));
+
+        verify(queueShard, times(1)).getTransactionTemplate();
+        verify(queueDao).deleteTasks(location, Arrays.asList(1L, 4L));
+        verify(queueDao, never()).deleteTask(any(), anyLong());
+        verify(queueDao).reenqueue(location, 2L, Duration.ofSeconds(1L));
+        verifyZeroInteractions(strategy);
+    }
+
+    @Test
+    public void should_not_open_transaction_when_whole_batch_failed() {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        QueueShard queueShard = mock(QueueShard.class);
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+
+        new TaskResultHandler(location, queueShard, strategy).handleResults(
+                Arrays.asList(TaskRecord.builder().withId(1L).build(), TaskRecord.builder().withId(2L).build()),
+                Arrays.asList(TaskExecutionResult.fail(), TaskExecutionResult.fail()));
+
+        verifyZeroInteractions(queueShard, strategy);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yandex.money.common.dbqueue.internal.processing;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class WeightedRoundRobinExecutorTest {
+
+    @Test
+    public void should_rotate_lanes_according_to_weights() {
+        Deque<Runnable> submitted = new ArrayDeque<>();
+        WeightedRoundRobinExecutor executor = new WeightedRoundRobinExecutor(createWorkers(submitted), 1);
+        Executor flooded = executor.getLane("flooded", 2);
+        Executor regular = executor.getLane("regular", 1);
+        List<String> started = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            String name = "flooded-" + i;
+            flooded.execute(() -> started.add(name));
+        }
+        for (int i = 1; i <= 2; i++) {
+            String name = "regular-" + i;
+            regular.execute(() -> started.add(name));
+        }
+
+        while (!submitted.isEmpty()) {
+            assertThat(submitted.size(), equalTo(1));
+            submitted.poll().run();
+        }
+
+        assertThat(started, equalTo(Arrays.asList("flooded-1", "flooded-2", "flooded-3",
+                "regular-1", "flooded-4", "regular-2")));
+    }
+
+    @Test
+    public void should_not_submit_more_than_concurrency() {
+        Deque<Runnable> submitted = new ArrayDeque<>();
+        WeightedRoundRobinExecutor executor = new WeightedRoundRobinExecutor(createWorkers(submitted), 2);
+        Executor lane = executor.getLane("queue", 10);
+        for (int i = 0; i < 5; i++) {
+            lane.execute(() -> {
+            });
+        }
+        assertThat(submitted.size(), equalTo(2));
+
+        submitted.poll().run();
+        assertThat(submitted.size(), equalTo(2));
+    }
+
+    private static ExecutorService createWorkers(Deque<Runnable> submitted) {
+        ExecutorService workers = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            submitted.add(invocation.getArgument(0));
+            return null;
+        }).when(workers).execute(any());
+        return workers;
+    }
+}
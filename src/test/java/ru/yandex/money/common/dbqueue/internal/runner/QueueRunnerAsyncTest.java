@@ -0,0 +1,102 @@
+package ru.yandex.money.common.dbqueue.internal.runner;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.AsyncQueueConsumer;
+import ru.yandex.money.common.dbqueue.api.TaskRecord;
+import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
+import ru.yandex.money.common.dbqueue.settings.QueueConfig;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+import ru.yandex.money.common.dbqueue.settings.QueueSettings;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+@SuppressWarnings("unchecked")
+public class QueueRunnerAsyncTest {
+
+    private static final QueueLocation testLocation1 =
+            QueueLocation.builder().withTableName("queue_test")
+                    .withQueueId(new QueueId("test_queue1")).build();
+
+    @Test
+    public void should_skip_when_no_task_found() {
+        AsyncQueueConsumer queueConsumer = createConsumer(1);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        InFlightTaskLimiter inFlightTaskLimiter = new InFlightTaskLimiter(2);
+
+        QueueProcessingStatus status = new QueueRunnerAsync(taskPicker, taskProcessor, null, inFlightTaskLimiter,
+                Runnable::run).runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.SKIPPED));
+        verify(taskPicker).pickTask(queueConsumer);
+        verifyZeroInteractions(taskProcessor);
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(2));
+    }
+
+    @Test
+    public void should_keep_tasks_in_flight_without_waiting_for_completion() {
+        AsyncQueueConsumer queueConsumer = createConsumer(2);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord firstRecord = TaskRecord.builder().withId(1L).build();
+        TaskRecord secondRecord = TaskRecord.builder().withId(2L).build();
+        when(taskPicker.pickTasks(queueConsumer, 2)).thenReturn(Arrays.asList(firstRecord, secondRecord));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        CompletableFuture<Void> firstProcessing = new CompletableFuture<>();
+        CompletableFuture<Void> secondProcessing = new CompletableFuture<>();
+        when(taskProcessor.processTaskAsync(eq(queueConsumer), eq(firstRecord), any())).thenReturn(firstProcessing);
+        when(taskProcessor.processTaskAsync(eq(queueConsumer), eq(secondRecord), any())).thenReturn(secondProcessing);
+        InFlightTaskLimiter inFlightTaskLimiter = new InFlightTaskLimiter(3);
+
+        QueueProcessingStatus status = new QueueRunnerAsync(taskPicker, taskProcessor, null, inFlightTaskLimiter,
+                Runnable::run).runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(1));
+        firstProcessing.complete(null);
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(2));
+        secondProcessing.complete(null);
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(3));
+    }
+
+    @Test
+    public void should_pick_only_tasks_allowed_by_limit() {
+        AsyncQueueConsumer queueConsumer = createConsumer(5);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(1L).build();
+        when(taskPicker.pickTask(queueConsumer)).thenReturn(taskRecord);
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        when(taskProcessor.processTaskAsync(any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        new QueueRunnerAsync(taskPicker, taskProcessor, null, new InFlightTaskLimiter(1),
+                Runnable::run).runQueue(queueConsumer);
+
+        verify(taskPicker).pickTask(queueConsumer);
+        verify(taskProcessor).processTaskAsync(eq(queueConsumer), eq(taskRecord), any());
+    }
+
+    private static AsyncQueueConsumer createConsumer(int batchSize) {
+        AsyncQueueConsumer queueConsumer = mock(AsyncQueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                        .withBatchSize(batchSize).build()));
+        return queueConsumer;
+    }
+}
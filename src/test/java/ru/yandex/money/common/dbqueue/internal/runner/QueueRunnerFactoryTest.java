@@ -5,6 +5,7 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.transaction.support.TransactionOperations;
+import ru.yandex.money.common.dbqueue.api.AsyncQueueConsumer;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.api.Task;
 import ru.yandex.money.common.dbqueue.api.TaskExecutionResult;
@@ -124,4 +125,64 @@ public class QueueRunnerFactoryTest {
 
         assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInTransaction.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_return_async_runner() throws Exception {
+        AsyncQueueConsumer queueConsumer = mock(AsyncQueueConsumer.class);
+        QueueSettings settings = QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.SEPARATE_TRANSACTIONS).withMaxInFlightTasks(100).build();
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
+
+        QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
+                mock(TaskLifecycleListener.class));
+
+        assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerAsync.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_exception_when_async_consumer_has_no_in_flight_limit() throws Exception {
+        AsyncQueueConsumer queueConsumer = mock(AsyncQueueConsumer.class);
+        QueueSettings settings = QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.SEPARATE_TRANSACTIONS).build();
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
+
+        QueueRunner.Factory.create(queueConsumer,
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
+                mock(TaskLifecycleListener.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_exception_when_async_consumer_wrapped_in_transaction() throws Exception {
+        AsyncQueueConsumer queueConsumer = mock(AsyncQueueConsumer.class);
+        QueueSettings settings = QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.WRAP_IN_TRANSACTION).build();
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
+
+        QueueRunner.Factory.create(queueConsumer,
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
+                mock(TaskLifecycleListener.class));
+    }
+
+    @Test
+    public void should_return_external_executor_runner_for_virtual_threads() throws Exception {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueSettings settings = QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.USE_VIRTUAL_THREADS).withMaxInFlightTasks(1000).build();
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
+
+        QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
+                mock(TaskLifecycleListener.class));
+
+        assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInExternalExecutor.class));
+    }
+}
@@ -14,10 +14,15 @@ import ru.yandex.money.common.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -80,6 +85,52 @@ public class QueueRunnerInExternalExecutorTest {
         verify(taskProcessor).processTask(queueConsumer, taskRecord);
     }
 
+    @Test
+    public void should_hold_in_flight_permit_until_task_processed() throws Exception {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                        .withBatchSize(3).build()));
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord = TaskRecord.builder().build();
+        when(taskPicker.pickTasks(queueConsumer, 2)).thenReturn(Collections.singletonList(taskRecord));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        List<Runnable> submittedTasks = new ArrayList<>();
+        InFlightTaskLimiter inFlightTaskLimiter = new InFlightTaskLimiter(2);
+
+        QueueProcessingStatus status = new QueueRunnerInExternalExecutor(taskPicker, taskProcessor,
+                submittedTasks::add, null, inFlightTaskLimiter).runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
+        verify(taskPicker).pickTasks(queueConsumer, 2);
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(1));
+        submittedTasks.forEach(Runnable::run);
+        verify(taskProcessor).processTask(queueConsumer, taskRecord);
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(2));
+    }
+
+    @Test
+    public void should_release_in_flight_permit_when_executor_rejects_task() throws Exception {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                        .build()));
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        when(taskPicker.pickTask(queueConsumer)).thenReturn(TaskRecord.builder().build());
+        InFlightTaskLimiter inFlightTaskLimiter = new InFlightTaskLimiter(1);
+        QueueRunnerInExternalExecutor queueRunner = new QueueRunnerInExternalExecutor(taskPicker,
+                mock(TaskProcessor.class), command -> {
+            throw new RejectedExecutionException();
+        }, null, inFlightTaskLimiter);
+
+        try {
+            queueRunner.runQueue(queueConsumer);
+            fail("task must be rejected");
+        } catch (RejectedExecutionException ignored) {
+        }
+        assertThat(inFlightTaskLimiter.getAvailableCount(), equalTo(1));
+    }
+
     private static class FakeExecutor implements Executor {
 
         @Override
@@ -1,10 +1,12 @@
 package ru.yandex.money.common.dbqueue.internal.runner;
 
 import org.junit.Test;
+import ru.yandex.money.common.dbqueue.api.BatchQueueConsumer;
 import ru.yandex.money.common.dbqueue.api.QueueConsumer;
 import ru.yandex.money.common.dbqueue.api.TaskRecord;
 import ru.yandex.money.common.dbqueue.internal.processing.QueueProcessingStatus;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskPicker;
+import ru.yandex.money.common.dbqueue.internal.processing.TaskPrefetcher;
 import ru.yandex.money.common.dbqueue.internal.processing.TaskProcessor;
 import ru.yandex.money.common.dbqueue.settings.QueueConfig;
 import ru.yandex.money.common.dbqueue.settings.QueueId;
@@ -12,11 +14,15 @@ import ru.yandex.money.common.dbqueue.settings.QueueLocation;
 import ru.yandex.money.common.dbqueue.settings.QueueSettings;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -72,4 +78,90 @@ public class QueueRunnerInSeparateTransactionsTest {
         verify(taskProcessor).processTask(queueConsumer, taskRecord);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void should_process_all_tasks_when_batch_found() {
+        Duration betweenTaskTimeout = Duration.ofHours(1L);
+        Duration noTaskTimeout = Duration.ofMillis(5L);
+
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord firstTask = TaskRecord.builder().withId(1L).build();
+        TaskRecord secondTask = TaskRecord.builder().withId(2L).build();
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Arrays.asList(firstTask, secondTask));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(betweenTaskTimeout).withNoTaskTimeout(noTaskTimeout)
+                        .withBatchSize(2).build()));
+        QueueProcessingStatus status = new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor).runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
+
+        verify(taskPicker).pickTasks(queueConsumer);
+        verify(taskProcessor).processTask(queueConsumer, firstTask);
+        verify(taskProcessor).processTask(queueConsumer, secondTask);
+    }
+
+    @Test
+    public void should_process_whole_batch_at_once_when_batch_consumer() {
+        Duration betweenTaskTimeout = Duration.ofHours(1L);
+        Duration noTaskTimeout = Duration.ofMillis(5L);
+
+        BatchQueueConsumer queueConsumer = mock(BatchQueueConsumer.class);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        List<TaskRecord> taskRecords = Arrays.asList(TaskRecord.builder().withId(1L).build(),
+                TaskRecord.builder().withId(2L).build());
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(taskRecords);
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(betweenTaskTimeout).withNoTaskTimeout(noTaskTimeout)
+                        .withBatchSize(2).build()));
+        QueueProcessingStatus status = new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor).runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
+
+        verify(taskPicker).pickTasks(queueConsumer);
+        verify(taskProcessor).processTasks(queueConsumer, taskRecords);
+        verifyNoMoreInteractions(taskProcessor);
+    }
+
+    @Test
+    public void should_take_tasks_from_prefetcher_when_prefetching_enabled() {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskPrefetcher taskPrefetcher = mock(TaskPrefetcher.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(1L).build();
+        when(taskPrefetcher.takeTasks(1)).thenReturn(Collections.singletonList(taskRecord));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                        .withPrefetchSize(10).build()));
+        QueueProcessingStatus status = new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor, taskPrefetcher)
+                .runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
+        verify(taskProcessor).processTask(queueConsumer, taskRecord);
+        verifyZeroInteractions(taskPicker);
+    }
+
+    @Test
+    public void should_skip_when_prefetcher_is_empty() {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskPrefetcher taskPrefetcher = mock(TaskPrefetcher.class);
+        when(taskPrefetcher.takeTasks(1)).thenReturn(Collections.emptyList());
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                        .withPrefetchSize(10).build()));
+        QueueProcessingStatus status = new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor, taskPrefetcher)
+                .runQueue(queueConsumer);
+
+        assertThat(status, equalTo(QueueProcessingStatus.SKIPPED));
+        verifyZeroInteractions(taskPicker, taskProcessor);
+    }
+
+}
@@ -0,0 +1,42 @@
+package ru.yandex.money.common.dbqueue.internal.runner;
+
+import org.junit.Test;
+import ru.yandex.money.common.dbqueue.settings.QueueId;
+import ru.yandex.money.common.dbqueue.settings.QueueLocation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class ThreadPerTaskExecutorTest {
+
+    @Test
+    public void should_run_task_in_new_thread() throws Exception {
+        ThreadPerTaskExecutor executor = ThreadPerTaskExecutor.create(QueueLocation.builder()
+                .withTableName("testTable").withQueueId(new QueueId("testQueue")).build());
+        CompletableFuture<Thread> taskThread = new CompletableFuture<>();
+
+        executor.execute(() -> taskThread.complete(Thread.currentThread()));
+
+        Thread thread = taskThread.get(5L, TimeUnit.SECONDS);
+        assertThat(thread, not(equalTo(Thread.currentThread())));
+        assertThat(thread.getName().startsWith("queue-task-testQueue-"), equalTo(true));
+    }
+
+    @Test
+    public void should_detect_virtual_threads_support() {
+        String specificationVersion = System.getProperty("java.specification.version");
+        boolean isVirtualThreadsSupported = specificationVersion.indexOf('.') < 0 &&
+                Integer.parseInt(specificationVersion) >= 21;
+
+        assertThat(ThreadPerTaskExecutor.createVirtualThreadFactory("test-").isPresent(),
+                equalTo(isVirtualThreadsSupported));
+    }
+}
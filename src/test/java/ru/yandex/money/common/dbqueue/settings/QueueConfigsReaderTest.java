@@ -66,6 +66,67 @@ public class QueueConfigsReaderTest {
                                 .withNoTaskTimeout(Duration.ofSeconds(5L)).build()))));
     }
 
+    @Test
+    public void should_read_simple_config_with_notification_channel() throws Exception {
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        Collection<QueueConfig> configs = queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue.table=foo",
+                "q.testQueue.notification-channel=foo_tasks",
+                "q.testQueue.between-task-timeout=PT0.1S",
+                "q.testQueue.no-task-timeout=PT5S"));
+        assertThat(configs, equalTo(Collections.singletonList(
+                new QueueConfig(QueueLocation.builder().withTableName("foo")
+                        .withQueueId(new QueueId("testQueue")).withNotificationChannel("foo_tasks").build(),
+                        QueueSettings.builder().withBetweenTaskTimeout(Duration.ofMillis(100L))
+                                .withNoTaskTimeout(Duration.ofSeconds(5L)).build()))));
+    }
+
+    @Test
+    public void should_read_simple_config_with_partition_count() throws Exception {
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        Collection<QueueConfig> configs = queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue.table=foo",
+                "q.testQueue.partition-count=4",
+                "q.testQueue.between-task-timeout=PT0.1S",
+                "q.testQueue.no-task-timeout=PT5S"));
+        assertThat(configs, equalTo(Collections.singletonList(
+                new QueueConfig(QueueLocation.builder().withTableName("foo")
+                        .withQueueId(new QueueId("testQueue")).withPartitionCount(4).build(),
+                        QueueSettings.builder().withBetweenTaskTimeout(Duration.ofMillis(100L))
+                                .withNoTaskTimeout(Duration.ofSeconds(5L)).build()))));
+    }
+
+    @Test
+    public void should_read_simple_config_with_scheduled_table() throws Exception {
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        Collection<QueueConfig> configs = queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue.table=foo",
+                "q.testQueue.scheduled-table=foo_scheduled",
+                "q.testQueue.scheduling-threshold=PT1H",
+                "q.testQueue.between-task-timeout=PT0.1S",
+                "q.testQueue.no-task-timeout=PT5S"));
+        assertThat(configs, equalTo(Collections.singletonList(
+                new QueueConfig(QueueLocation.builder().withTableName("foo")
+                        .withQueueId(new QueueId("testQueue")).withScheduledTableName("foo_scheduled")
+                        .withSchedulingThreshold(Duration.ofHours(1L)).build(),
+                        QueueSettings.builder().withBetweenTaskTimeout(Duration.ofMillis(100L))
+                                .withNoTaskTimeout(Duration.ofSeconds(5L)).build()))));
+    }
+
+    @Test
+    public void should_require_scheduling_threshold_for_scheduled_table() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(equalTo("Cannot parse queue settings:" + System.lineSeparator() +
+                "settings must be set together: names=scheduled-table,scheduling-threshold"));
+
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue.table=foo",
+                "q.testQueue.scheduled-table=foo_scheduled",
+                "q.testQueue.between-task-timeout=PT0.1S",
+                "q.testQueue.no-task-timeout=PT5S"));
+    }
+
     @Test
     public void should_read_simple_config_with_null_override_file() throws Exception {
         QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
@@ -86,11 +147,24 @@ public class QueueConfigsReaderTest {
                 "q.testQueue.table=foo",
                 "q.testQueue.between-task-timeout=PT0.1S",
                 "q.testQueue.no-task-timeout=PT5S",
+                "q.testQueue.max-no-task-timeout=PT1M",
                 "q.testQueue.fatal-crash-timeout=PT1H",
                 "q.testQueue.thread-count=3",
+                "q.testQueue.batch-size=10",
+                "q.testQueue.prefetch-size=100",
+                "q.testQueue.polling-mode=dedicated",
+                "q.testQueue.multiplexed-weight=3",
+                "q.testQueue.max-in-flight-tasks=20",
+                "q.testQueue.rate-limit=2.5",
+                "q.testQueue.rate-limit-mode=local",
+                "q.testQueue.rate-limit-node-count=4",
+                "q.testQueue.priority-aging-interval=PT1M",
                 "q.testQueue.retry-type=linear",
                 "q.testQueue.retry-interval=PT30S",
                 "q.testQueue.processing-mode=use-external-executor",
+                "q.testQueue.acknowledgement-mode=batched",
+                "q.testQueue.acknowledgement-batch-size=50",
+                "q.testQueue.acknowledgement-flush-interval=PT0.5S",
                 "q.testQueue.additional-settings.custom=val1"
         ));
         assertThat(configs, equalTo(Collections.singletonList(
@@ -98,11 +172,24 @@ public class QueueConfigsReaderTest {
                         QueueSettings.builder()
                                 .withBetweenTaskTimeout(Duration.ofMillis(100L))
                                 .withNoTaskTimeout(Duration.ofSeconds(5L))
+                                .withMaxNoTaskTimeout(Duration.ofMinutes(1L))
                                 .withThreadCount(3)
+                                .withBatchSize(10)
+                                .withPrefetchSize(100)
+                                .withPollingMode(PollingMode.DEDICATED)
+                                .withMultiplexedWeight(3)
+                                .withMaxInFlightTasks(20)
+                                .withRateLimit(2.5)
+                                .withRateLimitMode(RateLimitMode.LOCAL)
+                                .withRateLimitNodeCount(4)
+                                .withPriorityAgingInterval(Duration.ofMinutes(1))
                                 .withFatalCrashTimeout(Duration.ofHours(1))
                                 .withRetryType(TaskRetryType.LINEAR_BACKOFF)
                                 .withRetryInterval(Duration.ofSeconds(30))
                                 .withProcessingMode(ProcessingMode.USE_EXTERNAL_EXECUTOR)
+                                .withAcknowledgementMode(AcknowledgementMode.BATCHED)
+                                .withAcknowledgementBatchSize(50)
+                                .withAcknowledgementFlushInterval(Duration.ofMillis(500L))
                                 .withAdditionalSettings(new LinkedHashMap<String, String>() {{
                                     put("custom", "val1");
                                 }})
@@ -327,7 +414,13 @@ public class QueueConfigsReaderTest {
                 "q.testQueue3.table=foo",
                 "q.testQueue3.between-task-timeout=PT0S",
                 "q.testQueue3.no-task-timeout=PT0S",
-                "q.testQueue3.processing-mode=use-external-executor"
+                "q.testQueue3.processing-mode=use-external-executor",
+
+                "q.testQueue4.table=foo",
+                "q.testQueue4.between-task-timeout=PT0S",
+                "q.testQueue4.no-task-timeout=PT0S",
+                "q.testQueue4.processing-mode=use-virtual-threads",
+                "q.testQueue4.max-in-flight-tasks=100"
         ));
         assertThat(configs.stream().collect(Collectors.toMap(
                 config -> config.getLocation().getQueueId().asString(),
@@ -336,6 +429,53 @@ public class QueueConfigsReaderTest {
                     put("testQueue1", ProcessingMode.SEPARATE_TRANSACTIONS);
                     put("testQueue2", ProcessingMode.WRAP_IN_TRANSACTION);
                     put("testQueue3", ProcessingMode.USE_EXTERNAL_EXECUTOR);
+                    put("testQueue4", ProcessingMode.USE_VIRTUAL_THREADS);
+                }}));
+    }
+
+    @Test
+    public void should_parse_polling_modes() throws Exception {
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        Collection<QueueConfig> configs = queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue1.table=foo",
+                "q.testQueue1.between-task-timeout=PT0S",
+                "q.testQueue1.no-task-timeout=PT0S",
+                "q.testQueue1.polling-mode=dedicated",
+
+                "q.testQueue2.table=foo",
+                "q.testQueue2.between-task-timeout=PT0S",
+                "q.testQueue2.no-task-timeout=PT0S",
+                "q.testQueue2.polling-mode=multiplexed"
+        ));
+        assertThat(configs.stream().collect(Collectors.toMap(
+                config -> config.getLocation().getQueueId().asString(),
+                config -> config.getSettings().getPollingMode())),
+                equalTo(new LinkedHashMap<String, PollingMode>() {{
+                    put("testQueue1", PollingMode.DEDICATED);
+                    put("testQueue2", PollingMode.MULTIPLEXED);
+                }}));
+    }
+
+    @Test
+    public void should_parse_rate_limit_modes() throws Exception {
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        Collection<QueueConfig> configs = queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue1.table=foo",
+                "q.testQueue1.between-task-timeout=PT0S",
+                "q.testQueue1.no-task-timeout=PT0S",
+                "q.testQueue1.rate-limit-mode=local",
+
+                "q.testQueue2.table=foo",
+                "q.testQueue2.between-task-timeout=PT0S",
+                "q.testQueue2.no-task-timeout=PT0S",
+                "q.testQueue2.rate-limit-mode=distributed"
+        ));
+        assertThat(configs.stream().collect(Collectors.toMap(
+                config -> config.getLocation().getQueueId().asString(),
+                config -> config.getSettings().getRateLimitMode())),
+                equalTo(new LinkedHashMap<String, RateLimitMode>() {{
+                    put("testQueue1", RateLimitMode.LOCAL);
+                    put("testQueue2", RateLimitMode.DISTRIBUTED);
                 }}));
     }
 
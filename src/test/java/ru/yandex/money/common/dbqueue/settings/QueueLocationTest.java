@@ -4,6 +4,8 @@ import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 
 /**
@@ -30,4 +32,60 @@ public class QueueLocationTest {
                 .withIdSequence(" s !@#$%^&*()._+-=1\n;'][{}").build().getIdSequence().get(), equalTo("s._1"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void should_return_same_location_when_queue_is_not_partitioned() {
+        QueueLocation location = QueueLocation.builder().withQueueId(new QueueId("1"))
+                .withTableName("t").build();
+        Assert.assertThat(location.getPartitionCount(), equalTo(1));
+        Assert.assertThat(location.getPartition(0), equalTo(location));
+        Assert.assertThat(location.getTaskPartition(5L), equalTo(0));
+    }
+
+    @Test
+    public void should_create_partition_location() {
+        QueueLocation location = QueueLocation.builder().withQueueId(new QueueId("1"))
+                .withTableName("t").withIdSequence("s").withNotificationChannel("c")
+                .withPartitionCount(4).build();
+        Assert.assertThat(location.getPartition(2), equalTo(QueueLocation.builder().withQueueId(new QueueId("1"))
+                .withTableName("t_2").withIdSequence("s_2").withNotificationChannel("c").build()));
+    }
+
+    @Test
+    public void should_define_task_partition_by_id() {
+        QueueLocation location = QueueLocation.builder().withQueueId(new QueueId("1"))
+                .withTableName("t").withPartitionCount(4).build();
+        Assert.assertThat(location.getTaskPartition(4L), equalTo(0));
+        Assert.assertThat(location.getTaskPartition(7L), equalTo(3));
+        Assert.assertThat(location.getTaskPartition(-3L), equalTo(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_location_without_partitions() {
+        QueueLocation.builder().withQueueId(new QueueId("1")).withTableName("t").withPartitionCount(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_return_partition_out_of_range() {
+        QueueLocation.builder().withQueueId(new QueueId("1")).withTableName("t").withPartitionCount(2).build()
+                .getPartition(2);
+    }
+
+    @Test
+    public void should_filter_special_chars_in_scheduled_table_name() {
+        Assert.assertThat(QueueLocation.builder().withQueueId(new QueueId("1")).withTableName("t")
+                .withScheduledTableName(" s !@#$%^&*()._+-=1\n;'][{}").withSchedulingThreshold(Duration.ofHours(1L))
+                .build().getScheduledTableName().get(), equalTo("s._1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_scheduled_table_without_threshold() {
+        QueueLocation.builder().withQueueId(new QueueId("1")).withTableName("t")
+                .withScheduledTableName("s").build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_scheduled_table_for_partitioned_queue() {
+        QueueLocation.builder().withQueueId(new QueueId("1")).withTableName("t").withPartitionCount(2)
+                .withScheduledTableName("s").withSchedulingThreshold(Duration.ofHours(1L)).build();
+    }
+}
@@ -3,6 +3,8 @@ package ru.yandex.money.common.dbqueue.settings;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Test;
 
+import java.time.Duration;
+
 /**
  * @author Oleg Kandaurov
  * @since 10.08.2017
@@ -14,4 +16,25 @@ public class QueueSettingsTest {
         EqualsVerifier.forClass(QueueSettings.class).verify();
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_batched_acknowledgement_in_transaction() {
+        QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.WRAP_IN_TRANSACTION)
+                .withAcknowledgementMode(AcknowledgementMode.BATCHED).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_batched_acknowledgement_with_flush_interval_not_less_than_retry_interval() {
+        QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO)
+                .withRetryInterval(Duration.ofSeconds(1L))
+                .withAcknowledgementMode(AcknowledgementMode.BATCHED)
+                .withAcknowledgementFlushInterval(Duration.ofSeconds(1L)).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_virtual_threads_mode_without_max_in_flight_tasks() {
+        QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.USE_VIRTUAL_THREADS).build();
+    }
+
 }
\ No newline at end of file
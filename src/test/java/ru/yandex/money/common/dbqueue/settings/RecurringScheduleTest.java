@@ -0,0 +1,73 @@
+package ru.yandex.money.common.dbqueue.settings;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Oleg Kandaurov
+ * @since 16.10.2026
+ */
+public class RecurringScheduleTest {
+
+    @Test
+    public void fixed_rate_should_align_fire_times_to_epoch() {
+        RecurringSchedule schedule = RecurringSchedule.fixedRate(Duration.ofMinutes(15));
+        assertThat(schedule.getNextFireTime(time("2026-10-16T10:07:12Z")), equalTo(time("2026-10-16T10:15:00Z")));
+        assertThat(schedule.getNextFireTime(time("2026-10-16T10:15:00Z")), equalTo(time("2026-10-16T10:30:00Z")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fixed_rate_should_not_accept_subsecond_period() {
+        RecurringSchedule.fixedRate(Duration.ofMillis(500));
+    }
+
+    @Test
+    public void cron_should_compute_next_fire_time() {
+        RecurringSchedule everyQuarter = RecurringSchedule.cron("*/15 * * * *", ZoneOffset.UTC);
+        assertThat(everyQuarter.getNextFireTime(time("2026-10-16T10:07:12Z")), equalTo(time("2026-10-16T10:15:00Z")));
+        assertThat(everyQuarter.getNextFireTime(time("2026-10-16T10:45:00Z")), equalTo(time("2026-10-16T11:00:00Z")));
+
+        RecurringSchedule workdays = RecurringSchedule.cron("0 3 * * 1-5", ZoneOffset.UTC);
+        assertThat(workdays.getNextFireTime(time("2026-10-16T10:00:00Z")), equalTo(time("2026-10-19T03:00:00Z")));
+
+        RecurringSchedule monthly = RecurringSchedule.cron("30 0 1,15 * *", ZoneOffset.UTC);
+        assertThat(monthly.getNextFireTime(time("2026-12-20T00:00:00Z")), equalTo(time("2027-01-01T00:30:00Z")));
+
+        RecurringSchedule leapDay = RecurringSchedule.cron("0 0 29 2 *", ZoneOffset.UTC);
+        assertThat(leapDay.getNextFireTime(time("2026-10-16T00:00:00Z")), equalTo(time("2028-02-29T00:00:00Z")));
+    }
+
+    @Test
+    public void cron_should_match_either_day_when_both_restricted() {
+        RecurringSchedule schedule = RecurringSchedule.cron("0 12 1 * 0", ZoneOffset.UTC);
+        assertThat(schedule.getNextFireTime(time("2026-10-16T00:00:00Z")), equalTo(time("2026-10-18T12:00:00Z")));
+        assertThat(schedule.getNextFireTime(time("2026-10-25T13:00:00Z")), equalTo(time("2026-11-01T12:00:00Z")));
+    }
+
+    @Test
+    public void cron_should_use_time_zone() {
+        RecurringSchedule schedule = RecurringSchedule.cron("0 3 * * *", ZoneId.of("Europe/Moscow"));
+        assertThat(schedule.getNextFireTime(time("2026-10-16T10:00:00Z")), equalTo(time("2026-10-17T00:00:00Z")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cron_should_not_accept_invalid_expression() {
+        RecurringSchedule.cron("0 25 * * *", ZoneOffset.UTC);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cron_should_fail_without_fire_times() {
+        RecurringSchedule.cron("0 0 31 2 *", ZoneOffset.UTC).getNextFireTime(time("2026-10-16T00:00:00Z"));
+    }
+
+    private static ZonedDateTime time(String value) {
+        return ZonedDateTime.parse(value);
+    }
+}
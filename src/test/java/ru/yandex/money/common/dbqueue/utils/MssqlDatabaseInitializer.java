@@ -7,6 +7,9 @@ import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.MSSQLServerContainer;
 import org.testcontainers.utility.TestcontainersConfiguration;
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.config.QueueShardId;
 import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
 
 import java.net.URI;
@@ -22,6 +25,7 @@ public class MssqlDatabaseInitializer {
     public static final String DEFAULT_TABLE_NAME = "queue_default";
     public static final String DEFAULT_TABLE_NAME_WO_IDENT = "queue_default_wo_ident";
     public static final String CUSTOM_TABLE_NAME = "queue_custom";
+    public static final String ROUTINES_TABLE_NAME = "queue_routines";
     public static final QueueTableSchema DEFAULT_SCHEMA = QueueTableSchema.builder().build();
     public static final QueueTableSchema CUSTOM_SCHEMA = QueueTableSchema.builder()
             .withIdField("qid")
@@ -32,8 +36,26 @@ public class MssqlDatabaseInitializer {
             .withAttemptField("at")
             .withReenqueueAttemptField("rat")
             .withTotalAttemptField("tat")
+            .withPriorityField("pr")
+            .withOrderingKeyField("ok")
+            .withDedupKeyField("dk")
             .withExtFields(Collections.singletonList("trace"))
             .build();
+    public static final QueueTableSchema ROUTINES_SCHEMA = QueueTableSchema.builder()
+            .withIdField("qid")
+            .withQueueNameField("qn")
+            .withPayloadField("pl")
+            .withCreatedAtField("ct")
+            .withNextProcessAtField("pt")
+            .withAttemptField("at")
+            .withReenqueueAttemptField("rat")
+            .withTotalAttemptField("tat")
+            .withPriorityField("pr")
+            .withOrderingKeyField("ok")
+            .withDedupKeyField("dk")
+            .withExtFields(Collections.singletonList("trace"))
+            .withServerRoutines(true)
+            .build();
 
     private static final String MS_CUSTOM_TABLE_DDL = "CREATE TABLE %s (\n" +
             "  qid    int identity(1,1) not null,\n" +
@@ -44,11 +66,18 @@ public class MssqlDatabaseInitializer {
             "  at    integer not null         default 0,\n" +
             "  rat   integer not null         default 0,\n" +
             "  tat   integer not null         default 0,\n" +
+            "  pr    integer not null         default 0,\n" +
+            "  ok    varchar(127),\n" +
+            "  dk    varchar(127),\n" +
             "  trace text \n" +
             "  primary key (qid)\n" +
             ");" +
             "CREATE INDEX %s_name_time_desc_idx\n" +
-            "  ON %s (qn, pt, qid DESC);\n" +
+            "  ON %s (qn, pr DESC, pt, qid DESC);\n" +
+            "CREATE INDEX %s_name_key_idx\n" +
+            "  ON %s (qn, ok, qid);\n" +
+            "CREATE UNIQUE INDEX %s_name_dedup_idx\n" +
+            "  ON %s (qn, dk) WHERE dk IS NOT NULL;\n" +
             "\n";
 
     private static final String MS_DEFAULT_TABLE_DDL = "CREATE TABLE %s (\n" +
@@ -116,11 +145,14 @@ public class MssqlDatabaseInitializer {
         createTable(MS_DEFAULT_TABLE_DDL, DEFAULT_TABLE_NAME);
         createTable(MS_DEFAULT_WO_IDENT_TABLE_DDL, DEFAULT_TABLE_NAME_WO_IDENT);
         createTable(MS_CUSTOM_TABLE_DDL, CUSTOM_TABLE_NAME);
+        createTable(MS_CUSTOM_TABLE_DDL, ROUTINES_TABLE_NAME);
+        new QueueShard(DatabaseDialect.MSSQL, ROUTINES_SCHEMA, new QueueShardId("routines"),
+                msJdbcTemplate, msTransactionTemplate).installRoutines(ROUTINES_TABLE_NAME);
     }
 
     private static void createTable(String ddlTemplate, String tableName) {
         initialize();
-        executeDdl(String.format(ddlTemplate, tableName, tableName, tableName));
+        executeDdl(ddlTemplate.replace("%s", tableName));
     }
 
     private static void executeDdl(String ddl) {
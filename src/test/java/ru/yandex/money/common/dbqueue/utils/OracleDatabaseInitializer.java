@@ -8,6 +8,9 @@ import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.OracleContainer;
 import org.testcontainers.utility.TestcontainersConfiguration;
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.config.QueueShardId;
 import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
 
 import java.sql.Connection;
@@ -32,6 +35,7 @@ public class OracleDatabaseInitializer {
 
     public static final String DEFAULT_TABLE_NAME = "queue_default";
     public static final String CUSTOM_TABLE_NAME = "queue_custom";
+    public static final String ROUTINES_TABLE_NAME = "queue_routines";
     public static final QueueTableSchema DEFAULT_SCHEMA = QueueTableSchema.builder().build();
     public static final QueueTableSchema CUSTOM_SCHEMA = QueueTableSchema.builder()
             .withIdField("qid")
@@ -42,8 +46,26 @@ public class OracleDatabaseInitializer {
             .withAttemptField("att")
             .withReenqueueAttemptField("rat")
             .withTotalAttemptField("tat")
+            .withPriorityField("pr")
+            .withOrderingKeyField("ok")
+            .withDedupKeyField("dk")
             .withExtFields(Collections.singletonList("trace"))
             .build();
+    public static final QueueTableSchema ROUTINES_SCHEMA = QueueTableSchema.builder()
+            .withIdField("qid")
+            .withQueueNameField("qn")
+            .withPayloadField("pl")
+            .withCreatedAtField("ct")
+            .withNextProcessAtField("pt")
+            .withAttemptField("att")
+            .withReenqueueAttemptField("rat")
+            .withTotalAttemptField("tat")
+            .withPriorityField("pr")
+            .withOrderingKeyField("ok")
+            .withDedupKeyField("dk")
+            .withExtFields(Collections.singletonList("trace"))
+            .withServerRoutines(true)
+            .build();
 
     private static final String ORA_CUSTOM_TABLE_DDL = "CREATE TABLE %s (\n" +
             "  qid     NUMBER(38) NOT NULL PRIMARY KEY,\n" +
@@ -54,6 +76,9 @@ public class OracleDatabaseInitializer {
             "  att     NUMBER(38)                  DEFAULT 0,\n" +
             "  rat    NUMBER(38)                  DEFAULT 0,\n" +
             "  tat    NUMBER(38)                  DEFAULT 0,\n" +
+            "  pr     NUMBER(38)                  DEFAULT 0,\n" +
+            "  ok     VARCHAR2(128),\n" +
+            "  dk     VARCHAR2(128),\n" +
             "  trace  VARCHAR2(512)                  DEFAULT 0\n" +
             ")";
 
@@ -97,7 +122,16 @@ public class OracleDatabaseInitializer {
 
         executeDdl("CREATE SEQUENCE tasks_seq START WITH 1");
         createTable(ORA_DEFAULT_TABLE_DDL, DEFAULT_TABLE_NAME);
+        executeDdl("CREATE INDEX " + DEFAULT_TABLE_NAME + "_name_time_idx ON " + DEFAULT_TABLE_NAME +
+                " (queue_name, next_process_at, id DESC)");
         createTable(ORA_CUSTOM_TABLE_DDL, CUSTOM_TABLE_NAME);
+        executeDdl("CREATE UNIQUE INDEX " + CUSTOM_TABLE_NAME + "_name_dedup_idx ON " + CUSTOM_TABLE_NAME +
+                " (CASE WHEN dk IS NOT NULL THEN qn END, dk)");
+        createTable(ORA_CUSTOM_TABLE_DDL, ROUTINES_TABLE_NAME);
+        executeDdl("CREATE UNIQUE INDEX " + ROUTINES_TABLE_NAME + "_name_dedup_idx ON " + ROUTINES_TABLE_NAME +
+                " (CASE WHEN dk IS NOT NULL THEN qn END, dk)");
+        new QueueShard(DatabaseDialect.ORACLE_11G, ROUTINES_SCHEMA, new QueueShardId("routines"),
+                oraJdbcTemplate, oraTransactionTemplate).installRoutines(ROUTINES_TABLE_NAME);
     }
 
     private static OracleDataSource getDataSource(OracleContainer dbContainer, String userName) {
@@ -7,7 +7,11 @@ import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.TestcontainersConfiguration;
+import ru.yandex.money.common.dbqueue.config.DatabaseDialect;
+import ru.yandex.money.common.dbqueue.config.QueueShard;
+import ru.yandex.money.common.dbqueue.config.QueueShardId;
 import ru.yandex.money.common.dbqueue.config.QueueTableSchema;
+import ru.yandex.money.common.dbqueue.dao.QueueRateLimitDao;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -21,6 +25,8 @@ public class PostgresDatabaseInitializer {
     public static final String DEFAULT_TABLE_NAME = "queue_default";
     public static final String DEFAULT_TABLE_NAME_WO_INC = "queue_default_wo_inc";
     public static final String CUSTOM_TABLE_NAME = "queue_custom";
+    public static final String ROUTINES_TABLE_NAME = "queue_routines";
+    public static final String DONE_TABLE_NAME = "queue_done";
     public static final QueueTableSchema DEFAULT_SCHEMA = QueueTableSchema.builder().build();
     public static final QueueTableSchema CUSTOM_SCHEMA = QueueTableSchema.builder()
             .withIdField("qid")
@@ -31,8 +37,31 @@ public class PostgresDatabaseInitializer {
             .withAttemptField("at")
             .withReenqueueAttemptField("rat")
             .withTotalAttemptField("tat")
+            .withPriorityField("pr")
+            .withOrderingKeyField("ok")
+            .withDedupKeyField("dk")
             .withExtFields(Collections.singletonList("trace"))
             .build();
+    public static final QueueTableSchema ROUTINES_SCHEMA = QueueTableSchema.builder()
+            .withIdField("qid")
+            .withQueueNameField("qn")
+            .withPayloadField("pl")
+            .withCreatedAtField("ct")
+            .withNextProcessAtField("pt")
+            .withAttemptField("at")
+            .withReenqueueAttemptField("rat")
+            .withTotalAttemptField("tat")
+            .withPriorityField("pr")
+            .withOrderingKeyField("ok")
+            .withDedupKeyField("dk")
+            .withExtFields(Collections.singletonList("trace"))
+            .withServerRoutines(true)
+            .build();
+    public static final QueueTableSchema DONE_SCHEMA = QueueTableSchema.builder()
+            .withOrderingKeyField("ordering_key")
+            .withDedupKeyField("dedup_key")
+            .withDoneAtField("done_at")
+            .build();
 
     private static final String PG_CUSTOM_TABLE_DDL = "CREATE TABLE %s (\n" +
             "  qid      BIGSERIAL PRIMARY KEY,\n" +
@@ -43,10 +72,17 @@ public class PostgresDatabaseInitializer {
             "  at    INTEGER                  DEFAULT 0,\n" +
             "  rat   INTEGER                  DEFAULT 0,\n" +
             "  tat   INTEGER                  DEFAULT 0,\n" +
+            "  pr    INTEGER                  DEFAULT 0,\n" +
+            "  ok    TEXT,\n" +
+            "  dk    TEXT,\n" +
             "  trace TEXT \n" +
             ");" +
             "CREATE INDEX %s_name_time_desc_idx\n" +
-            "  ON %s (qn, pt, qid DESC);\n" +
+            "  ON %s (qn, pr DESC, pt, qid DESC);\n" +
+            "CREATE INDEX %s_name_key_idx\n" +
+            "  ON %s (qn, ok, qid);\n" +
+            "CREATE UNIQUE INDEX %s_name_dedup_idx\n" +
+            "  ON %s (qn, dk);\n" +
             "\n";
 
     private static final String PG_DEFAULT_TABLE_DDL = "CREATE TABLE %s (\n" +
@@ -77,6 +113,33 @@ public class PostgresDatabaseInitializer {
             "  ON %s (queue_name, next_process_at, id DESC);\n" +
             "\n";
 
+    private static final String PG_DONE_TABLE_DDL = "CREATE TABLE %s (\n" +
+            "  id                BIGSERIAL PRIMARY KEY,\n" +
+            "  queue_name        TEXT NOT NULL,\n" +
+            "  payload           TEXT,\n" +
+            "  created_at        TIMESTAMP WITH TIME ZONE DEFAULT now(),\n" +
+            "  next_process_at   TIMESTAMP WITH TIME ZONE DEFAULT now(),\n" +
+            "  attempt           INTEGER                  DEFAULT 0,\n" +
+            "  reenqueue_attempt INTEGER                  DEFAULT 0,\n" +
+            "  total_attempt     INTEGER                  DEFAULT 0,\n" +
+            "  ordering_key      TEXT,\n" +
+            "  dedup_key         TEXT,\n" +
+            "  done_at           TIMESTAMP WITH TIME ZONE\n" +
+            ");" +
+            "CREATE INDEX %s_name_time_desc_idx\n" +
+            "  ON %s (queue_name, next_process_at, id DESC) WHERE done_at IS NULL;\n" +
+            "CREATE INDEX %s_name_key_idx\n" +
+            "  ON %s (queue_name, ordering_key, id) WHERE done_at IS NULL;\n" +
+            "CREATE UNIQUE INDEX %s_name_dedup_idx\n" +
+            "  ON %s (queue_name, dedup_key) WHERE done_at IS NULL;\n" +
+            "\n";
+
+    private static final String PG_RATE_LIMIT_TABLE_DDL = "CREATE TABLE %s (\n" +
+            "  queue_name   TEXT PRIMARY KEY,\n" +
+            "  window_start BIGINT NOT NULL,\n" +
+            "  used_count   BIGINT NOT NULL\n" +
+            ");";
+
     private static JdbcTemplate pgJdbcTemplate;
     private static TransactionTemplate pgTransactionTemplate;
 
@@ -109,6 +172,11 @@ public class PostgresDatabaseInitializer {
         createTable(PG_DEFAULT_WO_INC_TABLE_DDL, DEFAULT_TABLE_NAME_WO_INC);
         createTable(PG_DEFAULT_TABLE_DDL, DEFAULT_TABLE_NAME);
         createTable(PG_CUSTOM_TABLE_DDL, CUSTOM_TABLE_NAME);
+        createTable(PG_CUSTOM_TABLE_DDL, ROUTINES_TABLE_NAME);
+        new QueueShard(DatabaseDialect.POSTGRESQL, ROUTINES_SCHEMA, new QueueShardId("routines"),
+                pgJdbcTemplate, pgTransactionTemplate).installRoutines(ROUTINES_TABLE_NAME);
+        createTable(PG_DONE_TABLE_DDL, DONE_TABLE_NAME);
+        createTable(PG_RATE_LIMIT_TABLE_DDL, QueueRateLimitDao.DEFAULT_TABLE_NAME);
     }
 
     public static void createDefaultTable(String tableName) {
@@ -117,7 +185,7 @@ public class PostgresDatabaseInitializer {
 
     private static void createTable(String ddlTemplate, String tableName) {
         initialize();
-        executeDdl(String.format(ddlTemplate, tableName, tableName, tableName));
+        executeDdl(ddlTemplate.replace("%s", tableName));
     }
 
     private static void executeDdl(String ddl) {